@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Load test of the Redis relay between the STOMP brokers of several nodes.
+#
+# Starts NODES instances of the application on consecutive ports with broker mode redis, spreads
+# CLIENTS STOMP clients over them with RelayLoadDriver, and checks deliveries and the relay
+# metrics (websocket.relay.messages, websocket.relay.pending) of every node.
+#
+# Needs PostgreSQL and Redis as configured for the application, e.g.:
+#   docker compose up -d postgres redis
+#
+# Usage: scripts/websocket-relay-load.sh
+#   NODES=3 BASE_PORT=8081 CLIENTS=300 SENDERS=10 MESSAGES=200 \
+#   ADMIN_EMAIL=admin@elcafe.com ADMIN_PASSWORD=... scripts/websocket-relay-load.sh
+
+set -euo pipefail
+
+NODES=${NODES:-3}
+BASE_PORT=${BASE_PORT:-8081}
+CLIENTS=${CLIENTS:-300}
+SENDERS=${SENDERS:-10}
+MESSAGES=${MESSAGES:-200}
+ADMIN_EMAIL=${ADMIN_EMAIL:-admin@elcafe.com}
+ADMIN_PASSWORD=${ADMIN_PASSWORD:?ADMIN_PASSWORD must be set}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+cd "$(dirname "$0")/.."
+LOG_DIR=target/relay-load
+mkdir -p "$LOG_DIR"
+
+mvn -B -q -DskipTests package
+mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+URLS=()
+for ((i = 0; i < NODES; i++)); do
+    port=$((BASE_PORT + i))
+    WEBSOCKET_BROKER_MODE=redis SERVER_PORT=$port java -jar "$JAR" > "$LOG_DIR/node-$port.log" 2>&1 &
+    PIDS+=($!)
+    URLS+=("http://localhost:$port")
+done
+
+for url in "${URLS[@]}"; do
+    echo "Waiting for $url"
+    for ((t = 0; t < STARTUP_TIMEOUT; t++)); do
+        if curl -sf "$url/actuator/health" > /dev/null; then
+            break
+        fi
+        if ((t == STARTUP_TIMEOUT - 1)); then
+            echo "$url did not start, see $LOG_DIR" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+done
+
+LOAD_TOKEN=$(curl -sf -X POST "${URLS[0]}/api/v1/auth/login" \
+    -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$ADMIN_EMAIL\",\"password\":\"$ADMIN_PASSWORD\"}" \
+    | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+if [[ -z "$LOAD_TOKEN" ]]; then
+    echo "Login as $ADMIN_EMAIL failed" >&2
+    exit 1
+fi
+export LOAD_TOKEN
+
+NODE_URLS=$(IFS=,; echo "${URLS[*]}")
+java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" \
+    com.elcafe.modules.waiter.websocket.RelayLoadDriver "$NODE_URLS" "$CLIENTS" "$SENDERS" "$MESSAGES"
@@ -1,23 +1,95 @@
 package com.elcafe.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Executors for @Async work, bounded and separate per domain, so a slow SMS gateway or a burst of
+ * audit writes cannot hold up the threads pushing kitchen updates. Each propagates the MDC and
+ * security context and is measured under its bean name, the {@code name} tag Spring Boot gives its
+ * pool and queue gauges: queue wait and run time and rejections are recorded here.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("taskExecutor", "async-", properties.getTask(), meterRegistry);
+    }
+
+    @Bean(name = "auditExecutor")
+    public Executor auditExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("auditExecutor", "audit-", properties.getAudit(), meterRegistry);
+    }
+
+    @Bean(name = "websocketExecutor")
+    public Executor websocketExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("websocketExecutor", "websocket-", properties.getWebsocket(), meterRegistry);
+    }
+
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("notificationExecutor", "notification-", properties.getNotification(), meterRegistry);
+    }
+
+    @Bean(name = "analyticsExecutor")
+    public Executor analyticsExecutor(AsyncExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("analyticsExecutor", "analytics-", properties.getAnalytics(), meterRegistry);
+    }
+
+    /**
+     * Resizes uploaded images. Bounded, so a burst of uploads cannot pile decoded images up in
+     * memory: once the queue is full, the uploading thread resizes its own image.
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public Executor imageProcessingExecutor(FileStorageProperties properties, MeterRegistry meterRegistry) {
+        return create("imageProcessingExecutor", "image-", new AsyncExecutorProperties.Pool(
+                properties.getImage().getWorkerThreads(),
+                properties.getImage().getWorkerThreads(),
+                properties.getImage().getQueueCapacity(),
+                AsyncExecutorProperties.Rejection.CALLER_RUNS,
+                false), meterRegistry);
+    }
+
+    private static ThreadPoolTaskExecutor create(String beanName, String threadNamePrefix,
+                                                 AsyncExecutorProperties.Pool pool, MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-");
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(Math.max(pool.getCoreSize(), pool.getMaxSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (Boolean.TRUE.equals(pool.getVirtualThreads())) {
+            // Still bounded by the pool size; each pool thread is virtual
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        }
+        executor.setTaskDecorator(new InstrumentedTaskDecorator(beanName, meterRegistry));
+
+        RejectedExecutionHandler policy = switch (pool.getRejection()) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+        };
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks that found the queue and the threads full")
+                .tag("name", beanName)
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        });
+
+        // Queued tasks still run on shutdown, so audit rows and notifications are not lost
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         executor.initialize();
         return executor;
     }
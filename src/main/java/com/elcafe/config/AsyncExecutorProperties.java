@@ -0,0 +1,82 @@
+package com.elcafe.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the executors running @Async work, one per domain so a backlog in
+ * one cannot take the threads of another
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncExecutorProperties {
+
+    /**
+     * Default executor, for @Async methods that name none
+     */
+    private Pool task = new Pool(5, 10, 100, Rejection.CALLER_RUNS, false);
+
+    /**
+     * Audit trails: order events and login codes
+     */
+    private Pool audit = new Pool(2, 4, 1000, Rejection.CALLER_RUNS, false);
+
+    /**
+     * Waiter and kitchen updates pushed over WebSocket
+     */
+    private Pool websocket = new Pool(4, 8, 500, Rejection.CALLER_RUNS, false);
+
+    /**
+     * Outgoing SMS and other notifications, which wait on external gateways
+     */
+    private Pool notification = new Pool(2, 8, 200, Rejection.ABORT, true);
+
+    /**
+     * Reporting and analytics computations
+     */
+    private Pool analytics = new Pool(1, 2, 50, Rejection.ABORT, false);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        /**
+         * Threads kept running
+         */
+        private Integer coreSize;
+
+        /**
+         * Threads at most, started once the queue is full
+         */
+        private Integer maxSize;
+
+        /**
+         * Tasks waiting for a thread at most
+         */
+        private Integer queueCapacity;
+
+        /**
+         * What happens to a task when the queue and the threads are full
+         */
+        private Rejection rejection;
+
+        /**
+         * Run the tasks on virtual threads; suits executors that mostly wait on I/O
+         */
+        private Boolean virtualThreads;
+    }
+
+    public enum Rejection {
+        /** The submitting thread runs the task itself, which slows submitters down */
+        CALLER_RUNS,
+        /** The task is refused with an exception to the submitter */
+        ABORT,
+        /** The task is dropped */
+        DISCARD
+    }
+}
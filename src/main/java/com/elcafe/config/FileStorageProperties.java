@@ -0,0 +1,83 @@
+package com.elcafe.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for uploaded files and the images derived from them
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.file")
+public class FileStorageProperties {
+
+    /**
+     * Directory uploaded files are stored in
+     */
+    private String uploadDir = "uploads";
+
+    /**
+     * Public URL the upload directory is served under
+     */
+    private String baseUrl = "http://localhost:8080/uploads";
+
+    /**
+     * Seconds clients and proxies may cache a served upload; uploads are never rewritten in place
+     */
+    private Long cacheMaxAgeSeconds = 31536000L;
+
+    /**
+     * Smallest response in bytes handed to the connector's sendfile instead of copied by the request thread
+     */
+    private Long sendfileMinBytes = 49152L;
+
+    private Image image = new Image();
+
+    @Data
+    public static class Image {
+
+        /**
+         * Generate resized copies of uploaded images
+         */
+        private Boolean derivativesEnabled = true;
+
+        /**
+         * Largest image accepted, in pixels (width x height), checked from the header before decoding
+         */
+        private Long maxPixels = 40_000_000L;
+
+        /**
+         * Widths in pixels of the resized copies; images are never scaled up
+         */
+        private List<Integer> widths = new ArrayList<>(List.of(160, 320, 640, 1024));
+
+        /**
+         * Width of the copy menu lists show
+         */
+        private Integer thumbnailWidth = 320;
+
+        /**
+         * JPEG compression quality of the resized copies, between 0 and 1
+         */
+        private Float jpegQuality = 0.8f;
+
+        /**
+         * Also write WebP copies, when an ImageIO WebP writer is on the classpath
+         */
+        private Boolean webpEnabled = true;
+
+        /**
+         * Number of threads resizing images
+         */
+        private Integer workerThreads = 2;
+
+        /**
+         * Images waiting to be resized before uploads resize their own image
+         */
+        private Integer queueCapacity = 50;
+    }
+}
@@ -0,0 +1,69 @@
+package com.elcafe.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries the logging MDC and the security context of the submitting thread over to an async task,
+ * and times how long tasks wait in the queue ({@code executor.idle}) and run ({@code executor}),
+ * next to the pool metrics Spring Boot records per executor. The executor is tagged with its bean
+ * name, as Spring Boot tags those, so all meters of one executor share a {@code name}.
+ */
+public class InstrumentedTaskDecorator implements TaskDecorator {
+
+    private final Timer idle;
+    private final Timer execution;
+
+    public InstrumentedTaskDecorator(String executorBeanName, MeterRegistry meterRegistry) {
+        this.idle = Timer.builder("executor.idle")
+                .description("Time tasks wait in the queue")
+                .tag("name", executorBeanName)
+                .register(meterRegistry);
+        this.execution = Timer.builder("executor")
+                .description("Time tasks take to run")
+                .tag("name", executorBeanName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        long submittedAt = System.nanoTime();
+
+        return () -> {
+            long startedAt = System.nanoTime();
+            idle.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+
+            // Restored afterwards: with caller-runs rejection the task runs on the submitting thread
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            setMdc(mdc);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.setContext(previousSecurityContext);
+                setMdc(previousMdc);
+                execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+}
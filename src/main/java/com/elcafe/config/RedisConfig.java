@@ -1,9 +1,13 @@
 package com.elcafe.config;
 
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.config.cache.TwoLevelCacheProperties;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +15,14 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.Duration;
 
@@ -41,8 +50,28 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Template for values that are already serialized, e.g. pre-rendered menu snapshots
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, byte[]> byteArrayRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+
+        return template;
+    }
+
+    /**
+     * Spring cache manager: a bounded in-process L1 per cache in front of Redis
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             MeterRegistry meterRegistry,
+                                             TwoLevelCacheProperties cacheProperties) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -55,10 +84,41 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
-                .withCacheConfiguration("menu", defaultConfig.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("restaurant", defaultConfig.entryTtl(Duration.ofHours(1)))
+                .withCacheConfiguration("menu", defaultConfig.entryTtl(Duration.ofSeconds(cacheProperties.getMenuTtl())))
+                .withCacheConfiguration("restaurant", defaultConfig.entryTtl(Duration.ofSeconds(cacheProperties.getRestaurantTtl())))
+                .withCacheConfiguration("productList", defaultConfig.entryTtl(Duration.ofSeconds(cacheProperties.getMenuTtl())))
+                .withCacheConfiguration("principal", defaultConfig.entryTtl(Duration.ofSeconds(cacheProperties.getPrincipalTtl()))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(principalSerializer(objectMapper))))
+                .withCacheConfiguration("customerIdentity", defaultConfig.entryTtl(Duration.ofSeconds(cacheProperties.getCustomerIdentityTtl())))
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, meterRegistry, cacheProperties);
+    }
+
+    /**
+     * Principals are read back as {@link UserDetails}, so they are stored with their class. Only
+     * classes of the security package are accepted when reading.
+     */
+    private static GenericJackson2JsonRedisSerializer principalSerializer(ObjectMapper objectMapper) {
+        ObjectMapper typed = objectMapper.copy();
+        typed.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder().allowIfSubType("com.elcafe.security.").build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(typed);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TwoLevelCacheManager cacheManager,
+                                                                       TwoLevelCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+
+        return container;
     }
 }
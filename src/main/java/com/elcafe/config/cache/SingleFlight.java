@@ -0,0 +1,42 @@
+package com.elcafe.config.cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent loads of the same key: the first caller runs the loader, the others wait
+ * for its result. Nothing is kept once the load completes.
+ */
+public final class SingleFlight<V> {
+
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run {@code loader} unless another thread is already loading the key, in which case wait for its result
+     */
+    public V load(String key, Callable<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            V value = loader.call();
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw e instanceof RuntimeException re ? re : new CompletionException(e);
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.elcafe.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache that serves from an in-process {@link LocalCacheStore} and falls back to Redis.
+ *
+ * Writes and evictions go to Redis first, then to the local store, and are broadcast so the
+ * other nodes drop their local copy. Concurrent misses on the same key are collapsed into a
+ * single Redis read, and for {@code @Cacheable(sync = true)} into a single value load.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache remote;
+    private final LocalCacheStore local;
+    private final TwoLevelCacheManager cacheManager;
+
+    private final SingleFlight<Object> loads = new SingleFlight<>();
+
+    TwoLevelCache(String name, Cache remote, LocalCacheStore local, TwoLevelCacheManager cacheManager,
+                  boolean allowNullValues) {
+        super(allowNullValues);
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object cached = local.get(localKey);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.load(localKey, () -> lookupRemote(key, localKey));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+
+        try {
+            Object loaded = loads.load(localKey, () -> {
+                Object current = local.get(localKey);
+                if (current == null) {
+                    current = lookupRemote(key, localKey);
+                }
+                if (current == null) {
+                    T value = valueLoader.call();
+                    put(key, value);
+                    current = toStoreValue(value);
+                }
+                return current;
+            });
+            return (T) fromStoreValue(loaded);
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (RuntimeException e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        local.put(localKey, toStoreValue(value));
+        cacheManager.publishEviction(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        cacheManager.invalidateLocal(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        cacheManager.clearLocal(name);
+    }
+
+    private Object lookupRemote(Object key, String localKey) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object storeValue = toStoreValue(wrapper.get());
+        local.put(localKey, storeValue);
+        return storeValue;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,155 @@
+package com.elcafe.config.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that puts an in-process L1 ({@link LocalCacheStore}) in front of each Redis cache.
+ *
+ * Every node subscribes to the invalidation channel; when one node writes or evicts an entry it
+ * publishes the cache name and key, and the other nodes drop their local copy so the next read
+ * goes to Redis. Local stores are also available on their own, for caches that keep their L2
+ * outside the Spring cache abstraction.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final char SEPARATOR = '\t';
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TwoLevelCacheProperties properties;
+
+    /** Identifies this node's own invalidation messages */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, LocalCacheStore> localStores = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry, TwoLevelCacheProperties properties) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remote = redisCacheManager.getCache(cacheName);
+            if (remote == null || !Boolean.TRUE.equals(properties.getLocal().getEnabled())) {
+                return remote;
+            }
+            boolean allowNullValues = !(remote instanceof RedisCache redisCache) || redisCache.isAllowNullValues();
+            return new TwoLevelCache(cacheName, remote, getLocalStore(cacheName), this, allowNullValues);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(redisCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return names;
+    }
+
+    /**
+     * In-process store for the given cache name, created with the configured bounds and metrics on first use
+     */
+    public LocalCacheStore getLocalStore(String cacheName) {
+        return localStores.computeIfAbsent(cacheName, this::createLocalStore);
+    }
+
+    /**
+     * Drop a key from the local store on this node and on every other node
+     */
+    public void invalidateLocal(String cacheName, String key) {
+        getLocalStore(cacheName).evict(key);
+        publishEviction(cacheName, key);
+    }
+
+    /**
+     * Clear the local store on this node and on every other node
+     */
+    public void clearLocal(String cacheName) {
+        getLocalStore(cacheName).clear();
+        publish(nodeId + SEPARATOR + cacheName);
+    }
+
+    void publishEviction(String cacheName, String key) {
+        publish(nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        LocalCacheStore store = localStores.get(parts[1]);
+        if (store == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            store.evict(parts[2]);
+        } else {
+            store.clear();
+        }
+        log.trace("Applied remote cache invalidation for {}", parts[1]);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), message);
+        } catch (RuntimeException e) {
+            // Other nodes still drop the entry when their local TTL runs out
+            log.warn("Could not publish cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private LocalCacheStore createLocalStore(String cacheName) {
+        TwoLevelCacheProperties.Local local = properties.getLocal();
+        LocalCacheStore store = new LocalCacheStore(local.getMaxSize(), Duration.ofSeconds(local.getTtlSeconds()));
+
+        FunctionCounter.builder("cache.local.gets", store, LocalCacheStore::hitCount)
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("In-process cache lookups")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.local.gets", store, LocalCacheStore::missCount)
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("In-process cache lookups")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.local.evictions", store, LocalCacheStore::evictionCount)
+                .tag("cache", cacheName)
+                .description("Entries evicted from the in-process cache because it was full")
+                .register(meterRegistry);
+        Gauge.builder("cache.local.size", store, LocalCacheStore::size)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.local.hit.ratio", store, LocalCacheStore::hitRatio)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+
+        return store;
+    }
+}
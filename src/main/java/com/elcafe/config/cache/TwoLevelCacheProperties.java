@@ -0,0 +1,60 @@
+package com.elcafe.config.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the application caches (in-process L1 in front of Redis)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class TwoLevelCacheProperties {
+
+    /**
+     * Redis TTL of the menu cache in seconds
+     */
+    private Long menuTtl = 1800L;
+
+    /**
+     * Redis TTL of the restaurant cache in seconds
+     */
+    private Long restaurantTtl = 3600L;
+
+    /**
+     * Redis TTL of cached authentication principals in seconds
+     */
+    private Long principalTtl = 300L;
+
+    /**
+     * Redis TTL of cached customer IDs by phone number in seconds
+     */
+    private Long customerIdentityTtl = 3600L;
+
+    /**
+     * Redis pub/sub channel used to drop L1 entries on the other nodes
+     */
+    private String invalidationChannel = "cache:invalidation";
+
+    private Local local = new Local();
+
+    @Data
+    public static class Local {
+
+        /**
+         * Keep an in-process copy of cache entries in front of Redis
+         */
+        private Boolean enabled = true;
+
+        /**
+         * Maximum number of entries per cache held in process
+         */
+        private Integer maxSize = 10000;
+
+        /**
+         * Seconds an in-process entry is served before it is re-read from Redis
+         */
+        private Long ttlSeconds = 60L;
+    }
+}
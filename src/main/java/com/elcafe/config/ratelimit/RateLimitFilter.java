@@ -0,0 +1,81 @@
+package com.elcafe.config.ratelimit;
+
+import com.elcafe.security.JwtUtil;
+import com.elcafe.utils.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Refuses requests over their rate limits with 429 and Retry-After.
+ *
+ * Runs ahead of authentication, so excess requests are shed before any principal or entity is
+ * loaded. Per-client limits identify the caller by the subject of a valid bearer token; tokens are
+ * verified through the same cache the authentication filter uses next.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimiter rateLimiter;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        // CORS preflights carry no work
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Rejection rejection = rateLimiter.tryAcquire(request.getMethod(),
+                PATH_HELPER.getPathWithinApplication(request), request.getRemoteAddr(), () -> clientOf(request));
+        if (rejection == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limit {} exceeded by {} on {}", rejection.limit(), request.getRemoteAddr(), request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests. Please retry in " + rejection.retryAfterSeconds() + " second(s)."));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtUtil.verify(authHeader.substring(7)).subject();
+        } catch (Exception e) {
+            // Invalid tokens are rejected by authentication; limit them by address meanwhile
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.elcafe.config.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for request rate limits on the API
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Enable/disable rate limiting of API requests
+     */
+    private Boolean enabled = true;
+
+    /**
+     * Share consumption between nodes through Redis, so limits hold cluster-wide
+     */
+    private Boolean redisSyncEnabled = false;
+
+    /**
+     * Delay between two exchanges of consumption with Redis in milliseconds
+     */
+    private Long redisSyncIntervalMs = 1000L;
+
+    /**
+     * Buckets kept in memory; keys beyond it share one bucket per limit until idle buckets are dropped
+     */
+    private Integer maxBuckets = 100000;
+
+    /**
+     * Limits, all of which a request must pass
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * Name of the limit, used in metrics and Redis keys
+         */
+        private String name;
+
+        /**
+         * Ant-style path patterns the limit applies to
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * HTTP methods the limit applies to; empty for all
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * What a bucket is kept for
+         */
+        private KeyType key = KeyType.IP;
+
+        /**
+         * Requests a full bucket allows at once
+         */
+        private Integer capacity = 60;
+
+        /**
+         * Requests per second added back to the bucket
+         */
+        private Double refillPerSecond = 1.0;
+    }
+
+    public enum KeyType {
+        /** Authenticated user or consumer, falling back to the IP address for anonymous requests */
+        CLIENT,
+        /** Client IP address, as the connector sees it (set server.forward-headers-strategy behind a proxy) */
+        IP,
+        /** One bucket for every caller of the endpoint class */
+        ENDPOINT
+    }
+}
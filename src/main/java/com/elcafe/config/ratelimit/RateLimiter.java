@@ -0,0 +1,225 @@
+package com.elcafe.config.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Token-bucket limits for API requests, configured under {@code app.rate-limit.rules}.
+ *
+ * Buckets are kept per limit and key in memory. With Redis synchronisation on, every node adds
+ * what it took from each active bucket to a shared counter at a fixed interval and takes what the
+ * other nodes consumed meanwhile out of its own bucket, so a limit holds across the cluster to
+ * within one interval without a Redis round trip per request.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String REDIS_KEY = "ratelimit:";
+    private static final String OVERFLOW_KEY = "*";
+
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    private final List<Limit> limits;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.limits = properties.getRules().stream()
+                .map(rule -> new Limit(rule, meterRegistry))
+                .toList();
+        Gauge.builder("http.ratelimit.buckets", buckets, Map::size)
+                .description("Rate limit buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A refused request: the limit it exceeded and the seconds until it would pass
+     */
+    public record Rejection(String limit, long retryAfterSeconds) {
+    }
+
+    /**
+     * Take a token from every limit the request falls under
+     *
+     * @param client identity of the caller, asked for only when a per-client limit applies
+     * @return null if the request may proceed
+     */
+    public Rejection tryAcquire(String method, String path, String ipAddress, Supplier<String> client) {
+        if (!Boolean.TRUE.equals(properties.getEnabled()) || limits.isEmpty()) {
+            return null;
+        }
+
+        PathContainer pathContainer = null;
+        String clientKey = null;
+        for (Limit limit : limits) {
+            if (!limit.appliesTo(method)) {
+                continue;
+            }
+            if (pathContainer == null) {
+                pathContainer = PathContainer.parsePath(path);
+            }
+            if (!limit.matches(pathContainer)) {
+                continue;
+            }
+
+            String key = switch (limit.rule.getKey()) {
+                case ENDPOINT -> OVERFLOW_KEY;
+                case IP -> ipAddress;
+                case CLIENT -> {
+                    if (clientKey == null) {
+                        String identity = client.get();
+                        clientKey = identity != null ? "c:" + identity : "ip:" + ipAddress;
+                    }
+                    yield clientKey;
+                }
+            };
+
+            long now = System.nanoTime();
+            long waitNanos = bucket(limit, key, now).tryTake(now);
+            if (waitNanos > 0) {
+                limit.rejected.increment();
+                return new Rejection(limit.rule.getName(), Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+            }
+            limit.allowed.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Exchange consumption of active buckets with the other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.redis-sync-interval-ms:1000}")
+    public void synchronize() {
+        if (!Boolean.TRUE.equals(properties.getEnabled()) || !Boolean.TRUE.equals(properties.getRedisSyncEnabled())) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<TokenBucket> active = new ArrayList<>();
+        List<Long> taken = new ArrayList<>();
+        buckets.forEach((key, bucket) -> {
+            long count = bucket.drainUnsynced();
+            if (count > 0) {
+                keys.add(key);
+                active.add(bucket);
+                taken.add(count);
+            }
+        });
+        if (active.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    increment(connection, keys.get(i), taken.get(i), active.get(i));
+                }
+                return null;
+            });
+
+            long now = System.nanoTime();
+            for (int i = 0; i < active.size(); i++) {
+                if (results.get(i * 2) instanceof Long total) {
+                    active.get(i).applyClusterTotal(total, taken.get(i), now);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Limits fall back to this node's own view until Redis is back
+            log.warn("Failed to synchronise {} rate limit buckets: {}", active.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop buckets that refilled, so one-off callers do not accumulate
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private TokenBucket bucket(Limit limit, String key, long now) {
+        String bucketKey = limit.rule.getName() + ":" + key;
+        TokenBucket bucket = buckets.get(bucketKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxBuckets()) {
+            // Too many distinct callers: the newcomers share one bucket until idle ones are dropped
+            bucketKey = limit.rule.getName() + ":" + OVERFLOW_KEY;
+        }
+        return buckets.computeIfAbsent(bucketKey,
+                ignored -> new TokenBucket(limit.rule.getCapacity(), limit.rule.getRefillPerSecond(), now));
+    }
+
+    private void increment(RedisConnection connection, String key, long count, TokenBucket bucket) {
+        byte[] redisKey = (REDIS_KEY + key).getBytes(StandardCharsets.UTF_8);
+        connection.stringCommands().incrBy(redisKey, count);
+        // Kept as long as the count still matters to a bucket, and a few sync rounds at least
+        connection.keyCommands().pExpire(redisKey, Math.max(bucket.refillMillis(), properties.getRedisSyncIntervalMs() * 10));
+    }
+
+    private static final class Limit {
+
+        private final RateLimitProperties.Rule rule;
+        private final List<PathPattern> patterns;
+        private final Set<String> methods;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private Limit(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.patterns = rule.getPaths().stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.methods = rule.getMethods().stream()
+                    .map(method -> method.trim().toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.allowed = Counter.builder("http.ratelimit.requests")
+                    .tag("limit", rule.getName())
+                    .tag("outcome", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("http.ratelimit.requests")
+                    .tag("limit", rule.getName())
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry);
+        }
+
+        private boolean appliesTo(String method) {
+            return methods.isEmpty() || methods.contains(method);
+        }
+
+        private boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.elcafe.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * The whole state is one timestamp: the moment the bucket will be full again. Taking a token moves
+ * it one refill interval later, and is refused when that would put it more than a full bucket's
+ * refill time ahead. Tokens taken are also counted for synchronisation with other nodes.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private final AtomicLong fullAt;
+    private final AtomicLong unsynced = new AtomicLong();
+
+    /** Cluster-wide count last read from Redis; negative before the first exchange */
+    private long lastSeenTotal = -1;
+    private long lastSyncedAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+        this.lastSyncedAt = now;
+    }
+
+    /**
+     * Take a token
+     *
+     * @return zero if taken, otherwise the nanoseconds until a token is available
+     */
+    long tryTake(long now) {
+        while (true) {
+            long full = fullAt.get();
+            long next = Math.max(full, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (fullAt.compareAndSet(full, next)) {
+                unsynced.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Tokens taken here since the last call
+     */
+    long drainUnsynced() {
+        return unsynced.getAndSet(0);
+    }
+
+    /**
+     * Take the tokens other nodes consumed since the last exchange, given the cluster-wide count
+     * after adding this node's share
+     */
+    synchronized void applyClusterTotal(long total, long takenHere, long now) {
+        // Consumption older than a full refill no longer matters, nor does a counter Redis expired
+        boolean stale = lastSeenTotal < 0 || now - lastSyncedAt > burstNanos || total < lastSeenTotal;
+        long foreign = stale ? 0 : total - lastSeenTotal - takenHere;
+        lastSeenTotal = total;
+        lastSyncedAt = now;
+        if (foreign > 0) {
+            long debit = foreign > burstNanos / intervalNanos ? burstNanos : foreign * intervalNanos;
+            fullAt.updateAndGet(full -> Math.min(Math.max(full, now) + debit, now + burstNanos));
+        }
+    }
+
+    /**
+     * Full and with nothing left to synchronise, so it can be dropped and recreated on demand
+     */
+    boolean isIdle(long now) {
+        return fullAt.get() <= now && unsynced.get() == 0;
+    }
+
+    /**
+     * Milliseconds a full bucket takes to drain and refill
+     */
+    long refillMillis() {
+        return burstNanos / 1_000_000L;
+    }
+}
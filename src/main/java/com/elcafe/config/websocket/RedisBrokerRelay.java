@@ -0,0 +1,305 @@
+package com.elcafe.config.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Passes STOMP messages between the in-memory brokers of all nodes over Redis pub/sub.
+ *
+ * Every message a node sends to its broker for {@code /topic}, {@code /queue} or {@code /user}
+ * destinations is also published, and the other nodes hand it to their own broker, so subscribers
+ * receive it wherever they are connected. User destinations are relayed unresolved and each node
+ * resolves them against its own sessions. Destinations are spread over a fixed number of channels
+ * by hash, and messages are published in batches per channel, a few milliseconds apart or once a
+ * batch is full; one destination always uses one channel, and each channel is read on a single
+ * thread, so messages to a destination arrive in the order they were published. Delivery is at
+ * most once: a node that falls far enough behind is disconnected by Redis once its pub/sub output
+ * buffer limit is hit, and misses what was buffered for it.
+ *
+ * The interval flush runs on the relay's own thread rather than the shared scheduler, so a
+ * slow job elsewhere does not hold messages back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.websocket.broker", name = "mode", havingValue = "redis")
+public class RedisBrokerRelay implements ChannelInterceptor, MessageListener {
+
+    /** Marks messages received from another node, so they are not published again */
+    private static final String RELAYED_HEADER = "relayedFrom";
+    private static final String[] RELAYED_PREFIXES = {"/topic/", "/queue/", "/user/"};
+
+    private final WebSocketBrokerProperties.Redis properties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessageChannel brokerChannel;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Shard[] shards;
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter dropped;
+    private final Counter batches;
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Messages as published, in batches with the node that sent them
+     */
+    record Batch(String node, List<Relayed> messages) {
+    }
+
+    record Relayed(String destination, String contentType, byte[] payload) {
+    }
+
+    public RedisBrokerRelay(WebSocketBrokerProperties properties,
+                            StringRedisTemplate redisTemplate,
+                            RedisConnectionFactory connectionFactory,
+                            ObjectMapper objectMapper,
+                            @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties.getRedis();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.brokerChannel = brokerChannel;
+        this.meterRegistry = meterRegistry;
+
+        this.shards = new Shard[Math.max(1, this.properties.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(this.properties.getChannelPrefix() + i);
+        }
+
+        // Own container dispatching on its subscription thread: the shared one hands every
+        // message to a new thread, which would reorder them
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.setTaskExecutor(new SyncTaskExecutor());
+        listenerContainer.afterPropertiesSet();
+
+        this.published = meterRegistry.counter("websocket.relay.messages", "outcome", "published");
+        this.received = meterRegistry.counter("websocket.relay.messages", "outcome", "received");
+        this.dropped = meterRegistry.counter("websocket.relay.messages", "outcome", "dropped");
+        this.batches = meterRegistry.counter("websocket.relay.batches");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        Gauge.builder("websocket.relay.pending", this, RedisBrokerRelay::pending)
+                .description("Messages waiting to be published to the other nodes")
+                .register(meterRegistry);
+        for (Shard shard : shards) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(shard.channel));
+        }
+        listenerContainer.start();
+
+        long interval = properties.getFlushIntervalMs();
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("websocket-relay-flush").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Relaying WebSocket messages over {} Redis channels as node {}", shards.length, nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        flush();
+        listenerContainer.destroy();
+    }
+
+    /**
+     * Queue messages sent to the local broker for the other nodes
+     */
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(RELAYED_HEADER)) {
+            return message;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        // User destinations resolved to local sessions were relayed before resolution
+        if (!isRelayed(destination) || accessor.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION) != null) {
+            return message;
+        }
+
+        byte[] payload = switch (message.getPayload()) {
+            case byte[] bytes -> bytes;
+            case String text -> text.getBytes(StandardCharsets.UTF_8);
+            default -> null;
+        };
+        if (payload == null) {
+            log.warn("Not relaying message to {} with unserialized payload {}", destination,
+                    message.getPayload().getClass().getName());
+            return message;
+        }
+
+        MimeType contentType = accessor.getContentType();
+        Shard shard = shards[Math.floorMod(destination.hashCode(), shards.length)];
+        if (shard.pending.incrementAndGet() > properties.getMaxPending()) {
+            shard.pending.decrementAndGet();
+            dropped.increment();
+            return message;
+        }
+        shard.queue.add(new Relayed(destination, contentType != null ? contentType.toString() : null, payload));
+        if (shard.pending.get() >= properties.getBatchSize()) {
+            flush(shard, false);
+        }
+        return message;
+    }
+
+    /**
+     * Publish what is queued, at least every flush interval
+     */
+    public void flush() {
+        for (Shard shard : shards) {
+            try {
+                flush(shard, true);
+            } catch (RuntimeException e) {
+                // An exception would cancel the periodic flush
+                log.warn("WebSocket relay flush failed on {}: {}", shard.channel, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param wait wait for a publish in progress rather than leave the messages to it
+     */
+    private void flush(Shard shard, boolean wait) {
+        if (wait) {
+            shard.lock.lock();
+        } else if (!shard.lock.tryLock()) {
+            return;
+        }
+        try {
+            while (!shard.queue.isEmpty()) {
+                List<Relayed> messages = new ArrayList<>(Math.min(shard.pending.get(), properties.getBatchSize()));
+                Relayed next;
+                while (messages.size() < properties.getBatchSize() && (next = shard.queue.poll()) != null) {
+                    messages.add(next);
+                }
+                shard.pending.addAndGet(-messages.size());
+                publish(shard.channel, messages);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void publish(String channel, List<Relayed> messages) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(new Batch(nodeId, messages)));
+            published.increment(messages.size());
+            batches.increment();
+        } catch (Exception e) {
+            // Local subscribers already have them; the other nodes miss this batch
+            dropped.increment(messages.size());
+            log.warn("Failed to relay {} WebSocket messages on {}: {}", messages.size(), channel, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        Batch batch;
+        try {
+            batch = objectMapper.readValue(message.getBody(), Batch.class);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable WebSocket relay batch: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(batch.node()) || batch.messages() == null) {
+            return;
+        }
+
+        for (Relayed relayed : batch.messages()) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(relayed.destination());
+            if (relayed.contentType() != null) {
+                accessor.setContentType(MimeTypeUtils.parseMimeType(relayed.contentType()));
+            }
+            accessor.setHeader(RELAYED_HEADER, batch.node());
+            try {
+                brokerChannel.send(MessageBuilder.createMessage(relayed.payload(), accessor.getMessageHeaders()));
+                received.increment();
+            } catch (RuntimeException e) {
+                log.warn("Failed to deliver relayed message to {}: {}", relayed.destination(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isRelayed(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String prefix : RELAYED_PREFIXES) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double pending() {
+        int pending = 0;
+        for (Shard shard : shards) {
+            pending += shard.pending.get();
+        }
+        return pending;
+    }
+
+    /**
+     * Messages waiting for one channel. Publishing holds the lock, so batches leave in order.
+     */
+    private static final class Shard {
+
+        private final String channel;
+        private final Queue<Relayed> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Shard(String channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.elcafe.config.websocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the STOMP message broker behind the WebSocket endpoints
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket.broker")
+public class WebSocketBrokerProperties {
+
+    /**
+     * Broker that delivers messages to subscribers
+     */
+    private Mode mode = Mode.SIMPLE;
+
+    private Redis redis = new Redis();
+
+    public enum Mode {
+        /** In-memory broker; messages reach only clients connected to the sending node */
+        SIMPLE,
+        /** In-memory broker per node, with messages passed between nodes over Redis pub/sub */
+        REDIS
+    }
+
+    @Data
+    public static class Redis {
+
+        /**
+         * Prefix of the pub/sub channels, followed by the shard number
+         */
+        private String channelPrefix = "ws:relay:";
+
+        /**
+         * Channels destinations are spread over; messages to one destination always share a channel
+         */
+        private Integer shards = 4;
+
+        /**
+         * Messages published together at most
+         */
+        private Integer batchSize = 100;
+
+        /**
+         * Longest a message waits to be published with others in milliseconds
+         */
+        private Long flushIntervalMs = 10L;
+
+        /**
+         * Messages waiting to be published at most; further ones reach local clients only
+         */
+        private Integer maxPending = 10000;
+    }
+}
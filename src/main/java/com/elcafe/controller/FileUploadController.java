@@ -40,7 +40,9 @@ public class FileUploadController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete file")
     public ResponseEntity<ApiResponse<Void>> deleteFile(@RequestParam String fileUrl) {
-        fileUploadService.deleteFile(fileUrl);
+        if (!fileUploadService.deleteFile(fileUrl)) {
+            return ResponseEntity.ok(ApiResponse.success("File is still in use and was kept", null));
+        }
         return ResponseEntity.ok(ApiResponse.success("File deleted successfully", null));
     }
 }
@@ -0,0 +1,37 @@
+package com.elcafe.controller;
+
+import com.elcafe.service.MediaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller serving uploaded files
+ */
+@RestController
+@RequestMapping(MediaController.PATH)
+@RequiredArgsConstructor
+@Tag(name = "Media", description = "Uploaded images and files")
+public class MediaController {
+
+    static final String PATH = "/uploads";
+
+    private final MediaService mediaService;
+
+    @GetMapping("/**")
+    @Operation(summary = "Get uploaded file", description = "Supports Range, If-None-Match and If-Range")
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + PATH.length());
+        mediaService.serve(UriUtils.decode(path.startsWith("/") ? path.substring(1) : path, StandardCharsets.UTF_8),
+                request, response);
+    }
+}
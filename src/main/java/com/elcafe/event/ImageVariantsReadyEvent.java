@@ -0,0 +1,22 @@
+package com.elcafe.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when the resized copies of an uploaded image were written
+ */
+@Getter
+public class ImageVariantsReadyEvent extends ApplicationEvent {
+
+    private final String imageUrl;
+
+    /** Widths of the copies, comma separated and ascending */
+    private final String widths;
+
+    public ImageVariantsReadyEvent(Object source, String imageUrl, String widths) {
+        super(source);
+        this.imageUrl = imageUrl;
+        this.widths = widths;
+    }
+}
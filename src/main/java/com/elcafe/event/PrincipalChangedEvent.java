@@ -0,0 +1,34 @@
+package com.elcafe.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Event fired when a staff user or customer was changed in a way that affects authentication:
+ * activation, role, login identifiers, or removal. Carries every username the account could have
+ * been cached under, before and after the change.
+ */
+@Getter
+public class PrincipalChangedEvent extends ApplicationEvent {
+
+    private final boolean customer;
+    private final List<String> usernames;
+
+    private PrincipalChangedEvent(Object source, boolean customer, String... usernames) {
+        super(source);
+        this.customer = customer;
+        this.usernames = Stream.of(usernames).filter(Objects::nonNull).distinct().toList();
+    }
+
+    public static PrincipalChangedEvent forUser(Object source, String... usernames) {
+        return new PrincipalChangedEvent(source, false, usernames);
+    }
+
+    public static PrincipalChangedEvent forCustomer(Object source, String... phones) {
+        return new PrincipalChangedEvent(source, true, phones);
+    }
+}
@@ -0,0 +1,59 @@
+package com.elcafe.modules.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for consumer login codes and their rate limits
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.consumer.otp")
+public class OtpProperties {
+
+    /**
+     * Minutes a login code stays valid
+     */
+    private Integer expirationMinutes = 5;
+
+    /**
+     * Verification attempts allowed per code, right or wrong
+     */
+    private Integer maxAttempts = 3;
+
+    /**
+     * Length in minutes of the sliding window codes requested for one phone number are counted in
+     */
+    private Integer rateLimitMinutes = 1;
+
+    /**
+     * Codes one phone number may request within its window
+     */
+    private Integer rateLimitCount = 3;
+
+    /**
+     * Length in minutes of the sliding window codes requested from one IP address are counted in
+     */
+    private Integer ipRateLimitMinutes = 10;
+
+    /**
+     * Codes one IP address may request within its window, for any phone numbers
+     */
+    private Integer ipRateLimitCount = 30;
+
+    /**
+     * Also record issued and verified codes in the otp_codes table, off the login path
+     */
+    private Boolean auditEnabled = false;
+
+    /**
+     * Return the code in the login response, for testing only
+     */
+    private Boolean includeInResponse = false;
+
+    /**
+     * Accept any code and send no SMS, for local development only
+     */
+    private Boolean developmentMode = false;
+}
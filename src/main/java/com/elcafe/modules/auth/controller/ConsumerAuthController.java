@@ -38,7 +38,8 @@ public class ConsumerAuthController {
     ) {
         log.info("OTP requested for phone: {}", request.getPhoneNumber());
 
-        String ipAddress = getClientIpAddress(httpRequest);
+        // The OTP limits are keyed on it; the container resolves X-Forwarded-For only from trusted proxies
+        String ipAddress = httpRequest.getRemoteAddr();
         String userAgent = httpRequest.getHeader("User-Agent");
 
         ConsumerLoginResponse response = consumerAuthService.requestOtp(request, ipAddress, userAgent);
@@ -58,7 +59,7 @@ public class ConsumerAuthController {
     ) {
         log.info("OTP verification requested for phone: {}", request.getPhoneNumber());
 
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = httpRequest.getRemoteAddr();
         String userAgent = httpRequest.getHeader("User-Agent");
 
         ConsumerAuthResponse response = consumerAuthService.verifyOtp(request, ipAddress, userAgent);
@@ -78,7 +79,7 @@ public class ConsumerAuthController {
     ) {
         log.info("Token refresh requested");
 
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = httpRequest.getRemoteAddr();
         String userAgent = httpRequest.getHeader("User-Agent");
 
         ConsumerAuthResponse response = consumerAuthService.refreshAccessToken(request, ipAddress, userAgent);
@@ -107,24 +108,6 @@ public class ConsumerAuthController {
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
     }
 
-    /**
-     * Extract client IP address from request
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // Handle multiple IPs in X-Forwarded-For
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
-    }
-
     /**
      * Extract token from Authorization header
      */
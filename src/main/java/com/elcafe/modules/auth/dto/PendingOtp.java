@@ -0,0 +1,40 @@
+package com.elcafe.modules.auth.dto;
+
+import com.elcafe.modules.customer.enums.RegistrationSource;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A login code waiting for verification, with the registration data sent along with its request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingOtp {
+
+    private String phoneNumber;
+
+    private LocalDateTime expiresAt;
+
+    private String ipAddress;
+
+    private String userAgent;
+
+    private String firstName;
+
+    private String lastName;
+
+    private LocalDate birthDate;
+
+    private RegistrationSource registrationSource;
+
+    private String language;
+
+    private Integer attempts;
+}
@@ -42,6 +42,19 @@ public interface OtpCodeRepository extends JpaRepository<OtpCode, Long> {
     @Query("DELETE FROM OtpCode o WHERE o.expiresAt < :now")
     void deleteExpiredOtps(@Param("now") LocalDateTime now);
 
+    /**
+     * Mark the latest unverified OTP of a phone number verified (audit trail)
+     */
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.isVerified = true, o.verifiedAt = :verifiedAt, o.attempts = :attempts " +
+           "WHERE o.phoneNumber = :phoneNumber AND o.isVerified = false AND o.createdAt = " +
+           "(SELECT MAX(l.createdAt) FROM OtpCode l WHERE l.phoneNumber = :phoneNumber AND l.isVerified = false)")
+    int markLatestVerified(
+            @Param("phoneNumber") String phoneNumber,
+            @Param("attempts") Integer attempts,
+            @Param("verifiedAt") LocalDateTime verifiedAt
+    );
+
     /**
      * Count recent OTP requests for rate limiting
      */
@@ -1,30 +1,31 @@
 package com.elcafe.modules.auth.service;
 
+import com.elcafe.event.PrincipalChangedEvent;
+import com.elcafe.exception.TooManyRequestsException;
+import com.elcafe.modules.auth.config.OtpProperties;
 import com.elcafe.modules.auth.dto.*;
-import com.elcafe.modules.auth.entity.ConsumerSession;
-import com.elcafe.modules.auth.entity.OtpCode;
 import com.elcafe.modules.auth.repository.ConsumerSessionRepository;
 import com.elcafe.modules.auth.repository.OtpCodeRepository;
 import com.elcafe.modules.customer.entity.Customer;
 import com.elcafe.modules.customer.repository.CustomerRepository;
-import com.elcafe.modules.sms.dto.SendSmsRequest;
-import com.elcafe.modules.sms.service.SmsService;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import com.elcafe.modules.customer.service.CustomerIdentityResolver;
+import com.elcafe.security.JwtClaims;
+import com.elcafe.security.JwtUtil;
+import com.elcafe.security.TokenRevocationService;
+import com.elcafe.utils.PhoneNumbers;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
 import java.util.Random;
 import java.util.UUID;
 
@@ -37,18 +38,17 @@ import java.util.UUID;
 public class ConsumerAuthService {
 
     private final OtpCodeRepository otpCodeRepository;
+    private final OtpStore otpStore;
+    private final OtpAuditService otpAuditService;
+    private final OtpProperties otpProperties;
     private final ConsumerSessionRepository sessionRepository;
+    private final ConsumerSessionStore sessionStore;
+    private final TokenRevocationService tokenRevocationService;
     private final CustomerRepository customerRepository;
-    private final SmsService smsService;
-
-    @Value("${app.security.jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${app.consumer.otp.expiration-minutes:5}")
-    private Integer otpExpirationMinutes;
-
-    @Value("${app.consumer.otp.max-attempts:3}")
-    private Integer maxOtpAttempts;
+    private final CustomerIdentityResolver customerIdentityResolver;
+    private final OtpSmsSender otpSmsSender;
+    private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.consumer.session.access-token-expiration:3600000}") // 1 hour
     private Long accessTokenExpiration;
@@ -56,24 +56,13 @@ public class ConsumerAuthService {
     @Value("${app.consumer.session.refresh-token-expiration:2592000000}") // 30 days
     private Long refreshTokenExpiration;
 
-    @Value("${app.consumer.otp.rate-limit-minutes:1}")
-    private Integer rateLimitMinutes;
-
-    @Value("${app.consumer.otp.rate-limit-count:3}")
-    private Integer rateLimitCount;
-
-    @Value("${app.consumer.otp.include-in-response:false}")
-    private Boolean includeOtpInResponse;
-
-    @Value("${app.consumer.otp.development-mode:false}")
-    private Boolean developmentMode;
-
     private static final Random RANDOM = new Random();
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
 
     /**
-     * Request OTP for phone number
+     * Request OTP for phone number.
+     * Touches only Redis: the customer is created or updated once the code is verified.
      */
-    @Transactional
     public ConsumerLoginResponse requestOtp(ConsumerLoginRequest request, String ipAddress, String userAgent) {
         String phoneNumber = normalizePhoneNumber(request.getPhoneNumber());
 
@@ -86,89 +75,18 @@ public class ConsumerAuthService {
                 request.getRegistrationSource(),
                 request.getLanguage());
 
-        // Rate limiting check
-        checkRateLimit(phoneNumber);
-
-        // Find or create customer with provided registration data
-        Customer customer = customerRepository.findByPhone(phoneNumber)
-                .orElse(null);
-
-        boolean isNewCustomer = customer == null;
-
-        if (isNewCustomer) {
-            // Create new customer with registration data
-            String firstName = request.getFirstName();
-            String lastName = request.getLastName();
-
-            // Use defaults if name not provided
-            if (firstName == null || firstName.trim().isEmpty()) {
-                firstName = "Customer";
-            }
-            if (lastName == null || lastName.trim().isEmpty()) {
-                lastName = phoneNumber.substring(Math.max(0, phoneNumber.length() - 4)); // Last 4 digits
-            }
-
-            customer = Customer.builder()
-                    .phone(phoneNumber)
-                    .firstName(firstName)
-                    .lastName(lastName)
-                    .birthDate(request.getBirthDate())
-                    .language(request.getLanguage())
-                    .registrationSource(request.getRegistrationSource())
-                    .build();
-            customer = customerRepository.save(customer);
-            log.info("Created new customer - phone: {}, firstName: {}, lastName: {}, birthDate: {}, source: {}, language: {}",
-                    phoneNumber, firstName, lastName, request.getBirthDate(), request.getRegistrationSource(), request.getLanguage());
-        } else {
-            // Update existing customer with new data if provided
-            boolean updated = false;
-
-            if (request.getFirstName() != null && !request.getFirstName().trim().isEmpty()) {
-                customer.setFirstName(request.getFirstName());
-                updated = true;
-            }
-            if (request.getLastName() != null && !request.getLastName().trim().isEmpty()) {
-                customer.setLastName(request.getLastName());
-                updated = true;
-            }
-            if (request.getBirthDate() != null) {
-                customer.setBirthDate(request.getBirthDate());
-                updated = true;
-            }
-            if (request.getLanguage() != null) {
-                customer.setLanguage(request.getLanguage());
-                updated = true;
-            }
-            if (request.getRegistrationSource() != null) {
-                customer.setRegistrationSource(request.getRegistrationSource());
-                updated = true;
-            }
-
-            if (updated) {
-                customer = customerRepository.save(customer);
-                log.info("Updated customer during login request: phone={}", phoneNumber);
-            }
-        }
-
         // Generate 6-digit OTP
         String otpCode = generateOtpCode();
 
-        // Always log OTP to console for development
-        log.info("=================================================");
-        log.info("OTP CODE GENERATED for {}: {}", phoneNumber, otpCode);
-        log.info("=================================================");
-
         // Calculate expiration
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(otpExpirationMinutes);
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(otpProperties.getExpirationMinutes());
 
-        // Save OTP to database with registration data
-        OtpCode otp = OtpCode.builder()
+        // Keep registration data with the code for use on verification
+        PendingOtp otp = PendingOtp.builder()
                 .phoneNumber(phoneNumber)
-                .otpCode(otpCode)
                 .expiresAt(expiresAt)
                 .ipAddress(ipAddress)
                 .userAgent(userAgent)
-                // Store registration data for later use
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .birthDate(request.getBirthDate())
@@ -176,22 +94,30 @@ public class ConsumerAuthService {
                 .language(request.getLanguage())
                 .build();
 
-        otpCodeRepository.save(otp);
+        // Rate limits are checked in the same step that stores the code
+        long retryAfterMillis = otpStore.issue(otpCode, otp);
+        if (retryAfterMillis > 0) {
+            long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+            throw new TooManyRequestsException(
+                    String.format("Too many OTP requests. Please wait %d second(s) before trying again.", retryAfterSeconds),
+                    retryAfterSeconds);
+        }
+
+        // Always log OTP to console for development
+        log.info("=================================================");
+        log.info("OTP CODE GENERATED for {}: {}", phoneNumber, otpCode);
+        log.info("=================================================");
+
+        otpAuditService.recordIssued(otp);
 
         // Send OTP via SMS (skip in development mode)
-        if (!developmentMode) {
+        if (!otpProperties.getDevelopmentMode()) {
             try {
-                SendSmsRequest smsRequest = SendSmsRequest.builder()
-                        .mobilePhone(phoneNumber)
-                        .message(String.format("Your verification code is: %s. Valid for %d minutes.",
-                                otpCode, otpExpirationMinutes))
-                        .build();
-
-                smsService.sendSms(smsRequest);
-                log.info("OTP sent successfully to {}", phoneNumber);
+                otpSmsSender.send(phoneNumber, otpCode, otpProperties.getExpirationMinutes());
             } catch (Exception e) {
-                log.error("Failed to send OTP SMS to {}: {}", phoneNumber, e.getMessage());
-                // Don't fail the request - OTP is still saved in DB
+                // Notification queue full: the user can request a new code
+                log.error("Failed to queue OTP SMS to {}: {}", phoneNumber, e.getMessage());
+                // Don't fail the request - OTP is still stored
             }
         } else {
             log.info("Development mode: SMS sending skipped for {}", phoneNumber);
@@ -207,7 +133,7 @@ public class ConsumerAuthService {
                 .build();
 
         // Include OTP in response for development/testing (controlled by config)
-        if (includeOtpInResponse) {
+        if (otpProperties.getIncludeInResponse()) {
             response.setOtpCode(otpCode);
             log.warn("OTP code included in response (development mode): {}", otpCode);
         }
@@ -221,85 +147,59 @@ public class ConsumerAuthService {
     @Transactional
     public ConsumerAuthResponse verifyOtp(VerifyOtpRequest request, String ipAddress, String userAgent) {
         String phoneNumber = normalizePhoneNumber(request.getPhoneNumber());
-        String otpCode = request.getOtpCode();
-
-        OtpCode otp;
-
-        // In development mode, accept any OTP code
-        if (developmentMode) {
-            log.info("Development mode: Accepting any OTP code for {}", phoneNumber);
-            // Find any recent OTP for this phone number (to mark as verified)
-            otp = otpCodeRepository.findByPhoneNumberAndOtpCodeAndIsVerifiedFalse(phoneNumber, otpCode)
-                    .orElseGet(() -> {
-                        // If no matching OTP found in dev mode, create a temporary one
-                        log.info("Development mode: Creating temporary OTP record for {}", phoneNumber);
-                        OtpCode tempOtp = OtpCode.builder()
-                                .phoneNumber(phoneNumber)
-                                .otpCode(otpCode)
-                                .expiresAt(LocalDateTime.now().plusMinutes(otpExpirationMinutes))
-                                .ipAddress(ipAddress)
-                                .userAgent(userAgent)
-                                .build();
-                        return otpCodeRepository.save(tempOtp);
-                    });
-        } else {
-            // Production mode: strict OTP validation
-            otp = otpCodeRepository.findByPhoneNumberAndOtpCodeAndIsVerifiedFalse(phoneNumber, otpCode)
-                    .orElseThrow(() -> new RuntimeException("Invalid OTP code"));
 
-            // Check if expired
-            if (otp.isExpired()) {
-                throw new RuntimeException("OTP code has expired");
-            }
-
-            // Check attempts
-            otp.incrementAttempts();
-            if (otp.getAttempts() > maxOtpAttempts) {
-                otpCodeRepository.save(otp);
-                throw new RuntimeException("Maximum verification attempts exceeded");
+        OtpStore.Verification verification = otpStore.verify(phoneNumber, request.getOtpCode());
+        PendingOtp otp = verification.otp();
+
+        switch (verification.status()) {
+            case VERIFIED -> log.info("OTP verified for {}", phoneNumber);
+            case MISSING -> {
+                if (!otpProperties.getDevelopmentMode()) {
+                    throw new RuntimeException("OTP code has expired or was not requested");
+                }
+                // In development mode, accept any OTP code
+                log.info("Development mode: Accepting any OTP code for {}", phoneNumber);
+                otp = PendingOtp.builder().phoneNumber(phoneNumber).build();
             }
+            case EXHAUSTED -> throw new RuntimeException("Maximum verification attempts exceeded");
+            default -> throw new RuntimeException("Invalid OTP code");
         }
 
-        // Mark as verified
-        otp.setIsVerified(true);
-        otp.setVerifiedAt(LocalDateTime.now());
-        otpCodeRepository.save(otp);
-
-        // Find customer (should have been created during login request)
-        Customer customer = customerRepository.findByPhone(phoneNumber)
-                .orElseThrow(() -> new RuntimeException("Customer not found. Please request OTP first."));
+        otpAuditService.recordVerified(otp);
 
-        log.info("Customer authenticated: phone={}, customerId={}", phoneNumber, customer.getId());
+        // Create the customer, or update it with the registration data sent along with the code
+        CustomerIdentityResolver.CustomerIdentity identity = customerIdentityResolver.findOrCreate(newCustomer(phoneNumber, otp));
+        boolean isNewCustomer = identity.created();
+        Long customerId = identity.customerId();
+        if (isNewCustomer) {
+            // Drops a claims-only principal cached while the phone had no customer
+            eventPublisher.publishEvent(PrincipalChangedEvent.forCustomer(this, phoneNumber));
+        } else {
+            updateCustomer(customerRepository.getReferenceById(customerId), otp);
+        }
 
-        // Invalidate existing sessions
-        sessionRepository.invalidateAllSessionsByPhoneNumber(phoneNumber);
+        log.info("Customer authenticated: phone={}, customerId={}", phoneNumber, customerId);
 
-        // Generate tokens
-        String accessToken = generateAccessToken(phoneNumber, customer.getId());
-        String refreshToken = generateRefreshToken(phoneNumber);
+        // One session per phone number: sign out everywhere else
+        signOutEverywhere(phoneNumber);
 
         // Calculate expiration times
         LocalDateTime accessExpiresAt = LocalDateTime.now().plusSeconds(accessTokenExpiration / 1000);
         LocalDateTime refreshExpiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000);
 
-        // Create session
-        ConsumerSession session = ConsumerSession.builder()
-                .phoneNumber(phoneNumber)
-                .customer(customer)
-                .sessionToken(accessToken)
-                .refreshToken(refreshToken)
-                .expiresAt(accessExpiresAt)
-                .refreshExpiresAt(refreshExpiresAt)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-
-        sessionRepository.save(session);
+        // Generate tokens and store the session
+        String sessionId = ConsumerSessionStore.newId();
+        String accessTokenId = UUID.randomUUID().toString();
+        String accessToken = jwtUtil.generateConsumerAccessToken(phoneNumber, customerId, sessionId,
+                accessTokenId, accessTokenExpiration);
+        String refreshToken = sessionStore.create(new ConsumerSessionStore.StoredSession(
+                sessionId, phoneNumber, customerId, accessTokenId, toInstant(accessExpiresAt),
+                toInstant(refreshExpiresAt)), ipAddress, userAgent);
 
         long expiresInSeconds = accessTokenExpiration / 1000;
 
         log.info("Consumer authenticated successfully: phone={}, customerId={}",
-                phoneNumber, customer.getId());
+                phoneNumber, customerId);
 
         return ConsumerAuthResponse.builder()
                 .accessToken(accessToken)
@@ -307,129 +207,171 @@ public class ConsumerAuthService {
                 .expiresAt(accessExpiresAt)
                 .expiresInSeconds(expiresInSeconds)
                 .phoneNumber(phoneNumber)
-                .customerId(customer.getId())
-                .isNewUser(false) // Customer was created during login request
+                .customerId(customerId)
+                .isNewUser(isNewCustomer)
                 .build();
     }
 
     /**
      * Refresh access token using refresh token
      */
-    @Transactional
     public ConsumerAuthResponse refreshAccessToken(RefreshTokenRequest request, String ipAddress, String userAgent) {
         String refreshToken = request.getRefreshToken();
 
-        // Find session by refresh token
-        ConsumerSession session = sessionRepository.findByRefreshTokenAndIsActiveTrue(refreshToken)
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
-
-        // Check if refresh token expired
-        if (session.isRefreshExpired()) {
-            session.invalidate();
-            sessionRepository.save(session);
-            throw new RuntimeException("Refresh token has expired");
+        ConsumerSessionStore.StoredSession session;
+        LocalDateTime accessExpiresAt;
+        String newAccessToken;
+        for (int attempt = 1; ; attempt++) {
+            // Find session by refresh token; sessions expire with their refresh token
+            session = sessionStore.findByRefreshToken(refreshToken)
+                    .orElseThrow(() -> new RuntimeException("Invalid or expired refresh token"));
+
+            // Generate new access token
+            accessExpiresAt = LocalDateTime.now().plusSeconds(accessTokenExpiration / 1000);
+            String accessTokenId = UUID.randomUUID().toString();
+            newAccessToken = jwtUtil.generateConsumerAccessToken(session.phoneNumber(), session.customerId(),
+                    session.id(), accessTokenId, accessTokenExpiration);
+
+            // Swap it in only if no concurrent refresh replaced the token read above; the access
+            // token it replaces stops working right away
+            if (sessionStore.updateAccessToken(session.id(), session.accessTokenId(), accessTokenId,
+                    toInstant(accessExpiresAt), ipAddress, userAgent)) {
+                tokenRevocationService.revoke(session.accessTokenId(), session.accessExpiresAt());
+                break;
+            }
+            // Lost the race: the token just issued was never recorded, so it could not be revoked later
+            tokenRevocationService.revoke(accessTokenId, toInstant(accessExpiresAt));
+            if (attempt == MAX_REFRESH_ATTEMPTS) {
+                throw new RuntimeException("Session is being refreshed concurrently, please retry");
+            }
         }
 
-        // Generate new access token
-        String newAccessToken = generateAccessToken(session.getPhoneNumber(),
-                session.getCustomer() != null ? session.getCustomer().getId() : null);
-
-        LocalDateTime accessExpiresAt = LocalDateTime.now().plusSeconds(accessTokenExpiration / 1000);
-
-        // Update session
-        session.setSessionToken(newAccessToken);
-        session.setExpiresAt(accessExpiresAt);
-        session.setIpAddress(ipAddress);
-        session.setUserAgent(userAgent);
-        session.updateLastAccessed();
-
-        sessionRepository.save(session);
-
         long expiresInSeconds = accessTokenExpiration / 1000;
 
-        log.info("Access token refreshed for phone: {}", session.getPhoneNumber());
+        log.info("Access token refreshed for phone: {}", session.phoneNumber());
 
         return ConsumerAuthResponse.builder()
                 .accessToken(newAccessToken)
                 .refreshToken(refreshToken)
                 .expiresAt(accessExpiresAt)
                 .expiresInSeconds(expiresInSeconds)
-                .phoneNumber(session.getPhoneNumber())
-                .customerId(session.getCustomer() != null ? session.getCustomer().getId() : null)
+                .phoneNumber(session.phoneNumber())
+                .customerId(session.customerId())
                 .isNewUser(false)
                 .build();
     }
 
     /**
-     * Logout consumer (invalidate session)
+     * Logout consumer: end the session and revoke its access token
      */
-    @Transactional
     public void logout(String accessToken) {
-        sessionRepository.findBySessionTokenAndIsActiveTrue(accessToken)
-                .ifPresent(session -> {
-                    session.invalidate();
-                    sessionRepository.save(session);
-                    log.info("Consumer logged out: phone={}", session.getPhoneNumber());
-                });
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.verify(accessToken);
+        } catch (JwtException e) {
+            return;
+        }
+        tokenRevocationService.revoke(claims.tokenId(), claims.expiresAt());
+        jwtUtil.forget(accessToken);
+        if (claims.sessionId() != null) {
+            sessionStore.find(claims.sessionId()).ifPresent(sessionStore::delete);
+        }
+        log.info("Consumer logged out: phone={}", claims.subject());
     }
 
     /**
-     * Generate 6-digit OTP code
+     * End every session of a phone number and revoke their access tokens
      */
-    private String generateOtpCode() {
-        return String.format("%06d", RANDOM.nextInt(1000000));
+    public void signOutEverywhere(String phoneNumber) {
+        for (ConsumerSessionStore.StoredSession session : sessionStore.findByPhoneNumber(phoneNumber)) {
+            tokenRevocationService.revoke(session.accessTokenId(), session.accessExpiresAt());
+            sessionStore.delete(session);
+        }
     }
 
     /**
-     * Generate JWT access token
+     * Customer to create from the registration data sent with the login request
      */
-    private String generateAccessToken(String phoneNumber, Long customerId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
-
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-        return Jwts.builder()
-                .setSubject(phoneNumber)
-                .claim("customerId", customerId)
-                .claim("type", "consumer")
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+    private Customer newCustomer(String phoneNumber, PendingOtp otp) {
+        String firstName = otp.getFirstName();
+        String lastName = otp.getLastName();
+
+        // Use defaults if name not provided
+        if (firstName == null || firstName.trim().isEmpty()) {
+            firstName = "Customer";
+        }
+        if (lastName == null || lastName.trim().isEmpty()) {
+            lastName = phoneNumber.substring(Math.max(0, phoneNumber.length() - 4)); // Last 4 digits
+        }
+
+        return Customer.builder()
+                .phone(phoneNumber)
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDate(otp.getBirthDate())
+                .language(otp.getLanguage())
+                .registrationSource(otp.getRegistrationSource())
+                .build();
     }
 
     /**
-     * Generate refresh token (UUID-based)
+     * Update an existing customer with the registration data sent with the login request, if any
      */
-    private String generateRefreshToken(String phoneNumber) {
-        return UUID.randomUUID().toString() + "-" + phoneNumber.hashCode();
+    private Customer updateCustomer(Customer customer, PendingOtp otp) {
+        boolean updated = false;
+
+        if (otp.getFirstName() != null && !otp.getFirstName().trim().isEmpty()) {
+            customer.setFirstName(otp.getFirstName());
+            updated = true;
+        }
+        if (otp.getLastName() != null && !otp.getLastName().trim().isEmpty()) {
+            customer.setLastName(otp.getLastName());
+            updated = true;
+        }
+        if (otp.getBirthDate() != null) {
+            customer.setBirthDate(otp.getBirthDate());
+            updated = true;
+        }
+        if (otp.getLanguage() != null) {
+            customer.setLanguage(otp.getLanguage());
+            updated = true;
+        }
+        if (otp.getRegistrationSource() != null) {
+            customer.setRegistrationSource(otp.getRegistrationSource());
+            updated = true;
+        }
+
+        if (!updated) {
+            return customer;
+        }
+        log.info("Updated customer during login: phone={}", customer.getPhone());
+        return customerRepository.save(customer);
     }
 
     /**
-     * Normalize phone number (remove spaces, dashes, etc.)
+     * Generate 6-digit OTP code
      */
-    private String normalizePhoneNumber(String phoneNumber) {
-        return phoneNumber.replaceAll("[^0-9+]", "");
+    private String generateOtpCode() {
+        return String.format("%06d", RANDOM.nextInt(1000000));
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
     }
 
     /**
-     * Check rate limiting for OTP requests
+     * Normalize phone number to E.164, the form sessions and customers are keyed by
      */
-    private void checkRateLimit(String phoneNumber) {
-        LocalDateTime since = LocalDateTime.now().minusMinutes(rateLimitMinutes);
-        long recentCount = otpCodeRepository.countRecentOtpsByPhoneNumber(phoneNumber, since);
-
-        if (recentCount >= rateLimitCount) {
-            throw new RuntimeException(
-                    String.format("Too many OTP requests. Please wait %d minute(s) before trying again.",
-                            rateLimitMinutes)
-            );
+    private String normalizePhoneNumber(String phoneNumber) {
+        String normalized = PhoneNumbers.toE164(phoneNumber);
+        if (normalized == null) {
+            throw new RuntimeException("Invalid phone number");
         }
+        return normalized;
     }
 
     /**
-     * Cleanup expired OTPs and sessions (scheduled task)
+     * Cleanup expired OTP audit rows and sessions left from before sessions moved to Redis (scheduled task)
      * Runs every hour
      */
     @Scheduled(cron = "0 0 * * * *")
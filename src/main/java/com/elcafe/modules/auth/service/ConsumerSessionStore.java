@@ -0,0 +1,222 @@
+package com.elcafe.modules.auth.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Consumer sessions, held in Redis.
+ *
+ * A session is a hash under {@code consumer:session:<id>} expiring with its refresh token, holding
+ * the consumer, the ID of its current access token and a hash of the refresh token's secret. The
+ * refresh token is the session ID and that secret, so refreshing is one key lookup. The sessions of
+ * a phone number are listed in a set for signing out everywhere.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConsumerSessionStore {
+
+    private static final String SESSION_KEY = "consumer:session:";
+    private static final String PHONE_KEY = "consumer:sessions:";
+    private static final char TOKEN_SEPARATOR = '.';
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * KEYS: session. ARGV: access token ID expected, then the field/value pairs to set. Returns 1
+     * if the session still had that access token and was updated, 0 otherwise.
+     */
+    private static final RedisScript<Long> SWAP_ACCESS_TOKEN = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'accessTokenId') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * A stored session
+     */
+    public record StoredSession(String id,
+                                String phoneNumber,
+                                Long customerId,
+                                String accessTokenId,
+                                Instant accessExpiresAt,
+                                Instant refreshExpiresAt) {
+    }
+
+    /**
+     * Store a new session
+     *
+     * @return its refresh token
+     */
+    public String create(StoredSession session, String ipAddress, String userAgent) {
+        String secret = randomSecret();
+        Map<String, String> fields = new HashMap<>(toHash(session));
+        fields.put("refreshHash", hash(secret));
+        fields.put("createdAt", String.valueOf(System.currentTimeMillis()));
+        putClient(fields, ipAddress, userAgent);
+
+        String sessionKey = SESSION_KEY + session.id();
+        String phoneKey = PHONE_KEY + session.phoneNumber();
+        Duration ttl = Duration.between(Instant.now(), session.refreshExpiresAt());
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked") // the operations of this StringRedisTemplate
+            public <K, V> List<Object> execute(@NonNull RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.multi();
+                stringOperations.opsForHash().putAll(sessionKey, fields);
+                stringOperations.expire(sessionKey, ttl);
+                stringOperations.opsForSet().add(phoneKey, session.id());
+                stringOperations.expire(phoneKey, ttl);
+                return stringOperations.exec();
+            }
+        });
+        return session.id() + TOKEN_SEPARATOR + secret;
+    }
+
+    /**
+     * Session a refresh token belongs to, if the token is genuine and the session still exists
+     */
+    public Optional<StoredSession> findByRefreshToken(String refreshToken) {
+        int separator = refreshToken != null ? refreshToken.indexOf(TOKEN_SEPARATOR) : -1;
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String sessionId = refreshToken.substring(0, separator);
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(SESSION_KEY + sessionId);
+        Object refreshHash = fields.get("refreshHash");
+        if (refreshHash == null || !MessageDigest.isEqual(
+                String.valueOf(refreshHash).getBytes(StandardCharsets.UTF_8),
+                hash(refreshToken.substring(separator + 1)).getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+        return Optional.of(fromHash(sessionId, fields));
+    }
+
+    /**
+     * Record the access token a session was refreshed with, unless its access token is no longer
+     * {@code previousAccessTokenId}: another refresh or a sign-out got there first
+     *
+     * @return whether the session was updated
+     */
+    public boolean updateAccessToken(String sessionId, String previousAccessTokenId, String accessTokenId,
+                                     Instant accessExpiresAt, String ipAddress, String userAgent) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("accessTokenId", accessTokenId);
+        fields.put("accessExpiresAt", String.valueOf(accessExpiresAt.toEpochMilli()));
+        fields.put("lastAccessedAt", String.valueOf(System.currentTimeMillis()));
+        putClient(fields, ipAddress, userAgent);
+
+        List<String> args = new ArrayList<>(1 + fields.size() * 2);
+        args.add(previousAccessTokenId);
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long swapped = redisTemplate.execute(SWAP_ACCESS_TOKEN, List.of(SESSION_KEY + sessionId), args.toArray());
+        return Long.valueOf(1).equals(swapped);
+    }
+
+    public Optional<StoredSession> find(String sessionId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(SESSION_KEY + sessionId);
+        return fields.isEmpty() ? Optional.empty() : Optional.of(fromHash(sessionId, fields));
+    }
+
+    /**
+     * Live sessions of a phone number
+     */
+    public List<StoredSession> findByPhoneNumber(String phoneNumber) {
+        Set<String> sessionIds = redisTemplate.opsForSet().members(PHONE_KEY + phoneNumber);
+        List<StoredSession> sessions = new ArrayList<>();
+        if (sessionIds != null) {
+            for (String sessionId : sessionIds) {
+                find(sessionId).ifPresentOrElse(sessions::add,
+                        // Expired meanwhile
+                        () -> redisTemplate.opsForSet().remove(PHONE_KEY + phoneNumber, sessionId));
+            }
+        }
+        return sessions;
+    }
+
+    public void delete(StoredSession session) {
+        redisTemplate.delete(SESSION_KEY + session.id());
+        redisTemplate.opsForSet().remove(PHONE_KEY + session.phoneNumber(), session.id());
+    }
+
+    public static String newId() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static Map<String, String> toHash(StoredSession session) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("phoneNumber", session.phoneNumber());
+        if (session.customerId() != null) {
+            fields.put("customerId", String.valueOf(session.customerId()));
+        }
+        fields.put("accessTokenId", session.accessTokenId());
+        fields.put("accessExpiresAt", String.valueOf(session.accessExpiresAt().toEpochMilli()));
+        fields.put("refreshExpiresAt", String.valueOf(session.refreshExpiresAt().toEpochMilli()));
+        return fields;
+    }
+
+    private static StoredSession fromHash(String sessionId, Map<Object, Object> fields) {
+        return new StoredSession(
+                sessionId,
+                (String) fields.get("phoneNumber"),
+                fields.get("customerId") != null ? Long.valueOf((String) fields.get("customerId")) : null,
+                (String) fields.get("accessTokenId"),
+                instant(fields.get("accessExpiresAt")),
+                instant(fields.get("refreshExpiresAt")));
+    }
+
+    private static Instant instant(Object epochMillis) {
+        return epochMillis != null ? Instant.ofEpochMilli(Long.parseLong((String) epochMillis)) : null;
+    }
+
+    private static void putClient(Map<String, String> fields, String ipAddress, String userAgent) {
+        if (ipAddress != null) {
+            fields.put("ipAddress", ipAddress);
+        }
+        if (userAgent != null) {
+            fields.put("userAgent", userAgent);
+        }
+    }
+
+    private static String randomSecret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.elcafe.modules.auth.entity.User;
 import com.elcafe.modules.auth.repository.UserRepository;
 import com.elcafe.modules.customer.repository.CustomerRepository;
 import com.elcafe.security.UserPrincipal;
+import com.elcafe.utils.PhoneNumbers;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -32,7 +33,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         if (user == null) {
             // Check if this is a customer account
             boolean isCustomer = customerRepository.findByEmail(username).isPresent() ||
-                    (username.startsWith("+") && customerRepository.findByPhone(username).isPresent());
+                    (username.startsWith("+") && customerRepository.findByPhoneE164(PhoneNumbers.toE164(username)).isPresent());
 
             if (isCustomer) {
                 throw new UsernameNotFoundException(
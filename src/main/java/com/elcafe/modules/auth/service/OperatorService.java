@@ -6,8 +6,10 @@ import com.elcafe.modules.auth.dto.UpdateOperatorRequest;
 import com.elcafe.modules.auth.entity.User;
 import com.elcafe.modules.auth.enums.UserRole;
 import com.elcafe.modules.auth.repository.UserRepository;
+import com.elcafe.event.PrincipalChangedEvent;
 import com.elcafe.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +22,7 @@ public class OperatorService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all operators with pagination
@@ -81,6 +84,8 @@ public class OperatorService {
         if (user.getRole() != UserRole.OPERATOR) {
             throw new IllegalArgumentException("User with id " + id + " is not an operator");
         }
+        String previousEmail = user.getEmail();
+        String previousPhone = user.getPhone();
 
         // Check if email is being updated and if it already exists
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
@@ -111,6 +116,8 @@ public class OperatorService {
         }
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forUser(this,
+                previousEmail, previousPhone, updatedUser.getEmail(), updatedUser.getPhone()));
         return convertToDTO(updatedUser);
     }
 
@@ -127,6 +134,7 @@ public class OperatorService {
         }
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forUser(this, user.getEmail(), user.getPhone()));
     }
 
     /**
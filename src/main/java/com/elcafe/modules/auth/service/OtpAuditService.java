@@ -0,0 +1,68 @@
+package com.elcafe.modules.auth.service;
+
+import com.elcafe.modules.auth.config.OtpProperties;
+import com.elcafe.modules.auth.dto.PendingOtp;
+import com.elcafe.modules.auth.entity.OtpCode;
+import com.elcafe.modules.auth.repository.OtpCodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional audit trail of login codes in the otp_codes table.
+ *
+ * Codes live in {@link OtpStore}; these rows only record that a code was sent and whether it was
+ * used, and are written off the request thread. The code itself is never written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OtpAuditService {
+
+    private static final String MASKED_CODE = "******";
+
+    private final OtpCodeRepository otpCodeRepository;
+    private final OtpProperties properties;
+
+    @Async("auditExecutor")
+    @Transactional
+    public void recordIssued(PendingOtp otp) {
+        if (!Boolean.TRUE.equals(properties.getAuditEnabled())) {
+            return;
+        }
+        try {
+            otpCodeRepository.save(OtpCode.builder()
+                    .phoneNumber(otp.getPhoneNumber())
+                    .otpCode(MASKED_CODE)
+                    .expiresAt(otp.getExpiresAt())
+                    .ipAddress(otp.getIpAddress())
+                    .userAgent(otp.getUserAgent())
+                    .firstName(otp.getFirstName())
+                    .lastName(otp.getLastName())
+                    .birthDate(otp.getBirthDate())
+                    .registrationSource(otp.getRegistrationSource())
+                    .language(otp.getLanguage())
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to audit OTP issued to {}: {}", otp.getPhoneNumber(), e.getMessage());
+        }
+    }
+
+    @Async("auditExecutor")
+    @Transactional
+    public void recordVerified(PendingOtp otp) {
+        if (!Boolean.TRUE.equals(properties.getAuditEnabled())) {
+            return;
+        }
+        try {
+            otpCodeRepository.markLatestVerified(otp.getPhoneNumber(), otp.getAttempts() != null ? otp.getAttempts() : 1,
+                    LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Failed to audit OTP verified by {}: {}", otp.getPhoneNumber(), e.getMessage());
+        }
+    }
+}
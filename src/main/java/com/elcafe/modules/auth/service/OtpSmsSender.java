@@ -0,0 +1,36 @@
+package com.elcafe.modules.auth.service;
+
+import com.elcafe.modules.sms.dto.SendSmsRequest;
+import com.elcafe.modules.sms.service.SmsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends login codes by SMS on the notification executor, so a slow gateway holds neither the
+ * login request nor threads of other domains
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OtpSmsSender {
+
+    private final SmsService smsService;
+
+    @Async("notificationExecutor")
+    public void send(String phoneNumber, String otpCode, int expirationMinutes) {
+        try {
+            SendSmsRequest smsRequest = SendSmsRequest.builder()
+                    .mobilePhone(phoneNumber)
+                    .message(String.format("Your verification code is: %s. Valid for %d minutes.",
+                            otpCode, expirationMinutes))
+                    .build();
+
+            smsService.sendSms(smsRequest);
+            log.info("OTP sent successfully to {}", phoneNumber);
+        } catch (Exception e) {
+            log.error("Failed to send OTP SMS to {}: {}", phoneNumber, e.getMessage());
+        }
+    }
+}
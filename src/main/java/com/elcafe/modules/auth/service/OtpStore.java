@@ -0,0 +1,231 @@
+package com.elcafe.modules.auth.service;
+
+import com.elcafe.modules.auth.config.OtpProperties;
+import com.elcafe.modules.auth.dto.PendingOtp;
+import com.elcafe.modules.customer.enums.RegistrationSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Login codes and their request limits, held in Redis.
+ *
+ * A pending code is a hash under {@code otp:<phone>} expiring with the code, holding a hash of the
+ * code, the verification attempts and the registration data of its request; requesting a new code
+ * replaces it. Requests are counted in sliding windows per phone number and per IP address, sorted
+ * sets of request times trimmed on every request. Checking both limits and storing the code is one
+ * script, as is counting an attempt and taking the code, so concurrent requests can neither slip
+ * past a limit nor verify one code twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OtpStore {
+
+    private static final String CODE_KEY = "otp:";
+    private static final String PHONE_WINDOW_KEY = "otp:rl:phone:";
+    private static final String IP_WINDOW_KEY = "otp:rl:ip:";
+
+    /**
+     * KEYS: phone window, IP window, code. ARGV: now, phone window and limit, IP window and limit,
+     * request id, code lifetime, then the code's field/value pairs. Returns 0 once the code is
+     * stored, otherwise the milliseconds until the first full window frees a slot.
+     */
+    private static final RedisScript<Long> ISSUE = RedisScript.of("""
+            local now = tonumber(ARGV[1])
+            local function wait(key, window, limit)
+              redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+              if redis.call('ZCARD', key) < limit then
+                return 0
+              end
+              local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+              return math.max(tonumber(oldest[2]) + window - now, 1)
+            end
+            local retry = math.max(wait(KEYS[1], tonumber(ARGV[2]), tonumber(ARGV[3])),
+                                   wait(KEYS[2], tonumber(ARGV[4]), tonumber(ARGV[5])))
+            if retry > 0 then
+              return retry
+            end
+            redis.call('ZADD', KEYS[1], now, ARGV[6])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('ZADD', KEYS[2], now, ARGV[6])
+            redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            redis.call('DEL', KEYS[3])
+            redis.call('HSET', KEYS[3], unpack(ARGV, 8))
+            redis.call('PEXPIRE', KEYS[3], ARGV[7])
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS: code. ARGV: code hash, attempts allowed, 1 to accept any code. Returns the status,
+     * followed by the code's fields when verified.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return {'MISSING'}
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts > tonumber(ARGV[2]) then
+              redis.call('DEL', KEYS[1])
+              return {'EXHAUSTED'}
+            end
+            if ARGV[3] ~= '1' and redis.call('HGET', KEYS[1], 'code') ~= ARGV[1] then
+              return {'INVALID'}
+            end
+            local fields = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            table.insert(fields, 1, 'VERIFIED')
+            return fields
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final OtpProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public enum Status {
+        VERIFIED,
+        INVALID,
+        /** No code pending: never requested, expired, or already used */
+        MISSING,
+        EXHAUSTED
+    }
+
+    public record Verification(Status status, PendingOtp otp) {
+
+        public boolean isVerified() {
+            return status == Status.VERIFIED;
+        }
+    }
+
+    /**
+     * Store a code for the phone number, unless the phone number or the IP address used up its
+     * requests.
+     *
+     * @return zero once stored, otherwise the milliseconds until another request is allowed
+     */
+    public long issue(String code, PendingOtp otp) {
+        long now = System.currentTimeMillis();
+        String ipAddress = otp.getIpAddress() != null ? otp.getIpAddress() : "unknown";
+
+        List<String> args = new ArrayList<>(List.of(
+                String.valueOf(now),
+                String.valueOf(properties.getRateLimitMinutes() * 60_000L),
+                String.valueOf(properties.getRateLimitCount()),
+                String.valueOf(properties.getIpRateLimitMinutes() * 60_000L),
+                String.valueOf(properties.getIpRateLimitCount()),
+                now + ":" + UUID.randomUUID(),
+                String.valueOf(properties.getExpirationMinutes() * 60_000L)));
+        args.add("code");
+        args.add(hash(otp.getPhoneNumber(), code));
+        args.add("attempts");
+        args.add("0");
+        toHash(otp).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+
+        Long retryAfter = redisTemplate.execute(ISSUE,
+                List.of(PHONE_WINDOW_KEY + otp.getPhoneNumber(), IP_WINDOW_KEY + ipAddress, CODE_KEY + otp.getPhoneNumber()),
+                args.toArray());
+        long wait = retryAfter != null ? retryAfter : 0;
+        meterRegistry.counter("auth.otp.requests", "outcome", wait > 0 ? "limited" : "issued").increment();
+        return wait;
+    }
+
+    /**
+     * Count an attempt against the phone number's pending code, and take the code if it matches
+     */
+    public Verification verify(String phoneNumber, String code) {
+        List<?> result = redisTemplate.execute(VERIFY, List.of(CODE_KEY + phoneNumber),
+                hash(phoneNumber, code),
+                String.valueOf(properties.getMaxAttempts()),
+                Boolean.TRUE.equals(properties.getDevelopmentMode()) ? "1" : "0");
+
+        Status status = result == null || result.isEmpty() ? Status.MISSING : Status.valueOf(String.valueOf(result.get(0)));
+        meterRegistry.counter("auth.otp.verifications", "outcome", status.name().toLowerCase()).increment();
+        if (status != Status.VERIFIED) {
+            return new Verification(status, null);
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 1; i + 1 < result.size(); i += 2) {
+            fields.put(String.valueOf(result.get(i)), String.valueOf(result.get(i + 1)));
+        }
+        return new Verification(status, fromHash(phoneNumber, fields));
+    }
+
+    private static Map<String, String> toHash(PendingOtp otp) {
+        Map<String, String> fields = new HashMap<>();
+        put(fields, "expiresAt", otp.getExpiresAt() != null
+                ? String.valueOf(otp.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()) : null);
+        put(fields, "ipAddress", otp.getIpAddress());
+        put(fields, "userAgent", otp.getUserAgent());
+        put(fields, "firstName", otp.getFirstName());
+        put(fields, "lastName", otp.getLastName());
+        put(fields, "birthDate", otp.getBirthDate() != null ? otp.getBirthDate().toString() : null);
+        put(fields, "registrationSource", otp.getRegistrationSource() != null ? otp.getRegistrationSource().name() : null);
+        put(fields, "language", otp.getLanguage());
+        return fields;
+    }
+
+    private static PendingOtp fromHash(String phoneNumber, Map<String, String> fields) {
+        PendingOtp.PendingOtpBuilder otp = PendingOtp.builder()
+                .phoneNumber(phoneNumber)
+                .ipAddress(fields.get("ipAddress"))
+                .userAgent(fields.get("userAgent"))
+                .firstName(fields.get("firstName"))
+                .lastName(fields.get("lastName"))
+                .language(fields.get("language"));
+        try {
+            if (fields.containsKey("expiresAt")) {
+                otp.expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(fields.get("expiresAt"))), ZoneId.systemDefault()));
+            }
+            if (fields.containsKey("birthDate")) {
+                otp.birthDate(LocalDate.parse(fields.get("birthDate")));
+            }
+            if (fields.containsKey("registrationSource")) {
+                otp.registrationSource(RegistrationSource.valueOf(fields.get("registrationSource")));
+            }
+            if (fields.containsKey("attempts")) {
+                otp.attempts(Integer.valueOf(fields.get("attempts")));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring unreadable registration data of pending code for {}: {}", phoneNumber, e.getMessage());
+        }
+        return otp.build();
+    }
+
+    private static void put(Map<String, String> fields, String field, String value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+
+    /** Codes are kept hashed with their phone number rather than readable in Redis */
+    private static String hash(String phoneNumber, String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((phoneNumber + ":" + code).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
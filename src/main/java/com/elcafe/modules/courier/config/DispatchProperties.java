@@ -0,0 +1,75 @@
+package com.elcafe.modules.courier.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the automatic courier dispatch engine
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.courier.dispatch")
+public class DispatchProperties {
+
+    /**
+     * Enable/disable the scheduled dispatch cycle (manual assignment keeps working)
+     */
+    private Boolean enabled = true;
+
+    /**
+     * Delay between two dispatch cycles in milliseconds
+     */
+    private Long intervalMs = 5000L;
+
+    /**
+     * How long a courier has to accept an offered order before it is re-dispatched
+     */
+    private Integer offerTimeoutSeconds = 45;
+
+    /**
+     * How long a declined order is kept away from the courier who declined it
+     */
+    private Integer declineMemoryMinutes = 60;
+
+    /**
+     * Lease of the node running the dispatch cycle; another node takes over once it lapses.
+     * Renewed every cycle, so it must be well above the interval and the length of a cycle.
+     */
+    private Long leaderLeaseMs = 30000L;
+
+    /**
+     * Maximum number of orders from the same restaurant batched onto one courier
+     */
+    private Integer maxBatchSize = 3;
+
+    /**
+     * Couriers further than this from the restaurant are not considered
+     */
+    private Double maxPickupRadiusKm = 7.0;
+
+    /**
+     * Two drop-offs closer than this can be delivered in the same batch
+     */
+    private Double batchDropRadiusKm = 1.5;
+
+    /**
+     * Average courier speed used to estimate travel time
+     */
+    private Double averageSpeedKmh = 20.0;
+
+    /**
+     * Cost of one minute of lateness expressed in kilometers of pickup distance
+     */
+    private Double latenessWeightKmPerMinute = 0.5;
+
+    /**
+     * Courier locations older than this are ignored
+     */
+    private Integer locationStalenessMinutes = 5;
+
+    /**
+     * Promised delivery time used when the restaurant has no estimate configured
+     */
+    private Integer defaultPromiseMinutes = 45;
+}
@@ -1,7 +1,9 @@
 package com.elcafe.modules.courier.controller;
 
+import com.elcafe.modules.courier.dispatch.DispatchOffer;
 import com.elcafe.modules.courier.dto.CourierLocationResponse;
 import com.elcafe.modules.courier.dto.CourierLocationUpdateRequest;
+import com.elcafe.modules.courier.service.CourierDispatchService;
 import com.elcafe.modules.courier.service.CourierLocationService;
 import com.elcafe.modules.courier.service.CourierOrderService;
 import com.elcafe.modules.order.entity.Order;
@@ -26,6 +28,7 @@ public class CourierOrderController {
 
     private final CourierOrderService courierOrderService;
     private final CourierLocationService courierLocationService;
+    private final CourierDispatchService courierDispatchService;
 
     @GetMapping("/available")
     @PreAuthorize("hasRole('COURIER')")
@@ -44,6 +47,14 @@ public class CourierOrderController {
         return ResponseEntity.ok(ApiResponse.success("Your orders retrieved", orders));
     }
 
+    @GetMapping("/offer")
+    @PreAuthorize("hasRole('COURIER')")
+    @Operation(summary = "Get pending offer", description = "Get the batch of orders the dispatcher offered to the courier")
+    public ResponseEntity<ApiResponse<DispatchOffer>> getPendingOffer(@RequestParam Long courierId) {
+        DispatchOffer offer = courierDispatchService.getPendingOffer(courierId);
+        return ResponseEntity.ok(ApiResponse.success("Pending offer retrieved", offer));
+    }
+
     @PostMapping("/{orderId}/accept")
     @PreAuthorize("hasRole('COURIER')")
     @Operation(summary = "Accept order", description = "Courier accepts an order for delivery")
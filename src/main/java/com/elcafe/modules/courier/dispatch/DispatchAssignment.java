@@ -0,0 +1,27 @@
+package com.elcafe.modules.courier.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch of orders from one restaurant matched to one courier
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchAssignment {
+
+    private Long courierId;
+    private Long restaurantId;
+    private List<Long> orderIds; // In drop-off sequence
+
+    private double pickupKm;
+    private double routeKm;
+    private double latenessMinutes;
+    private double cost;
+}
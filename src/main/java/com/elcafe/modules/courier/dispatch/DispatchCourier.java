@@ -0,0 +1,21 @@
+package com.elcafe.modules.courier.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Available courier with its latest known position
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchCourier {
+
+    private Long courierId;
+
+    private double latitude;
+    private double longitude;
+}
@@ -0,0 +1,235 @@
+package com.elcafe.modules.courier.dispatch;
+
+import com.elcafe.modules.courier.config.DispatchProperties;
+import com.elcafe.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes courier assignments for a set of READY orders.
+ *
+ * Orders of the same restaurant whose drop-offs are close together are first grouped into
+ * batches, then batches are matched to couriers greedily by ascending cost, where
+ * cost = pickup distance + lateness weight * total minutes late.
+ *
+ * Pure computation without repositories, so it can be benchmarked offline on synthetic data
+ * (see DispatchBenchmark in the test sources).
+ */
+@Component
+@RequiredArgsConstructor
+public class DispatchMatcher {
+
+    private final DispatchProperties properties;
+
+    public List<DispatchAssignment> match(List<DispatchOrder> orders, List<DispatchCourier> couriers, long nowMillis) {
+        if (orders.isEmpty() || couriers.isEmpty()) {
+            return List.of();
+        }
+
+        List<List<DispatchOrder>> batches = buildBatches(orders);
+        int batchCount = batches.size();
+        int courierCount = couriers.size();
+
+        double[] routeKm = new double[batchCount];
+        for (int b = 0; b < batchCount; b++) {
+            routeKm[b] = sequenceDrops(batches.get(b));
+        }
+
+        // Candidate edges kept in parallel primitive arrays; sort key = (float cost bits << 32) | edge index
+        int capacity = Math.min(batchCount * courierCount, 1 << 20);
+        int[] edgeBatch = new int[capacity];
+        int[] edgeCourier = new int[capacity];
+        double[] edgePickupKm = new double[capacity];
+        double[] edgeLateness = new double[capacity];
+        long[] sortKeys = new long[capacity];
+        int edgeCount = 0;
+
+        double maxPickupKm = properties.getMaxPickupRadiusKm();
+        double latenessWeight = properties.getLatenessWeightKmPerMinute();
+
+        for (int b = 0; b < batchCount; b++) {
+            DispatchOrder first = batches.get(b).get(0);
+            for (int c = 0; c < courierCount; c++) {
+                DispatchCourier courier = couriers.get(c);
+                double pickupKm = GeoUtils.haversineKm(courier.getLatitude(), courier.getLongitude(),
+                        first.getPickupLatitude(), first.getPickupLongitude());
+                if (pickupKm > maxPickupKm || declinedByCourier(batches.get(b), courier.getCourierId())) {
+                    continue;
+                }
+                if (edgeCount == capacity) {
+                    capacity = capacity * 2;
+                    edgeBatch = Arrays.copyOf(edgeBatch, capacity);
+                    edgeCourier = Arrays.copyOf(edgeCourier, capacity);
+                    edgePickupKm = Arrays.copyOf(edgePickupKm, capacity);
+                    edgeLateness = Arrays.copyOf(edgeLateness, capacity);
+                    sortKeys = Arrays.copyOf(sortKeys, capacity);
+                }
+                double lateness = latenessMinutes(batches.get(b), pickupKm, nowMillis);
+                double cost = pickupKm + latenessWeight * lateness;
+
+                edgeBatch[edgeCount] = b;
+                edgeCourier[edgeCount] = c;
+                edgePickupKm[edgeCount] = pickupKm;
+                edgeLateness[edgeCount] = lateness;
+                sortKeys[edgeCount] = ((long) Float.floatToIntBits((float) cost) << 32) | edgeCount;
+                edgeCount++;
+            }
+        }
+
+        Arrays.sort(sortKeys, 0, edgeCount);
+
+        boolean[] batchTaken = new boolean[batchCount];
+        boolean[] courierTaken = new boolean[courierCount];
+        int remaining = Math.min(batchCount, courierCount);
+        List<DispatchAssignment> assignments = new ArrayList<>(remaining);
+
+        for (int i = 0; i < edgeCount && remaining > 0; i++) {
+            int edge = (int) sortKeys[i];
+            int b = edgeBatch[edge];
+            int c = edgeCourier[edge];
+            if (batchTaken[b] || courierTaken[c]) {
+                continue;
+            }
+            batchTaken[b] = true;
+            courierTaken[c] = true;
+            remaining--;
+
+            List<DispatchOrder> batch = batches.get(b);
+            assignments.add(DispatchAssignment.builder()
+                    .courierId(couriers.get(c).getCourierId())
+                    .restaurantId(batch.get(0).getRestaurantId())
+                    .orderIds(batch.stream().map(DispatchOrder::getOrderId).toList())
+                    .pickupKm(edgePickupKm[edge])
+                    .routeKm(routeKm[b])
+                    .latenessMinutes(edgeLateness[edge])
+                    .cost(edgePickupKm[edge] + latenessWeight * edgeLateness[edge])
+                    .build());
+        }
+
+        return assignments;
+    }
+
+    /**
+     * Group orders per restaurant, seeding each batch with the most urgent order and adding
+     * orders whose drop-off lies within the batch radius of the seed.
+     */
+    List<List<DispatchOrder>> buildBatches(List<DispatchOrder> orders) {
+        Map<Long, List<DispatchOrder>> byRestaurant = new LinkedHashMap<>();
+        for (DispatchOrder order : orders) {
+            byRestaurant.computeIfAbsent(order.getRestaurantId(), id -> new ArrayList<>()).add(order);
+        }
+
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        double dropRadiusKm = properties.getBatchDropRadiusKm();
+        List<List<DispatchOrder>> batches = new ArrayList<>();
+
+        for (List<DispatchOrder> restaurantOrders : byRestaurant.values()) {
+            restaurantOrders.sort(Comparator.comparingLong(DispatchOrder::getPromisedAtMillis));
+            boolean[] batched = new boolean[restaurantOrders.size()];
+
+            for (int i = 0; i < restaurantOrders.size(); i++) {
+                if (batched[i]) {
+                    continue;
+                }
+                DispatchOrder seed = restaurantOrders.get(i);
+                List<DispatchOrder> batch = new ArrayList<>(maxBatchSize);
+                batch.add(seed);
+                batched[i] = true;
+
+                for (int j = i + 1; j < restaurantOrders.size() && batch.size() < maxBatchSize; j++) {
+                    if (batched[j]) {
+                        continue;
+                    }
+                    DispatchOrder candidate = restaurantOrders.get(j);
+                    double dropDistance = GeoUtils.haversineKm(seed.getDropLatitude(), seed.getDropLongitude(),
+                            candidate.getDropLatitude(), candidate.getDropLongitude());
+                    if (dropDistance <= dropRadiusKm) {
+                        batch.add(candidate);
+                        batched[j] = true;
+                    }
+                }
+                batches.add(batch);
+            }
+        }
+
+        return batches;
+    }
+
+    private boolean declinedByCourier(List<DispatchOrder> batch, Long courierId) {
+        for (DispatchOrder order : batch) {
+            if (order.getDeclinedCourierIds() != null && order.getDeclinedCourierIds().contains(courierId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reorder the batch into nearest-neighbour drop-off sequence starting from the restaurant.
+     *
+     * @return total route length from pickup through all drop-offs in kilometers
+     */
+    private double sequenceDrops(List<DispatchOrder> batch) {
+        if (batch.size() == 1) {
+            DispatchOrder order = batch.get(0);
+            return GeoUtils.haversineKm(order.getPickupLatitude(), order.getPickupLongitude(),
+                    order.getDropLatitude(), order.getDropLongitude());
+        }
+
+        double lat = batch.get(0).getPickupLatitude();
+        double lon = batch.get(0).getPickupLongitude();
+        double totalKm = 0;
+
+        for (int i = 0; i < batch.size(); i++) {
+            int nearest = i;
+            double nearestKm = Double.MAX_VALUE;
+            for (int j = i; j < batch.size(); j++) {
+                double km = GeoUtils.haversineKm(lat, lon, batch.get(j).getDropLatitude(), batch.get(j).getDropLongitude());
+                if (km < nearestKm) {
+                    nearestKm = km;
+                    nearest = j;
+                }
+            }
+            DispatchOrder next = batch.get(nearest);
+            batch.set(nearest, batch.get(i));
+            batch.set(i, next);
+
+            totalKm += nearestKm;
+            lat = next.getDropLatitude();
+            lon = next.getDropLongitude();
+        }
+
+        return totalKm;
+    }
+
+    /**
+     * Sum of minutes each order of the batch is expected to arrive after its promised time.
+     * Expects the batch to be in drop-off sequence.
+     */
+    private double latenessMinutes(List<DispatchOrder> batch, double pickupKm, long nowMillis) {
+        double minutesPerKm = 60.0 / properties.getAverageSpeedKmh();
+        double travelledKm = pickupKm;
+        double lat = batch.get(0).getPickupLatitude();
+        double lon = batch.get(0).getPickupLongitude();
+        double lateness = 0;
+
+        for (DispatchOrder order : batch) {
+            travelledKm += GeoUtils.haversineKm(lat, lon, order.getDropLatitude(), order.getDropLongitude());
+            lat = order.getDropLatitude();
+            lon = order.getDropLongitude();
+
+            double arrivalMinutes = travelledKm * minutesPerKm;
+            double promisedInMinutes = (order.getPromisedAtMillis() - nowMillis) / 60000.0;
+            lateness += Math.max(0, arrivalMinutes - promisedInMinutes);
+        }
+
+        return lateness;
+    }
+}
@@ -0,0 +1,30 @@
+package com.elcafe.modules.courier.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pending offer of a batch to a courier, valid until {@code expiresAt}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchOffer {
+
+    private Long courierId;
+    private Long restaurantId;
+    private List<Long> orderIds;
+    private Double pickupKm;
+    private LocalDateTime offeredAt;
+    private LocalDateTime expiresAt;
+
+    public boolean isExpired(LocalDateTime now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,215 @@
+package com.elcafe.modules.courier.dispatch;
+
+import com.elcafe.modules.courier.config.DispatchProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Book of outstanding dispatch offers, held in Redis so every node sees the same offers.
+ *
+ * An offer is stored under {@code dispatch:offer:courier:<courierId>} and each of its orders under
+ * {@code dispatch:offer:order:<orderId>} holding the courier ID, all expiring with the offer, so an
+ * order can be offered to exactly one courier at a time and an offer that is not accepted in time
+ * simply disappears. Declined orders remember the courier in {@code dispatch:declined:<orderId>}
+ * so later cycles do not offer the same order to them again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DispatchOfferRegistry {
+
+    private static final String ORDER_KEY = "dispatch:offer:order:";
+    private static final String COURIER_KEY = "dispatch:offer:courier:";
+    private static final String DECLINED_KEY = "dispatch:declined:";
+
+    /**
+     * KEYS: courier offer, then the offered orders. ARGV: lifetime, offer, courier ID. Returns 1
+     * once stored, 0 if the courier or one of the orders already has an offer.
+     */
+    private static final RedisScript<Long> REGISTER = RedisScript.of("""
+            for _, key in ipairs(KEYS) do
+              if redis.call('EXISTS', key) == 1 then
+                return 0
+              end
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[1])
+            for i = 2, #KEYS do
+              redis.call('SET', KEYS[i], ARGV[3], 'PX', ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: order, declined couriers of the order. ARGV: courier offer prefix, order prefix. Drops
+     * the courier's offer once none of its orders is left.
+     */
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            local courierId = redis.call('GET', KEYS[1])
+            redis.call('DEL', KEYS[1], KEYS[2])
+            if not courierId then
+              return 0
+            end
+            local offer = redis.call('GET', ARGV[1] .. courierId)
+            if not offer then
+              return 1
+            end
+            for _, orderId in ipairs(cjson.decode(offer).orderIds) do
+              if redis.call('GET', ARGV[2] .. string.format('%d', orderId)) == courierId then
+                return 1
+              end
+            end
+            redis.call('DEL', ARGV[1] .. courierId)
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: declined couriers of the order, courier offer. ARGV: courier ID, order ID, how long
+     * the decline is remembered, order prefix. Drops the courier's offer if it holds the order.
+     */
+    private static final RedisScript<Long> DECLINE = RedisScript.of("""
+            redis.call('SADD', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            local offer = redis.call('GET', KEYS[2])
+            if not offer then
+              return 0
+            end
+            local orderIds = cjson.decode(offer).orderIds
+            local offered = false
+            for _, orderId in ipairs(orderIds) do
+              if string.format('%d', orderId) == ARGV[2] then
+                offered = true
+              end
+            end
+            if not offered then
+              return 0
+            end
+            for _, orderId in ipairs(orderIds) do
+              local key = ARGV[4] .. string.format('%d', orderId)
+              if redis.call('GET', key) == ARGV[1] then
+                redis.call('DEL', key)
+              end
+            end
+            redis.call('DEL', KEYS[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final DispatchProperties properties;
+
+    /**
+     * Store an offer expiring after the offer timeout
+     *
+     * @return false if the courier or one of the orders already has an offer
+     */
+    public boolean register(DispatchOffer offer) {
+        List<String> keys = new ArrayList<>(offer.getOrderIds().size() + 1);
+        keys.add(COURIER_KEY + offer.getCourierId());
+        offer.getOrderIds().forEach(orderId -> keys.add(ORDER_KEY + orderId));
+        Long stored = redisTemplate.execute(REGISTER, keys,
+                String.valueOf(Duration.ofSeconds(properties.getOfferTimeoutSeconds()).toMillis()),
+                toJson(offer),
+                String.valueOf(offer.getCourierId()));
+        return Long.valueOf(1).equals(stored);
+    }
+
+    /**
+     * The orders among the given ones that are currently offered to a courier
+     */
+    public Set<Long> getOfferedOrders(Collection<Long> orderIds) {
+        return present(ORDER_KEY, orderIds);
+    }
+
+    /**
+     * The couriers among the given ones that have an offer waiting for their answer
+     */
+    public Set<Long> getCouriersWithOffers(Collection<Long> courierIds) {
+        return present(COURIER_KEY, courierIds);
+    }
+
+    /**
+     * True if the order is currently offered to a different courier
+     */
+    public boolean isReservedForOther(Long orderId, Long courierId) {
+        String offeredTo = redisTemplate.opsForValue().get(ORDER_KEY + orderId);
+        return offeredTo != null && !offeredTo.equals(String.valueOf(courierId));
+    }
+
+    public DispatchOffer getOfferForCourier(Long courierId) {
+        String json = redisTemplate.opsForValue().get(COURIER_KEY + courierId);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, DispatchOffer.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable dispatch offer of courier {}: {}", courierId, e.getMessage());
+            redisTemplate.delete(COURIER_KEY + courierId);
+            return null;
+        }
+    }
+
+    public Set<Long> getDeclinedCouriers(Long orderId) {
+        Set<String> members = redisTemplate.opsForSet().members(DECLINED_KEY + orderId);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * Remove an order from its offer once it has been accepted, cancelled or assigned manually.
+     * The rest of the batch stays offered to the courier.
+     */
+    public void release(Long orderId) {
+        redisTemplate.execute(RELEASE, List.of(ORDER_KEY + orderId, DECLINED_KEY + orderId),
+                COURIER_KEY, ORDER_KEY);
+    }
+
+    /**
+     * Courier declined an order: drop the whole offer so the batch is re-planned next cycle
+     */
+    public void decline(Long orderId, Long courierId) {
+        redisTemplate.execute(DECLINE, List.of(DECLINED_KEY + orderId, COURIER_KEY + courierId),
+                String.valueOf(courierId),
+                String.valueOf(orderId),
+                String.valueOf(Duration.ofMinutes(properties.getDeclineMemoryMinutes()).toMillis()),
+                ORDER_KEY);
+    }
+
+    private Set<Long> present(String prefix, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> idList = List.copyOf(ids);
+        List<String> values = redisTemplate.opsForValue().multiGet(idList.stream().map(id -> prefix + id).toList());
+        Set<Long> present = new HashSet<>();
+        for (int i = 0; values != null && i < idList.size(); i++) {
+            if (values.get(i) != null) {
+                present.add(idList.get(i));
+            }
+        }
+        return present;
+    }
+
+    private String toJson(DispatchOffer offer) {
+        try {
+            return objectMapper.writeValueAsString(offer);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize dispatch offer", e);
+        }
+    }
+}
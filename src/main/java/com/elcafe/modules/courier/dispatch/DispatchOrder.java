@@ -0,0 +1,32 @@
+package com.elcafe.modules.courier.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * READY order as seen by the dispatch matcher (no JPA state, safe to build from synthetic data)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchOrder {
+
+    private Long orderId;
+    private Long restaurantId;
+
+    private double pickupLatitude;
+    private double pickupLongitude;
+
+    private double dropLatitude;
+    private double dropLongitude;
+
+    private long readyAtMillis; // When the order became ready (epoch millis)
+    private long promisedAtMillis; // Delivery time promised to the customer (epoch millis)
+
+    private Set<Long> declinedCourierIds; // Couriers that already declined this order (optional)
+}
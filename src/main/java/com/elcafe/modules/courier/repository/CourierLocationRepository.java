@@ -52,6 +52,16 @@ public interface CourierLocationRepository extends JpaRepository<CourierLocation
             "AND cl.id IN (SELECT MAX(cl2.id) FROM CourierLocation cl2 GROUP BY cl2.courier.id)")
     List<CourierLocation> findActiveCourierLocations(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    /**
+     * Latest fresh location of every courier that is online and free to take orders
+     */
+    @Query("SELECT cl FROM CourierLocation cl JOIN FETCH cl.courier c WHERE cl.isActive = true " +
+            "AND cl.timestamp > :cutoffTime " +
+            "AND c.isOnline = true AND c.available = true " +
+            "AND c.currentStatus = com.elcafe.modules.courier.enums.CourierStatus.ONLINE " +
+            "AND cl.id IN (SELECT MAX(cl2.id) FROM CourierLocation cl2 GROUP BY cl2.courier.id)")
+    List<CourierLocation> findDispatchableCourierLocations(@Param("cutoffTime") LocalDateTime cutoffTime);
+
     /**
      * Delete old location data (for cleanup/privacy)
      */
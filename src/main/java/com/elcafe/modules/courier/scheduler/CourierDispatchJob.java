@@ -0,0 +1,97 @@
+package com.elcafe.modules.courier.scheduler;
+
+import com.elcafe.modules.courier.config.DispatchProperties;
+import com.elcafe.modules.courier.service.CourierDispatchService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background job driving the automatic courier dispatch cycle.
+ *
+ * The job is scheduled on every node, but a cycle only runs on the node holding the dispatch
+ * lease in Redis ({@code SET NX PX} on {@code dispatch:leader}); the holder renews it every
+ * cycle, and another node takes over once it lapses. Couriers serve several restaurants, so all
+ * of them are matched in one cycle under one lease.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourierDispatchJob {
+
+    private static final String LEADER_KEY = "dispatch:leader";
+
+    /**
+     * KEYS: lease. ARGV: node, lease in milliseconds. Returns 1 if the node holds the lease.
+     */
+    private static final RedisScript<Long> ACQUIRE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              redis.call('PEXPIRE', KEYS[1], ARGV[2])
+              return 1
+            end
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS: lease. ARGV: node. Gives the lease up if the node holds it.
+     */
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final CourierDispatchService courierDispatchService;
+    private final DispatchProperties dispatchProperties;
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Match READY orders to available couriers.
+     * Runs every {@code app.courier.dispatch.interval-ms} (default 5 seconds).
+     */
+    @Scheduled(fixedDelayString = "${app.courier.dispatch.interval-ms:5000}")
+    public void dispatchReadyOrders() {
+        if (!Boolean.TRUE.equals(dispatchProperties.getEnabled())) {
+            return;
+        }
+        try {
+            if (!holdLease()) {
+                return;
+            }
+            courierDispatchService.runDispatchCycle();
+        } catch (Exception e) {
+            log.error("Courier dispatch cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hand the lease over right away instead of letting it lapse
+     */
+    @PreDestroy
+    public void releaseLease() {
+        try {
+            redisTemplate.execute(RELEASE, List.of(LEADER_KEY), nodeId);
+        } catch (Exception e) {
+            log.warn("Could not release the dispatch lease: {}", e.getMessage());
+        }
+    }
+
+    private boolean holdLease() {
+        Long held = redisTemplate.execute(ACQUIRE, List.of(LEADER_KEY),
+                nodeId, String.valueOf(dispatchProperties.getLeaderLeaseMs()));
+        return Long.valueOf(1).equals(held);
+    }
+}
@@ -0,0 +1,172 @@
+package com.elcafe.modules.courier.service;
+
+import com.elcafe.modules.courier.config.DispatchProperties;
+import com.elcafe.modules.courier.dispatch.DispatchAssignment;
+import com.elcafe.modules.courier.dispatch.DispatchCourier;
+import com.elcafe.modules.courier.dispatch.DispatchMatcher;
+import com.elcafe.modules.courier.dispatch.DispatchOffer;
+import com.elcafe.modules.courier.dispatch.DispatchOfferRegistry;
+import com.elcafe.modules.courier.dispatch.DispatchOrder;
+import com.elcafe.modules.courier.entity.CourierLocation;
+import com.elcafe.modules.courier.repository.CourierLocationRepository;
+import com.elcafe.modules.notification.service.NotificationService;
+import com.elcafe.modules.order.entity.Order;
+import com.elcafe.modules.order.enums.OrderStatus;
+import com.elcafe.modules.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Automatic courier dispatch.
+ *
+ * Every cycle takes READY orders without a courier and online couriers with a fresh location,
+ * computes batched assignments with {@link DispatchMatcher} and offers them to couriers.
+ * Couriers confirm through {@link CourierOrderService#acceptOrder}; offers that are not
+ * accepted in time expire from {@link DispatchOfferRegistry} and the orders are re-planned on the
+ * next cycle. Only the node holding the dispatch lease runs cycles, see {@code CourierDispatchJob}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourierDispatchService {
+
+    private final OrderRepository orderRepository;
+    private final CourierLocationRepository courierLocationRepository;
+    private final DispatchMatcher dispatchMatcher;
+    private final DispatchOfferRegistry offerRegistry;
+    private final DispatchProperties properties;
+    private final NotificationService notificationService;
+
+    /**
+     * Run one dispatch cycle
+     *
+     * @return the assignments offered in this cycle
+     */
+    @Transactional(readOnly = true)
+    public List<DispatchAssignment> runDispatchCycle() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = toMillis(now);
+
+        List<Order> readyOrders = orderRepository.findUnassignedByStatus(OrderStatus.READY);
+        Set<Long> offeredOrderIds = offerRegistry.getOfferedOrders(readyOrders.stream().map(Order::getId).toList());
+        Map<Long, Order> ordersById = new HashMap<>();
+        List<DispatchOrder> dispatchOrders = new ArrayList<>();
+
+        for (Order order : readyOrders) {
+            if (offeredOrderIds.contains(order.getId()) || !isLocatable(order)) {
+                continue;
+            }
+            ordersById.put(order.getId(), order);
+            dispatchOrders.add(toDispatchOrder(order));
+        }
+
+        if (dispatchOrders.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime locationCutoff = now.minusMinutes(properties.getLocationStalenessMinutes());
+        List<CourierLocation> locations = courierLocationRepository.findDispatchableCourierLocations(locationCutoff);
+        Set<Long> offeredCourierIds = offerRegistry.getCouriersWithOffers(
+                locations.stream().map(location -> location.getCourier().getId()).toList());
+        List<DispatchCourier> couriers = locations.stream()
+                .filter(location -> !offeredCourierIds.contains(location.getCourier().getId()))
+                .map(this::toDispatchCourier)
+                .toList();
+
+        if (couriers.isEmpty()) {
+            log.debug("No available couriers for {} ready orders", dispatchOrders.size());
+            return List.of();
+        }
+
+        long started = System.nanoTime();
+        List<DispatchAssignment> assignments = dispatchMatcher.match(dispatchOrders, couriers, nowMillis);
+        log.info("Dispatch cycle: {} orders, {} couriers -> {} offers in {} ms",
+                dispatchOrders.size(), couriers.size(), assignments.size(),
+                (System.nanoTime() - started) / 1_000_000);
+
+        LocalDateTime expiresAt = now.plusSeconds(properties.getOfferTimeoutSeconds());
+        List<DispatchAssignment> offered = new ArrayList<>(assignments.size());
+        for (DispatchAssignment assignment : assignments) {
+            boolean registered = offerRegistry.register(DispatchOffer.builder()
+                    .courierId(assignment.getCourierId())
+                    .restaurantId(assignment.getRestaurantId())
+                    .orderIds(assignment.getOrderIds())
+                    .pickupKm(assignment.getPickupKm())
+                    .offeredAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+            if (!registered) {
+                log.debug("Courier {} or orders {} were offered meanwhile, skipping",
+                        assignment.getCourierId(), assignment.getOrderIds());
+                continue;
+            }
+            offered.add(assignment);
+
+            for (Long orderId : assignment.getOrderIds()) {
+                notificationService.notifyCourierOffered(ordersById.get(orderId), assignment.getCourierId(), expiresAt);
+            }
+        }
+
+        return offered;
+    }
+
+    /**
+     * Get the offer currently waiting for a courier's answer, if any
+     */
+    public DispatchOffer getPendingOffer(Long courierId) {
+        DispatchOffer offer = offerRegistry.getOfferForCourier(courierId);
+        if (offer == null || offer.isExpired(LocalDateTime.now())) {
+            return null;
+        }
+        return offer;
+    }
+
+    private boolean isLocatable(Order order) {
+        return order.getRestaurant().getLatitude() != null
+                && order.getRestaurant().getLongitude() != null
+                && order.getDeliveryInfo().getLatitude() != null
+                && order.getDeliveryInfo().getLongitude() != null;
+    }
+
+    private DispatchOrder toDispatchOrder(Order order) {
+        LocalDateTime readyAt = order.getReadyAt() != null ? order.getReadyAt() : order.getUpdatedAt();
+        LocalDateTime placedAt = order.getPlacedAt() != null ? order.getPlacedAt() : order.getCreatedAt();
+        Integer promiseMinutes = order.getRestaurant().getEstimatedDeliveryTimeMinutes();
+        LocalDateTime promisedAt = placedAt.plusMinutes(
+                promiseMinutes != null ? promiseMinutes : properties.getDefaultPromiseMinutes());
+
+        return DispatchOrder.builder()
+                .orderId(order.getId())
+                .restaurantId(order.getRestaurant().getId())
+                .pickupLatitude(order.getRestaurant().getLatitude())
+                .pickupLongitude(order.getRestaurant().getLongitude())
+                .dropLatitude(order.getDeliveryInfo().getLatitude())
+                .dropLongitude(order.getDeliveryInfo().getLongitude())
+                .readyAtMillis(toMillis(readyAt))
+                .promisedAtMillis(toMillis(promisedAt))
+                .declinedCourierIds(offerRegistry.getDeclinedCouriers(order.getId()))
+                .build();
+    }
+
+    private DispatchCourier toDispatchCourier(CourierLocation location) {
+        return DispatchCourier.builder()
+                .courierId(location.getCourier().getId())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .build();
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
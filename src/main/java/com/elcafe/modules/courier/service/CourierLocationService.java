@@ -6,11 +6,16 @@ import com.elcafe.modules.courier.entity.CourierProfile;
 import com.elcafe.modules.courier.entity.CourierLocation;
 import com.elcafe.modules.courier.repository.CourierLocationRepository;
 import com.elcafe.modules.courier.repository.CourierProfileRepository;
+import com.elcafe.modules.order.eta.EtaEstimate;
+import com.elcafe.modules.order.repository.OrderRepository;
+import com.elcafe.modules.order.service.DeliveryEtaService;
+import com.elcafe.modules.order.service.OrderEventBroadcaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,6 +30,9 @@ public class CourierLocationService {
 
     private final CourierLocationRepository courierLocationRepository;
     private final CourierProfileRepository courierProfileRepository;
+    private final OrderRepository orderRepository;
+    private final DeliveryEtaService deliveryEtaService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
 
     /**
      * Update courier location
@@ -54,6 +62,10 @@ public class CourierLocationService {
         log.info("Location updated for courier {}: ({}, {})",
                 courierId, request.getLatitude(), request.getLongitude());
 
+        if (request.getOrderId() != null) {
+            refreshOrderEta(request.getOrderId(), request.getLatitude(), request.getLongitude());
+        }
+
         return mapToResponse(savedLocation);
     }
 
@@ -122,6 +134,26 @@ public class CourierLocationService {
 
     // Helper methods
 
+    private void refreshOrderEta(Long orderId, Double latitude, Double longitude) {
+        try {
+            orderRepository.findById(orderId).ifPresent(order -> {
+                if (order.getDeliveryInfo() == null) {
+                    return;
+                }
+                EtaEstimate eta = deliveryEtaService.estimateFromCourier(order, latitude, longitude, LocalDateTime.now());
+
+                // Only persist meaningful changes so pings don't rewrite the row every few seconds
+                LocalDateTime stored = order.getDeliveryInfo().getEstimatedDeliveryTime();
+                if (stored == null || Math.abs(Duration.between(stored, eta.getEstimatedDeliveryTime()).toMinutes()) >= 1) {
+                    order.getDeliveryInfo().setEstimatedDeliveryTime(eta.getEstimatedDeliveryTime());
+                }
+                orderEventBroadcaster.broadcastEtaUpdated(order, eta);
+            });
+        } catch (Exception e) {
+            log.error("Failed to refresh ETA for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
     private CourierLocationResponse mapToResponse(CourierLocation location) {
         return CourierLocationResponse.builder()
                 .id(location.getId())
@@ -1,5 +1,6 @@
 package com.elcafe.modules.courier.service;
 
+import com.elcafe.modules.courier.dispatch.DispatchOfferRegistry;
 import com.elcafe.modules.courier.entity.CourierProfile;
 import com.elcafe.modules.courier.repository.CourierProfileRepository;
 import com.elcafe.modules.kitchen.service.KitchenOrderService;
@@ -8,6 +9,7 @@ import com.elcafe.modules.order.entity.Order;
 import com.elcafe.modules.order.entity.OrderStatusHistory;
 import com.elcafe.modules.order.enums.OrderStatus;
 import com.elcafe.modules.order.repository.OrderRepository;
+import com.elcafe.modules.order.service.DeliveryEtaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,6 +28,8 @@ public class CourierOrderService {
     private final NotificationService notificationService;
     private final KitchenOrderService kitchenOrderService;
     private final CourierWalletService courierWalletService;
+    private final DispatchOfferRegistry dispatchOfferRegistry;
+    private final DeliveryEtaService deliveryEtaService;
 
     /**
      * Get orders that are ready for courier assignment
@@ -65,6 +69,11 @@ public class CourierOrderService {
             throw new RuntimeException("Order already has a courier assigned");
         }
 
+        // Check if the dispatcher reserved the order for someone else
+        if (dispatchOfferRegistry.isReservedForOther(orderId, courierId)) {
+            throw new RuntimeException("Order is offered to another courier");
+        }
+
         // Assign courier
         order.setStatus(OrderStatus.COURIER_ASSIGNED);
         order.getDeliveryInfo().setCourierId(courier.getId());
@@ -80,6 +89,7 @@ public class CourierOrderService {
         order.addStatusHistory(statusHistory);
 
         Order savedOrder = orderRepository.save(order);
+        dispatchOfferRegistry.release(orderId);
 
         // Notify
         notificationService.notifyCourierAccepted(savedOrder, courier.getUser().getFirstName());
@@ -98,6 +108,8 @@ public class CourierOrderService {
         CourierProfile courier = courierProfileRepository.findById(courierId)
                 .orElseThrow(() -> new RuntimeException("Courier not found"));
 
+        dispatchOfferRegistry.decline(orderId, courierId);
+
         // Notify about decline
         notificationService.notifyCourierDeclined(order, courier.getUser().getFirstName(), reason);
 
@@ -129,6 +141,7 @@ public class CourierOrderService {
         order.addStatusHistory(statusHistory);
 
         Order savedOrder = orderRepository.save(order);
+        dispatchOfferRegistry.release(orderId);
 
         // Notify
         notificationService.notifyCourierAssigned(savedOrder, courier.getId(), courier.getUser().getFirstName());
@@ -154,9 +167,10 @@ public class CourierOrderService {
             throw new RuntimeException("Order is not in correct status");
         }
 
+        LocalDateTime pickupTime = LocalDateTime.now();
         order.setStatus(OrderStatus.ON_DELIVERY);
-        order.getDeliveryInfo().setPickupTime(LocalDateTime.now());
-        order.getDeliveryInfo().setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(30));
+        order.getDeliveryInfo().setPickupTime(pickupTime);
+        order.getDeliveryInfo().setEstimatedDeliveryTime(deliveryEtaService.estimateDeliveryAfterPickup(order, pickupTime));
 
         OrderStatusHistory statusHistory = OrderStatusHistory.builder()
                 .order(order)
@@ -208,6 +222,9 @@ public class CourierOrderService {
 
         Order savedOrder = orderRepository.save(order);
 
+        // Learn zone speed from this route for future ETAs
+        deliveryEtaService.recordCompletedDelivery(savedOrder);
+
         // Credit courier wallet for delivery
         try {
             courierWalletService.creditDeliveryFee(courierId, savedOrder);
@@ -1,5 +1,6 @@
 package com.elcafe.modules.courier.service;
 
+import com.elcafe.event.PrincipalChangedEvent;
 import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.auth.entity.User;
 import com.elcafe.modules.auth.enums.UserRole;
@@ -18,6 +19,7 @@ import com.elcafe.modules.courier.repository.CourierLocationRepository;
 import com.elcafe.modules.courier.repository.CourierProfileRepository;
 import com.elcafe.modules.courier.repository.CourierWalletRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +38,7 @@ public class CourierService {
     private final CourierLocationRepository courierLocationRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all couriers with pagination
@@ -134,6 +137,8 @@ public class CourierService {
                 .orElseThrow(() -> new ResourceNotFoundException("Courier not found with id: " + id));
 
         User user = profile.getUser();
+        String previousEmail = user.getEmail();
+        String previousPhone = user.getPhone();
 
         // Update User fields
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
@@ -164,6 +169,8 @@ public class CourierService {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forUser(this,
+                previousEmail, previousPhone, user.getEmail(), user.getPhone()));
 
         // Update CourierProfile fields
         if (request.getCourierType() != null) {
@@ -223,6 +230,8 @@ public class CourierService {
 
         // Delete user
         userRepository.delete(profile.getUser());
+        eventPublisher.publishEvent(PrincipalChangedEvent.forUser(this,
+                profile.getUser().getEmail(), profile.getUser().getPhone()));
     }
 
     /**
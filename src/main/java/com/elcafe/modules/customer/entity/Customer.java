@@ -1,6 +1,7 @@
 package com.elcafe.modules.customer.entity;
 
 import com.elcafe.modules.customer.enums.RegistrationSource;
+import com.elcafe.utils.PhoneNumbers;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Data
 @Builder
@@ -38,6 +40,13 @@ public class Customer {
     @Column(nullable = false, length = 20)
     private String phone;
 
+    /**
+     * The phone number in E.164 form, unique among customers. Null for rows that shared a number
+     * with an older customer before numbers were made unique.
+     */
+    @Column(name = "phone_e164", length = 20)
+    private String phoneE164;
+
     @Column(length = 500)
     private String defaultAddress;
 
@@ -76,4 +85,18 @@ public class Customer {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    public void setPhone(String phone) {
+        if (!Objects.equals(this.phone, phone)) {
+            this.phoneE164 = PhoneNumbers.toE164(phone);
+        }
+        this.phone = phone;
+    }
+
+    @PrePersist
+    void normalizePhone() {
+        if (phoneE164 == null) {
+            phoneE164 = PhoneNumbers.toE164(phone);
+        }
+    }
 }
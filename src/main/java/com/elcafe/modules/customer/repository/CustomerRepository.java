@@ -2,6 +2,8 @@ package com.elcafe.modules.customer.repository;
 
 import com.elcafe.modules.customer.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,6 +15,11 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByPhone(String phone);
 
+    Optional<Customer> findByPhoneE164(String phoneE164);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.phoneE164 = :phoneE164")
+    Optional<Long> findIdByPhoneE164(@Param("phoneE164") String phoneE164);
+
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
@@ -0,0 +1,174 @@
+package com.elcafe.modules.customer.service;
+
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.event.PrincipalChangedEvent;
+import com.elcafe.exception.BadRequestException;
+import com.elcafe.modules.customer.entity.Customer;
+import com.elcafe.modules.customer.repository.CustomerRepository;
+import com.elcafe.utils.PhoneNumbers;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Customer IDs by phone number.
+ *
+ * Numbers are compared in E.164 form, and the IDs are kept in the two-level "customerIdentity"
+ * cache, so repeat orders and logins from a number do not query the customer table. A missing
+ * customer is created with one {@code INSERT ... ON CONFLICT DO NOTHING} on the unique normalized
+ * number: of concurrent requests from a new number one inserts and the others read its row,
+ * instead of each inserting a duplicate.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerIdentityResolver {
+
+    public static final String CACHE = "customerIdentity";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO customers (first_name, last_name, email, phone, phone_e164, birth_date, language,
+                                   registration_source, active, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (phone_e164) DO NOTHING
+            RETURNING id
+            """;
+
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TwoLevelCacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * A resolved customer, and whether this call created it
+     */
+    public record CustomerIdentity(Long customerId, String phoneE164, boolean created) {
+    }
+
+    /**
+     * ID of the customer with this phone number, if any
+     */
+    public Optional<Long> findCustomerId(String phone) {
+        String phoneE164 = PhoneNumbers.toE164(phone);
+        if (phoneE164 == null) {
+            return Optional.empty();
+        }
+        Long cached = cached(phoneE164);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> customerId = customerRepository.findIdByPhoneE164(phoneE164);
+        customerId.ifPresent(id -> cache(phoneE164, id));
+        return customerId;
+    }
+
+    /**
+     * ID of the customer with the phone number of the given one, which is inserted if there is none
+     *
+     * @param customer the customer to create, carrying the phone number as entered
+     */
+    public CustomerIdentity findOrCreate(Customer customer) {
+        String phoneE164 = PhoneNumbers.toE164(customer.getPhone());
+        if (phoneE164 == null) {
+            throw new BadRequestException("Invalid phone number: " + customer.getPhone());
+        }
+        Long cached = cached(phoneE164);
+        if (cached != null) {
+            return new CustomerIdentity(cached, phoneE164, false);
+        }
+
+        List<Long> inserted = jdbcTemplate.queryForList(INSERT_SQL, Long.class,
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getPhone(),
+                phoneE164,
+                customer.getBirthDate() != null ? Date.valueOf(customer.getBirthDate()) : null,
+                customer.getLanguage(),
+                customer.getRegistrationSource() != null ? customer.getRegistrationSource().name() : null);
+
+        if (!inserted.isEmpty()) {
+            Long customerId = inserted.get(0);
+            meterRegistry.counter("customer.identity.resolutions", "outcome", "created").increment();
+            log.info("Created customer {} for phone {}", customerId, phoneE164);
+            // A row this transaction may still roll back is not shared before commit
+            cacheAfterCommit(phoneE164, customerId);
+            return new CustomerIdentity(customerId, phoneE164, true);
+        }
+
+        // Already there, or inserted concurrently and committed while this insert waited for it
+        Long customerId = jdbcTemplate.queryForObject(
+                "SELECT id FROM customers WHERE phone_e164 = ?", Long.class, phoneE164);
+        meterRegistry.counter("customer.identity.resolutions", "outcome", "found").increment();
+        cache(phoneE164, customerId);
+        return new CustomerIdentity(customerId, phoneE164, false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        if (!event.isCustomer()) {
+            return;
+        }
+        for (String phone : event.getUsernames()) {
+            String phoneE164 = PhoneNumbers.toE164(phone);
+            if (phoneE164 == null) {
+                continue;
+            }
+            try {
+                cache().evict(phoneE164);
+            } catch (RuntimeException e) {
+                // The entry still expires with the cache TTL
+                log.warn("Could not evict cached customer ID of {}: {}", phoneE164, e.getMessage());
+            }
+        }
+    }
+
+    private Long cached(String phoneE164) {
+        try {
+            Cache.ValueWrapper value = cache().get(phoneE164);
+            if (value != null && value.get() instanceof Number customerId) {
+                meterRegistry.counter("customer.identity.resolutions", "outcome", "cached").increment();
+                // Small IDs come back from Redis as integers
+                return customerId.longValue();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Customer identity cache unavailable, looking up {} directly: {}", phoneE164, e.getMessage());
+        }
+        return null;
+    }
+
+    private void cache(String phoneE164, Long customerId) {
+        try {
+            cache().put(phoneE164, customerId);
+        } catch (RuntimeException e) {
+            log.warn("Could not cache customer ID of {}: {}", phoneE164, e.getMessage());
+        }
+    }
+
+    private void cacheAfterCommit(String phoneE164, Long customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(phoneE164, customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(phoneE164, customerId);
+            }
+        });
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE);
+    }
+}
@@ -1,26 +1,34 @@
 package com.elcafe.modules.customer.service;
 
+import com.elcafe.event.PrincipalChangedEvent;
+import com.elcafe.exception.ConflictException;
 import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.customer.dto.UpdateConsumerProfileRequest;
 import com.elcafe.modules.customer.entity.Customer;
 import com.elcafe.modules.customer.repository.CustomerRepository;
+import com.elcafe.utils.PhoneNumbers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Customer createCustomer(Customer customer) {
         log.info("Creating customer: {}", customer.getEmail());
+        assertPhoneAvailable(null, customer.getPhone());
         return customerRepository.save(customer);
     }
 
@@ -30,10 +38,14 @@ public class CustomerService {
 
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
+        String previousPhone = customer.getPhone();
 
         customer.setFirstName(customerData.getFirstName());
         customer.setLastName(customerData.getLastName());
         customer.setEmail(customerData.getEmail());
+        if (!Objects.equals(previousPhone, customerData.getPhone())) {
+            assertPhoneAvailable(id, customerData.getPhone());
+        }
         customer.setPhone(customerData.getPhone());
         customer.setDefaultAddress(customerData.getDefaultAddress());
         customer.setCity(customerData.getCity());
@@ -43,7 +55,9 @@ public class CustomerService {
         customer.setTags(customerData.getTags());
         customer.setActive(customerData.getActive());
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forCustomer(this, previousPhone, saved.getPhone()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -63,6 +77,7 @@ public class CustomerService {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
         customerRepository.delete(customer);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forCustomer(this, customer.getPhone()));
     }
 
     /**
@@ -75,6 +90,7 @@ public class CustomerService {
 
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", customerId));
+        String previousPhone = customer.getPhone();
 
         // Only update fields that are provided
         if (request.getFirstName() != null && !request.getFirstName().trim().isEmpty()) {
@@ -90,6 +106,9 @@ public class CustomerService {
         }
 
         if (request.getPhone() != null && !request.getPhone().trim().isEmpty()) {
+            if (!request.getPhone().trim().equals(previousPhone)) {
+                assertPhoneAvailable(customerId, request.getPhone().trim());
+            }
             customer.setPhone(request.getPhone().trim());
         }
 
@@ -118,7 +137,23 @@ public class CustomerService {
         }
 
         Customer updated = customerRepository.save(customer);
+        eventPublisher.publishEvent(PrincipalChangedEvent.forCustomer(this, previousPhone, updated.getPhone()));
         log.info("Consumer profile updated successfully: customerId={}", customerId);
         return updated;
     }
+
+    /**
+     * Phone numbers are unique among customers once normalized
+     */
+    private void assertPhoneAvailable(Long customerId, String phone) {
+        String phoneE164 = PhoneNumbers.toE164(phone);
+        if (phoneE164 == null) {
+            return;
+        }
+        customerRepository.findIdByPhoneE164(phoneE164)
+                .filter(otherId -> !otherId.equals(customerId))
+                .ifPresent(otherId -> {
+                    throw new ConflictException("Phone number is already used by another customer");
+                });
+    }
 }
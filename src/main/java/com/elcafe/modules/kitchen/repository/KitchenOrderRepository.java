@@ -23,6 +23,9 @@ public interface KitchenOrderRepository extends JpaRepository<KitchenOrder, Long
     @Query("SELECT ko FROM KitchenOrder ko WHERE ko.order.restaurant.id = :restaurantId AND ko.status IN :statuses ORDER BY ko.priority DESC, ko.createdAt ASC")
     List<KitchenOrder> findByRestaurantAndStatuses(@Param("restaurantId") Long restaurantId, @Param("statuses") List<KitchenOrderStatus> statuses);
 
+    @Query("SELECT COUNT(ko) FROM KitchenOrder ko WHERE ko.order.restaurant.id = :restaurantId AND ko.status IN :statuses")
+    long countByRestaurantAndStatuses(@Param("restaurantId") Long restaurantId, @Param("statuses") List<KitchenOrderStatus> statuses);
+
     List<KitchenOrder> findByAssignedChef(String chefName);
 
     // Analytics queries
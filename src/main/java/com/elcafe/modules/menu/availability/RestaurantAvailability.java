@@ -0,0 +1,228 @@
+package com.elcafe.modules.menu.availability;
+
+import com.elcafe.modules.menu.entity.Product;
+import com.elcafe.modules.menu.entity.ProductVariant;
+import com.elcafe.modules.menu.enums.ProductStatus;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Orderability and prices of one restaurant's products and variants, held in primitive arrays.
+ *
+ * Products and variants are addressed by their index in an ID-sorted array, found by binary
+ * search, so validating a basket allocates nothing. Availability is one bit per entry and can be
+ * flipped in place; names and prices are fixed, and a change to them means building a new table.
+ */
+public final class RestaurantAvailability {
+
+    /** Prices are kept in minor units at the scale of the price columns */
+    private static final int PRICE_SCALE = 2;
+
+    @Getter
+    private final Long restaurantId;
+
+    private final long[] productIds;
+    private final long[] productPrices;
+    private final String[] productNames;
+    private final AtomicLongArray productBits;
+
+    private final long[] variantIds;
+    private final int[] variantProducts;
+    private final long[] variantPrices;
+    private final String[] variantNames;
+    private final AtomicLongArray variantBits;
+
+    private RestaurantAvailability(Long restaurantId, long[] productIds, int variantCount) {
+        int productCount = productIds.length;
+        this.restaurantId = restaurantId;
+        this.productIds = productIds;
+        this.productPrices = new long[productCount];
+        this.productNames = new String[productCount];
+        this.productBits = new AtomicLongArray(words(productCount));
+        this.variantIds = new long[variantCount];
+        this.variantProducts = new int[variantCount];
+        this.variantPrices = new long[variantCount];
+        this.variantNames = new String[variantCount];
+        this.variantBits = new AtomicLongArray(words(variantCount));
+    }
+
+    /**
+     * Build the table of a restaurant from all of its products and their variants
+     */
+    public static RestaurantAvailability of(Long restaurantId, Collection<Product> products, Collection<ProductVariant> variants) {
+        List<Product> sortedProducts = products.stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+        long[] productIds = sortedProducts.stream().mapToLong(Product::getId).toArray();
+        List<ProductVariant> sortedVariants = variants.stream()
+                .filter(variant -> Arrays.binarySearch(productIds, variant.getProduct().getId()) >= 0)
+                .sorted(Comparator.comparing(ProductVariant::getId))
+                .toList();
+
+        RestaurantAvailability table = new RestaurantAvailability(restaurantId, productIds, sortedVariants.size());
+        for (int i = 0; i < sortedProducts.size(); i++) {
+            Product product = sortedProducts.get(i);
+            table.productPrices[i] = toMinor(product.getPrice());
+            table.productNames[i] = product.getName();
+            setBit(table.productBits, i, isOrderable(product));
+        }
+        for (int i = 0; i < sortedVariants.size(); i++) {
+            ProductVariant variant = sortedVariants.get(i);
+            table.variantIds[i] = variant.getId();
+            table.variantProducts[i] = table.productIndex(variant.getProduct().getId());
+            table.variantPrices[i] = toMinor(variant.getPrice());
+            table.variantNames[i] = variant.getName();
+            setBit(table.variantBits, i, Boolean.TRUE.equals(variant.getInStock()));
+        }
+        return table;
+    }
+
+    /**
+     * Whether a product can be ordered at all: live and in stock
+     */
+    public static boolean isOrderable(Product product) {
+        return product.getStatus() == ProductStatus.LIVE && Boolean.TRUE.equals(product.getInStock());
+    }
+
+    /**
+     * Index of a product of this restaurant, -1 if the restaurant has no such product
+     */
+    public int productIndex(long productId) {
+        int index = Arrays.binarySearch(productIds, productId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Index of a variant of this restaurant's products, -1 if there is no such variant
+     */
+    public int variantIndex(long variantId) {
+        int index = Arrays.binarySearch(variantIds, variantId);
+        return index >= 0 ? index : -1;
+    }
+
+    public boolean isProductAvailable(int productIndex) {
+        return getBit(productBits, productIndex);
+    }
+
+    /**
+     * Whether a variant can be ordered: it and its product are both available
+     */
+    public boolean isVariantAvailable(int variantIndex) {
+        return getBit(variantBits, variantIndex) && getBit(productBits, variantProducts[variantIndex]);
+    }
+
+    /**
+     * Index of the product a variant belongs to
+     */
+    public int variantProduct(int variantIndex) {
+        return variantProducts[variantIndex];
+    }
+
+    public long productId(int productIndex) {
+        return productIds[productIndex];
+    }
+
+    public long variantId(int variantIndex) {
+        return variantIds[variantIndex];
+    }
+
+    public String productName(int productIndex) {
+        return productNames[productIndex];
+    }
+
+    public String variantName(int variantIndex) {
+        return variantNames[variantIndex];
+    }
+
+    public BigDecimal productPrice(int productIndex) {
+        return BigDecimal.valueOf(productPrices[productIndex], PRICE_SCALE);
+    }
+
+    public BigDecimal variantPrice(int variantIndex) {
+        return BigDecimal.valueOf(variantPrices[variantIndex], PRICE_SCALE);
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    /**
+     * Whether this table already describes the product and its variants apart from availability,
+     * i.e. the product's change can be applied by flipping bits
+     */
+    public boolean hasSameListing(Product product, Collection<ProductVariant> variants) {
+        int index = productIndex(product.getId());
+        if (index < 0 || productPrices[index] != toMinor(product.getPrice())
+                || !Objects.equals(productNames[index], product.getName())) {
+            return false;
+        }
+
+        int listed = 0;
+        for (int variantProduct : variantProducts) {
+            if (variantProduct == index) {
+                listed++;
+            }
+        }
+        if (listed != variants.size()) {
+            return false;
+        }
+        for (ProductVariant variant : variants) {
+            int variantIndex = variantIndex(variant.getId());
+            if (variantIndex < 0 || variantProducts[variantIndex] != index
+                    || variantPrices[variantIndex] != toMinor(variant.getPrice())
+                    || !Objects.equals(variantNames[variantIndex], variant.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set a product's availability bit, returning whether it changed
+     */
+    public boolean setProductAvailable(int productIndex, boolean available) {
+        return setBit(productBits, productIndex, available);
+    }
+
+    /**
+     * Set a variant's own availability bit, returning whether it changed
+     */
+    public boolean setVariantAvailable(int variantIndex, boolean available) {
+        return setBit(variantBits, variantIndex, available);
+    }
+
+    private static long toMinor(BigDecimal price) {
+        return price == null ? 0L : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static int words(int bits) {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+
+    private static boolean getBit(AtomicLongArray bits, int index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private static boolean setBit(AtomicLongArray bits, int index, boolean value) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = bits.get(word);
+            long updated = value ? current | mask : current & ~mask;
+            if (current == updated) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, updated)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.elcafe.modules.menu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for ingredient stock deduction from accepted orders
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.inventory")
+public class InventoryProperties {
+
+    /**
+     * Enable/disable deducting recipe quantities from ingredient stock when orders are accepted
+     */
+    private Boolean deductionEnabled = true;
+
+    /**
+     * Delay between two flushes of accumulated deductions to the database in milliseconds
+     */
+    private Long flushIntervalMs = 2000L;
+
+    /**
+     * Mark every product using an ingredient out of stock once the ingredient runs out.
+     * Off by default: products are only hidden after operators have checked their stock figures.
+     */
+    private Boolean autoMarkOutOfStock = false;
+}
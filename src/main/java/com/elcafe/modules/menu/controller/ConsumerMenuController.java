@@ -1,18 +1,27 @@
 package com.elcafe.modules.menu.controller;
 
+import com.elcafe.modules.menu.dto.MenuDeltaResponse;
 import com.elcafe.modules.menu.dto.ProductListDTO;
+import com.elcafe.modules.menu.dto.ProductSearchResult;
 import com.elcafe.modules.menu.entity.Category;
 import com.elcafe.modules.menu.entity.Product;
 import com.elcafe.modules.menu.service.MenuService;
+import com.elcafe.modules.menu.service.MenuSnapshotService;
+import com.elcafe.modules.menu.service.MenuVersionService;
+import com.elcafe.modules.menu.service.ProductSearchService;
 import com.elcafe.utils.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -28,13 +37,50 @@ import java.util.List;
 public class ConsumerMenuController {
 
     private final MenuService menuService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final MenuVersionService menuVersionService;
+    private final ProductSearchService productSearchService;
 
     @GetMapping("/restaurant/{restaurantId}")
-    @Operation(summary = "Get menu for restaurant", description = "Get full menu with categories and products for a restaurant")
-    public ResponseEntity<ApiResponse<List<Category>>> getMenuForRestaurant(@PathVariable Long restaurantId) {
+    @Operation(summary = "Get menu for restaurant", description = "Get full menu with categories and products for a restaurant. Supports If-None-Match")
+    public ResponseEntity<byte[]> getMenuForRestaurant(@PathVariable Long restaurantId, WebRequest webRequest) {
         log.info("Consumer fetching menu for restaurant: {}", restaurantId);
-        List<Category> menu = menuService.getPublicMenu(restaurantId);
-        return ResponseEntity.ok(ApiResponse.success("Menu retrieved successfully", menu));
+        long version = menuVersionService.getVersion(restaurantId);
+        String eTag = MenuVersionService.eTag(restaurantId, version);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .header(MenuVersionService.MENU_VERSION_HEADER, String.valueOf(version))
+                .body(menuSnapshotService.getPublicMenuResponse(restaurantId, version, "Menu retrieved successfully"));
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/changes")
+    @Operation(summary = "Get menu changes", description = "Get categories, products and add-on groups changed since a menu version")
+    public ResponseEntity<ApiResponse<MenuDeltaResponse>> getMenuChanges(
+            @PathVariable Long restaurantId,
+            @RequestParam Long since) {
+        log.info("Consumer fetching menu changes for restaurant: {} since version {}", restaurantId, since);
+        MenuDeltaResponse delta = menuVersionService.getDelta(restaurantId, since);
+        return ResponseEntity.ok(ApiResponse.success("Menu changes retrieved successfully", delta));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Search products by name, variant or category across all restaurants or within one")
+    public ResponseEntity<ApiResponse<List<ProductSearchResult>>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer limit) {
+        List<ProductSearchResult> results = productSearchService.search(q, restaurantId, categoryId, inStock,
+                minPrice, maxPrice, limit);
+        return ResponseEntity.ok(ApiResponse.success("Products found", results));
     }
 
     @GetMapping("/restaurant/{restaurantId}/products")
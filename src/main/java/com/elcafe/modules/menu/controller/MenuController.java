@@ -1,14 +1,28 @@
 package com.elcafe.modules.menu.controller;
 
+import com.elcafe.modules.menu.dto.MenuImportResult;
 import com.elcafe.modules.menu.entity.Category;
+import com.elcafe.modules.menu.enums.MenuTransferFormat;
+import com.elcafe.modules.menu.service.MenuExportService;
+import com.elcafe.modules.menu.service.MenuImportService;
 import com.elcafe.modules.menu.service.MenuService;
+import com.elcafe.modules.menu.service.MenuSnapshotService;
+import com.elcafe.modules.menu.service.MenuVersionService;
 import com.elcafe.utils.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,12 +32,25 @@ import java.util.List;
 public class MenuController {
 
     private final MenuService menuService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final MenuVersionService menuVersionService;
+    private final MenuImportService menuImportService;
+    private final MenuExportService menuExportService;
 
     @GetMapping("/public/{restaurantId}")
     @Operation(summary = "Get public menu", description = "Get public menu for a restaurant (cached)")
-    public ResponseEntity<ApiResponse<List<Category>>> getPublicMenu(@PathVariable Long restaurantId) {
-        List<Category> menu = menuService.getPublicMenu(restaurantId);
-        return ResponseEntity.ok(ApiResponse.success(menu));
+    public ResponseEntity<byte[]> getPublicMenu(@PathVariable Long restaurantId, WebRequest webRequest) {
+        long version = menuVersionService.getVersion(restaurantId);
+        String eTag = MenuVersionService.eTag(restaurantId, version);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .header(MenuVersionService.MENU_VERSION_HEADER, String.valueOf(version))
+                .body(menuSnapshotService.getPublicMenuResponse(restaurantId, version, null));
     }
 
     @GetMapping("/restaurants/{restaurantId}/categories")
@@ -32,4 +59,32 @@ public class MenuController {
         List<Category> categories = menuService.getCategoriesByRestaurant(restaurantId);
         return ResponseEntity.ok(ApiResponse.success(categories));
     }
+
+    @PostMapping("/restaurants/{restaurantId}/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import menu", description = "Create or update menu items from a CSV or NDJSON request body")
+    public ResponseEntity<ApiResponse<MenuImportResult>> importMenu(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) MenuTransferFormat format,
+            HttpServletRequest request
+    ) throws IOException {
+        MenuTransferFormat resolved = format != null ? format : MenuTransferFormat.fromContentType(request.getContentType());
+        MenuImportResult result = menuImportService.importMenu(restaurantId, resolved, request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Menu imported", result));
+    }
+
+    @GetMapping("/restaurants/{restaurantId}/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERATOR')")
+    @Operation(summary = "Export menu", description = "Download the menu of a restaurant as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportMenu(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "CSV") MenuTransferFormat format
+    ) {
+        StreamingResponseBody body = menuExportService.export(restaurantId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"menu-" + restaurantId + "."
+                        + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,48 @@
+package com.elcafe.modules.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for menu changes of a restaurant between two menu versions.
+ * Categories are sent without products; changed products carry their category ID.
+ * Products of a deleted category and links to a deleted add-on group are removed with it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuDeltaResponse {
+    private Long restaurantId;
+    private Long sinceVersion;
+    private Long version;
+
+    /**
+     * The delta cannot be computed from the given version; the client must reload the full menu
+     */
+    @Builder.Default
+    private Boolean fullReload = false;
+
+    @Builder.Default
+    private List<PublicMenuCategoryDTO> categories = new ArrayList<>();
+
+    @Builder.Default
+    private List<PublicMenuProductDTO> products = new ArrayList<>();
+
+    @Builder.Default
+    private List<AddOnGroupResponse> addOnGroups = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> deletedCategoryIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> deletedProductIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> deletedAddOnGroupIds = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package com.elcafe.modules.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk menu import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportResult {
+    private Long restaurantId;
+    private long rowsRead;
+    private long rowsRejected;
+
+    private long productsCreated;
+    private long productsUpdated;
+    private long variantsCreated;
+    private long variantsUpdated;
+    private long addOnsCreated;
+    private long addOnsUpdated;
+    private long addOnGroupLinks;
+    private long ingredientLinks;
+
+    private long durationMs;
+
+    /**
+     * Rejected rows with their line number; only the first errors are listed
+     */
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
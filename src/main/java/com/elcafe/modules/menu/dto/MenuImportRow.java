@@ -0,0 +1,77 @@
+package com.elcafe.modules.menu.dto;
+
+import com.elcafe.modules.menu.enums.ItemType;
+import com.elcafe.modules.menu.enums.MenuImportRowType;
+import com.elcafe.modules.menu.enums.ProductStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One row of a bulk menu import or export (a CSV record or an NDJSON line).
+ *
+ * Rows refer to each other by name: products by category and name, variants and ingredient
+ * links by category, product and their own name, add-ons by add-on group and name. A row whose
+ * natural key exists updates that entity, leaving blank fields unchanged; otherwise it creates it.
+ * Categories, add-on groups and ingredients must already exist, and a product must come before
+ * its variants and ingredient links.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MenuImportRow {
+
+    /** CSV columns, in export order */
+    public static final List<String> COLUMNS = List.of(
+            "type", "category", "product", "name", "description", "imageUrl", "price", "priceWithMargin",
+            "itemType", "sortOrder", "status", "inStock", "featured", "addOnGroup", "addOnGroups",
+            "ingredient", "quantity", "unit");
+
+    private MenuImportRowType type;
+
+    private String category;
+
+    /**
+     * Product name, for variant and ingredient rows
+     */
+    private String product;
+
+    private String name;
+    private String description;
+    private String imageUrl;
+    private BigDecimal price;
+    private BigDecimal priceWithMargin;
+    private ItemType itemType;
+    private Integer sortOrder;
+    private ProductStatus status;
+
+    /**
+     * Stock flag of products and variants, availability of add-ons
+     */
+    private Boolean inStock;
+
+    private Boolean featured;
+
+    /**
+     * Add-on group of an add-on row
+     */
+    private String addOnGroup;
+
+    /**
+     * Add-on groups linked to a product, separated by '|'
+     */
+    private String addOnGroups;
+
+    private String ingredient;
+    private BigDecimal quantity;
+    private String unit;
+}
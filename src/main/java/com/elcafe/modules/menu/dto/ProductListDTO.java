@@ -2,6 +2,7 @@ package com.elcafe.modules.menu.dto;
 
 import com.elcafe.modules.menu.enums.ItemType;
 import com.elcafe.modules.menu.enums.ProductStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,6 +23,10 @@ public class ProductListDTO {
     private String name;
     private String description;
     private String imageUrl;
+    private String thumbnailUrl;
+
+    @JsonIgnore
+    private String imageVariants;
     private BigDecimal price;
     private BigDecimal priceWithMargin;
     private ItemType itemType;
@@ -0,0 +1,29 @@
+package com.elcafe.modules.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one product search hit
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+    private Long productId;
+    private Long restaurantId;
+    private Long categoryId;
+    private String categoryName;
+    private String name;
+    private String description;
+    private String imageUrl;
+    private BigDecimal price;
+    private Boolean inStock;
+    private Boolean featured;
+    private Float score;
+}
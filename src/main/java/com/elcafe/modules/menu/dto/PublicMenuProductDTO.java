@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * DTO for public menu product
@@ -19,9 +21,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class PublicMenuProductDTO {
     private Long id;
+    private Long categoryId;
     private String name;
     private String description;
     private String imageUrl;
+    private String thumbnailUrl;
     private BigDecimal price;
     private BigDecimal priceWithMargin;
     private ItemType itemType;
@@ -32,4 +36,10 @@ public class PublicMenuProductDTO {
     private Boolean hasVariants;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    @Builder.Default
+    private List<ProductVariantResponse> variants = new ArrayList<>();
+
+    @Builder.Default
+    private List<AddOnGroupResponse> addOnGroups = new ArrayList<>();
 }
@@ -0,0 +1,37 @@
+package com.elcafe.modules.menu.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * WebSocket message telling menu viewers that a product or variant became available or unavailable.
+ * Topic: /topic/restaurant/{restaurantId}/stock
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeMessage {
+
+    private Long restaurantId;
+
+    private Long productId;
+
+    /**
+     * Set when the change concerns a single variant of the product
+     */
+    private Long variantId;
+
+    /**
+     * Whether the product (or variant) can be ordered now
+     */
+    private Boolean available;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
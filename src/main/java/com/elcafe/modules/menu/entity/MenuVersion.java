@@ -0,0 +1,31 @@
+package com.elcafe.modules.menu.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current menu version of a restaurant, incremented on every menu write
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "menu_versions")
+public class MenuVersion {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long version = 0L;
+
+    private LocalDateTime updatedAt;
+}
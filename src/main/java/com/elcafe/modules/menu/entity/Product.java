@@ -1,5 +1,6 @@
 package com.elcafe.modules.menu.entity;
 
+import com.elcafe.modules.menu.enums.ItemType;
 import com.elcafe.modules.menu.enums.ProductStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -41,9 +42,22 @@ public class Product {
     @Column(length = 500)
     private String imageUrl;
 
+    /**
+     * Widths of the resized copies of the image, comma separated
+     */
+    @Column(length = 100)
+    private String imageVariants;
+
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    @Column(precision = 10, scale = 2)
+    private BigDecimal priceWithMargin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 100)
+    private ItemType itemType;
+
     @Column(nullable = false)
     @Builder.Default
     private Integer sortOrder = 0;
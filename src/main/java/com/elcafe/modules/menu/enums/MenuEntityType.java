@@ -0,0 +1,13 @@
+package com.elcafe.modules.menu.enums;
+
+/**
+ * Menu entities tracked by the menu change log.
+ * Variant changes are recorded against their product, add-on changes against their group;
+ * MENU stands for the restaurant's whole menu (entity ID is the restaurant ID), e.g. after a bulk import.
+ */
+public enum MenuEntityType {
+    CATEGORY,
+    PRODUCT,
+    ADD_ON_GROUP,
+    MENU
+}
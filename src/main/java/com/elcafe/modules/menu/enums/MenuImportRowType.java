@@ -0,0 +1,11 @@
+package com.elcafe.modules.menu.enums;
+
+/**
+ * Kinds of rows in a bulk menu import or export
+ */
+public enum MenuImportRowType {
+    PRODUCT,
+    VARIANT,
+    ADD_ON,
+    INGREDIENT
+}
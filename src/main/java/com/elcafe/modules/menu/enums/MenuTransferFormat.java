@@ -0,0 +1,34 @@
+package com.elcafe.modules.menu.enums;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of bulk menu import and export
+ */
+public enum MenuTransferFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    MenuTransferFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(contentType);
+    }
+
+    /**
+     * Format of an upload by its content type; CSV unless the content type names NDJSON or JSON lines
+     */
+    public static MenuTransferFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase();
+            if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json-seq")) {
+                return NDJSON;
+            }
+        }
+        return CSV;
+    }
+}
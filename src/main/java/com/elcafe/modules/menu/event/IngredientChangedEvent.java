@@ -0,0 +1,21 @@
+package com.elcafe.modules.menu.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when an ingredient was deleted or its stock unit changed, which changes how recipe
+ * quantities of the products using it convert to stock. Listeners act on it after commit.
+ */
+@Getter
+public class IngredientChangedEvent extends ApplicationEvent {
+
+    private final Long ingredientId;
+    private final boolean deleted;
+
+    public IngredientChangedEvent(Object source, Long ingredientId, boolean deleted) {
+        super(source);
+        this.ingredientId = ingredientId;
+        this.deleted = deleted;
+    }
+}
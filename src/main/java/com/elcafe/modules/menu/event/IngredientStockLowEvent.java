@@ -0,0 +1,32 @@
+package com.elcafe.modules.menu.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.math.BigDecimal;
+
+/**
+ * Event fired when sales deductions took an ingredient's stock to or below its minimum stock,
+ * or ran it out entirely. Fired once per crossing, after the deduction was committed.
+ */
+@Getter
+public class IngredientStockLowEvent extends ApplicationEvent {
+
+    private final Long ingredientId;
+    private final String ingredientName;
+    private final BigDecimal currentStock;
+    private final BigDecimal minimumStock;
+
+    /** Whether the stock reached zero, as opposed to only its minimum */
+    private final boolean depleted;
+
+    public IngredientStockLowEvent(Object source, Long ingredientId, String ingredientName,
+                                   BigDecimal currentStock, BigDecimal minimumStock, boolean depleted) {
+        super(source);
+        this.ingredientId = ingredientId;
+        this.ingredientName = ingredientName;
+        this.currentStock = currentStock;
+        this.minimumStock = minimumStock;
+        this.depleted = depleted;
+    }
+}
@@ -0,0 +1,27 @@
+package com.elcafe.modules.menu.event;
+
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a category, product, variant, add-on group or add-on of a restaurant's
+ * menu was written. The menu version is bumped synchronously, inside the writing transaction;
+ * menu read models listen to it (after commit) to refresh that restaurant only.
+ */
+@Getter
+public class MenuChangedEvent extends ApplicationEvent {
+
+    private final Long restaurantId;
+    private final MenuEntityType entityType;
+    private final Long entityId;
+    private final boolean deleted;
+
+    public MenuChangedEvent(Object source, Long restaurantId, MenuEntityType entityType, Long entityId, boolean deleted) {
+        super(source);
+        this.restaurantId = restaurantId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,136 @@
+package com.elcafe.modules.menu.inventory;
+
+import com.elcafe.modules.menu.entity.ProductIngredient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ingredient consumption of one unit of a product, converted to each ingredient's own stock unit
+ * and held as primitive amounts in millionths of that unit.
+ */
+@Slf4j
+public final class IngredientRecipe {
+
+    /** Scale of recipe amounts: amounts are in millionths of the ingredient's unit */
+    public static final int AMOUNT_SCALE = 6;
+
+    public static final IngredientRecipe EMPTY = new IngredientRecipe(new long[0], new long[0]);
+
+    /** Factor from a unit to its base unit (kilogram, liter or piece), by lower-case unit name */
+    private static final Map<String, BigDecimal> TO_BASE_UNIT = Map.ofEntries(
+            Map.entry("kg", BigDecimal.ONE),
+            Map.entry("kilogram", BigDecimal.ONE),
+            Map.entry("g", new BigDecimal("0.001")),
+            Map.entry("gr", new BigDecimal("0.001")),
+            Map.entry("gram", new BigDecimal("0.001")),
+            Map.entry("mg", new BigDecimal("0.000001")),
+            Map.entry("l", BigDecimal.ONE),
+            Map.entry("liter", BigDecimal.ONE),
+            Map.entry("litre", BigDecimal.ONE),
+            Map.entry("ml", new BigDecimal("0.001")),
+            Map.entry("milliliter", new BigDecimal("0.001")),
+            Map.entry("piece", BigDecimal.ONE),
+            Map.entry("pcs", BigDecimal.ONE)
+    );
+
+    private final long[] ingredientIds;
+    private final long[] amounts;
+
+    private IngredientRecipe(long[] ingredientIds, long[] amounts) {
+        this.ingredientIds = ingredientIds;
+        this.amounts = amounts;
+    }
+
+    /**
+     * Build the recipe of a product from its ingredient links; the ingredients must be loaded.
+     * Links whose unit cannot be converted to the ingredient's unit are left out.
+     */
+    public static IngredientRecipe of(Collection<ProductIngredient> links) {
+        List<long[]> entries = new ArrayList<>(links.size());
+        for (ProductIngredient link : links) {
+            if (link.getQuantity() == null || link.getIngredient() == null) {
+                continue;
+            }
+            BigDecimal factor = conversionFactor(link.getUnit(), link.getIngredient().getUnit());
+            if (factor == null) {
+                log.warn("Cannot convert {} to {} for ingredient {} of product {}", link.getUnit(),
+                        link.getIngredient().getUnit(), link.getIngredient().getId(), link.getProduct().getId());
+                continue;
+            }
+            long amount = link.getQuantity().multiply(factor)
+                    .setScale(AMOUNT_SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+            entries.add(new long[]{link.getIngredient().getId(), amount});
+        }
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] ingredientIds = new long[entries.size()];
+        long[] amounts = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            ingredientIds[i] = entries.get(i)[0];
+            amounts[i] = entries.get(i)[1];
+        }
+        return new IngredientRecipe(ingredientIds, amounts);
+    }
+
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    public long ingredientId(int index) {
+        return ingredientIds[index];
+    }
+
+    /**
+     * Amount of the ingredient used by one unit of the product, in millionths of the ingredient's unit
+     */
+    public long amount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Factor turning a quantity in {@code from} into one in {@code to}; null if the units are unrelated
+     */
+    static BigDecimal conversionFactor(String from, String to) {
+        String source = normalize(from);
+        String target = normalize(to);
+        if (source.equals(target)) {
+            return BigDecimal.ONE;
+        }
+
+        BigDecimal sourceFactor = TO_BASE_UNIT.get(source);
+        BigDecimal targetFactor = TO_BASE_UNIT.get(target);
+        if (sourceFactor == null || targetFactor == null || !baseUnit(source).equals(baseUnit(target))) {
+            return null;
+        }
+        return sourceFactor.divide(targetFactor, AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static String baseUnit(String unit) {
+        return switch (unit) {
+            case "kg", "kilogram", "g", "gr", "gram", "mg" -> "kg";
+            case "l", "liter", "litre", "ml", "milliliter" -> "l";
+            case "piece", "pcs" -> "piece";
+            default -> unit;
+        };
+    }
+
+    private static String normalize(String unit) {
+        if (unit == null) {
+            return "";
+        }
+        String normalized = unit.trim().toLowerCase(Locale.ROOT);
+        return normalized.endsWith("s") && TO_BASE_UNIT.containsKey(normalized.substring(0, normalized.length() - 1))
+                ? normalized.substring(0, normalized.length() - 1)
+                : normalized;
+    }
+}
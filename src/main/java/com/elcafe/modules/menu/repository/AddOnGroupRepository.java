@@ -5,9 +5,16 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AddOnGroupRepository extends JpaRepository<AddOnGroup, Long> {
 
+    List<AddOnGroup> findByRestaurantId(Long restaurantId);
+
     List<AddOnGroup> findByRestaurantIdAndActiveTrue(Long restaurantId);
+
+    Optional<AddOnGroup> findByIdAndRestaurantId(Long id, Long restaurantId);
+
+    boolean existsByRestaurantIdAndName(Long restaurantId, String name);
 }
@@ -4,6 +4,7 @@ import com.elcafe.modules.menu.entity.AddOn;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface AddOnRepository extends JpaRepository<AddOn, Long> {
 
     List<AddOn> findByAddOnGroupIdAndAvailableTrueOrderBySortOrder(Long addOnGroupId);
 
+    List<AddOn> findByAddOnGroupIdInOrderBySortOrder(Collection<Long> addOnGroupIds);
+
     Optional<AddOn> findByIdAndAddOnGroupId(Long id, Long addOnGroupId);
 
     boolean existsByAddOnGroupIdAndName(Long addOnGroupId, String name);
@@ -12,4 +12,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByRestaurantIdAndActiveTrueOrderBySortOrder(Long restaurantId);
 
     List<Category> findByRestaurantIdOrderBySortOrder(Long restaurantId);
+
+    boolean existsByImageUrl(String imageUrl);
 }
@@ -0,0 +1,30 @@
+package com.elcafe.modules.menu.repository;
+
+import com.elcafe.modules.menu.entity.MenuChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuChangeRepository extends JpaRepository<MenuChange, Long> {
+
+    @Query("SELECT c FROM MenuChange c WHERE c.restaurantId = :restaurantId " +
+            "AND c.version > :sinceVersion AND c.version <= :untilVersion ORDER BY c.version")
+    List<MenuChange> findChanges(@Param("restaurantId") Long restaurantId,
+                                 @Param("sinceVersion") Long sinceVersion,
+                                 @Param("untilVersion") Long untilVersion,
+                                 Pageable pageable);
+
+    /**
+     * Delete the changes at least {@code keep} versions behind their restaurant's current version
+     */
+    @Modifying
+    @Query("DELETE FROM MenuChange c WHERE c.version + :keep <= " +
+            "(SELECT v.version FROM MenuVersion v WHERE v.restaurantId = c.restaurantId)")
+    int deleteOutdated(@Param("keep") long keep);
+}
@@ -21,6 +21,8 @@ public interface MenuCollectionRepository extends JpaRepository<MenuCollection,
 
     Page<MenuCollection> findByRestaurantIdAndIsActive(Long restaurantId, Boolean isActive, Pageable pageable);
 
+    boolean existsByImageUrl(String imageUrl);
+
     @Query("SELECT mc FROM MenuCollection mc WHERE mc.restaurant.id = :restaurantId AND " +
            "mc.isActive = true AND " +
            "(mc.startDate IS NULL OR mc.startDate <= :date) AND " +
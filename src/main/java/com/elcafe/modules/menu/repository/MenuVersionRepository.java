@@ -0,0 +1,20 @@
+package com.elcafe.modules.menu.repository;
+
+import com.elcafe.modules.menu.entity.MenuVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MenuVersionRepository extends JpaRepository<MenuVersion, Long> {
+
+    /**
+     * Increment the restaurant's menu version and return the new value.
+     * The row stays locked until the surrounding transaction ends, so versions commit in order.
+     */
+    @Query(value = "INSERT INTO menu_versions (restaurant_id, version, updated_at) VALUES (:restaurantId, 1, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (restaurant_id) DO UPDATE SET version = menu_versions.version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "RETURNING version", nativeQuery = true)
+    Long incrementVersion(@Param("restaurantId") Long restaurantId);
+}
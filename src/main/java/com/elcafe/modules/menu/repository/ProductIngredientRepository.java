@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,5 +22,14 @@ public interface ProductIngredientRepository extends JpaRepository<ProductIngred
     @Query("SELECT pi FROM ProductIngredient pi WHERE pi.product.id = :productId")
     List<ProductIngredient> findProductIngredientsWithDetails(@Param("productId") Long productId);
 
+    @Query("SELECT pi FROM ProductIngredient pi JOIN FETCH pi.ingredient WHERE pi.product.id IN :productIds")
+    List<ProductIngredient> findWithIngredientByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT pi.product.id FROM ProductIngredient pi WHERE pi.ingredient.id = :ingredientId")
+    List<Long> findProductIdsByIngredientId(@Param("ingredientId") Long ingredientId);
+
+    @Query("SELECT pi.product.id FROM ProductIngredient pi WHERE pi.ingredient.id = :ingredientId AND pi.product.inStock = true")
+    List<Long> findInStockProductIdsByIngredientId(@Param("ingredientId") Long ingredientId);
+
     void deleteByProductIdAndIngredientId(Long productId, Long ingredientId);
 }
@@ -1,11 +1,16 @@
 package com.elcafe.modules.menu.repository;
 
+import com.elcafe.modules.menu.dto.ProductListDTO;
 import com.elcafe.modules.menu.entity.Product;
 import com.elcafe.modules.menu.enums.ProductStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -13,4 +18,57 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryIdOrderBySortOrder(Long categoryId);
 
     List<Product> findByCategoryIdAndStatusOrderBySortOrder(Long categoryId, ProductStatus status);
+
+    List<Product> findByCategoryIdInOrderBySortOrder(Collection<Long> categoryIds);
+
+    /**
+     * (product ID, add-on group ID) pairs for the products of the given categories
+     */
+    @Query("SELECT p.id, g.id FROM Product p JOIN p.addOnGroups g WHERE p.category.id IN :categoryIds")
+    List<Object[]> findAddOnGroupLinksByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * (product ID, add-on group ID) pairs for the given products
+     */
+    @Query("SELECT p.id, g.id FROM Product p JOIN p.addOnGroups g WHERE p.id IN :productIds")
+    List<Object[]> findAddOnGroupLinksByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id IN :ids ORDER BY p.sortOrder")
+    List<Product> findWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c JOIN FETCH c.restaurant WHERE p.imageUrl = :imageUrl")
+    List<Product> findWithRestaurantByImageUrl(@Param("imageUrl") String imageUrl);
+
+    boolean existsByImageUrl(String imageUrl);
+
+    /**
+     * Product list rows of all categories of a restaurant, projected in one query
+     */
+    @Query("SELECT new com.elcafe.modules.menu.dto.ProductListDTO(" +
+            "p.id, p.name, p.description, p.imageUrl, p.imageUrl, p.imageVariants, p.price, p.priceWithMargin, " +
+            "p.itemType, p.sortOrder, p.status, p.inStock, p.featured, p.hasVariants, c.id, c.name, p.inStock, p.featured, " +
+            "p.createdAt, p.updatedAt) " +
+            "FROM Product p JOIN p.category c WHERE c.restaurant.id = :restaurantId " +
+            "ORDER BY c.sortOrder, c.id, p.sortOrder, p.id")
+    List<ProductListDTO> findProductListByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    /**
+     * Live products of active categories of active restaurants, with their category
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c JOIN c.restaurant r " +
+            "WHERE p.status = com.elcafe.modules.menu.enums.ProductStatus.LIVE AND c.active = true AND r.active = true")
+    List<Product> findSearchable();
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c JOIN c.restaurant r " +
+            "WHERE r.id = :restaurantId AND p.status = com.elcafe.modules.menu.enums.ProductStatus.LIVE " +
+            "AND c.active = true AND r.active = true")
+    List<Product> findSearchableByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c JOIN c.restaurant r " +
+            "WHERE p.id = :id AND p.status = com.elcafe.modules.menu.enums.ProductStatus.LIVE " +
+            "AND c.active = true AND r.active = true")
+    Optional<Product> findSearchableById(@Param("id") Long id);
+
+    @Query("SELECT p FROM Product p WHERE p.category.restaurant.id = :restaurantId")
+    List<Product> findByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
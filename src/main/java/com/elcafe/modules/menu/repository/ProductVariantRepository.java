@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +20,15 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
 
     List<ProductVariant> findByProductId(Long productId);
 
+    List<ProductVariant> findByProductIdInOrderBySortOrder(Collection<Long> productIds);
+
     Page<ProductVariant> findByProductId(Long productId, Pageable pageable);
 
     Optional<ProductVariant> findByIdAndProductId(Long id, Long productId);
 
+    @Query("SELECT pv FROM ProductVariant pv WHERE pv.product.category.restaurant.id = :restaurantId")
+    List<ProductVariant> findByRestaurantId(@Param("restaurantId") Long restaurantId);
+
     @Query("SELECT pv FROM ProductVariant pv WHERE pv.product.id = :productId AND pv.inStock = :inStock")
     List<ProductVariant> findByProductIdAndInStock(@Param("productId") Long productId, @Param("inStock") Boolean inStock);
 
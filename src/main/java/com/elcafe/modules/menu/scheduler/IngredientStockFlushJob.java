@@ -0,0 +1,32 @@
+package com.elcafe.modules.menu.scheduler;
+
+import com.elcafe.modules.menu.service.IngredientStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job writing accumulated ingredient consumption to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngredientStockFlushJob {
+
+    private final IngredientStockService ingredientStockService;
+
+    /**
+     * Flush stock deductions of accepted orders.
+     * Runs every {@code app.inventory.flush-interval-ms} (default 2 seconds); a failed flush is
+     * retried with the next run, as its deductions stay pending.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:2000}")
+    public void flushStockDeductions() {
+        try {
+            ingredientStockService.flush();
+        } catch (Exception e) {
+            log.error("Ingredient stock flush failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.elcafe.modules.menu.scheduler;
+
+import com.elcafe.modules.menu.service.MenuVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job deleting menu changes older than any delta served.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuChangePruneJob {
+
+    private final MenuVersionService menuVersionService;
+
+    /**
+     * Prune the menu change log.
+     * Runs every {@code app.menu.change-prune-interval-ms} (default 1 hour); the delete is
+     * idempotent, so nodes running it at the same time do no harm.
+     */
+    @Scheduled(fixedDelayString = "${app.menu.change-prune-interval-ms:3600000}")
+    public void pruneMenuChanges() {
+        try {
+            menuVersionService.pruneChanges();
+        } catch (Exception e) {
+            log.error("Menu change pruning failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.elcafe.modules.menu.search;
+
+import com.elcafe.modules.menu.entity.Category;
+import com.elcafe.modules.menu.entity.Product;
+import com.elcafe.modules.menu.entity.ProductVariant;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Searchable snapshot of one product: its filter fields and the weight of each of its terms.
+ * A term's weight is that of the strongest field it appears in.
+ */
+@Getter
+public final class ProductSearchDocument {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float VARIANT_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 0.5f;
+
+    private final Long productId;
+    private final Long restaurantId;
+    private final Long categoryId;
+    private final String categoryName;
+    private final String name;
+    private final String description;
+    private final String imageUrl;
+    private final BigDecimal price;
+    private final boolean inStock;
+    private final boolean featured;
+    private final int sortOrder;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Float> termWeights;
+
+    private ProductSearchDocument(Product product, Category category, Map<String, Float> termWeights) {
+        this.productId = product.getId();
+        this.restaurantId = category.getRestaurant().getId();
+        this.categoryId = category.getId();
+        this.categoryName = category.getName();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.imageUrl = product.getImageUrl();
+        this.price = product.getPrice();
+        this.inStock = Boolean.TRUE.equals(product.getInStock());
+        this.featured = Boolean.TRUE.equals(product.getFeatured());
+        this.sortOrder = product.getSortOrder() != null ? product.getSortOrder() : 0;
+        this.termWeights = termWeights;
+    }
+
+    /**
+     * Build the document of a product; the product's category must be loaded
+     */
+    public static ProductSearchDocument of(Product product, Collection<ProductVariant> variants) {
+        Category category = product.getCategory();
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        addTerms(weights, category.getName(), CATEGORY_WEIGHT);
+        for (ProductVariant variant : variants) {
+            addTerms(weights, variant.getName(), VARIANT_WEIGHT);
+        }
+        addTerms(weights, product.getName(), NAME_WEIGHT);
+        return new ProductSearchDocument(product, category, weights);
+    }
+
+    public Set<String> terms() {
+        return termWeights.keySet();
+    }
+
+    public float weight(String term) {
+        return termWeights.getOrDefault(term, 0f);
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : SearchTextAnalyzer.terms(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+}
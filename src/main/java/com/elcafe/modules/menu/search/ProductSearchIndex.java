@@ -0,0 +1,468 @@
+package com.elcafe.modules.menu.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over {@link ProductSearchDocument}s.
+ *
+ * Documents live in numbered slots; each term maps to the slots containing it, kept in a sorted
+ * dictionary so query terms also match as prefixes. A second map from character trigram to
+ * terms finds dictionary terms similar to a misspelled query term. Reads share a read lock;
+ * menu writes are rare and take the write lock for a single document or restaurant.
+ */
+public final class ProductSearchIndex {
+
+    private static final float EXACT_QUALITY = 1.0f;
+    private static final float PREFIX_QUALITY = 0.8f;
+    private static final float FUZZY_QUALITY = 0.6f;
+
+    /** Minimum Dice coefficient over trigrams for a term to count as a typo of the query term */
+    private static final float MIN_SIMILARITY = 0.5f;
+
+    /** Query term length from which similar terms are matched when the term itself is unknown */
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_EXPANSIONS = 64;
+
+    /** Scoring buffers kept for reuse; roughly the number of searches expected to run at once */
+    private static final int MAX_POOLED_SCRATCH = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledScratch = new AtomicInteger();
+
+    private ProductSearchDocument[] slots = new ProductSearchDocument[1024];
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int nextSlot;
+
+    private final Map<Long, Integer> slotByProduct = new HashMap<>();
+    private final Map<Long, Postings> slotsByRestaurant = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+    public void put(ProductSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(document.getProductId());
+            addUnlocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all documents of a restaurant, e.g. after a category change or on restaurant deactivation
+     */
+    public void replaceRestaurant(Long restaurantId, Collection<ProductSearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            Postings existing = slotsByRestaurant.get(restaurantId);
+            while (existing != null && existing.size > 0) {
+                removeUnlocked(slots[existing.slots[existing.size - 1]].getProductId());
+            }
+            for (ProductSearchDocument document : documents) {
+                removeUnlocked(document.getProductId());
+                addUnlocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching the query, best first. Every query term must match (exactly, by prefix
+     * or as a likely typo); if no document matches all terms, documents matching any are returned.
+     */
+    public List<ScoredDocument> search(ProductSearchQuery query) {
+        List<String> queryTerms = SearchTextAnalyzer.terms(query.text());
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        } else {
+            pooledScratch.decrementAndGet();
+        }
+
+        lock.readLock().lock();
+        try {
+            scratch.beginQuery(nextSlot, query.hasFilters());
+            for (String queryTerm : queryTerms) {
+                collectMatches(queryTerm, query, scratch);
+            }
+            return rank(scratch, queryTerms.size(), query.limit());
+        } finally {
+            lock.readLock().unlock();
+            if (pooledScratch.incrementAndGet() <= MAX_POOLED_SCRATCH) {
+                scratchPool.offer(scratch);
+            } else {
+                pooledScratch.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Score each filtered document for one query term: the best (match quality x term weight)
+     * over the dictionary terms the query term expands to
+     */
+    private void collectMatches(String queryTerm, ProductSearchQuery query, Scratch scratch) {
+        scratch.beginTerm();
+        Map<String, Float> expansions = expand(queryTerm);
+
+        // Within one restaurant, checking its own documents is cheaper than walking postings shared by all restaurants
+        Postings restaurantSlots = query.restaurantId() != null ? slotsByRestaurant.get(query.restaurantId()) : null;
+        if (query.restaurantId() != null && restaurantSlots == null) {
+            scratch.endTerm();
+            return;
+        }
+        long postingsCost = 0;
+        for (String term : expansions.keySet()) {
+            postingsCost += postings.get(term).size;
+        }
+
+        if (restaurantSlots != null && (long) restaurantSlots.size * expansions.size() < postingsCost) {
+            for (int i = 0; i < restaurantSlots.size; i++) {
+                int slot = restaurantSlots.slots[i];
+                if (!scratch.passes(slot, query, slots)) {
+                    continue;
+                }
+                ProductSearchDocument document = slots[slot];
+                for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                    float weight = document.weight(expansion.getKey());
+                    if (weight > 0) {
+                        scratch.offer(slot, expansion.getValue() * weight);
+                    }
+                }
+            }
+        } else {
+            for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                Postings termPostings = postings.get(expansion.getKey());
+                float quality = expansion.getValue();
+                for (int i = 0; i < termPostings.size; i++) {
+                    int slot = termPostings.slots[i];
+                    if (scratch.passes(slot, query, slots)) {
+                        scratch.offer(slot, quality * termPostings.weights[i]);
+                    }
+                }
+            }
+        }
+        scratch.endTerm();
+    }
+
+    /**
+     * Dictionary terms a query term matches, with their match quality
+     */
+    private Map<String, Float> expand(String queryTerm) {
+        Map<String, Float> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(queryTerm)) {
+            expansions.put(queryTerm, EXACT_QUALITY);
+        }
+
+        if (queryTerm.length() >= SearchTextAnalyzer.MIN_PREFIX_LENGTH) {
+            for (String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                // Completions close to the typed length rank above long ones
+                expansions.put(term, PREFIX_QUALITY * (0.5f + 0.5f * queryTerm.length() / term.length()));
+            }
+        }
+
+        // Typo tolerance only for terms that are not in the dictionary as typed
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH && !expansions.containsKey(queryTerm)) {
+            Set<String> queryTrigrams = SearchTextAnalyzer.trigrams(queryTerm);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<String> terms = termsByTrigram.get(trigram);
+                if (terms != null) {
+                    for (String term : terms) {
+                        shared.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            shared.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(),
+                            // A padded term of length n has n trigrams (fewer only if some repeat)
+                            2f * entry.getValue() / (queryTrigrams.size() + entry.getKey().length())))
+                    .filter(entry -> entry.getValue() >= MIN_SIMILARITY && !expansions.containsKey(entry.getKey()))
+                    .sorted(Map.Entry.<String, Float>comparingByValue().reversed())
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(entry -> expansions.put(entry.getKey(), FUZZY_QUALITY * entry.getValue()));
+        }
+        return expansions;
+    }
+
+    private List<ScoredDocument> rank(Scratch scratch, int termCount, int limit) {
+        boolean anyFullMatch = false;
+        for (int i = 0; i < scratch.queryHitCount && !anyFullMatch; i++) {
+            anyFullMatch = scratch.matchedTerms[scratch.queryHits[i]] == termCount;
+        }
+
+        // Keep the best `limit` candidates in a heap whose head is the worst of them
+        Comparator<ScoredDocument> ranking = Comparator.comparingDouble(ScoredDocument::score).reversed()
+                .thenComparing(scored -> !scored.document().isFeatured())
+                .thenComparingInt(scored -> scored.document().getSortOrder());
+        PriorityQueue<ScoredDocument> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (int i = 0; i < scratch.queryHitCount; i++) {
+            int slot = scratch.queryHits[i];
+            if (anyFullMatch && scratch.matchedTerms[slot] != termCount) {
+                continue;
+            }
+            float score = scratch.total[slot];
+            if (best.size() == limit && score < best.peek().score()) {
+                continue;
+            }
+            best.add(new ScoredDocument(slots[slot], score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<ScoredDocument> results = new ArrayList<>(best);
+        results.sort(ranking);
+        return results;
+    }
+
+    private void addUnlocked(ProductSearchDocument document) {
+        int slot = allocateSlot();
+        slots[slot] = document;
+        slotByProduct.put(document.getProductId(), slot);
+        slotsByRestaurant.computeIfAbsent(document.getRestaurantId(), id -> new Postings()).add(slot, 0f);
+
+        for (String term : document.terms()) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new Postings();
+                postings.put(term, termPostings);
+                for (String trigram : SearchTextAnalyzer.trigrams(term)) {
+                    termsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+                }
+            }
+            termPostings.add(slot, document.weight(term));
+        }
+    }
+
+    private void removeUnlocked(Long productId) {
+        Integer slot = slotByProduct.remove(productId);
+        if (slot == null) {
+            return;
+        }
+        ProductSearchDocument document = slots[slot];
+        slots[slot] = null;
+        releaseSlot(slot);
+
+        Postings restaurantSlots = slotsByRestaurant.get(document.getRestaurantId());
+        if (restaurantSlots != null && restaurantSlots.remove(slot) && restaurantSlots.size == 0) {
+            slotsByRestaurant.remove(document.getRestaurantId());
+        }
+
+        for (String term : document.terms()) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(slot) && termPostings.size == 0) {
+                postings.remove(term);
+                for (String trigram : SearchTextAnalyzer.trigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(trigram);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        return nextSlot++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    public record ScoredDocument(ProductSearchDocument document, float score) {
+    }
+
+    /**
+     * Slot list of one term (with the term's weight in each document) or of one restaurant,
+     * sorted by slot so a document is found by binary search when it is removed
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int slot, float weight) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            slots[index] = slot;
+            weights[index] = weight;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index < 0) {
+                return false;
+            }
+            size--;
+            System.arraycopy(slots, index + 1, slots, index, size - index);
+            System.arraycopy(weights, index + 1, weights, index, size - index);
+            return true;
+        }
+    }
+
+    /**
+     * Scoring buffers indexed by slot, reused across queries. Entries are valid only
+     * when their stamp equals the current query or term number, so nothing is cleared between queries.
+     */
+    private static final class Scratch {
+
+        private int[] filterStamp = new int[0];
+        private boolean[] filterPass = new boolean[0];
+        private int[] termStamp = new int[0];
+        private float[] termBest = new float[0];
+        private int[] queryStamp = new int[0];
+        private float[] total = new float[0];
+        private int[] matchedTerms = new int[0];
+
+        private int[] termHits = new int[64];
+        private int termHitCount;
+        private int[] queryHits = new int[64];
+        private int queryHitCount;
+
+        private int queryNumber;
+        private int termNumber;
+        private boolean filtered;
+
+        void beginQuery(int capacity, boolean filtered) {
+            this.filtered = filtered;
+            if (filterStamp.length < capacity) {
+                int size = Math.max(capacity, filterStamp.length * 2);
+                filterStamp = new int[size];
+                filterPass = new boolean[size];
+                termStamp = new int[size];
+                termBest = new float[size];
+                queryStamp = new int[size];
+                total = new float[size];
+                matchedTerms = new int[size];
+                queryNumber = 0;
+                termNumber = 0;
+            }
+            if (termNumber > Integer.MAX_VALUE - MAX_QUERY_TERMS - 1) {
+                Arrays.fill(filterStamp, 0);
+                Arrays.fill(termStamp, 0);
+                Arrays.fill(queryStamp, 0);
+                queryNumber = 0;
+                termNumber = 0;
+            }
+            queryNumber++;
+            queryHitCount = 0;
+        }
+
+        boolean passes(int slot, ProductSearchQuery query, ProductSearchDocument[] documents) {
+            if (!filtered) {
+                return true;
+            }
+            if (filterStamp[slot] != queryNumber) {
+                filterStamp[slot] = queryNumber;
+                filterPass[slot] = query.matches(documents[slot]);
+            }
+            return filterPass[slot];
+        }
+
+        void beginTerm() {
+            termNumber++;
+            termHitCount = 0;
+        }
+
+        void offer(int slot, float score) {
+            if (termStamp[slot] != termNumber) {
+                termStamp[slot] = termNumber;
+                termBest[slot] = score;
+                if (termHitCount == termHits.length) {
+                    termHits = Arrays.copyOf(termHits, termHitCount * 2);
+                }
+                termHits[termHitCount++] = slot;
+            } else if (score > termBest[slot]) {
+                termBest[slot] = score;
+            }
+        }
+
+        void endTerm() {
+            for (int i = 0; i < termHitCount; i++) {
+                int slot = termHits[i];
+                if (queryStamp[slot] != queryNumber) {
+                    queryStamp[slot] = queryNumber;
+                    total[slot] = 0;
+                    matchedTerms[slot] = 0;
+                    if (queryHitCount == queryHits.length) {
+                        queryHits = Arrays.copyOf(queryHits, queryHitCount * 2);
+                    }
+                    queryHits[queryHitCount++] = slot;
+                }
+                total[slot] += termBest[slot];
+                matchedTerms[slot]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.elcafe.modules.menu.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Product search request: free text plus optional filters; null filters match everything
+ */
+public record ProductSearchQuery(String text,
+                                 Long restaurantId,
+                                 Long categoryId,
+                                 Boolean inStock,
+                                 BigDecimal minPrice,
+                                 BigDecimal maxPrice,
+                                 int limit) {
+
+    boolean hasFilters() {
+        return restaurantId != null || categoryId != null || inStock != null || minPrice != null || maxPrice != null;
+    }
+
+    boolean matches(ProductSearchDocument document) {
+        if (restaurantId != null && !restaurantId.equals(document.getRestaurantId())) {
+            return false;
+        }
+        if (categoryId != null && !categoryId.equals(document.getCategoryId())) {
+            return false;
+        }
+        if (inStock != null && inStock != document.isInStock()) {
+            return false;
+        }
+        BigDecimal price = document.getPrice();
+        if (minPrice != null && (price == null || price.compareTo(minPrice) < 0)) {
+            return false;
+        }
+        return maxPrice == null || (price != null && price.compareTo(maxPrice) <= 0);
+    }
+}
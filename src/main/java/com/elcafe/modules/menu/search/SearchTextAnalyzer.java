@@ -0,0 +1,97 @@
+package com.elcafe.modules.menu.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Text analysis shared by indexing and querying.
+ *
+ * Menu names come in Uzbek (Latin and Cyrillic), Russian and English. Text is lower-cased,
+ * stripped of diacritics and of the Uzbek apostrophes in o‘ and g‘, and Cyrillic is
+ * transliterated to Uzbek Latin, so "Плов", "plov" and "Palov" all land on comparable terms;
+ * the trigram match absorbs the remaining spelling differences.
+ */
+public final class SearchTextAnalyzer {
+
+    /** Shortest query term that is also matched by prefix */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final String[] CYRILLIC = new String[0x0500 - 0x0400];
+
+    static {
+        String[][] table = {
+                {"а", "a"}, {"б", "b"}, {"в", "v"}, {"г", "g"}, {"д", "d"}, {"е", "e"}, {"ё", "yo"},
+                {"ж", "j"}, {"з", "z"}, {"и", "i"}, {"й", "y"}, {"к", "k"}, {"л", "l"}, {"м", "m"},
+                {"н", "n"}, {"о", "o"}, {"п", "p"}, {"р", "r"}, {"с", "s"}, {"т", "t"}, {"у", "u"},
+                {"ф", "f"}, {"х", "x"}, {"ц", "ts"}, {"ч", "ch"}, {"ш", "sh"}, {"щ", "sh"}, {"ъ", ""},
+                {"ы", "i"}, {"ь", ""}, {"э", "e"}, {"ю", "yu"}, {"я", "ya"},
+                {"ў", "o"}, {"қ", "q"}, {"ғ", "g"}, {"ҳ", "h"}
+        };
+        for (String[] entry : table) {
+            CYRILLIC[entry[0].charAt(0) - 0x0400] = entry[1];
+        }
+    }
+
+    private SearchTextAnalyzer() {
+    }
+
+    /**
+     * Distinct normalized terms of a text, in order of appearance
+     */
+    public static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        // Transliterate before decomposing: NFD would turn й, ё and ў into their base letters
+        String lower = text.toLowerCase();
+        StringBuilder latin = new StringBuilder(lower.length() + 8);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            String mapped = c >= 0x0400 && c < 0x0500 ? CYRILLIC[c - 0x0400] : null;
+            if (mapped != null) {
+                latin.append(mapped);
+            } else {
+                latin.append(c);
+            }
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        String folded = Normalizer.normalize(latin, Normalizer.Form.NFD);
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (!current.isEmpty()) {
+                terms.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            terms.add(current.toString());
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Distinct character trigrams of a term, padded so that its start and end count as well
+     */
+    public static Set<String> trigrams(String term) {
+        String padded = " " + term + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '`' || c == '‘' || c == '’' || c == 'ʻ' || c == 'ʼ';
+    }
+}
@@ -7,12 +7,14 @@ import com.elcafe.modules.menu.dto.CreateAddOnGroupRequest;
 import com.elcafe.modules.menu.dto.UpdateAddOnGroupRequest;
 import com.elcafe.modules.menu.entity.AddOn;
 import com.elcafe.modules.menu.entity.AddOnGroup;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
 import com.elcafe.modules.menu.repository.AddOnGroupRepository;
 import com.elcafe.modules.restaurant.entity.Restaurant;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class AddOnGroupService {
 
     private final AddOnGroupRepository addOnGroupRepository;
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<AddOnGroupResponse> getAllAddOnGroupsByRestaurant(Long restaurantId) {
@@ -54,7 +57,6 @@ public class AddOnGroupService {
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnGroupResponse createAddOnGroup(CreateAddOnGroupRequest request) {
         log.info("Creating add-on group: {} for restaurant: {}", request.getName(), request.getRestaurantId());
 
@@ -84,12 +86,12 @@ public class AddOnGroupService {
 
         AddOnGroup saved = addOnGroupRepository.save(addOnGroup);
         log.info("Created add-on group: {} with ID: {}", saved.getName(), saved.getId());
+        publishMenuChanged(restaurant.getId(), saved.getId(), false);
 
         return toResponse(saved);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnGroupResponse updateAddOnGroup(Long restaurantId, Long id, UpdateAddOnGroupRequest request) {
         log.info("Updating add-on group: {} for restaurant: {}", id, restaurantId);
 
@@ -134,12 +136,12 @@ public class AddOnGroupService {
 
         AddOnGroup updated = addOnGroupRepository.save(addOnGroup);
         log.info("Updated add-on group: {}", updated.getName());
+        publishMenuChanged(restaurantId, id, false);
 
         return toResponse(updated);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public void deleteAddOnGroup(Long restaurantId, Long id) {
         log.info("Deleting add-on group: {} for restaurant: {}", id, restaurantId);
 
@@ -148,6 +150,11 @@ public class AddOnGroupService {
 
         addOnGroupRepository.delete(addOnGroup);
         log.info("Deleted add-on group: {}", addOnGroup.getName());
+        publishMenuChanged(restaurantId, id, true);
+    }
+
+    private void publishMenuChanged(Long restaurantId, Long addOnGroupId, boolean deleted) {
+        eventPublisher.publishEvent(new MenuChangedEvent(this, restaurantId, MenuEntityType.ADD_ON_GROUP, addOnGroupId, deleted));
     }
 
     private AddOnGroupResponse toResponse(AddOnGroup addOnGroup) {
@@ -6,11 +6,13 @@ import com.elcafe.modules.menu.dto.CreateAddOnRequest;
 import com.elcafe.modules.menu.dto.UpdateAddOnRequest;
 import com.elcafe.modules.menu.entity.AddOn;
 import com.elcafe.modules.menu.entity.AddOnGroup;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
 import com.elcafe.modules.menu.repository.AddOnGroupRepository;
 import com.elcafe.modules.menu.repository.AddOnRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class AddOnService {
 
     private final AddOnRepository addOnRepository;
     private final AddOnGroupRepository addOnGroupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<AddOnResponse> getAllAddOnsByGroup(Long addOnGroupId) {
@@ -64,7 +67,6 @@ public class AddOnService {
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnResponse createAddOn(CreateAddOnRequest request) {
         log.info("Creating add-on: {} for group: {}", request.getName(), request.getAddOnGroupId());
 
@@ -88,12 +90,12 @@ public class AddOnService {
 
         AddOn saved = addOnRepository.save(addOn);
         log.info("Created add-on: {} with ID: {}", saved.getName(), saved.getId());
+        publishMenuChanged(saved);
 
         return toResponse(saved);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnResponse updateAddOn(Long addOnGroupId, Long id, UpdateAddOnRequest request) {
         log.info("Updating add-on: {} for group: {}", id, addOnGroupId);
 
@@ -126,12 +128,12 @@ public class AddOnService {
 
         AddOn updated = addOnRepository.save(addOn);
         log.info("Updated add-on: {}", updated.getName());
+        publishMenuChanged(updated);
 
         return toResponse(updated);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public void deleteAddOn(Long addOnGroupId, Long id) {
         log.info("Deleting add-on: {} for group: {}", id, addOnGroupId);
 
@@ -140,6 +142,13 @@ public class AddOnService {
 
         addOnRepository.delete(addOn);
         log.info("Deleted add-on: {}", addOn.getName());
+        publishMenuChanged(addOn);
+    }
+
+    private void publishMenuChanged(AddOn addOn) {
+        AddOnGroup addOnGroup = addOn.getAddOnGroup();
+        eventPublisher.publishEvent(new MenuChangedEvent(this, addOnGroup.getRestaurant().getId(),
+                MenuEntityType.ADD_ON_GROUP, addOnGroup.getId(), false));
     }
 
     private AddOnResponse toResponse(AddOn addOn) {
@@ -2,15 +2,18 @@ package com.elcafe.modules.menu.service;
 
 import com.elcafe.modules.menu.dto.*;
 import com.elcafe.modules.menu.entity.Ingredient;
+import com.elcafe.modules.menu.event.IngredientChangedEvent;
 import com.elcafe.modules.menu.repository.IngredientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -18,6 +21,7 @@ import java.util.List;
 public class IngredientService {
 
     private final IngredientRepository ingredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<IngredientDTO> getAllIngredients(Pageable pageable) {
@@ -72,6 +76,7 @@ public class IngredientService {
     public IngredientDTO updateIngredient(Long id, UpdateIngredientRequest request) {
         Ingredient ingredient = ingredientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ingredient not found with id: " + id));
+        String previousUnit = ingredient.getUnit();
 
         if (request.getName() != null) ingredient.setName(request.getName());
         if (request.getDescription() != null) ingredient.setDescription(request.getDescription());
@@ -84,6 +89,9 @@ public class IngredientService {
         if (request.getIsActive() != null) ingredient.setIsActive(request.getIsActive());
 
         Ingredient updated = ingredientRepository.save(ingredient);
+        if (!Objects.equals(previousUnit, updated.getUnit())) {
+            eventPublisher.publishEvent(new IngredientChangedEvent(this, updated.getId(), false));
+        }
         log.info("Updated ingredient: {}", updated.getName());
         return toDTO(updated);
     }
@@ -94,6 +102,7 @@ public class IngredientService {
                 .orElseThrow(() -> new RuntimeException("Ingredient not found with id: " + id));
 
         ingredientRepository.delete(ingredient);
+        eventPublisher.publishEvent(new IngredientChangedEvent(this, id, true));
         log.info("Deleted ingredient: {}", ingredient.getName());
     }
 
@@ -0,0 +1,231 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.config.cache.LocalCacheStore;
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.modules.menu.config.InventoryProperties;
+import com.elcafe.modules.menu.entity.ProductIngredient;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.IngredientChangedEvent;
+import com.elcafe.modules.menu.event.IngredientStockLowEvent;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
+import com.elcafe.modules.menu.inventory.IngredientRecipe;
+import com.elcafe.modules.menu.repository.ProductIngredientRepository;
+import com.elcafe.modules.order.event.OrderAcceptedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingredient stock consumption by sales.
+ *
+ * When an order is accepted, the recipe quantities of its products are added to per-ingredient
+ * {@link LongAdder}s, so concurrent acceptances never contend on a lock or a database row. A
+ * scheduled flush applies what was added since the previous flush in one transaction, as a batch
+ * of relative {@code current_stock - ?} updates, in ingredient ID order so concurrent flushes from
+ * other nodes cannot deadlock. Every time a flush takes an ingredient to its minimum stock, or
+ * runs it out, an {@link IngredientStockLowEvent} is published.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngredientStockService {
+
+    private static final String RECIPE_CACHE = "product-recipe";
+
+    /** Smallest deduction the current_stock column (scale 2) can hold, in recipe amount units */
+    private static final long STOCK_STEP = 10_000L;
+    private static final int STOCK_SCALE = 2;
+
+    private static final String DEDUCT_SQL =
+            "UPDATE ingredients SET current_stock = COALESCE(current_stock, 0) - ?, updated_at = ? WHERE id = ?";
+    private static final String LEVELS_SQL =
+            "SELECT id, name, COALESCE(current_stock, 0) AS current_stock, COALESCE(minimum_stock, 0) AS minimum_stock " +
+            "FROM ingredients WHERE id IN (:ids)";
+
+    private final ProductIngredientRepository productIngredientRepository;
+    private final MenuService menuService;
+    private final InventoryProperties inventoryProperties;
+    private final TwoLevelCacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /** Consumption per ingredient, in millionths of the ingredient's unit */
+    private final Map<Long, Consumption> consumption = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener
+    public void onOrderAccepted(OrderAcceptedEvent event) {
+        if (!Boolean.TRUE.equals(inventoryProperties.getDeductionEnabled()) || event.getProductQuantities().isEmpty()) {
+            return;
+        }
+
+        Map<Long, IngredientRecipe> recipes = getRecipes(event.getProductQuantities().keySet());
+        event.getProductQuantities().forEach((productId, quantity) -> {
+            IngredientRecipe recipe = recipes.getOrDefault(productId, IngredientRecipe.EMPTY);
+            for (int i = 0; i < recipe.size(); i++) {
+                consumption.computeIfAbsent(recipe.ingredientId(i), id -> new Consumption())
+                        .total.add(recipe.amount(i) * quantity);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getEntityType() == MenuEntityType.PRODUCT) {
+            cacheManager.invalidateLocal(RECIPE_CACHE, String.valueOf(event.getEntityId()));
+        } else if (event.getEntityType() == MenuEntityType.MENU) {
+            cacheManager.clearLocal(RECIPE_CACHE);
+        }
+    }
+
+    /**
+     * Recipes hold amounts converted to their ingredients' units, so they are rebuilt when a unit changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientChanged(IngredientChangedEvent event) {
+        if (event.isDeleted()) {
+            // Its product links are gone with it
+            cacheManager.clearLocal(RECIPE_CACHE);
+            return;
+        }
+        for (Long productId : productIngredientRepository.findProductIdsByIngredientId(event.getIngredientId())) {
+            cacheManager.invalidateLocal(RECIPE_CACHE, String.valueOf(productId));
+        }
+    }
+
+    @EventListener
+    public void onIngredientStockLow(IngredientStockLowEvent event) {
+        log.warn("Ingredient {} ({}) is {}: {} left, minimum {}", event.getIngredientName(), event.getIngredientId(),
+                event.isDepleted() ? "out of stock" : "low on stock", event.getCurrentStock(), event.getMinimumStock());
+
+        if (event.isDepleted() && Boolean.TRUE.equals(inventoryProperties.getAutoMarkOutOfStock())) {
+            for (Long productId : productIngredientRepository.findInStockProductIdsByIngredientId(event.getIngredientId())) {
+                menuService.updateProductStock(productId, false);
+            }
+        }
+    }
+
+    /**
+     * Apply the consumption accumulated since the last flush to the ingredient rows
+     */
+    public synchronized void flush() {
+        // Sorted by ingredient ID, so every node locks ingredient rows in the same order
+        SortedMap<Long, Long> deductions = new TreeMap<>();
+        consumption.forEach((ingredientId, counter) -> {
+            // The column cannot hold less than one step; the remainder waits for a later flush
+            long steps = (counter.total.sum() - counter.flushed) / STOCK_STEP;
+            if (steps != 0) {
+                deductions.put(ingredientId, steps);
+            }
+        });
+        if (deductions.isEmpty()) {
+            return;
+        }
+
+        List<IngredientStockLowEvent> crossings = meterRegistry.timer("inventory.deduction.flush").record(() ->
+                new TransactionTemplate(transactionManager).execute(status -> deduct(deductions)));
+        deductions.forEach((ingredientId, steps) -> consumption.get(ingredientId).flushed += steps * STOCK_STEP);
+
+        meterRegistry.counter("inventory.deduction.ingredients").increment(deductions.size());
+        log.debug("Flushed stock deductions of {} ingredients", deductions.size());
+        if (crossings != null) {
+            crossings.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Could not flush pending ingredient stock deductions on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private List<IngredientStockLowEvent> deduct(SortedMap<Long, Long> deductions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deductions.size());
+        deductions.forEach((ingredientId, steps) -> rows.add(new Object[]{toStock(steps), now, ingredientId}));
+        jdbcTemplate.batchUpdate(DEDUCT_SQL, rows);
+
+        // Rows stay locked until commit, so each level is exactly "before minus our deduction"
+        List<IngredientStockLowEvent> crossings = new ArrayList<>();
+        namedParameterJdbcTemplate.query(LEVELS_SQL, new MapSqlParameterSource("ids", deductions.keySet()), rs -> {
+            long ingredientId = rs.getLong("id");
+            BigDecimal after = rs.getBigDecimal("current_stock");
+            BigDecimal minimum = rs.getBigDecimal("minimum_stock");
+            BigDecimal before = after.add(toStock(deductions.get(ingredientId)));
+
+            boolean depleted = after.signum() <= 0 && before.signum() > 0;
+            boolean low = after.compareTo(minimum) <= 0 && before.compareTo(minimum) > 0;
+            if (depleted || low) {
+                crossings.add(new IngredientStockLowEvent(this, ingredientId, rs.getString("name"), after, minimum, depleted));
+            }
+        });
+        return crossings;
+    }
+
+    private Map<Long, IngredientRecipe> getRecipes(Iterable<Long> productIds) {
+        LocalCacheStore cache = cacheManager.getLocalStore(RECIPE_CACHE);
+        Map<Long, IngredientRecipe> recipes = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (cache.get(String.valueOf(productId)) instanceof IngredientRecipe recipe) {
+                recipes.put(productId, recipe);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return recipes;
+        }
+
+        Map<Long, List<ProductIngredient>> linksByProduct = new HashMap<>();
+        for (ProductIngredient link : productIngredientRepository.findWithIngredientByProductIdIn(missing)) {
+            linksByProduct.computeIfAbsent(link.getProduct().getId(), id -> new ArrayList<>()).add(link);
+        }
+        for (Long productId : missing) {
+            IngredientRecipe recipe = IngredientRecipe.of(linksByProduct.getOrDefault(productId, List.of()));
+            cache.put(String.valueOf(productId), recipe);
+            recipes.put(productId, recipe);
+        }
+        return recipes;
+    }
+
+    private static BigDecimal toStock(long steps) {
+        return BigDecimal.valueOf(steps, STOCK_SCALE);
+    }
+
+    /**
+     * Running consumption of one ingredient. The total only grows, so adding never races with a
+     * flush; the flushed part is only touched by the (synchronized) flush.
+     */
+    private static final class Consumption {
+        private final LongAdder total = new LongAdder();
+        private long flushed;
+    }
+}
@@ -0,0 +1,190 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.exception.ResourceNotFoundException;
+import com.elcafe.modules.menu.dto.MenuImportRow;
+import com.elcafe.modules.menu.enums.ItemType;
+import com.elcafe.modules.menu.enums.MenuImportRowType;
+import com.elcafe.modules.menu.enums.MenuTransferFormat;
+import com.elcafe.modules.menu.enums.ProductStatus;
+import com.elcafe.modules.menu.transfer.CsvRecordWriter;
+import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Bulk menu export, in the row format read by {@link MenuImportService}.
+ *
+ * Rows are read with a database cursor and written to the response as they arrive, products
+ * before their variants and ingredient links, so an export can be imported again as it is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String PRODUCTS_SQL = "SELECT c.name AS category, p.name, p.description, p.image_url, p.price, " +
+            "p.price_with_margin, p.item_type, p.sort_order, p.status, p.in_stock, p.featured, " +
+            "(SELECT string_agg(g.name, '|' ORDER BY g.name) FROM product_addon_groups pg " +
+            "JOIN addon_groups g ON g.id = pg.addon_group_id WHERE pg.product_id = p.id) AS addon_groups " +
+            "FROM products p JOIN categories c ON c.id = p.category_id WHERE c.restaurant_id = ? " +
+            "ORDER BY c.sort_order, c.id, p.sort_order, p.id";
+    private static final String VARIANTS_SQL = "SELECT c.name AS category, p.name AS product, v.name, v.description, v.price, " +
+            "v.sort_order, v.in_stock FROM product_variants v JOIN products p ON p.id = v.product_id " +
+            "JOIN categories c ON c.id = p.category_id WHERE c.restaurant_id = ? ORDER BY p.id, v.sort_order, v.id";
+    private static final String ADD_ONS_SQL = "SELECT g.name AS addon_group, a.name, a.description, a.price, a.sort_order, " +
+            "a.available FROM addons a JOIN addon_groups g ON g.id = a.addon_group_id WHERE g.restaurant_id = ? " +
+            "ORDER BY g.id, a.sort_order, a.id";
+    private static final String INGREDIENTS_SQL = "SELECT c.name AS category, p.name AS product, i.name AS ingredient, " +
+            "pi.quantity, pi.unit FROM product_ingredients pi JOIN products p ON p.id = pi.product_id " +
+            "JOIN categories c ON c.id = p.category_id JOIN ingredients i ON i.id = pi.ingredient_id " +
+            "WHERE c.restaurant_id = ? ORDER BY p.id, i.name";
+
+    private final RestaurantRepository restaurantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Response body streaming the menu of a restaurant
+     */
+    public StreamingResponseBody export(Long restaurantId, MenuTransferFormat format) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant", "id", restaurantId);
+        }
+
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            RowSink sink = format == MenuTransferFormat.NDJSON ? ndjsonSink(writer) : csvSink(writer);
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            // A cursor (fetch size) needs a transaction on PostgreSQL
+            transaction.setReadOnly(true);
+            try {
+                transaction.executeWithoutResult(status -> {
+                    stream(PRODUCTS_SQL, restaurantId, sink, rs -> MenuImportRow.builder()
+                            .type(MenuImportRowType.PRODUCT)
+                            .category(rs.getString("category"))
+                            .name(rs.getString("name"))
+                            .description(rs.getString("description"))
+                            .imageUrl(rs.getString("image_url"))
+                            .price(rs.getBigDecimal("price"))
+                            .priceWithMargin(rs.getBigDecimal("price_with_margin"))
+                            .itemType(rs.getString("item_type") != null ? ItemType.valueOf(rs.getString("item_type")) : null)
+                            .sortOrder(rs.getInt("sort_order"))
+                            .status(ProductStatus.valueOf(rs.getString("status")))
+                            .inStock(rs.getBoolean("in_stock"))
+                            .featured(rs.getBoolean("featured"))
+                            .addOnGroups(rs.getString("addon_groups"))
+                            .build());
+                    stream(VARIANTS_SQL, restaurantId, sink, rs -> MenuImportRow.builder()
+                            .type(MenuImportRowType.VARIANT)
+                            .category(rs.getString("category"))
+                            .product(rs.getString("product"))
+                            .name(rs.getString("name"))
+                            .description(rs.getString("description"))
+                            .price(rs.getBigDecimal("price"))
+                            .sortOrder(rs.getInt("sort_order"))
+                            .inStock(rs.getBoolean("in_stock"))
+                            .build());
+                    stream(ADD_ONS_SQL, restaurantId, sink, rs -> MenuImportRow.builder()
+                            .type(MenuImportRowType.ADD_ON)
+                            .addOnGroup(rs.getString("addon_group"))
+                            .name(rs.getString("name"))
+                            .description(rs.getString("description"))
+                            .price(rs.getBigDecimal("price"))
+                            .sortOrder(rs.getInt("sort_order"))
+                            .inStock(rs.getBoolean("available"))
+                            .build());
+                    stream(INGREDIENTS_SQL, restaurantId, sink, rs -> MenuImportRow.builder()
+                            .type(MenuImportRowType.INGREDIENT)
+                            .category(rs.getString("category"))
+                            .product(rs.getString("product"))
+                            .ingredient(rs.getString("ingredient"))
+                            .quantity(rs.getBigDecimal("quantity"))
+                            .unit(rs.getString("unit"))
+                            .build());
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            log.info("Exported menu of restaurant {} as {}", restaurantId, format);
+        };
+    }
+
+    private void stream(String sql, Long restaurantId, RowSink sink, RowReader reader) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, restaurantId);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                sink.write(reader.read(rs));
+            } catch (IOException e) {
+                // Tunnelled through the JDBC template, unwrapped by the caller
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private RowSink csvSink(Writer writer) throws IOException {
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        csv.write(MenuImportRow.COLUMNS);
+        return row -> csv.write(Arrays.asList(
+                text(row.getType()), row.getCategory(), row.getProduct(), row.getName(), row.getDescription(),
+                row.getImageUrl(), text(row.getPrice()), text(row.getPriceWithMargin()), text(row.getItemType()),
+                text(row.getSortOrder()), text(row.getStatus()), text(row.getInStock()), text(row.getFeatured()),
+                row.getAddOnGroup(), row.getAddOnGroups(), row.getIngredient(), text(row.getQuantity()), row.getUnit()));
+    }
+
+    private RowSink ndjsonSink(Writer writer) {
+        return row -> {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        };
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+
+    /**
+     * Destination of exported rows
+     */
+    @FunctionalInterface
+    private interface RowSink {
+
+        void write(MenuImportRow row) throws IOException;
+    }
+
+    /**
+     * Reads the current row of a result set
+     */
+    @FunctionalInterface
+    private interface RowReader {
+
+        MenuImportRow read(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,489 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.exception.BadRequestException;
+import com.elcafe.exception.ResourceNotFoundException;
+import com.elcafe.modules.menu.dto.MenuImportResult;
+import com.elcafe.modules.menu.dto.MenuImportRow;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.enums.MenuImportRowType;
+import com.elcafe.modules.menu.enums.MenuTransferFormat;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
+import com.elcafe.modules.menu.transfer.CsvRecordReader;
+import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bulk menu import.
+ *
+ * The upload is parsed one record at a time and written in chunks: each chunk resolves its rows
+ * against the restaurant's existing categories, products, variants, add-on groups, add-ons and
+ * ingredients (loaded once, by name), then updates and inserts them with JDBC batch statements.
+ * The whole import is one transaction and bumps the menu version once, so caches and read
+ * models rebuild a single time instead of once per entity.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String UPDATE_PRODUCT = "UPDATE products SET name = ?, description = COALESCE(?, description), " +
+            "image_url = COALESCE(?, image_url), price = COALESCE(?, price), price_with_margin = COALESCE(?, price_with_margin), " +
+            "item_type = COALESCE(?, item_type), sort_order = COALESCE(?, sort_order), status = COALESCE(?, status), " +
+            "in_stock = COALESCE(?, in_stock), featured = COALESCE(?, featured), updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String INSERT_PRODUCT = "INSERT INTO products (category_id, name, description, image_url, price, " +
+            "price_with_margin, item_type, sort_order, status, in_stock, featured, has_variants) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+    private static final String LINK_ADD_ON_GROUP =
+            "INSERT INTO product_addon_groups (product_id, addon_group_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String UPDATE_VARIANT = "UPDATE product_variants SET name = ?, description = COALESCE(?, description), " +
+            "price = COALESCE(?, price), in_stock = COALESCE(?, in_stock), sort_order = COALESCE(?, sort_order) WHERE id = ?";
+    private static final String INSERT_VARIANT = "INSERT INTO product_variants (product_id, name, description, price, in_stock, sort_order) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MARK_HAS_VARIANTS =
+            "UPDATE products SET has_variants = true, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND has_variants = false";
+    private static final String UPDATE_ADD_ON = "UPDATE addons SET name = ?, description = COALESCE(?, description), " +
+            "price = COALESCE(?, price), available = COALESCE(?, available), sort_order = COALESCE(?, sort_order) WHERE id = ?";
+    private static final String INSERT_ADD_ON = "INSERT INTO addons (addon_group_id, name, description, price, available, sort_order) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_INGREDIENT_LINK = "INSERT INTO product_ingredients (product_id, ingredient_id, quantity, unit) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (product_id, ingredient_id) DO UPDATE SET quantity = EXCLUDED.quantity, unit = EXCLUDED.unit";
+
+    private final RestaurantRepository restaurantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import menu rows into a restaurant's menu. Invalid rows are skipped and reported; a database
+     * error rolls the whole import back.
+     */
+    @Transactional
+    public MenuImportResult importMenu(Long restaurantId, MenuTransferFormat format, InputStream input) throws IOException {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant", "id", restaurantId);
+        }
+        long started = System.nanoTime();
+
+        ImportRun run = new ImportRun(restaurantId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (format == MenuTransferFormat.NDJSON) {
+            readNdjson(reader, run);
+        } else {
+            readCsv(reader, run);
+        }
+        run.flush();
+
+        MenuImportResult result = run.result;
+        if (result.getRowsRead() > result.getRowsRejected()) {
+            eventPublisher.publishEvent(new MenuChangedEvent(this, restaurantId, MenuEntityType.MENU, restaurantId, false));
+        }
+        result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} menu rows into restaurant {} in {} ms ({} rejected)", result.getRowsRead(), restaurantId,
+                result.getDurationMs(), result.getRowsRejected());
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        header = header.stream().map(column -> column.replace("\uFEFF", "").trim()).toList();
+        for (String column : header) {
+            if (!MenuImportRow.COLUMNS.contains(column)) {
+                throw new BadRequestException("Unknown column '" + column + "', expected any of " + MenuImportRow.COLUMNS);
+            }
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < Math.min(header.size(), record.size()); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i), value);
+                }
+            }
+            run.add(csv.getRecordLine(), () -> objectMapper.convertValue(values, MenuImportRow.class));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String json = line;
+            run.add(lineNumber, () -> {
+                try {
+                    return objectMapper.readValue(json, MenuImportRow.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException(e.getOriginalMessage(), e);
+                }
+            });
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(Long parentId, String name) {
+        return parentId + ":" + normalize(name);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record PendingRow(long line, MenuImportRow row) {
+    }
+
+    /**
+     * State of one import: natural key to ID maps of the restaurant's menu and the current chunk
+     */
+    private final class ImportRun {
+
+        private final MenuImportResult result;
+        private final Map<String, Long> categories = new HashMap<>();
+        private final Map<String, Long> addOnGroups = new HashMap<>();
+        private final Map<String, Long> ingredients = new HashMap<>();
+        private final Map<Long, String> ingredientUnits = new HashMap<>();
+        private final Map<String, Long> products = new HashMap<>();
+        private final Map<String, Long> variants = new HashMap<>();
+        private final Map<String, Long> addOns = new HashMap<>();
+        private final List<PendingRow> chunk = new ArrayList<>(BATCH_SIZE);
+
+        private ImportRun(Long restaurantId) {
+            this.result = MenuImportResult.builder().restaurantId(restaurantId).build();
+
+            // Ordered by ID, so with duplicate names the oldest entity is the one updated
+            jdbcTemplate.query("SELECT id, name FROM categories WHERE restaurant_id = ? ORDER BY id DESC",
+                    rs -> { categories.put(normalize(rs.getString("name")), rs.getLong("id")); }, restaurantId);
+            jdbcTemplate.query("SELECT id, name FROM addon_groups WHERE restaurant_id = ? ORDER BY id DESC",
+                    rs -> { addOnGroups.put(normalize(rs.getString("name")), rs.getLong("id")); }, restaurantId);
+            jdbcTemplate.query("SELECT id, name, unit FROM ingredients ORDER BY id DESC", rs -> {
+                ingredients.put(normalize(rs.getString("name")), rs.getLong("id"));
+                ingredientUnits.put(rs.getLong("id"), rs.getString("unit"));
+            });
+            jdbcTemplate.query("SELECT p.id, p.category_id, p.name FROM products p JOIN categories c ON c.id = p.category_id " +
+                            "WHERE c.restaurant_id = ? ORDER BY p.id DESC",
+                    rs -> { products.put(key(rs.getLong("category_id"), rs.getString("name")), rs.getLong("id")); }, restaurantId);
+            jdbcTemplate.query("SELECT v.id, v.product_id, v.name FROM product_variants v JOIN products p ON p.id = v.product_id " +
+                            "JOIN categories c ON c.id = p.category_id WHERE c.restaurant_id = ? ORDER BY v.id DESC",
+                    rs -> { variants.put(key(rs.getLong("product_id"), rs.getString("name")), rs.getLong("id")); }, restaurantId);
+            jdbcTemplate.query("SELECT a.id, a.addon_group_id, a.name FROM addons a JOIN addon_groups g ON g.id = a.addon_group_id " +
+                            "WHERE g.restaurant_id = ? ORDER BY a.id DESC",
+                    rs -> { addOns.put(key(rs.getLong("addon_group_id"), rs.getString("name")), rs.getLong("id")); }, restaurantId);
+        }
+
+        void add(long line, Supplier<MenuImportRow> parser) {
+            result.setRowsRead(result.getRowsRead() + 1);
+            MenuImportRow row;
+            try {
+                row = parser.get();
+            } catch (IllegalArgumentException e) {
+                reject(line, "unreadable row: " + e.getMessage());
+                return;
+            }
+            if (row.getType() == null) {
+                reject(line, "type is required");
+                return;
+            }
+
+            chunk.add(new PendingRow(line, row));
+            if (chunk.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<MenuImportRowType, List<PendingRow>> byType = new HashMap<>();
+            for (PendingRow pending : chunk) {
+                byType.computeIfAbsent(pending.row().getType(), type -> new ArrayList<>()).add(pending);
+            }
+            // Products first, so variants and ingredient links can refer to products of the same chunk
+            writeProducts(byType.getOrDefault(MenuImportRowType.PRODUCT, List.of()));
+            writeVariants(byType.getOrDefault(MenuImportRowType.VARIANT, List.of()));
+            writeAddOns(byType.getOrDefault(MenuImportRowType.ADD_ON, List.of()));
+            writeIngredientLinks(byType.getOrDefault(MenuImportRowType.INGREDIENT, List.of()));
+            chunk.clear();
+        }
+
+        private void writeProducts(List<PendingRow> rows) {
+            List<Object[]> updates = new ArrayList<>();
+            Map<String, Object[]> inserts = new LinkedHashMap<>();
+            Map<String, Set<Long>> groupLinks = new LinkedHashMap<>();
+
+            for (PendingRow pending : rows) {
+                MenuImportRow row = pending.row();
+                Long categoryId = categories.get(normalize(row.getCategory()));
+                if (categoryId == null) {
+                    reject(pending.line(), "unknown category '" + row.getCategory() + "'");
+                    continue;
+                }
+                if (isBlank(row.getName())) {
+                    reject(pending.line(), "name is required");
+                    continue;
+                }
+                Set<Long> groupIds = resolveAddOnGroups(pending);
+                if (groupIds == null) {
+                    continue;
+                }
+
+                String key = key(categoryId, row.getName());
+                Long productId = products.get(key);
+                String itemType = row.getItemType() != null ? row.getItemType().name() : null;
+                String status = row.getStatus() != null ? row.getStatus().name() : null;
+                if (productId != null) {
+                    updates.add(new Object[]{row.getName().trim(), row.getDescription(), row.getImageUrl(), row.getPrice(),
+                            row.getPriceWithMargin(), itemType, row.getSortOrder(), status, row.getInStock(),
+                            row.getFeatured(), productId});
+                } else if (row.getPrice() == null) {
+                    reject(pending.line(), "price is required for new product '" + row.getName() + "'");
+                    continue;
+                } else {
+                    inserts.put(key, new Object[]{categoryId, row.getName().trim(), row.getDescription(), row.getImageUrl(),
+                            row.getPrice(), row.getPriceWithMargin(), itemType,
+                            row.getSortOrder() != null ? row.getSortOrder() : 0,
+                            status != null ? status : "DRAFT",
+                            row.getInStock() != null ? row.getInStock() : Boolean.TRUE,
+                            row.getFeatured() != null ? row.getFeatured() : Boolean.FALSE});
+                }
+                groupLinks.computeIfAbsent(key, k -> new LinkedHashSet<>()).addAll(groupIds);
+            }
+
+            batchUpdate(UPDATE_PRODUCT, updates);
+            insertAll(INSERT_PRODUCT, inserts, products);
+            result.setProductsUpdated(result.getProductsUpdated() + updates.size());
+            result.setProductsCreated(result.getProductsCreated() + inserts.size());
+
+            List<Object[]> links = new ArrayList<>();
+            groupLinks.forEach((key, groupIds) -> groupIds.forEach(groupId -> links.add(new Object[]{products.get(key), groupId})));
+            batchUpdate(LINK_ADD_ON_GROUP, links);
+            result.setAddOnGroupLinks(result.getAddOnGroupLinks() + links.size());
+        }
+
+        private void writeVariants(List<PendingRow> rows) {
+            List<Object[]> updates = new ArrayList<>();
+            Map<String, Object[]> inserts = new LinkedHashMap<>();
+            Set<Long> productIds = new LinkedHashSet<>();
+
+            for (PendingRow pending : rows) {
+                MenuImportRow row = pending.row();
+                Long productId = resolveProduct(pending);
+                if (productId == null) {
+                    continue;
+                }
+                if (isBlank(row.getName())) {
+                    reject(pending.line(), "name is required");
+                    continue;
+                }
+
+                String key = key(productId, row.getName());
+                Long variantId = variants.get(key);
+                if (variantId != null) {
+                    updates.add(new Object[]{row.getName().trim(), row.getDescription(), row.getPrice(), row.getInStock(),
+                            row.getSortOrder(), variantId});
+                } else if (row.getPrice() == null) {
+                    reject(pending.line(), "price is required for new variant '" + row.getName() + "'");
+                    continue;
+                } else {
+                    inserts.put(key, new Object[]{productId, row.getName().trim(), row.getDescription(), row.getPrice(),
+                            row.getInStock() != null ? row.getInStock() : Boolean.TRUE,
+                            row.getSortOrder() != null ? row.getSortOrder() : 0});
+                }
+                productIds.add(productId);
+            }
+
+            batchUpdate(UPDATE_VARIANT, updates);
+            insertAll(INSERT_VARIANT, inserts, variants);
+            batchUpdate(MARK_HAS_VARIANTS, productIds.stream().map(id -> new Object[]{id}).toList());
+            result.setVariantsUpdated(result.getVariantsUpdated() + updates.size());
+            result.setVariantsCreated(result.getVariantsCreated() + inserts.size());
+        }
+
+        private void writeAddOns(List<PendingRow> rows) {
+            List<Object[]> updates = new ArrayList<>();
+            Map<String, Object[]> inserts = new LinkedHashMap<>();
+
+            for (PendingRow pending : rows) {
+                MenuImportRow row = pending.row();
+                Long groupId = addOnGroups.get(normalize(row.getAddOnGroup()));
+                if (groupId == null) {
+                    reject(pending.line(), "unknown add-on group '" + row.getAddOnGroup() + "'");
+                    continue;
+                }
+                if (isBlank(row.getName())) {
+                    reject(pending.line(), "name is required");
+                    continue;
+                }
+
+                String key = key(groupId, row.getName());
+                Long addOnId = addOns.get(key);
+                if (addOnId != null) {
+                    updates.add(new Object[]{row.getName().trim(), row.getDescription(), row.getPrice(), row.getInStock(),
+                            row.getSortOrder(), addOnId});
+                } else {
+                    inserts.put(key, new Object[]{groupId, row.getName().trim(), row.getDescription(),
+                            row.getPrice() != null ? row.getPrice() : BigDecimal.ZERO,
+                            row.getInStock() != null ? row.getInStock() : Boolean.TRUE,
+                            row.getSortOrder() != null ? row.getSortOrder() : 0});
+                }
+            }
+
+            batchUpdate(UPDATE_ADD_ON, updates);
+            insertAll(INSERT_ADD_ON, inserts, addOns);
+            result.setAddOnsUpdated(result.getAddOnsUpdated() + updates.size());
+            result.setAddOnsCreated(result.getAddOnsCreated() + inserts.size());
+        }
+
+        private void writeIngredientLinks(List<PendingRow> rows) {
+            Map<String, Object[]> links = new LinkedHashMap<>();
+
+            for (PendingRow pending : rows) {
+                MenuImportRow row = pending.row();
+                Long productId = resolveProduct(pending);
+                if (productId == null) {
+                    continue;
+                }
+                Long ingredientId = ingredients.get(normalize(row.getIngredient()));
+                if (ingredientId == null) {
+                    reject(pending.line(), "unknown ingredient '" + row.getIngredient() + "'");
+                    continue;
+                }
+                if (row.getQuantity() == null || row.getQuantity().signum() <= 0) {
+                    reject(pending.line(), "a positive quantity is required");
+                    continue;
+                }
+
+                String unit = !isBlank(row.getUnit()) ? row.getUnit().trim() : ingredientUnits.get(ingredientId);
+                // One statement per link and chunk; ON CONFLICT cannot touch the same row twice in a batch
+                links.put(productId + ":" + ingredientId, new Object[]{productId, ingredientId, row.getQuantity(), unit});
+            }
+
+            batchUpdate(UPSERT_INGREDIENT_LINK, new ArrayList<>(links.values()));
+            result.setIngredientLinks(result.getIngredientLinks() + links.size());
+        }
+
+        private Long resolveProduct(PendingRow pending) {
+            MenuImportRow row = pending.row();
+            Long categoryId = categories.get(normalize(row.getCategory()));
+            if (categoryId == null) {
+                reject(pending.line(), "unknown category '" + row.getCategory() + "'");
+                return null;
+            }
+            Long productId = products.get(key(categoryId, row.getProduct()));
+            if (productId == null) {
+                reject(pending.line(), "unknown product '" + row.getProduct() + "' in category '" + row.getCategory() + "'");
+            }
+            return productId;
+        }
+
+        private Set<Long> resolveAddOnGroups(PendingRow pending) {
+            Set<Long> groupIds = new LinkedHashSet<>();
+            if (isBlank(pending.row().getAddOnGroups())) {
+                return groupIds;
+            }
+            for (String name : pending.row().getAddOnGroups().split("\\|")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                Long groupId = addOnGroups.get(normalize(name));
+                if (groupId == null) {
+                    reject(pending.line(), "unknown add-on group '" + name.trim() + "'");
+                    return null;
+                }
+                groupIds.add(groupId);
+            }
+            return groupIds;
+        }
+
+        private void reject(long line, String message) {
+            result.setRowsRejected(result.getRowsRejected() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add("line " + line + ": " + message);
+            }
+        }
+
+        private void batchUpdate(String sql, List<Object[]> rows) {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+            }
+        }
+
+        /**
+         * Insert rows in one batch and record the generated IDs under their natural keys
+         */
+        private void insertAll(String sql, Map<String, Object[]> rows, Map<String, Long> ids) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<Long> generated = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                    for (Object[] row : rows.values()) {
+                        for (int i = 0; i < row.length; i++) {
+                            StatementCreatorUtils.setParameterValue(statement, i + 1, SqlTypeValue.TYPE_UNKNOWN, row[i]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    List<Long> keys = new ArrayList<>(rows.size());
+                    try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                        while (resultSet.next()) {
+                            keys.add(resultSet.getLong(1));
+                        }
+                    }
+                    return keys;
+                }
+            });
+            if (generated == null || generated.size() != rows.size()) {
+                throw new IllegalStateException("Expected " + rows.size() + " generated keys");
+            }
+
+            int i = 0;
+            for (String key : rows.keySet()) {
+                ids.put(key, generated.get(i++));
+            }
+        }
+    }
+}
@@ -1,23 +1,27 @@
 package com.elcafe.modules.menu.service;
 
+import com.elcafe.event.ImageVariantsReadyEvent;
 import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.menu.dto.ProductListDTO;
 import com.elcafe.modules.menu.entity.*;
+import com.elcafe.modules.menu.enums.MenuEntityType;
 import com.elcafe.modules.menu.enums.ProductStatus;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
 import com.elcafe.modules.menu.repository.AddOnGroupRepository;
 import com.elcafe.modules.menu.repository.CategoryRepository;
 import com.elcafe.modules.menu.repository.ProductRepository;
-import com.elcafe.modules.restaurant.entity.Restaurant;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.elcafe.service.FileUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -28,31 +32,18 @@ public class MenuService {
     private final ProductRepository productRepository;
     private final AddOnGroupRepository addOnGroupRepository;
     private final RestaurantRepository restaurantRepository;
-
-    @Transactional(readOnly = true)
-    @Cacheable(value = "menu", key = "#restaurantId")
-    public List<Category> getPublicMenu(Long restaurantId) {
-        log.info("Fetching public menu for restaurant: {}", restaurantId);
-
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", restaurantId));
-
-        if (!restaurant.getActive()) {
-            throw new ResourceNotFoundException("Restaurant is not active");
-        }
-
-        return categoryRepository.findByRestaurantIdAndActiveTrueOrderBySortOrder(restaurantId);
-    }
+    private final FileUploadService fileUploadService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Category createCategory(Category category) {
         log.info("Creating category: {}", category.getName());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        publishCategoryChanged(saved, false);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Category updateCategory(Long id, Category categoryData) {
         log.info("Updating category: {}", id);
 
@@ -65,7 +56,9 @@ public class MenuService {
         category.setSortOrder(categoryData.getSortOrder());
         category.setActive(categoryData.getActive());
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        publishCategoryChanged(saved, false);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -80,23 +73,24 @@ public class MenuService {
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public void deleteCategory(Long id) {
         log.info("Deleting category: {}", id);
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         categoryRepository.delete(category);
+        publishCategoryChanged(category, true);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Product createProduct(Product product) {
         log.info("Creating product: {}", product.getName());
-        return productRepository.save(product);
+        product.setImageVariants(fileUploadService.findImageWidths(product.getImageUrl()));
+        Product saved = productRepository.save(product);
+        publishProductChanged(saved, false);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Product updateProduct(Long id, Product productData) {
         log.info("Updating product: {}", id);
 
@@ -105,18 +99,22 @@ public class MenuService {
 
         product.setName(productData.getName());
         product.setDescription(productData.getDescription());
-        product.setImageUrl(productData.getImageUrl());
+        if (!Objects.equals(product.getImageUrl(), productData.getImageUrl())) {
+            product.setImageUrl(productData.getImageUrl());
+            product.setImageVariants(fileUploadService.findImageWidths(productData.getImageUrl()));
+        }
         product.setPrice(productData.getPrice());
         product.setSortOrder(productData.getSortOrder());
         product.setStatus(productData.getStatus());
         product.setInStock(productData.getInStock());
         product.setFeatured(productData.getFeatured());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishProductChanged(saved, false);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Product updateProductStock(Long id, Boolean inStock) {
         log.info("Updating product stock: {} to {}", id, inStock);
 
@@ -124,11 +122,12 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
         product.setInStock(inStock);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishProductChanged(saved, false);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public Product updateProductStatus(Long id, ProductStatus status) {
         log.info("Updating product status: {} to {}", id, status);
 
@@ -136,7 +135,9 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
         product.setStatus(status);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishProductChanged(saved, false);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -150,55 +151,37 @@ public class MenuService {
         return productRepository.findByCategoryIdOrderBySortOrder(categoryId);
     }
 
+    /**
+     * Product list of a restaurant, cached per menu version so any menu write moves readers to a fresh entry
+     */
     @Transactional(readOnly = true)
+    @Cacheable(value = "productList", key = "#restaurantId + ':' + @menuVersionService.getVersion(#restaurantId)", sync = true)
     public List<ProductListDTO> getProductsByRestaurant(Long restaurantId) {
         log.info("Fetching products for restaurant: {}", restaurantId);
-
-        List<Category> categories = categoryRepository.findByRestaurantIdOrderBySortOrder(restaurantId);
-
-        return categories.stream()
-                .flatMap(category -> category.getProducts().stream()
-                        .map(product -> ProductListDTO.builder()
-                                .id(product.getId())
-                                .name(product.getName())
-                                .description(product.getDescription())
-                                .imageUrl(product.getImageUrl())
-                                .price(product.getPrice())
-                                .priceWithMargin(product.getPriceWithMargin())
-                                .itemType(product.getItemType())
-                                .sortOrder(product.getSortOrder())
-                                .status(product.getStatus())
-                                .inStock(product.getInStock())
-                                .featured(product.getFeatured())
-                                .hasVariants(product.getHasVariants())
-                                .categoryId(category.getId())
-                                .categoryName(category.getName())
-                                .available(product.getInStock())
-                                .isFeatured(product.getFeatured())
-                                .createdAt(product.getCreatedAt())
-                                .updatedAt(product.getUpdatedAt())
-                                .build()))
-                .collect(Collectors.toList());
+        List<ProductListDTO> products = productRepository.findProductListByRestaurantId(restaurantId);
+        products.forEach(product -> product.setThumbnailUrl(
+                fileUploadService.thumbnailUrl(product.getImageUrl(), product.getImageVariants())));
+        return products;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public void deleteProduct(Long id) {
         log.info("Deleting product: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         productRepository.delete(product);
+        publishProductChanged(product, true);
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnGroup createAddOnGroup(AddOnGroup addOnGroup) {
         log.info("Creating add-on group: {}", addOnGroup.getName());
-        return addOnGroupRepository.save(addOnGroup);
+        AddOnGroup saved = addOnGroupRepository.save(addOnGroup);
+        publishAddOnGroupChanged(saved, false);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public AddOnGroup updateAddOnGroup(Long id, AddOnGroup addOnGroupData) {
         log.info("Updating add-on group: {}", id);
 
@@ -212,7 +195,9 @@ public class MenuService {
         addOnGroup.setMaxSelection(addOnGroupData.getMaxSelection());
         addOnGroup.setActive(addOnGroupData.getActive());
 
-        return addOnGroupRepository.save(addOnGroup);
+        AddOnGroup saved = addOnGroupRepository.save(addOnGroup);
+        publishAddOnGroupChanged(saved, false);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -227,11 +212,41 @@ public class MenuService {
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
     public void deleteAddOnGroup(Long id) {
         log.info("Deleting add-on group: {}", id);
         AddOnGroup addOnGroup = addOnGroupRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("AddOnGroup", "id", id));
         addOnGroupRepository.delete(addOnGroup);
+        publishAddOnGroupChanged(addOnGroup, true);
+    }
+
+    private void publishCategoryChanged(Category category, boolean deleted) {
+        publishMenuChanged(category.getRestaurant().getId(), MenuEntityType.CATEGORY, category.getId(), deleted);
+    }
+
+    /**
+     * Record the resized copies of an image on the products showing it
+     */
+    @EventListener
+    @Transactional
+    public void onImageVariantsReady(ImageVariantsReadyEvent event) {
+        for (Product product : productRepository.findWithRestaurantByImageUrl(event.getImageUrl())) {
+            if (!Objects.equals(product.getImageVariants(), event.getWidths())) {
+                product.setImageVariants(event.getWidths());
+                publishProductChanged(productRepository.save(product), false);
+            }
+        }
+    }
+
+    private void publishProductChanged(Product product, boolean deleted) {
+        publishMenuChanged(product.getCategory().getRestaurant().getId(), MenuEntityType.PRODUCT, product.getId(), deleted);
+    }
+
+    private void publishAddOnGroupChanged(AddOnGroup addOnGroup, boolean deleted) {
+        publishMenuChanged(addOnGroup.getRestaurant().getId(), MenuEntityType.ADD_ON_GROUP, addOnGroup.getId(), deleted);
+    }
+
+    private void publishMenuChanged(Long restaurantId, MenuEntityType entityType, Long entityId, boolean deleted) {
+        eventPublisher.publishEvent(new MenuChangedEvent(this, restaurantId, entityType, entityId, deleted));
     }
 }
@@ -0,0 +1,267 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.exception.ResourceNotFoundException;
+import com.elcafe.modules.menu.dto.AddOnGroupResponse;
+import com.elcafe.modules.menu.dto.AddOnResponse;
+import com.elcafe.modules.menu.dto.MenuDeltaResponse;
+import com.elcafe.modules.menu.dto.ProductVariantResponse;
+import com.elcafe.modules.menu.dto.PublicMenuCategoryDTO;
+import com.elcafe.modules.menu.dto.PublicMenuProductDTO;
+import com.elcafe.modules.menu.entity.AddOn;
+import com.elcafe.modules.menu.entity.AddOnGroup;
+import com.elcafe.modules.menu.entity.Category;
+import com.elcafe.modules.menu.entity.Product;
+import com.elcafe.modules.menu.entity.ProductVariant;
+import com.elcafe.modules.menu.repository.AddOnGroupRepository;
+import com.elcafe.modules.menu.repository.AddOnRepository;
+import com.elcafe.modules.menu.repository.CategoryRepository;
+import com.elcafe.modules.menu.repository.ProductRepository;
+import com.elcafe.modules.menu.repository.ProductVariantRepository;
+import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.elcafe.service.FileUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the public menu read model of one restaurant.
+ *
+ * Loads categories, products, variants, add-on groups and add-ons with one query each
+ * instead of walking lazy collections per category and product. The same mapping serves
+ * menu deltas for the entities changed since a menu version.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuSnapshotBuilder {
+
+    private final RestaurantRepository restaurantRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final AddOnGroupRepository addOnGroupRepository;
+    private final AddOnRepository addOnRepository;
+    private final FileUploadService fileUploadService;
+
+    @Transactional(readOnly = true)
+    public List<PublicMenuCategoryDTO> build(Long restaurantId) {
+        Restaurant restaurant = loadActiveRestaurant(restaurantId);
+
+        List<Category> categories = categoryRepository.findByRestaurantIdAndActiveTrueOrderBySortOrder(restaurantId);
+        if (categories.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, PublicMenuCategoryDTO> categoryDtos = new LinkedHashMap<>();
+        for (Category category : categories) {
+            categoryDtos.put(category.getId(), toCategoryDto(category));
+        }
+
+        List<Product> products = productRepository.findByCategoryIdInOrderBySortOrder(categoryDtos.keySet());
+        Map<Long, PublicMenuProductDTO> productDtos = new HashMap<>();
+        for (Product product : products) {
+            PublicMenuProductDTO dto = toProductDto(product);
+            productDtos.put(product.getId(), dto);
+            categoryDtos.get(product.getCategory().getId()).getProducts().add(dto);
+        }
+
+        attachVariants(productDtos);
+        Map<Long, AddOnGroupResponse> addOnGroups = loadActiveAddOnGroups(restaurant);
+        if (!addOnGroups.isEmpty()) {
+            attachAddOnGroups(productDtos, addOnGroups, productRepository.findAddOnGroupLinksByCategoryIds(categoryDtos.keySet()));
+        }
+
+        return new ArrayList<>(categoryDtos.values());
+    }
+
+    /**
+     * Fill {@code delta} with the current state of the given categories, products and add-on groups.
+     * Entities that no longer exist or are no longer visible on the public menu are reported as deleted.
+     */
+    @Transactional(readOnly = true)
+    public void buildDelta(Long restaurantId, Set<Long> categoryIds, Set<Long> productIds, Set<Long> addOnGroupIds,
+                           MenuDeltaResponse delta) {
+        Restaurant restaurant = loadActiveRestaurant(restaurantId);
+
+        if (!categoryIds.isEmpty()) {
+            Set<Long> visible = new HashSet<>();
+            for (Category category : categoryRepository.findAllById(categoryIds)) {
+                if (restaurantId.equals(category.getRestaurant().getId()) && Boolean.TRUE.equals(category.getActive())) {
+                    delta.getCategories().add(toCategoryDto(category));
+                    visible.add(category.getId());
+                }
+            }
+            delta.getCategories().sort(Comparator.comparing(PublicMenuCategoryDTO::getSortOrder,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            addMissing(categoryIds, visible, delta.getDeletedCategoryIds());
+        }
+
+        if (productIds.isEmpty() && addOnGroupIds.isEmpty()) {
+            return;
+        }
+        Map<Long, AddOnGroupResponse> addOnGroups = loadActiveAddOnGroups(restaurant);
+
+        if (!productIds.isEmpty()) {
+            Map<Long, PublicMenuProductDTO> productDtos = new LinkedHashMap<>();
+            for (Product product : productRepository.findWithCategoryByIdIn(productIds)) {
+                Category category = product.getCategory();
+                if (restaurantId.equals(category.getRestaurant().getId()) && Boolean.TRUE.equals(category.getActive())) {
+                    productDtos.put(product.getId(), toProductDto(product));
+                }
+            }
+            attachVariants(productDtos);
+            if (!productDtos.isEmpty() && !addOnGroups.isEmpty()) {
+                attachAddOnGroups(productDtos, addOnGroups, productRepository.findAddOnGroupLinksByProductIds(productDtos.keySet()));
+            }
+            delta.getProducts().addAll(productDtos.values());
+            addMissing(productIds, productDtos.keySet(), delta.getDeletedProductIds());
+        }
+
+        for (Long addOnGroupId : addOnGroupIds) {
+            AddOnGroupResponse group = addOnGroups.get(addOnGroupId);
+            if (group != null) {
+                delta.getAddOnGroups().add(group);
+            } else {
+                delta.getDeletedAddOnGroupIds().add(addOnGroupId);
+            }
+        }
+    }
+
+    private Restaurant loadActiveRestaurant(Long restaurantId) {
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", restaurantId));
+
+        if (!restaurant.getActive()) {
+            throw new ResourceNotFoundException("Restaurant is not active");
+        }
+        return restaurant;
+    }
+
+    private void attachVariants(Map<Long, PublicMenuProductDTO> productDtos) {
+        if (productDtos.isEmpty()) {
+            return;
+        }
+        for (ProductVariant variant : productVariantRepository.findByProductIdInOrderBySortOrder(productDtos.keySet())) {
+            productDtos.get(variant.getProduct().getId()).getVariants().add(toVariantDto(variant));
+        }
+    }
+
+    private void attachAddOnGroups(Map<Long, PublicMenuProductDTO> productDtos, Map<Long, AddOnGroupResponse> addOnGroups,
+                                   List<Object[]> links) {
+        for (Object[] link : links) {
+            PublicMenuProductDTO product = productDtos.get((Long) link[0]);
+            AddOnGroupResponse group = addOnGroups.get((Long) link[1]);
+            if (product != null && group != null) {
+                product.getAddOnGroups().add(group);
+            }
+        }
+    }
+
+    private static void addMissing(Set<Long> requested, Set<Long> present, List<Long> missing) {
+        for (Long id : requested) {
+            if (!present.contains(id)) {
+                missing.add(id);
+            }
+        }
+    }
+
+    private Map<Long, AddOnGroupResponse> loadActiveAddOnGroups(Restaurant restaurant) {
+        List<AddOnGroup> groups = addOnGroupRepository.findByRestaurantIdAndActiveTrue(restaurant.getId());
+        Map<Long, AddOnGroupResponse> result = new HashMap<>();
+        for (AddOnGroup group : groups) {
+            result.put(group.getId(), toAddOnGroupDto(group, restaurant));
+        }
+        if (!result.isEmpty()) {
+            for (AddOn addOn : addOnRepository.findByAddOnGroupIdInOrderBySortOrder(result.keySet())) {
+                if (Boolean.TRUE.equals(addOn.getAvailable())) {
+                    AddOnGroupResponse group = result.get(addOn.getAddOnGroup().getId());
+                    group.getAddOns().add(toAddOnDto(addOn, group));
+                }
+            }
+        }
+        return result;
+    }
+
+    private PublicMenuCategoryDTO toCategoryDto(Category category) {
+        return PublicMenuCategoryDTO.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .imageUrl(category.getImageUrl())
+                .sortOrder(category.getSortOrder())
+                .active(category.getActive())
+                .createdAt(category.getCreatedAt())
+                .updatedAt(category.getUpdatedAt())
+                .build();
+    }
+
+    private PublicMenuProductDTO toProductDto(Product product) {
+        return PublicMenuProductDTO.builder()
+                .id(product.getId())
+                .categoryId(product.getCategory().getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .imageUrl(product.getImageUrl())
+                .thumbnailUrl(fileUploadService.thumbnailUrl(product.getImageUrl(), product.getImageVariants()))
+                .price(product.getPrice())
+                .sortOrder(product.getSortOrder())
+                .status(product.getStatus())
+                .inStock(product.getInStock())
+                .featured(product.getFeatured())
+                .hasVariants(product.getHasVariants())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    private ProductVariantResponse toVariantDto(ProductVariant variant) {
+        return ProductVariantResponse.builder()
+                .id(variant.getId())
+                .productId(variant.getProduct().getId())
+                .name(variant.getName())
+                .description(variant.getDescription())
+                .price(variant.getPrice())
+                .inStock(variant.getInStock())
+                .sortOrder(variant.getSortOrder())
+                .build();
+    }
+
+    private AddOnGroupResponse toAddOnGroupDto(AddOnGroup group, Restaurant restaurant) {
+        return AddOnGroupResponse.builder()
+                .id(group.getId())
+                .restaurantId(restaurant.getId())
+                .restaurantName(restaurant.getName())
+                .name(group.getName())
+                .description(group.getDescription())
+                .required(group.getRequired())
+                .minSelection(group.getMinSelection())
+                .maxSelection(group.getMaxSelection())
+                .active(group.getActive())
+                .addOns(new ArrayList<>())
+                .createdAt(group.getCreatedAt())
+                .updatedAt(group.getUpdatedAt())
+                .build();
+    }
+
+    private AddOnResponse toAddOnDto(AddOn addOn, AddOnGroupResponse group) {
+        return AddOnResponse.builder()
+                .id(addOn.getId())
+                .addOnGroupId(group.getId())
+                .addOnGroupName(group.getName())
+                .name(addOn.getName())
+                .description(addOn.getDescription())
+                .price(addOn.getPrice())
+                .available(addOn.getAvailable())
+                .sortOrder(addOn.getSortOrder())
+                .build();
+    }
+}
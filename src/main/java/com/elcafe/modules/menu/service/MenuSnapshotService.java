@@ -0,0 +1,154 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.config.cache.LocalCacheStore;
+import com.elcafe.config.cache.SingleFlight;
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Public menu snapshots.
+ *
+ * Each restaurant's public menu is built once per menu version by {@link MenuSnapshotBuilder},
+ * serialized to JSON and stored in Redis as raw bytes, with a short-lived in-process copy in
+ * front, so serving it is usually just a byte copy into the response. Snapshots are keyed by
+ * menu version: a menu write moves the restaurant to a new key and old snapshots expire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuSnapshotService {
+
+    /** Bump when the snapshot JSON shape changes, so nodes never serve a snapshot of the old shape */
+    private static final int SNAPSHOT_FORMAT = 2;
+    private static final String KEY_PREFIX = "menu:snapshot:v" + SNAPSHOT_FORMAT + ":";
+    private static final String LOCAL_CACHE = "menu-snapshot";
+
+    private static final byte[] SUCCESS_PREFIX = "{\"success\":true,".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_FIELD = "\"message\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_FIELD = "\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final MenuSnapshotBuilder menuSnapshotBuilder;
+    private final RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TwoLevelCacheManager cacheManager;
+    private final MenuVersionService menuVersionService;
+
+    /** Concurrent misses on the same snapshot wait for one read or build instead of each building it */
+    private final SingleFlight<byte[]> loads = new SingleFlight<>();
+
+    @Value("${app.cache.menu-ttl:1800}")
+    private long menuTtlSeconds;
+
+    /**
+     * Serialized public menu (JSON array of categories) of a restaurant at the given menu version.
+     * The version must be read before the snapshot is built, so a snapshot is never older than its key.
+     */
+    public byte[] getSnapshot(Long restaurantId, long version) {
+        LocalCacheStore localSnapshots = cacheManager.getLocalStore(LOCAL_CACHE);
+        String localKey = restaurantId + ":" + version;
+        if (localSnapshots.get(localKey) instanceof byte[] local) {
+            return local;
+        }
+
+        return loads.load(localKey, () -> {
+            if (localSnapshots.get(localKey) instanceof byte[] local) {
+                return local;
+            }
+            return loadSnapshot(restaurantId, version, localSnapshots, localKey);
+        });
+    }
+
+    /**
+     * Public menu wrapped in the standard {@code ApiResponse} envelope, ready to be written to the response
+     */
+    public byte[] getPublicMenuResponse(Long restaurantId, long version, String message) {
+        byte[] snapshot = getSnapshot(restaurantId, version);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length + 128);
+        out.writeBytes(SUCCESS_PREFIX);
+        if (message != null) {
+            out.writeBytes(MESSAGE_FIELD);
+            out.writeBytes(serialize(message));
+            out.write(',');
+        }
+        out.writeBytes(DATA_FIELD);
+        out.writeBytes(snapshot);
+        out.writeBytes(TIMESTAMP_FIELD);
+        out.writeBytes(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()).getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(SUFFIX);
+        return out.toByteArray();
+    }
+
+    /**
+     * Drop the snapshot of the restaurant's current menu version, e.g. when the restaurant is deactivated
+     */
+    public void evict(Long restaurantId) {
+        long version = menuVersionService.getVersion(restaurantId);
+        try {
+            byteArrayRedisTemplate.delete(key(restaurantId, version));
+            log.debug("Evicted menu snapshot for restaurant {}", restaurantId);
+        } catch (RuntimeException e) {
+            log.warn("Could not evict menu snapshot of restaurant {}: {}", restaurantId, e.getMessage());
+        }
+        cacheManager.invalidateLocal(LOCAL_CACHE, restaurantId + ":" + version);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        // The node that made the change already evicted the snapshot everywhere
+        if (!event.isRelayed() && event.affects(RestaurantChangeScope.DETAILS)) {
+            evict(event.getRestaurantId());
+        }
+    }
+
+    private byte[] loadSnapshot(Long restaurantId, long version, LocalCacheStore localSnapshots, String localKey) {
+        String key = key(restaurantId, version);
+        try {
+            byte[] cached = byteArrayRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                localSnapshots.put(localKey, cached);
+                return cached;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read menu snapshot {}: {}", key, e.getMessage());
+        }
+
+        byte[] snapshot = serialize(menuSnapshotBuilder.build(restaurantId));
+        try {
+            byteArrayRedisTemplate.opsForValue().set(key, snapshot, Duration.ofSeconds(menuTtlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("Could not store menu snapshot {}: {}", key, e.getMessage());
+        }
+        localSnapshots.put(localKey, snapshot);
+        log.debug("Built menu snapshot for restaurant {} ({} bytes)", restaurantId, snapshot.length);
+        return snapshot;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu snapshot", e);
+        }
+    }
+
+    private static String key(Long restaurantId, long version) {
+        return KEY_PREFIX + restaurantId + ":" + version;
+    }
+}
@@ -0,0 +1,169 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.config.cache.LocalCacheStore;
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.modules.menu.dto.MenuDeltaResponse;
+import com.elcafe.modules.menu.entity.MenuChange;
+import com.elcafe.modules.menu.entity.MenuVersion;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
+import com.elcafe.modules.menu.repository.MenuChangeRepository;
+import com.elcafe.modules.menu.repository.MenuVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-restaurant menu versions.
+ *
+ * Every {@link MenuChangedEvent} increments the restaurant's version inside the writing
+ * transaction and records which entity changed, so clients can revalidate a cached menu by
+ * ETag and fetch only the entities changed since the version they hold. Changes too old to be
+ * part of a delta are pruned, see {@link #pruneChanges()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuVersionService {
+
+    /** Response header carrying the menu version, for use as {@code since} of the delta endpoint */
+    public static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
+    private static final String LOCAL_CACHE = "menu-version";
+
+    /** Deltas spanning more changes than this tell the client to reload the full menu */
+    private static final int MAX_DELTA_CHANGES = 500;
+
+    private final MenuVersionRepository menuVersionRepository;
+    private final MenuChangeRepository menuChangeRepository;
+    private final MenuSnapshotBuilder menuSnapshotBuilder;
+    private final TwoLevelCacheManager cacheManager;
+
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        Long version = menuVersionRepository.incrementVersion(event.getRestaurantId());
+        menuChangeRepository.save(MenuChange.builder()
+                .restaurantId(event.getRestaurantId())
+                .version(version)
+                .entityType(event.getEntityType())
+                .entityId(event.getEntityId())
+                .deleted(event.isDeleted())
+                .build());
+        log.debug("Menu of restaurant {} is now at version {}", event.getRestaurantId(), version);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChangeCommitted(MenuChangedEvent event) {
+        cacheManager.invalidateLocal(LOCAL_CACHE, String.valueOf(event.getRestaurantId()));
+    }
+
+    /**
+     * Current menu version of a restaurant, 0 if its menu was never changed
+     */
+    public long getVersion(Long restaurantId) {
+        LocalCacheStore versions = cacheManager.getLocalStore(LOCAL_CACHE);
+        String key = String.valueOf(restaurantId);
+        if (versions.get(key) instanceof Long cached) {
+            return cached;
+        }
+
+        long version = loadVersion(restaurantId);
+        versions.put(key, version);
+        return version;
+    }
+
+    /**
+     * Weak entity tag of a menu version; the response envelope carries a timestamp, so equal
+     * versions are semantically but not byte-for-byte equal
+     */
+    public static String eTag(Long restaurantId, long version) {
+        return "W/\"menu-" + restaurantId + "-" + version + "\"";
+    }
+
+    /**
+     * Categories, products and add-on groups changed since {@code sinceVersion}
+     */
+    @Transactional(readOnly = true)
+    public MenuDeltaResponse getDelta(Long restaurantId, long sinceVersion) {
+        long version = loadVersion(restaurantId);
+        MenuDeltaResponse delta = MenuDeltaResponse.builder()
+                .restaurantId(restaurantId)
+                .sinceVersion(sinceVersion)
+                .version(version)
+                .build();
+
+        if (sinceVersion == version) {
+            return delta;
+        }
+        // Every change takes one version, so a long gap is a full reload without reading the changes
+        if (sinceVersion < 0 || sinceVersion > version || version - sinceVersion > MAX_DELTA_CHANGES) {
+            delta.setFullReload(true);
+            return delta;
+        }
+
+        List<MenuChange> changes = menuChangeRepository.findChanges(restaurantId, sinceVersion, version,
+                PageRequest.of(0, MAX_DELTA_CHANGES + 1));
+        if (changes.size() > MAX_DELTA_CHANGES
+                || changes.stream().anyMatch(change -> change.getEntityType() == MenuEntityType.MENU)) {
+            delta.setFullReload(true);
+            return delta;
+        }
+
+        // Changes come in version order, so the last one per entity decides whether it still exists
+        Map<MenuEntityType, Map<Long, Boolean>> latest = new LinkedHashMap<>();
+        for (MenuChange change : changes) {
+            latest.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(change.getEntityId(), change.getDeleted());
+        }
+
+        menuSnapshotBuilder.buildDelta(restaurantId,
+                live(latest, MenuEntityType.CATEGORY, delta.getDeletedCategoryIds()),
+                live(latest, MenuEntityType.PRODUCT, delta.getDeletedProductIds()),
+                live(latest, MenuEntityType.ADD_ON_GROUP, delta.getDeletedAddOnGroupIds()),
+                delta);
+        return delta;
+    }
+
+    /**
+     * Delete the changes no delta reads any more: a delta reaches back at most
+     * {@code MAX_DELTA_CHANGES} versions from the current one, older clients reload the full menu
+     *
+     * @return the number of changes deleted
+     */
+    @Transactional
+    public int pruneChanges() {
+        int deleted = menuChangeRepository.deleteOutdated(MAX_DELTA_CHANGES);
+        if (deleted > 0) {
+            log.info("Pruned {} menu changes", deleted);
+        }
+        return deleted;
+    }
+
+    private long loadVersion(Long restaurantId) {
+        return menuVersionRepository.findById(restaurantId)
+                .map(MenuVersion::getVersion)
+                .orElse(0L);
+    }
+
+    private static Set<Long> live(Map<MenuEntityType, Map<Long, Boolean>> latest, MenuEntityType type, List<Long> deleted) {
+        Set<Long> ids = new LinkedHashSet<>();
+        latest.getOrDefault(type, Map.of()).forEach((id, isDeleted) -> {
+            if (Boolean.TRUE.equals(isDeleted)) {
+                deleted.add(id);
+            } else {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+}
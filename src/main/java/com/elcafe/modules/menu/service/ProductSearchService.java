@@ -0,0 +1,212 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.modules.menu.dto.ProductSearchResult;
+import com.elcafe.modules.menu.entity.Product;
+import com.elcafe.modules.menu.entity.ProductVariant;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
+import com.elcafe.modules.menu.repository.ProductRepository;
+import com.elcafe.modules.menu.repository.ProductVariantRepository;
+import com.elcafe.modules.menu.search.ProductSearchDocument;
+import com.elcafe.modules.menu.search.ProductSearchIndex;
+import com.elcafe.modules.menu.search.ProductSearchQuery;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product search across menus.
+ *
+ * Searchable products (live, in an active category of an active restaurant) are indexed in
+ * memory at startup, together with their variant and category names, and re-indexed after
+ * commit of each menu write: per product for product and variant writes, per restaurant for
+ * category and restaurant changes. Menu writes are relayed to the other nodes over Redis
+ * pub/sub, as {@code nodeId\trestaurantId\tentityType\tentityId\tdeleted} on
+ * {@code menu:search}; restaurant changes arrive through {@code RestaurantChangeRelay}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService implements MessageListener {
+
+    private static final String CHANNEL = "menu:search";
+    private static final char SEPARATOR = '\t';
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    private static final int VARIANT_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final MeterRegistry meterRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /** Identifies this node's own relay messages */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    /** Orders the re-indexing of a restaurant, so a local and a relayed change never put an older document back */
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAll() {
+        toDocuments(productRepository.findSearchable()).forEach(index::put);
+        log.info("Indexed {} products for search", index.size());
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getEntityType() != MenuEntityType.CATEGORY && event.getEntityType() != MenuEntityType.MENU
+                && event.getEntityType() != MenuEntityType.PRODUCT) {
+            return;
+        }
+        apply(event.getRestaurantId(), event.getEntityType(), event.getEntityId(), event.isDeleted());
+        publish(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!event.affects(RestaurantChangeScope.DETAILS)) {
+            return;
+        }
+        withRestaurantLock(event.getRestaurantId(), () -> {
+            if (event.affects(RestaurantChangeScope.DELETED)) {
+                index.replaceRestaurant(event.getRestaurantId(), List.of());
+            } else {
+                reindexRestaurant(event.getRestaurantId());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR));
+        if (parts.length != 5 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            apply(Long.valueOf(parts[1]), MenuEntityType.valueOf(parts[2]), Long.valueOf(parts[3]),
+                    Boolean.parseBoolean(parts[4]));
+        } catch (RuntimeException e) {
+            log.warn("Could not apply relayed change of {} {}: {}", parts[2], parts[3], e.getMessage());
+        }
+    }
+
+    /**
+     * Ranked products matching the text, optionally limited to one restaurant or category,
+     * in-stock products and a price range
+     */
+    public List<ProductSearchResult> search(String text, Long restaurantId, Long categoryId, Boolean inStock,
+                                            BigDecimal minPrice, BigDecimal maxPrice, Integer limit) {
+        int resultLimit = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        ProductSearchQuery query = new ProductSearchQuery(text, restaurantId, categoryId, inStock, minPrice, maxPrice, resultLimit);
+
+        Timer timer = meterRegistry.timer("menu.search", "scope", restaurantId != null ? "restaurant" : "global");
+        return timer.record(() -> index.search(query).stream()
+                .map(hit -> toResult(hit.document(), hit.score()))
+                .toList());
+    }
+
+    private void apply(Long restaurantId, MenuEntityType entityType, Long entityId, boolean deleted) {
+        withRestaurantLock(restaurantId, () -> {
+            if (entityType == MenuEntityType.CATEGORY || entityType == MenuEntityType.MENU) {
+                reindexRestaurant(restaurantId);
+            } else if (deleted) {
+                index.remove(entityId);
+            } else {
+                productRepository.findSearchableById(entityId)
+                        .ifPresentOrElse(
+                                product -> index.put(ProductSearchDocument.of(product,
+                                        productVariantRepository.findByProductIdInOrderBySortOrder(List.of(product.getId())))),
+                                () -> index.remove(entityId));
+            }
+        });
+    }
+
+    private void withRestaurantLock(Long restaurantId, Runnable action) {
+        ReentrantLock lock = locks.computeIfAbsent(restaurantId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(MenuChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + event.getRestaurantId()
+                    + SEPARATOR + event.getEntityType() + SEPARATOR + event.getEntityId()
+                    + SEPARATOR + event.isDeleted());
+        } catch (RuntimeException e) {
+            // Other nodes keep their current documents until the next change of this restaurant
+            log.warn("Could not relay menu change: {}", e.getMessage());
+        }
+    }
+
+    private void reindexRestaurant(Long restaurantId) {
+        index.replaceRestaurant(restaurantId, toDocuments(productRepository.findSearchableByRestaurantId(restaurantId)));
+        log.debug("Re-indexed products of restaurant {} for search", restaurantId);
+    }
+
+    private List<ProductSearchDocument> toDocuments(List<Product> products) {
+        Map<Long, List<ProductVariant>> variantsByProduct = new HashMap<>();
+        for (int from = 0; from < products.size(); from += VARIANT_BATCH_SIZE) {
+            List<Long> productIds = products.subList(from, Math.min(from + VARIANT_BATCH_SIZE, products.size())).stream()
+                    .map(Product::getId)
+                    .toList();
+            for (ProductVariant variant : productVariantRepository.findByProductIdInOrderBySortOrder(productIds)) {
+                variantsByProduct.computeIfAbsent(variant.getProduct().getId(), id -> new ArrayList<>()).add(variant);
+            }
+        }
+
+        List<ProductSearchDocument> documents = new ArrayList<>(products.size());
+        for (Product product : products) {
+            documents.add(ProductSearchDocument.of(product, variantsByProduct.getOrDefault(product.getId(), List.of())));
+        }
+        return documents;
+    }
+
+    private ProductSearchResult toResult(ProductSearchDocument document, float score) {
+        return ProductSearchResult.builder()
+                .productId(document.getProductId())
+                .restaurantId(document.getRestaurantId())
+                .categoryId(document.getCategoryId())
+                .categoryName(document.getCategoryName())
+                .name(document.getName())
+                .description(document.getDescription())
+                .imageUrl(document.getImageUrl())
+                .price(document.getPrice())
+                .inStock(document.isInStock())
+                .featured(document.isFeatured())
+                .score(score)
+                .build();
+    }
+}
@@ -3,10 +3,13 @@ package com.elcafe.modules.menu.service;
 import com.elcafe.modules.menu.dto.*;
 import com.elcafe.modules.menu.entity.Product;
 import com.elcafe.modules.menu.entity.ProductVariant;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
 import com.elcafe.modules.menu.repository.ProductRepository;
 import com.elcafe.modules.menu.repository.ProductVariantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +24,7 @@ public class ProductVariantService {
 
     private final ProductVariantRepository productVariantRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<ProductVariantResponse> getAllVariantsByProduct(Long productId, Pageable pageable) {
@@ -79,6 +83,7 @@ public class ProductVariantService {
 
         ProductVariant saved = productVariantRepository.save(variant);
         log.info("Created product variant: {} for product: {}", saved.getName(), productId);
+        publishMenuChanged(saved);
         return toResponse(saved);
     }
 
@@ -101,6 +106,7 @@ public class ProductVariantService {
 
         ProductVariant updated = productVariantRepository.save(variant);
         log.info("Updated product variant: {} for product: {}", updated.getName(), productId);
+        publishMenuChanged(updated);
         return toResponse(updated);
     }
 
@@ -111,6 +117,13 @@ public class ProductVariantService {
 
         productVariantRepository.delete(variant);
         log.info("Deleted product variant: {} for product: {}", variant.getName(), productId);
+        publishMenuChanged(variant);
+    }
+
+    private void publishMenuChanged(ProductVariant variant) {
+        Product product = variant.getProduct();
+        eventPublisher.publishEvent(new MenuChangedEvent(this, product.getCategory().getRestaurant().getId(),
+                MenuEntityType.PRODUCT, product.getId(), false));
     }
 
     private void verifyProductExists(Long productId) {
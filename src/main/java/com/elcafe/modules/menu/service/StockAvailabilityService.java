@@ -0,0 +1,207 @@
+package com.elcafe.modules.menu.service;
+
+import com.elcafe.modules.menu.availability.RestaurantAvailability;
+import com.elcafe.modules.menu.dto.StockChangeMessage;
+import com.elcafe.modules.menu.entity.Product;
+import com.elcafe.modules.menu.entity.ProductVariant;
+import com.elcafe.modules.menu.enums.MenuEntityType;
+import com.elcafe.modules.menu.event.MenuChangedEvent;
+import com.elcafe.modules.menu.repository.ProductRepository;
+import com.elcafe.modules.menu.repository.ProductVariantRepository;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orderability and prices of menu items for basket validation.
+ *
+ * Each restaurant's table is loaded on first use and kept current after commit of every menu
+ * write: stock and status changes flip bits in place, anything else rebuilds the table. Loads and
+ * refreshes of a restaurant take turns on a lock of their own, and the database is read outside
+ * the map, so readers of other restaurants never wait for it. Nodes
+ * relay menu changes to each other over Redis pub/sub and re-read the changed product, and every
+ * node pushes availability flips to the menu viewers connected to it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAvailabilityService implements MessageListener {
+
+    private static final String CHANNEL = "menu:availability";
+    private static final char SEPARATOR = '\t';
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /** Identifies this node's own relay messages */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<Long, RestaurantAvailability> tables = new ConcurrentHashMap<>();
+
+    /** Orders the loads and refreshes of a restaurant, so an older table never replaces a newer one */
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Availability table of a restaurant, loaded on first use
+     */
+    public RestaurantAvailability getAvailability(Long restaurantId) {
+        RestaurantAvailability table = tables.get(restaurantId);
+        if (table != null) {
+            return table;
+        }
+        // A change committed while loading is applied to the table once it is stored
+        ReentrantLock lock = lockFor(restaurantId);
+        lock.lock();
+        try {
+            table = tables.get(restaurantId);
+            if (table == null) {
+                table = load(restaurantId);
+                tables.put(restaurantId, table);
+            }
+            return table;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getEntityType() == MenuEntityType.ADD_ON_GROUP) {
+            return;
+        }
+        apply(event.getRestaurantId(), event.getEntityType(), event.getEntityId());
+        publish(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.affects(RestaurantChangeScope.DELETED)) {
+            tables.remove(event.getRestaurantId());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR));
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            apply(Long.valueOf(parts[1]), MenuEntityType.valueOf(parts[2]), Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            log.warn("Could not apply relayed change of {} {}: {}", parts[2], parts[3], e.getMessage());
+        }
+    }
+
+    private void apply(Long restaurantId, MenuEntityType entityType, Long entityId) {
+        List<StockChangeMessage> changes = new ArrayList<>();
+        ReentrantLock lock = lockFor(restaurantId);
+        lock.lock();
+        try {
+            // Checked under the lock, so a load in progress is waited for and then refreshed
+            RestaurantAvailability table = tables.get(restaurantId);
+            if (table == null) {
+                return;
+            }
+            RestaurantAvailability refreshed = entityType == MenuEntityType.CATEGORY || entityType == MenuEntityType.MENU
+                    ? load(restaurantId)
+                    : refreshProduct(table, entityId, changes);
+            if (refreshed != table) {
+                // Unless the restaurant was deleted meanwhile
+                tables.replace(restaurantId, table, refreshed);
+            }
+        } finally {
+            lock.unlock();
+        }
+        changes.forEach(change -> messagingTemplate.convertAndSend(
+                "/topic/restaurant/" + restaurantId + "/stock", change));
+    }
+
+    private RestaurantAvailability refreshProduct(RestaurantAvailability table, Long productId, List<StockChangeMessage> changes) {
+        Product product = productRepository.findById(productId).orElse(null);
+        List<ProductVariant> variants = product != null ? productVariantRepository.findByProductId(productId) : List.of();
+
+        if (product == null || !table.hasSameListing(product, variants)) {
+            // Price, name or variant set changed: clients pick those up through the menu version
+            RestaurantAvailability rebuilt = load(table.getRestaurantId());
+            int before = table.productIndex(productId);
+            int after = rebuilt.productIndex(productId);
+            if (before >= 0 && after >= 0 && table.isProductAvailable(before) != rebuilt.isProductAvailable(after)) {
+                changes.add(change(table.getRestaurantId(), productId, null, rebuilt.isProductAvailable(after)));
+            }
+            return rebuilt;
+        }
+
+        int index = table.productIndex(productId);
+        if (table.setProductAvailable(index, RestaurantAvailability.isOrderable(product))) {
+            changes.add(change(table.getRestaurantId(), productId, null, table.isProductAvailable(index)));
+        }
+        for (ProductVariant variant : variants) {
+            int variantIndex = table.variantIndex(variant.getId());
+            if (table.setVariantAvailable(variantIndex, Boolean.TRUE.equals(variant.getInStock()))) {
+                changes.add(change(table.getRestaurantId(), productId, variant.getId(), table.isVariantAvailable(variantIndex)));
+            }
+        }
+        return table;
+    }
+
+    private ReentrantLock lockFor(Long restaurantId) {
+        return locks.computeIfAbsent(restaurantId, id -> new ReentrantLock());
+    }
+
+    private RestaurantAvailability load(Long restaurantId) {
+        RestaurantAvailability table = RestaurantAvailability.of(restaurantId,
+                productRepository.findByRestaurantId(restaurantId),
+                productVariantRepository.findByRestaurantId(restaurantId));
+        log.debug("Loaded availability of {} products of restaurant {}", table.productCount(), restaurantId);
+        return table;
+    }
+
+    private void publish(MenuChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + event.getRestaurantId()
+                    + SEPARATOR + event.getEntityType() + SEPARATOR + event.getEntityId());
+        } catch (RuntimeException e) {
+            // Other nodes keep serving their current table until the next change of this restaurant
+            log.warn("Could not relay menu change: {}", e.getMessage());
+        }
+    }
+
+    private static StockChangeMessage change(Long restaurantId, Long productId, Long variantId, boolean available) {
+        return StockChangeMessage.builder()
+                .restaurantId(restaurantId)
+                .productId(productId)
+                .variantId(variantId)
+                .available(available)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.elcafe.modules.menu.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * RFC 4180 writer; fields are quoted only when they contain a separator, quote or line break.
+ */
+public final class CsvRecordWriter {
+
+    private final Writer writer;
+
+    public CsvRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void write(List<String> record) throws IOException {
+        for (int i = 0; i < record.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(record.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
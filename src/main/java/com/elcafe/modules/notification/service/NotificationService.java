@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 /**
  * Notification Service for sending notifications to various stakeholders
  * Supports multiple channels: WebSocket, SMS, Email, Push Notifications
@@ -100,6 +102,15 @@ public class NotificationService {
         notifyKitchen(order, "COURIER_ASSIGNED");
     }
 
+    /**
+     * Notify a courier that the dispatcher offered them an order
+     */
+    public void notifyCourierOffered(Order order, Long courierId, LocalDateTime expiresAt) {
+        log.info("📦 Order {} offered to courier {} until {}", order.getOrderNumber(), courierId, expiresAt);
+
+        notifySpecificCourier(courierId, order, "ORDER_OFFERED");
+    }
+
     /**
      * Notify when order is out for delivery
      */
@@ -0,0 +1,69 @@
+package com.elcafe.modules.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for delivery ETA estimation
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.eta")
+public class EtaProperties {
+
+    /**
+     * Grid cell size (degrees) used as cache key for origin/destination legs (~500 m)
+     */
+    private Double cellSizeDegrees = 0.005;
+
+    /**
+     * Grid cell size (degrees) of a speed zone learned from completed routes (~2 km)
+     */
+    private Double zoneSizeDegrees = 0.02;
+
+    /**
+     * Courier speed used until a zone has learned its own
+     */
+    private Double defaultSpeedKmh = 20.0;
+
+    /**
+     * Road distance / straight-line distance ratio
+     */
+    private Double routeDetourFactor = 1.3;
+
+    /**
+     * Weight of a new completed route in the zone speed moving average (0..1)
+     */
+    private Double speedLearningRate = 0.2;
+
+    /**
+     * Preparation time of an order when the kitchen has nothing else queued
+     */
+    private Integer basePreparationMinutes = 15;
+
+    /**
+     * Extra preparation time per order already waiting in the kitchen queue
+     */
+    private Double minutesPerQueuedOrder = 2.0;
+
+    /**
+     * Time for parking and handing the order over to the customer
+     */
+    private Integer handoverMinutes = 3;
+
+    /**
+     * How long a kitchen queue depth reading is reused before it is counted again
+     */
+    private Integer queueDepthTtlSeconds = 15;
+
+    /**
+     * How long a cached leg estimate is reused before it picks up newly learned speeds
+     */
+    private Integer legCacheTtlSeconds = 60;
+
+    /**
+     * Maximum number of cached legs
+     */
+    private Integer maxCachedLegs = 100000;
+}
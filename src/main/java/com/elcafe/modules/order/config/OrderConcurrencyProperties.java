@@ -0,0 +1,54 @@
+package com.elcafe.modules.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the adaptive concurrency limit on order writes
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.order.concurrency")
+public class OrderConcurrencyProperties {
+
+    /**
+     * Enable/disable limiting concurrent order writes
+     */
+    private Boolean enabled = true;
+
+    /**
+     * Concurrent order writes allowed at startup
+     */
+    private Integer initialLimit = 10;
+
+    /**
+     * Lowest the limit is lowered to
+     */
+    private Integer minLimit = 2;
+
+    /**
+     * Highest the limit is raised to
+     */
+    private Integer maxLimit = 100;
+
+    /**
+     * Order writes slower than this in milliseconds lower the limit; faster ones raise it
+     */
+    private Long latencyThresholdMs = 300L;
+
+    /**
+     * Factor the limit is multiplied with on a slow or failed write
+     */
+    private Double backoffRatio = 0.9;
+
+    /**
+     * Order writes waiting for a slot before further ones are refused outright
+     */
+    private Integer maxQueueSize = 50;
+
+    /**
+     * Milliseconds an order write waits for a slot before it is refused
+     */
+    private Long maxQueueWaitMs = 500L;
+}
@@ -0,0 +1,29 @@
+package com.elcafe.modules.order.config;
+
+import com.elcafe.modules.order.limiter.AdaptiveConcurrencyLimiter;
+import com.elcafe.modules.order.limiter.OrderWriteLimitInterceptor;
+import com.elcafe.modules.order.limiter.OrderWritePriority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts every order write endpoint behind the adaptive concurrency limit, with the priority of its callers
+ */
+@Configuration
+@RequiredArgsConstructor
+public class OrderWriteLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new OrderWriteLimitInterceptor(limiter, OrderWritePriority.STAFF))
+                .addPathPatterns("/api/v1/waiter/orders/**", "/api/v1/kitchen/orders/**");
+        registry.addInterceptor(new OrderWriteLimitInterceptor(limiter, OrderWritePriority.OPERATOR))
+                .addPathPatterns("/api/v1/admin/orders/**", "/api/v1/orders/**");
+        registry.addInterceptor(new OrderWriteLimitInterceptor(limiter, OrderWritePriority.CONSUMER))
+                .addPathPatterns("/api/v1/consumer/orders/**");
+    }
+}
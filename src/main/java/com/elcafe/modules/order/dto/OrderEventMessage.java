@@ -21,7 +21,7 @@ public class OrderEventMessage {
 
     /**
      * Event type: order.placed, order.accepted, order.preparing, order.ready,
-     * order.picked_up, order.completed, order.cancelled, order.rejected
+     * order.picked_up, order.eta_updated, order.completed, order.cancelled, order.rejected
      */
     private String eventType;
 
@@ -0,0 +1,25 @@
+package com.elcafe.modules.order.eta;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estimated milestones of an order's delivery
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtaEstimate {
+
+    private LocalDateTime estimatedReadyTime;
+    private LocalDateTime estimatedPickupTime;
+    private LocalDateTime estimatedDeliveryTime;
+
+    private Double remainingDistanceKm;
+    private Integer kitchenQueueDepth;
+}
@@ -0,0 +1,141 @@
+package com.elcafe.modules.order.eta;
+
+import com.elcafe.modules.order.config.EtaProperties;
+import com.elcafe.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Courier travel time between two points.
+ *
+ * Distances are haversine distances between grid cells scaled by a detour factor; speeds are
+ * per-zone moving averages learned from completed deliveries. Leg estimates are cached per
+ * (origin cell, destination cell), so a location ping costs two map lookups in the common case.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TravelTimeEstimator {
+
+    private static final double MIN_PLAUSIBLE_SPEED_KMH = 3.0;
+    private static final double MAX_PLAUSIBLE_SPEED_KMH = 80.0;
+    private static final double KM_PER_DEGREE = 111.2;
+
+    private final EtaProperties properties;
+
+    private final Map<Long, Double> zoneSpeedsKmh = new ConcurrentHashMap<>();
+    private final Map<CellPair, Leg> legCache = new ConcurrentHashMap<>();
+
+    /**
+     * Estimated travel minutes from origin to destination
+     */
+    public double travelMinutes(double fromLat, double fromLon, double toLat, double toLon) {
+        return leg(fromLat, fromLon, toLat, toLon).minutes;
+    }
+
+    /**
+     * Estimated road distance in kilometers from origin to destination
+     */
+    public double roadDistanceKm(double fromLat, double fromLon, double toLat, double toLon) {
+        return leg(fromLat, fromLon, toLat, toLon).km;
+    }
+
+    /**
+     * Learn the zone speed from a completed route
+     */
+    public void recordCompletedRoute(double fromLat, double fromLon, double toLat, double toLon, double minutes) {
+        if (minutes < 1) {
+            return;
+        }
+        double km = GeoUtils.haversineKm(fromLat, fromLon, toLat, toLon) * properties.getRouteDetourFactor();
+        double speed = km / (minutes / 60.0);
+        if (speed < MIN_PLAUSIBLE_SPEED_KMH || speed > MAX_PLAUSIBLE_SPEED_KMH) {
+            log.debug("Ignoring implausible route speed {} km/h", speed);
+            return;
+        }
+
+        double rate = properties.getSpeedLearningRate();
+        long zone = zoneOf(fromLat, fromLon);
+        zoneSpeedsKmh.merge(zone, speed, (current, sample) -> current + rate * (sample - current));
+    }
+
+    public double zoneSpeedKmh(double lat, double lon) {
+        return zoneSpeedsKmh.getOrDefault(zoneOf(lat, lon), properties.getDefaultSpeedKmh());
+    }
+
+    private Leg leg(double fromLat, double fromLon, double toLat, double toLon) {
+        double cellSize = properties.getCellSizeDegrees();
+        long fromCell = cellOf(fromLat, fromLon, cellSize);
+        long toCell = cellOf(toLat, toLon, cellSize);
+        CellPair key = new CellPair(fromCell, toCell);
+        long now = System.currentTimeMillis();
+
+        Leg cached = legCache.get(key);
+        if (cached != null && now - cached.computedAt < properties.getLegCacheTtlSeconds() * 1000L) {
+            return cached;
+        }
+
+        double straightKm = GeoUtils.haversineKm(cellCenter(fromCell >> 32, cellSize), cellCenter((int) fromCell, cellSize),
+                cellCenter(toCell >> 32, cellSize), cellCenter((int) toCell, cellSize));
+        // Points inside the same cell are on average half a cell apart
+        double km = Math.max(straightKm, 0.5 * cellSize * KM_PER_DEGREE) * properties.getRouteDetourFactor();
+        double minutes = km / zoneSpeedKmh(fromLat, fromLon) * 60.0;
+        Leg leg = new Leg(km, minutes, now);
+
+        if (legCache.size() >= properties.getMaxCachedLegs()) {
+            legCache.clear();
+        }
+        legCache.put(key, leg);
+        return leg;
+    }
+
+    private long zoneOf(double lat, double lon) {
+        return cellOf(lat, lon, properties.getZoneSizeDegrees());
+    }
+
+    private static long cellOf(double lat, double lon, double size) {
+        long latIndex = (long) Math.floor(lat / size);
+        long lonIndex = (long) Math.floor(lon / size);
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private static double cellCenter(long index, double size) {
+        return (index + 0.5) * size;
+    }
+
+    private static final class CellPair {
+        private final long from;
+        private final long to;
+
+        private CellPair(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CellPair other && from == other.from && to == other.to;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(from) + Long.hashCode(to);
+        }
+    }
+
+    private static final class Leg {
+        private final double km;
+        private final double minutes;
+        private final long computedAt;
+
+        private Leg(double km, double minutes, long computedAt) {
+            this.km = km;
+            this.minutes = minutes;
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.elcafe.modules.order.event;
+
+import com.elcafe.modules.order.entity.Order;
+import com.elcafe.modules.order.entity.OrderItem;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Event fired when a restaurant accepted an order. Carries the ordered quantity per product,
+ * so listeners (after commit) do not need to reload the order.
+ */
+@Getter
+public class OrderAcceptedEvent extends ApplicationEvent {
+
+    private final Long orderId;
+    private final Long restaurantId;
+    private final Map<Long, Integer> productQuantities;
+
+    public OrderAcceptedEvent(Object source, Order order) {
+        super(source);
+        this.orderId = order.getId();
+        this.restaurantId = order.getRestaurant() != null ? order.getRestaurant().getId() : null;
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getProductId() != null && item.getQuantity() != null) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        this.productQuantities = Collections.unmodifiableMap(quantities);
+    }
+}
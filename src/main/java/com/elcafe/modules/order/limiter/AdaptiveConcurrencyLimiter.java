@@ -0,0 +1,210 @@
+package com.elcafe.modules.order.limiter;
+
+import com.elcafe.modules.order.config.OrderConcurrencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit on concurrent order writes that follows their measured latency (AIMD).
+ *
+ * Every write that finishes under the latency threshold raises the limit by one over the current
+ * limit, so it grows by about one per round of writes; a slower or failed write multiplies it by
+ * the backoff ratio. The limit therefore settles just under the concurrency at which the database
+ * starts queueing. Writes over the limit wait briefly, staff before operators before consumers,
+ * and are refused once the queue is full or their wait is up, instead of piling up on the
+ * connection pool.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final OrderConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<OrderWritePriority, ArrayDeque<Waiter>> waiting = new EnumMap<>(OrderWritePriority.class);
+    private final Map<OrderWritePriority, Counter> rejections = new EnumMap<>(OrderWritePriority.class);
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    public AdaptiveConcurrencyLimiter(OrderConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.limit = properties.getInitialLimit();
+        for (OrderWritePriority priority : OrderWritePriority.values()) {
+            waiting.put(priority, new ArrayDeque<>());
+            rejections.put(priority, Counter.builder("order.limiter.rejected")
+                    .description("Order writes refused by the concurrency limit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("order.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Concurrent order writes currently allowed")
+                .register(meterRegistry);
+        Gauge.builder("order.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Order writes in progress")
+                .register(meterRegistry);
+        Gauge.builder("order.limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Order writes waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a slot, waiting up to the configured time behind writes of the same or higher priority
+     *
+     * @return false if the write is refused; otherwise {@link #release} must follow
+     */
+    public boolean acquire(OrderWritePriority priority) {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && !hasWaitersFrom(priority)) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= properties.getMaxQueueSize()) {
+                rejections.get(priority).increment();
+                return false;
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            waiting.get(priority).addLast(waiter);
+            queued++;
+            long remaining = TimeUnit.MILLISECONDS.toNanos(properties.getMaxQueueWaitMs());
+            try {
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.granted) {
+                    // Handed a slot while being interrupted: pass it on
+                    inFlight--;
+                    grantWaiting();
+                    return false;
+                }
+            }
+            if (waiter.granted) {
+                return true;
+            }
+            waiting.get(priority).remove(waiter);
+            queued--;
+            rejections.get(priority).increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a slot, with the latency of the write that held it
+     *
+     * @param failed the write failed, which counts as overload
+     */
+    public void release(long latencyNanos, boolean failed) {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit / 2;
+            inFlight = Math.max(0, inFlight - 1);
+            if (failed || latencyNanos > TimeUnit.MILLISECONDS.toNanos(properties.getLatencyThresholdMs())) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (saturated) {
+                // Only grow a limit that is actually in use
+                limit = Math.min(properties.getMaxLimit(), limit + 1.0 / limit);
+            }
+            grantWaiting();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limit, in-flight writes, queued writes and rejections per priority
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            snapshot.put("enabled", properties.getEnabled());
+            snapshot.put("limit", (int) limit);
+            snapshot.put("inFlight", inFlight);
+            snapshot.put("queued", queued);
+        } finally {
+            lock.unlock();
+        }
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        rejections.forEach((priority, counter) -> rejected.put(priority.name(), (long) counter.count()));
+        snapshot.put("rejected", rejected);
+        return snapshot;
+    }
+
+    private double getLimit() {
+        return limit;
+    }
+
+    private double getInFlight() {
+        return inFlight;
+    }
+
+    private double getQueued() {
+        return queued;
+    }
+
+    private boolean hasWaitersFrom(OrderWritePriority priority) {
+        for (OrderWritePriority other : OrderWritePriority.values()) {
+            if (!waiting.get(other).isEmpty()) {
+                return true;
+            }
+            if (other == priority) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void grantWaiting() {
+        for (OrderWritePriority priority : OrderWritePriority.values()) {
+            ArrayDeque<Waiter> queue = waiting.get(priority);
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                Waiter waiter = queue.pollFirst();
+                waiter.granted = true;
+                queued--;
+                inFlight++;
+                waiter.condition.signal();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.elcafe.modules.order.limiter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator view of the order write concurrency limit: /actuator/orderlimiter
+ */
+@Component
+@Endpoint(id = "orderlimiter")
+@RequiredArgsConstructor
+public class OrderLimiterEndpoint {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @ReadOperation
+    public Map<String, Object> limiter() {
+        return limiter.snapshot();
+    }
+}
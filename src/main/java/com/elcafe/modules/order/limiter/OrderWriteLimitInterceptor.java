@@ -0,0 +1,48 @@
+package com.elcafe.modules.order.limiter;
+
+import com.elcafe.exception.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Holds an order write to a slot of the {@link AdaptiveConcurrencyLimiter} from before the
+ * controller (and so before any transaction or connection) until the response is complete
+ */
+public class OrderWriteLimitInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = OrderWriteLimitInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final OrderWritePriority priority;
+
+    public OrderWriteLimitInterceptor(AdaptiveConcurrencyLimiter limiter, OrderWritePriority priority) {
+        this.limiter = limiter;
+        this.priority = priority;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return true;
+        }
+        if (!limiter.acquire(priority)) {
+            throw new ServiceUnavailableException("Too many orders are being processed. Please try again shortly.", 1);
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release(System.nanoTime() - startedAt, ex != null || response.getStatus() >= 500);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.elcafe.modules.order.limiter;
+
+/**
+ * Order in which waiting order writes get a slot, highest first
+ */
+public enum OrderWritePriority {
+    /** Waiters and the kitchen, working on orders already in the restaurant */
+    STAFF,
+    /** Operators and admins managing orders */
+    OPERATOR,
+    /** Consumers placing or cancelling their own orders */
+    CONSUMER
+}
@@ -45,6 +45,10 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
 
     List<Order> findByStatus(OrderStatus status);
 
+    @Query("SELECT o FROM Order o JOIN FETCH o.restaurant JOIN FETCH o.deliveryInfo d " +
+            "WHERE o.status = :status AND d.courierId IS NULL")
+    List<Order> findUnassignedByStatus(@Param("status") OrderStatus status);
+
     @Query("SELECT o FROM Order o WHERE o.deliveryInfo.courierId = :courierId ORDER BY o.createdAt DESC")
     List<Order> findByCourierId(@Param("courierId") Long courierId);
 
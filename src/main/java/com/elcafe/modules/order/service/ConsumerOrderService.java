@@ -2,8 +2,9 @@ package com.elcafe.modules.order.service;
 
 import com.elcafe.modules.customer.entity.Customer;
 import com.elcafe.modules.customer.repository.CustomerRepository;
-import com.elcafe.modules.menu.entity.Product;
-import com.elcafe.modules.menu.repository.ProductRepository;
+import com.elcafe.modules.customer.service.CustomerIdentityResolver;
+import com.elcafe.modules.menu.availability.RestaurantAvailability;
+import com.elcafe.modules.menu.service.StockAvailabilityService;
 import com.elcafe.modules.notification.service.NotificationService;
 import com.elcafe.modules.order.dto.consumer.CreateOrderRequest;
 import com.elcafe.modules.order.dto.consumer.OrderResponse;
@@ -13,7 +14,11 @@ import com.elcafe.modules.order.enums.PaymentMethod;
 import com.elcafe.modules.order.enums.PaymentStatus;
 import com.elcafe.modules.order.repository.OrderRepository;
 import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.hours.BusinessHoursCalendar;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.elcafe.modules.restaurant.service.BusinessHoursCalendarService;
+import com.elcafe.modules.restaurant.service.DeliveryZoneResolver;
+import com.elcafe.modules.restaurant.zone.PreparedDeliveryZone;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,10 +38,14 @@ public class ConsumerOrderService {
     private final OrderRepository orderRepository;
     private final RestaurantRepository restaurantRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
+    private final CustomerIdentityResolver customerIdentityResolver;
+    private final StockAvailabilityService stockAvailabilityService;
     private final NotificationService notificationService;
     private final OrderEventBroadcaster orderEventBroadcaster;
     private final OrderService orderService;
+    private final DeliveryEtaService deliveryEtaService;
+    private final DeliveryZoneResolver deliveryZoneResolver;
+    private final BusinessHoursCalendarService businessHoursCalendarService;
 
     @Transactional
     public OrderResponse placeOrder(CreateOrderRequest request) {
@@ -52,14 +61,38 @@ public class ConsumerOrderService {
             throw new RuntimeException("Restaurant is not accepting orders at this time");
         }
 
-        // Validate business hours (if configured)
+        // Validate business hours (if configured); scheduled orders must fall into opening hours
         LocalDateTime now = LocalDateTime.now();
-        // TODO: Implement business hours validation using restaurant.getBusinessHours()
+        BusinessHoursCalendar calendar = businessHoursCalendarService.getCalendar(restaurant.getId());
+        if (request.getScheduledFor() != null) {
+            if (!request.getScheduledFor().isAfter(now)) {
+                throw new RuntimeException("Scheduled time must be in the future");
+            }
+            if (!calendar.isOpenAt(request.getScheduledFor())) {
+                throw new RuntimeException("Restaurant is closed at the scheduled time" + nextOpeningHint(calendar, request.getScheduledFor()));
+            }
+        } else if (!calendar.isOpenAt(now)) {
+            throw new RuntimeException("Restaurant is closed" + nextOpeningHint(calendar, now));
+        }
 
         // Validate delivery zones (if applicable)
-        if ("DELIVERY".equals(request.getOrderType()) && request.getDeliveryInfo() != null) {
-            // TODO: Check if delivery address is within restaurant's delivery zones
-            log.info("Delivery order - address validation needed");
+        BigDecimal deliveryFee = restaurant.getDeliveryFee() != null ? restaurant.getDeliveryFee() : BigDecimal.ZERO;
+        if ("DELIVERY".equals(request.getOrderType()) && request.getDeliveryInfo() != null
+                && deliveryZoneResolver.hasGeofencedZones(restaurant.getId())) {
+            BigDecimal latitude = request.getDeliveryInfo().getLatitude();
+            BigDecimal longitude = request.getDeliveryInfo().getLongitude();
+            if (latitude == null || longitude == null) {
+                throw new RuntimeException("Delivery address coordinates are required for this restaurant");
+            }
+
+            PreparedDeliveryZone zone = deliveryZoneResolver.findCheapestZone(
+                    restaurant.getId(), latitude.doubleValue(), longitude.doubleValue());
+            if (zone == null) {
+                throw new RuntimeException("Delivery address is outside the restaurant's delivery zones");
+            }
+            if (zone.getDeliveryFee() != null) {
+                deliveryFee = zone.getDeliveryFee();
+            }
         }
 
         // 2. Find or create customer
@@ -83,21 +116,25 @@ public class ConsumerOrderService {
 
         // 4. Add order items
         BigDecimal subtotal = BigDecimal.ZERO;
+        RestaurantAvailability availability = stockAvailabilityService.getAvailability(restaurant.getId());
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
+            int product = availability.productIndex(itemRequest.getProductId());
+            if (product < 0) {
+                throw new RuntimeException("Product not found: " + itemRequest.getProductId());
+            }
 
-            if (!product.getInStock()) {
-                throw new RuntimeException("Product not available: " + product.getName());
+            if (!availability.isProductAvailable(product)) {
+                throw new RuntimeException("Product not available: " + availability.productName(product));
             }
 
+            BigDecimal unitPrice = availability.productPrice(product);
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
-                    .productId(product.getId())
-                    .productName(product.getName())
+                    .productId(itemRequest.getProductId())
+                    .productName(availability.productName(product))
                     .quantity(itemRequest.getQuantity())
-                    .unitPrice(product.getPrice())
-                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
+                    .unitPrice(unitPrice)
+                    .totalPrice(unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
                     .specialInstructions(itemRequest.getSpecialInstructions())
                     .build();
 
@@ -106,7 +143,6 @@ public class ConsumerOrderService {
         }
 
         // 5. Calculate costs
-        BigDecimal deliveryFee = restaurant.getDeliveryFee() != null ? restaurant.getDeliveryFee() : BigDecimal.ZERO;
         BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.10)); // 10% tax
         BigDecimal discount = BigDecimal.ZERO;
         BigDecimal total = subtotal.add(deliveryFee).add(tax).subtract(discount);
@@ -147,6 +183,7 @@ public class ConsumerOrderService {
                 .deliveryInstructions(request.getDeliveryInfo().getDeliveryInstructions())
                 .build();
         order.setDeliveryInfo(deliveryInfo);
+        deliveryInfo.setEstimatedDeliveryTime(deliveryEtaService.estimate(order, now).getEstimatedDeliveryTime());
 
         // 7. Add payment info
         PaymentMethod paymentMethod = PaymentMethod.valueOf(request.getPaymentMethod());
@@ -221,17 +258,18 @@ public class ConsumerOrderService {
     }
 
     private Customer findOrCreateCustomer(CreateOrderRequest.CustomerInfo customerInfo) {
-        return customerRepository.findByPhone(customerInfo.getPhone())
-                .orElseGet(() -> {
-                    Customer newCustomer = Customer.builder()
-                            .firstName(customerInfo.getFirstName())
-                            .lastName(customerInfo.getLastName())
-                            .phone(customerInfo.getPhone())
-                            .email(customerInfo.getEmail())
-                            .active(true)
-                            .build();
-                    return customerRepository.save(newCustomer);
-                });
+        CustomerIdentityResolver.CustomerIdentity identity = customerIdentityResolver.findOrCreate(Customer.builder()
+                .firstName(customerInfo.getFirstName())
+                .lastName(customerInfo.getLastName())
+                .phone(customerInfo.getPhone())
+                .email(customerInfo.getEmail())
+                .build());
+        return customerRepository.getReferenceById(identity.customerId());
+    }
+
+    private String nextOpeningHint(BusinessHoursCalendar calendar, LocalDateTime from) {
+        LocalDateTime nextOpening = calendar.nextOpening(from);
+        return nextOpening != null ? ", next opening at " + nextOpening : "";
     }
 
     private String generateOrderNumber() {
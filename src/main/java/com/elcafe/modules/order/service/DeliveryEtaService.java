@@ -0,0 +1,214 @@
+package com.elcafe.modules.order.service;
+
+import com.elcafe.modules.kitchen.enums.KitchenOrderStatus;
+import com.elcafe.modules.kitchen.repository.KitchenOrderRepository;
+import com.elcafe.modules.order.config.EtaProperties;
+import com.elcafe.modules.order.entity.DeliveryInfo;
+import com.elcafe.modules.order.entity.Order;
+import com.elcafe.modules.order.eta.EtaEstimate;
+import com.elcafe.modules.order.eta.TravelTimeEstimator;
+import com.elcafe.modules.restaurant.entity.Restaurant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery ETA estimation.
+ *
+ * Combines kitchen queue depth (preparation), courier position and per-zone learned speeds
+ * (travel). Cheap enough to run on every status change and courier location ping: travel legs
+ * are cached by {@link TravelTimeEstimator} and queue depth is counted at most every few seconds
+ * per restaurant.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeliveryEtaService {
+
+    private static final List<KitchenOrderStatus> QUEUED_STATUSES =
+            List.of(KitchenOrderStatus.PENDING, KitchenOrderStatus.PREPARING);
+
+    private final TravelTimeEstimator travelTimeEstimator;
+    private final KitchenOrderRepository kitchenOrderRepository;
+    private final EtaProperties properties;
+
+    private final Map<Long, QueueDepth> queueDepths = new ConcurrentHashMap<>();
+
+    /**
+     * Estimate when the kitchen will have the order ready, counting from {@code from}
+     */
+    public LocalDateTime estimateReadyTime(Order order, LocalDateTime from) {
+        if (order.getReadyAt() != null) {
+            return order.getReadyAt();
+        }
+        int queueDepth = kitchenQueueDepth(order.getRestaurant().getId());
+        double minutes = properties.getBasePreparationMinutes()
+                + properties.getMinutesPerQueuedOrder() * Math.max(0, queueDepth - 1);
+        return from.plusSeconds(Math.round(minutes * 60));
+    }
+
+    /**
+     * Estimate delivery time before a courier is on the way: ready time plus restaurant-to-customer travel
+     */
+    public EtaEstimate estimate(Order order, LocalDateTime from) {
+        LocalDateTime readyTime = estimateReadyTime(order, from);
+        Restaurant restaurant = order.getRestaurant();
+        DeliveryInfo delivery = order.getDeliveryInfo();
+
+        if (!isDelivery(order) || !hasCoordinates(restaurant, delivery)) {
+            return fallbackEstimate(order, from, readyTime);
+        }
+
+        double travelMinutes = travelTimeEstimator.travelMinutes(restaurant.getLatitude(), restaurant.getLongitude(),
+                delivery.getLatitude(), delivery.getLongitude());
+
+        return EtaEstimate.builder()
+                .estimatedReadyTime(readyTime)
+                .estimatedPickupTime(readyTime)
+                .estimatedDeliveryTime(readyTime.plusSeconds(Math.round((travelMinutes + properties.getHandoverMinutes()) * 60)))
+                .remainingDistanceKm(travelTimeEstimator.roadDistanceKm(restaurant.getLatitude(), restaurant.getLongitude(),
+                        delivery.getLatitude(), delivery.getLongitude()))
+                .kitchenQueueDepth(kitchenQueueDepth(restaurant.getId()))
+                .build();
+    }
+
+    /**
+     * Estimate delivery time from a live courier position.
+     * Before pickup the courier has to reach the restaurant and wait for the food if it is not ready yet.
+     */
+    public EtaEstimate estimateFromCourier(Order order, double courierLat, double courierLon, LocalDateTime now) {
+        Restaurant restaurant = order.getRestaurant();
+        DeliveryInfo delivery = order.getDeliveryInfo();
+
+        if (!hasCoordinates(restaurant, delivery)) {
+            return estimate(order, now);
+        }
+
+        if (isPickedUp(order)) {
+            double toCustomer = travelTimeEstimator.travelMinutes(courierLat, courierLon,
+                    delivery.getLatitude(), delivery.getLongitude());
+            return EtaEstimate.builder()
+                    .estimatedDeliveryTime(now.plusSeconds(Math.round((toCustomer + properties.getHandoverMinutes()) * 60)))
+                    .remainingDistanceKm(travelTimeEstimator.roadDistanceKm(courierLat, courierLon,
+                            delivery.getLatitude(), delivery.getLongitude()))
+                    .build();
+        }
+
+        LocalDateTime readyTime = estimateReadyTime(order, now);
+        double toRestaurant = travelTimeEstimator.travelMinutes(courierLat, courierLon,
+                restaurant.getLatitude(), restaurant.getLongitude());
+        LocalDateTime arrival = now.plusSeconds(Math.round(toRestaurant * 60));
+        LocalDateTime pickup = arrival.isAfter(readyTime) ? arrival : readyTime;
+
+        double toCustomer = travelTimeEstimator.travelMinutes(restaurant.getLatitude(), restaurant.getLongitude(),
+                delivery.getLatitude(), delivery.getLongitude());
+
+        return EtaEstimate.builder()
+                .estimatedReadyTime(readyTime)
+                .estimatedPickupTime(pickup)
+                .estimatedDeliveryTime(pickup.plusSeconds(Math.round((toCustomer + properties.getHandoverMinutes()) * 60)))
+                .remainingDistanceKm(travelTimeEstimator.roadDistanceKm(courierLat, courierLon,
+                        restaurant.getLatitude(), restaurant.getLongitude())
+                        + travelTimeEstimator.roadDistanceKm(restaurant.getLatitude(), restaurant.getLongitude(),
+                        delivery.getLatitude(), delivery.getLongitude()))
+                .build();
+    }
+
+    /**
+     * Estimate delivery time right after pickup at the restaurant
+     */
+    public LocalDateTime estimateDeliveryAfterPickup(Order order, LocalDateTime pickedUpAt) {
+        Restaurant restaurant = order.getRestaurant();
+        DeliveryInfo delivery = order.getDeliveryInfo();
+        if (!hasCoordinates(restaurant, delivery)) {
+            return fallbackEstimate(order, pickedUpAt, pickedUpAt).getEstimatedDeliveryTime();
+        }
+        double minutes = travelTimeEstimator.travelMinutes(restaurant.getLatitude(), restaurant.getLongitude(),
+                delivery.getLatitude(), delivery.getLongitude());
+        return pickedUpAt.plusSeconds(Math.round((minutes + properties.getHandoverMinutes()) * 60));
+    }
+
+    /**
+     * Quote delivery minutes for an order that has not been placed yet (restaurant listings).
+     * Uses the last counted kitchen queue depth only, so quoting never queries the database.
+     */
+    public double quoteDeliveryMinutes(Long restaurantId, double restaurantLat, double restaurantLon,
+                                       double customerLat, double customerLon) {
+        QueueDepth depth = queueDepths.get(restaurantId);
+        int queued = depth != null ? depth.count : 0;
+        double preparation = properties.getBasePreparationMinutes()
+                + properties.getMinutesPerQueuedOrder() * queued;
+        return preparation
+                + travelTimeEstimator.travelMinutes(restaurantLat, restaurantLon, customerLat, customerLon)
+                + properties.getHandoverMinutes();
+    }
+
+    /**
+     * Feed a completed delivery back into the zone speed profile
+     */
+    public void recordCompletedDelivery(Order order) {
+        Restaurant restaurant = order.getRestaurant();
+        DeliveryInfo delivery = order.getDeliveryInfo();
+        if (!hasCoordinates(restaurant, delivery)
+                || delivery.getPickupTime() == null || delivery.getDeliveryTime() == null) {
+            return;
+        }
+        double minutes = Duration.between(delivery.getPickupTime(), delivery.getDeliveryTime()).toSeconds() / 60.0
+                - properties.getHandoverMinutes();
+        travelTimeEstimator.recordCompletedRoute(restaurant.getLatitude(), restaurant.getLongitude(),
+                delivery.getLatitude(), delivery.getLongitude(), minutes);
+    }
+
+    private int kitchenQueueDepth(Long restaurantId) {
+        long now = System.currentTimeMillis();
+        QueueDepth depth = queueDepths.get(restaurantId);
+        if (depth == null || now - depth.countedAt > properties.getQueueDepthTtlSeconds() * 1000L) {
+            int count = (int) kitchenOrderRepository.countByRestaurantAndStatuses(restaurantId, QUEUED_STATUSES);
+            depth = new QueueDepth(count, now);
+            queueDepths.put(restaurantId, depth);
+        }
+        return depth.count;
+    }
+
+    private EtaEstimate fallbackEstimate(Order order, LocalDateTime from, LocalDateTime readyTime) {
+        Integer restaurantMinutes = order.getRestaurant().getEstimatedDeliveryTimeMinutes();
+        LocalDateTime delivery = restaurantMinutes != null
+                ? from.plusMinutes(restaurantMinutes)
+                : readyTime.plusMinutes(properties.getHandoverMinutes());
+        return EtaEstimate.builder()
+                .estimatedReadyTime(readyTime)
+                .estimatedPickupTime(readyTime)
+                .estimatedDeliveryTime(delivery.isBefore(readyTime) ? readyTime : delivery)
+                .build();
+    }
+
+    private boolean isDelivery(Order order) {
+        return order.getOrderType() == null || "DELIVERY".equals(order.getOrderType());
+    }
+
+    private boolean isPickedUp(Order order) {
+        return order.getPickedUpAt() != null
+                || (order.getDeliveryInfo() != null && order.getDeliveryInfo().getPickupTime() != null);
+    }
+
+    private boolean hasCoordinates(Restaurant restaurant, DeliveryInfo delivery) {
+        return restaurant.getLatitude() != null && restaurant.getLongitude() != null
+                && delivery != null && delivery.getLatitude() != null && delivery.getLongitude() != null;
+    }
+
+    private static final class QueueDepth {
+        private final int count;
+        private final long countedAt;
+
+        private QueueDepth(int count, long countedAt) {
+            this.count = count;
+            this.countedAt = countedAt;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.elcafe.modules.order.service;
 import com.elcafe.modules.order.dto.OrderEventMessage;
 import com.elcafe.modules.order.entity.Order;
 import com.elcafe.modules.order.enums.OrderStatus;
+import com.elcafe.modules.order.eta.EtaEstimate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -22,6 +23,7 @@ import java.util.Map;
 public class OrderEventBroadcaster {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final DeliveryEtaService deliveryEtaService;
 
     /**
      * Broadcast order placed event to admin panel.
@@ -67,11 +69,11 @@ public class OrderEventBroadcaster {
         eventData.put("orderNumber", order.getOrderNumber());
         eventData.put("status", order.getStatus());
         eventData.put("acceptedAt", order.getAcceptedAt());
-        // Calculate estimated delivery time (base time + preparation estimate)
+        // Estimate delivery time from kitchen queue and restaurant-to-customer travel
         if (order.getAcceptedAt() != null) {
-            LocalDateTime estimatedDelivery = order.getAcceptedAt()
-                    .plusMinutes(order.getRestaurant().getEstimatedDeliveryTimeMinutes());
-            eventData.put("estimatedDeliveryTime", estimatedDelivery);
+            EtaEstimate eta = deliveryEtaService.estimate(order, order.getAcceptedAt());
+            eventData.put("estimatedReadyTime", eta.getEstimatedReadyTime());
+            eventData.put("estimatedDeliveryTime", eta.getEstimatedDeliveryTime());
         }
 
         OrderEventMessage message = OrderEventMessage.builder()
@@ -94,9 +96,9 @@ public class OrderEventBroadcaster {
         eventData.put("orderId", order.getId());
         eventData.put("status", order.getStatus());
         eventData.put("preparingAt", order.getPreparingAt());
-        // Estimate ready time (typically 15 minutes)
+        // Estimate ready time from current kitchen queue depth
         if (order.getPreparingAt() != null) {
-            eventData.put("estimatedReadyTime", order.getPreparingAt().plusMinutes(15));
+            eventData.put("estimatedReadyTime", deliveryEtaService.estimateReadyTime(order, order.getPreparingAt()));
         }
 
         OrderEventMessage message = OrderEventMessage.builder()
@@ -141,7 +143,8 @@ public class OrderEventBroadcaster {
         eventData.put("status", order.getStatus());
         eventData.put("pickedUpAt", order.getPickedUpAt());
         if (order.getPickedUpAt() != null) {
-            eventData.put("estimatedDeliveryTime", order.getPickedUpAt().plusMinutes(18));
+            eventData.put("estimatedDeliveryTime",
+                    deliveryEtaService.estimateDeliveryAfterPickup(order, order.getPickedUpAt()));
         }
 
         OrderEventMessage message = OrderEventMessage.builder()
@@ -153,6 +156,28 @@ public class OrderEventBroadcaster {
         sendToConsumer(order.getCustomer().getId(), message);
     }
 
+    /**
+     * Broadcast refreshed ETA to consumer (on courier location updates).
+     */
+    public void broadcastEtaUpdated(Order order, EtaEstimate eta) {
+        log.debug("Broadcasting order.eta_updated event for order: {}", order.getOrderNumber());
+
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("orderId", order.getId());
+        eventData.put("status", order.getStatus());
+        eventData.put("estimatedPickupTime", eta.getEstimatedPickupTime());
+        eventData.put("estimatedDeliveryTime", eta.getEstimatedDeliveryTime());
+        eventData.put("remainingDistanceKm", eta.getRemainingDistanceKm());
+
+        OrderEventMessage message = OrderEventMessage.builder()
+                .eventType("order.eta_updated")
+                .timestamp(LocalDateTime.now())
+                .data(eventData)
+                .build();
+
+        sendToConsumer(order.getCustomer().getId(), message);
+    }
+
     /**
      * Broadcast order completed event to consumer.
      */
@@ -6,9 +6,11 @@ import com.elcafe.modules.notification.service.NotificationService;
 import com.elcafe.modules.order.entity.Order;
 import com.elcafe.modules.order.entity.OrderStatusHistory;
 import com.elcafe.modules.order.enums.OrderStatus;
+import com.elcafe.modules.order.event.OrderAcceptedEvent;
 import com.elcafe.modules.order.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class OrderFlowService {
     private final OrderRepository orderRepository;
     private final KitchenOrderService kitchenOrderService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Accept order and send to kitchen
@@ -50,6 +53,7 @@ public class OrderFlowService {
         order.addStatusHistory(statusHistory);
 
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderAcceptedEvent(this, savedOrder));
 
         // Create kitchen order
         KitchenOrder kitchenOrder = kitchenOrderService.createKitchenOrder(savedOrder);
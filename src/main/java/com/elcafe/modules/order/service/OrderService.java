@@ -5,10 +5,12 @@ import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.order.entity.Order;
 import com.elcafe.modules.order.entity.OrderStatusHistory;
 import com.elcafe.modules.order.enums.OrderStatus;
+import com.elcafe.modules.order.event.OrderAcceptedEvent;
 import com.elcafe.modules.order.repository.OrderRepository;
 import com.elcafe.modules.order.validator.OrderStatusTransitionValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,7 @@ public class OrderService {
     private final OrderStatusTransitionValidator statusTransitionValidator;
     private final OrderEventBroadcaster orderEventBroadcaster;
     private final com.elcafe.modules.notification.service.NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Order createOrder(Order order) {
@@ -74,6 +77,10 @@ public class OrderService {
         order = orderRepository.save(order);
         log.info("Order status updated: {} -> {}", currentStatus, newStatus);
 
+        if (newStatus == OrderStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new OrderAcceptedEvent(this, order));
+        }
+
         return order;
     }
 
@@ -161,6 +168,7 @@ public class OrderService {
         order.addStatusHistory(history);
 
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderAcceptedEvent(this, order));
 
         // Broadcast WebSocket event
         try {
@@ -0,0 +1,24 @@
+package com.elcafe.modules.restaurant.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for consumer restaurant discovery
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.restaurant.discovery")
+public class RestaurantDiscoveryProperties {
+
+    /**
+     * Delivery radius around the restaurant for restaurants without polygon delivery zones
+     */
+    private Double fallbackRadiusKm = 5.0;
+
+    /**
+     * Maximum number of restaurants returned by one discovery request
+     */
+    private Integer maxResults = 100;
+}
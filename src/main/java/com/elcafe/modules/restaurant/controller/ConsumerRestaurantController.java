@@ -0,0 +1,41 @@
+package com.elcafe.modules.restaurant.controller;
+
+import com.elcafe.modules.restaurant.dto.RestaurantDiscoveryResponse;
+import com.elcafe.modules.restaurant.service.RestaurantDiscoveryService;
+import com.elcafe.utils.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consumer-facing restaurant discovery endpoints
+ */
+@RestController
+@RequestMapping("/api/v1/consumer/restaurants")
+@RequiredArgsConstructor
+@Tag(name = "Consumer Restaurants", description = "Consumer restaurant discovery endpoints")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ConsumerRestaurantController {
+
+    private final RestaurantDiscoveryService restaurantDiscoveryService;
+
+    @GetMapping("/discover")
+    @Operation(summary = "Discover restaurants",
+            description = "Restaurants that deliver to the location, are open and accept orders, with delivery fee and ETA")
+    public ResponseEntity<ApiResponse<List<RestaurantDiscoveryResponse>>> discover(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        List<RestaurantDiscoveryResponse> response = restaurantDiscoveryService.discover(
+                latitude, longitude, at != null ? at : LocalDateTime.now());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
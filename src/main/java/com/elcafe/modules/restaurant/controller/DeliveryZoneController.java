@@ -1,6 +1,7 @@
 package com.elcafe.modules.restaurant.controller;
 
 import com.elcafe.modules.restaurant.dto.CreateDeliveryZoneRequest;
+import com.elcafe.modules.restaurant.dto.DeliveryZoneCoverageResponse;
 import com.elcafe.modules.restaurant.dto.DeliveryZoneResponse;
 import com.elcafe.modules.restaurant.dto.UpdateDeliveryZoneRequest;
 import com.elcafe.modules.restaurant.service.DeliveryZoneService;
@@ -35,6 +36,17 @@ public class DeliveryZoneController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/coverage")
+    @Operation(summary = "Check delivery coverage", description = "Check whether the restaurant delivers to a point and at which fee")
+    public ResponseEntity<ApiResponse<DeliveryZoneCoverageResponse>> checkCoverage(
+            @PathVariable Long restaurantId,
+            @RequestParam double latitude,
+            @RequestParam double longitude
+    ) {
+        DeliveryZoneCoverageResponse response = deliveryZoneService.checkCoverage(restaurantId, latitude, longitude);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get delivery zone", description = "Get delivery zone by ID")
     public ResponseEntity<ApiResponse<DeliveryZoneResponse>> getDeliveryZone(
@@ -0,0 +1,73 @@
+package com.elcafe.modules.restaurant.discovery;
+
+import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.hours.BusinessHoursCalendar;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of the restaurant fields needed to answer discovery requests,
+ * including its weekly opening hours
+ */
+@Getter
+public final class DiscoverableRestaurant {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String logoUrl;
+    private final String bannerUrl;
+    private final String address;
+    private final BigDecimal rating;
+    private final Double latitude;
+    private final Double longitude;
+    private final boolean active;
+    private final boolean acceptingOrders;
+    private final BigDecimal minimumOrderAmount;
+    private final BigDecimal deliveryFee;
+    private final Integer estimatedDeliveryTimeMinutes;
+
+    @Getter(AccessLevel.NONE)
+    private final BusinessHoursCalendar calendar;
+
+    private DiscoverableRestaurant(Restaurant restaurant) {
+        this.id = restaurant.getId();
+        this.name = restaurant.getName();
+        this.description = restaurant.getDescription();
+        this.logoUrl = restaurant.getLogoUrl();
+        this.bannerUrl = restaurant.getBannerUrl();
+        this.address = restaurant.getAddress();
+        this.rating = restaurant.getRating();
+        this.latitude = restaurant.getLatitude();
+        this.longitude = restaurant.getLongitude();
+        this.active = Boolean.TRUE.equals(restaurant.getActive());
+        this.acceptingOrders = Boolean.TRUE.equals(restaurant.getAcceptingOrders());
+        this.minimumOrderAmount = restaurant.getMinimumOrderAmount();
+        this.deliveryFee = restaurant.getDeliveryFee();
+        this.estimatedDeliveryTimeMinutes = restaurant.getEstimatedDeliveryTimeMinutes();
+
+        this.calendar = BusinessHoursCalendar.compile(restaurant.getBusinessHours());
+    }
+
+    /**
+     * Snapshot a restaurant; its business hours must already be loaded
+     */
+    public static DiscoverableRestaurant of(Restaurant restaurant) {
+        return new DiscoverableRestaurant(restaurant);
+    }
+
+    public boolean isTakingOrders() {
+        return active && acceptingOrders;
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
+    public boolean isOpenAt(LocalDateTime time) {
+        return calendar.isOpenAt(time);
+    }
+}
@@ -0,0 +1,38 @@
+package com.elcafe.modules.restaurant.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Delivery coverage of an address")
+public class DeliveryZoneCoverageResponse {
+
+    @Schema(description = "Restaurant ID")
+    private Long restaurantId;
+
+    @Schema(description = "Whether the restaurant delivers to the address")
+    private Boolean covered;
+
+    @Schema(description = "Whether the restaurant restricts delivery to zone polygons")
+    private Boolean geofenced;
+
+    @Schema(description = "Cheapest matching zone ID")
+    private Long zoneId;
+
+    @Schema(description = "Cheapest matching zone name")
+    private String zoneName;
+
+    @Schema(description = "Delivery fee of the matching zone")
+    private BigDecimal deliveryFee;
+
+    @Schema(description = "Estimated delivery time of the matching zone")
+    private Integer estimatedDeliveryTimeMinutes;
+}
@@ -0,0 +1,53 @@
+package com.elcafe.modules.restaurant.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Restaurant delivering to the requested location")
+public class RestaurantDiscoveryResponse {
+
+    @Schema(description = "Restaurant ID")
+    private Long restaurantId;
+
+    @Schema(description = "Restaurant name")
+    private String name;
+
+    @Schema(description = "Description")
+    private String description;
+
+    @Schema(description = "Logo URL")
+    private String logoUrl;
+
+    @Schema(description = "Banner URL")
+    private String bannerUrl;
+
+    @Schema(description = "Address")
+    private String address;
+
+    @Schema(description = "Rating")
+    private BigDecimal rating;
+
+    @Schema(description = "Minimum order amount")
+    private BigDecimal minimumOrderAmount;
+
+    @Schema(description = "Delivery fee for the requested location")
+    private BigDecimal deliveryFee;
+
+    @Schema(description = "Matching delivery zone ID (null if the restaurant has no zone polygons)")
+    private Long deliveryZoneId;
+
+    @Schema(description = "Estimated delivery time in minutes")
+    private Integer estimatedDeliveryMinutes;
+
+    @Schema(description = "Straight-line distance from the restaurant in kilometers")
+    private Double distanceKm;
+}
@@ -0,0 +1,11 @@
+package com.elcafe.modules.restaurant.enums;
+
+/**
+ * Part of a restaurant's configuration touched by a write
+ */
+public enum RestaurantChangeScope {
+    DETAILS,        // Name, location, accepting orders, fees...
+    DELIVERY_ZONES, // Zones created, updated or deleted
+    BUSINESS_HOURS, // Weekly schedule changed
+    DELETED         // Restaurant removed
+}
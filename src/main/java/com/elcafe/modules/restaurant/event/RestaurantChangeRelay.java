@@ -0,0 +1,79 @@
+package com.elcafe.modules.restaurant.event;
+
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Carries {@link RestaurantChangedEvent}s to the other nodes over Redis pub/sub.
+ *
+ * Each committed change is published as {@code nodeId\trestaurantId\tSCOPE,SCOPE} on
+ * {@code restaurant:changes}; the other nodes publish it again locally as a relayed event, so the
+ * in-memory indexes built from restaurants, zones and hours are refreshed on every node.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RestaurantChangeRelay implements MessageListener {
+
+    private static final String CHANNEL = "restaurant:changes";
+    private static final char SEPARATOR = '\t';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Identifies this node's own relay messages */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isRelayed()) {
+            return;
+        }
+        String scopes = event.getScopes().stream().map(Enum::name).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + event.getRestaurantId() + SEPARATOR + scopes);
+        } catch (RuntimeException e) {
+            // Other nodes keep their current entry until the next change of this restaurant
+            log.warn("Could not relay change of restaurant {}: {}", event.getRestaurantId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR));
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            Set<RestaurantChangeScope> scopes = Arrays.stream(parts[2].split(","))
+                    .map(RestaurantChangeScope::valueOf)
+                    .collect(Collectors.toSet());
+            eventPublisher.publishEvent(new RestaurantChangedEvent(this, Long.valueOf(parts[1]), true, scopes));
+        } catch (RuntimeException e) {
+            log.warn("Could not apply relayed change of restaurant {}: {}", parts[1], e.getMessage());
+        }
+    }
+}
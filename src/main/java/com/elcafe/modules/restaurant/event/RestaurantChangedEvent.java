@@ -0,0 +1,35 @@
+package com.elcafe.modules.restaurant.event;
+
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Event fired after a restaurant, its delivery zones or its business hours were written.
+ * In-memory indexes listen to it (after commit) to rebuild the restaurant's entry. Changes made
+ * on another node arrive through {@link RestaurantChangeRelay} with {@code relayed} set.
+ */
+@Getter
+public class RestaurantChangedEvent extends ApplicationEvent {
+
+    private final Long restaurantId;
+    private final Set<RestaurantChangeScope> scopes;
+    private final boolean relayed;
+
+    public RestaurantChangedEvent(Object source, Long restaurantId, RestaurantChangeScope... scopes) {
+        this(source, restaurantId, false, Set.of(scopes));
+    }
+
+    RestaurantChangedEvent(Object source, Long restaurantId, boolean relayed, Set<RestaurantChangeScope> scopes) {
+        super(source);
+        this.restaurantId = restaurantId;
+        this.scopes = Set.copyOf(scopes);
+        this.relayed = relayed;
+    }
+
+    public boolean affects(RestaurantChangeScope scope) {
+        return scopes.contains(scope) || scopes.contains(RestaurantChangeScope.DELETED);
+    }
+}
@@ -0,0 +1,128 @@
+package com.elcafe.modules.restaurant.hours;
+
+import com.elcafe.modules.restaurant.entity.BusinessHours;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A restaurant's weekly schedule compiled into minute-of-week form.
+ *
+ * Minute 0 is Monday 00:00, minute 10079 is Sunday 23:59. Open minutes are stored both as a
+ * bitmap (constant-time "is open") and as sorted, merged [start, end) intervals ("next opening"
+ * scans at most 14 intervals). A closing time at or before the opening time means the day's
+ * hours run past midnight into the next day; Sunday night wraps around to Monday morning.
+ */
+public final class BusinessHoursCalendar {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    /** Calendar of a restaurant without configured business hours */
+    public static final BusinessHoursCalendar ALWAYS_OPEN = new BusinessHoursCalendar(new int[]{0}, new int[]{MINUTES_PER_WEEK});
+
+    private final long[] openBits = new long[(MINUTES_PER_WEEK + 63) / 64];
+    private final int[] starts;
+    private final int[] ends;
+
+    private BusinessHoursCalendar(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        for (int i = 0; i < starts.length; i++) {
+            for (int minute = starts[i]; minute < ends[i]; minute++) {
+                openBits[minute >>> 6] |= 1L << minute;
+            }
+        }
+    }
+
+    /**
+     * Compile business hour rows. No rows at all means the restaurant never configured hours
+     * and is treated as always open; rows that are all closed give a never-open calendar.
+     */
+    public static BusinessHoursCalendar compile(Collection<BusinessHours> businessHours) {
+        if (businessHours == null || businessHours.isEmpty()) {
+            return ALWAYS_OPEN;
+        }
+
+        List<int[]> intervals = new ArrayList<>();
+        for (BusinessHours hours : businessHours) {
+            if (Boolean.TRUE.equals(hours.getClosed()) || hours.getOpenTime() == null || hours.getCloseTime() == null) {
+                continue;
+            }
+            int dayStart = hours.getDayOfWeek().ordinal() * MINUTES_PER_DAY;
+            int open = dayStart + minuteOfDay(hours.getOpenTime().getHour(), hours.getOpenTime().getMinute());
+            int close = dayStart + minuteOfDay(hours.getCloseTime().getHour(), hours.getCloseTime().getMinute());
+            if (close <= open) {
+                close += MINUTES_PER_DAY;
+            }
+            if (close > MINUTES_PER_WEEK) {
+                intervals.add(new int[]{open, MINUTES_PER_WEEK});
+                intervals.add(new int[]{0, close - MINUTES_PER_WEEK});
+            } else {
+                intervals.add(new int[]{open, close});
+            }
+        }
+
+        intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] interval : intervals) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+
+        int[] starts = new int[merged.size()];
+        int[] ends = new int[merged.size()];
+        for (int i = 0; i < merged.size(); i++) {
+            starts[i] = merged.get(i)[0];
+            ends[i] = merged.get(i)[1];
+        }
+        return new BusinessHoursCalendar(starts, ends);
+    }
+
+    public boolean isOpenAt(LocalDateTime time) {
+        int minute = minuteOfWeek(time);
+        return (openBits[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+    public boolean isNeverOpen() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Earliest time at or after {@code from} when the restaurant is open
+     *
+     * @return {@code from} if open at that time, null if the restaurant is never open
+     */
+    public LocalDateTime nextOpening(LocalDateTime from) {
+        if (isOpenAt(from)) {
+            return from;
+        }
+        if (isNeverOpen()) {
+            return null;
+        }
+
+        int minute = minuteOfWeek(from);
+        int index = Arrays.binarySearch(starts, minute);
+        index = index >= 0 ? index : -index - 1;
+        int minutesAhead = index < starts.length
+                ? starts[index] - minute
+                : MINUTES_PER_WEEK - minute + starts[0];
+        return from.truncatedTo(ChronoUnit.MINUTES).plusMinutes(minutesAhead);
+    }
+
+    private static int minuteOfWeek(LocalDateTime time) {
+        return time.getDayOfWeek().ordinal() * MINUTES_PER_DAY + minuteOfDay(time.getHour(), time.getMinute());
+    }
+
+    private static int minuteOfDay(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+}
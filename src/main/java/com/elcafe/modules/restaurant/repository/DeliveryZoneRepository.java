@@ -14,4 +14,6 @@ public interface DeliveryZoneRepository extends JpaRepository<DeliveryZone, Long
     List<DeliveryZone> findByRestaurantIdAndActiveTrue(Long restaurantId);
 
     List<DeliveryZone> findByRestaurantIdAndCity(Long restaurantId, String city);
+
+    List<DeliveryZone> findByActiveTrueAndPolygonCoordinatesIsNotNull();
 }
@@ -3,9 +3,12 @@ package com.elcafe.modules.restaurant.repository;
 import com.elcafe.modules.restaurant.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, JpaSpecificationExecutor<Restaurant> {
@@ -13,4 +16,12 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, J
     List<Restaurant> findByActiveTrue();
 
     List<Restaurant> findByActiveTrueAndAcceptingOrdersTrue();
+
+    boolean existsByLogoUrlOrBannerUrl(String logoUrl, String bannerUrl);
+
+    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.businessHours")
+    List<Restaurant> findAllWithBusinessHours();
+
+    @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.businessHours WHERE r.id = :id")
+    Optional<Restaurant> findByIdWithBusinessHours(@Param("id") Long id);
 }
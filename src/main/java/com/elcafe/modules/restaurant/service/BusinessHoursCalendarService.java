@@ -0,0 +1,74 @@
+package com.elcafe.modules.restaurant.service;
+
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangeRelay;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import com.elcafe.modules.restaurant.hours.BusinessHoursCalendar;
+import com.elcafe.modules.restaurant.repository.BusinessHoursRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiled business-hours calendars per restaurant.
+ *
+ * A calendar is compiled on first use and kept until {@link BusinessHoursService} or
+ * {@link RestaurantService} changes the restaurant's hours, on this node or on another one
+ * (relayed by {@link RestaurantChangeRelay}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BusinessHoursCalendarService {
+
+    private final BusinessHoursRepository businessHoursRepository;
+
+    private final Map<Long, BusinessHoursCalendar> calendars = new ConcurrentHashMap<>();
+
+    /** Bumped before every invalidation, so a calendar loaded across one is not kept */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BusinessHoursCalendar getCalendar(Long restaurantId) {
+        BusinessHoursCalendar calendar = calendars.get(restaurantId);
+        if (calendar != null) {
+            return calendar;
+        }
+        // Loaded outside the map, so a slow query does not block other restaurants in the same bin
+        long generation = invalidations.get();
+        BusinessHoursCalendar loaded = BusinessHoursCalendar.compile(businessHoursRepository.findByRestaurantId(restaurantId));
+        BusinessHoursCalendar existing = calendars.putIfAbsent(restaurantId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (invalidations.get() != generation) {
+            calendars.remove(restaurantId, loaded);
+        }
+        return loaded;
+    }
+
+    public boolean isOpenAt(Long restaurantId, LocalDateTime time) {
+        return getCalendar(restaurantId).isOpenAt(time);
+    }
+
+    /**
+     * Earliest time at or after {@code from} when the restaurant is open, null if never
+     */
+    public LocalDateTime nextOpening(Long restaurantId, LocalDateTime from) {
+        return getCalendar(restaurantId).nextOpening(from);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.affects(RestaurantChangeScope.BUSINESS_HOURS)) {
+            invalidations.incrementAndGet();
+            calendars.remove(event.getRestaurantId());
+            log.debug("Business hours calendar invalidated for restaurant {}", event.getRestaurantId());
+        }
+    }
+}
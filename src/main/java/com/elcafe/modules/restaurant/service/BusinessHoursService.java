@@ -6,11 +6,14 @@ import com.elcafe.modules.restaurant.dto.CreateBusinessHoursRequest;
 import com.elcafe.modules.restaurant.dto.UpdateBusinessHoursRequest;
 import com.elcafe.modules.restaurant.entity.BusinessHours;
 import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
 import com.elcafe.modules.restaurant.mapper.BusinessHoursMapper;
 import com.elcafe.modules.restaurant.repository.BusinessHoursRepository;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +28,7 @@ public class BusinessHoursService {
     private final BusinessHoursRepository businessHoursRepository;
     private final RestaurantRepository restaurantRepository;
     private final BusinessHoursMapper businessHoursMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<BusinessHoursResponse> getAllByRestaurantId(Long restaurantId) {
@@ -75,6 +79,8 @@ public class BusinessHoursService {
         BusinessHours savedBusinessHours = businessHoursRepository.save(businessHours);
         log.info("Business hours created with ID: {}", savedBusinessHours.getId());
 
+        publishHoursChanged(restaurant.getId());
+
         return businessHoursMapper.toResponse(savedBusinessHours);
     }
 
@@ -84,6 +90,7 @@ public class BusinessHoursService {
 
         BusinessHours businessHours = businessHoursRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("BusinessHours", "id", id));
+        Long previousRestaurantId = businessHours.getRestaurant().getId();
 
         // If restaurant is being changed, verify the new restaurant exists
         if (request.getRestaurantId() != null && !request.getRestaurantId().equals(businessHours.getRestaurant().getId())) {
@@ -112,6 +119,11 @@ public class BusinessHoursService {
         BusinessHours updatedBusinessHours = businessHoursRepository.save(businessHours);
         log.info("Business hours updated successfully: {}", id);
 
+        publishHoursChanged(updatedBusinessHours.getRestaurant().getId());
+        if (!previousRestaurantId.equals(updatedBusinessHours.getRestaurant().getId())) {
+            publishHoursChanged(previousRestaurantId);
+        }
+
         return businessHoursMapper.toResponse(updatedBusinessHours);
     }
 
@@ -124,6 +136,8 @@ public class BusinessHoursService {
 
         businessHoursRepository.delete(businessHours);
         log.info("Business hours deleted successfully: {}", id);
+
+        publishHoursChanged(businessHours.getRestaurant().getId());
     }
 
     @Transactional
@@ -136,5 +150,11 @@ public class BusinessHoursService {
 
         businessHoursRepository.deleteByRestaurantId(restaurantId);
         log.info("All business hours deleted for restaurant ID: {}", restaurantId);
+
+        publishHoursChanged(restaurantId);
+    }
+
+    private void publishHoursChanged(Long restaurantId) {
+        eventPublisher.publishEvent(new RestaurantChangedEvent(this, restaurantId, RestaurantChangeScope.BUSINESS_HOURS));
     }
 }
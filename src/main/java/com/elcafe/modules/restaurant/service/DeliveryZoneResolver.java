@@ -0,0 +1,225 @@
+package com.elcafe.modules.restaurant.service;
+
+import com.elcafe.modules.restaurant.entity.DeliveryZone;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import com.elcafe.modules.restaurant.repository.DeliveryZoneRepository;
+import com.elcafe.modules.restaurant.zone.PreparedDeliveryZone;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory delivery zone lookup.
+ *
+ * Zone polygons are parsed once into {@link PreparedDeliveryZone}s and registered in a uniform
+ * grid keyed by cell, so "which zones cover this point" touches one cell and runs the
+ * point-in-polygon test only on the zones whose bounding box overlaps it. Zones with huge
+ * bounding boxes are kept in a separate list instead of being copied into thousands of cells.
+ *
+ * The index is loaded at startup and rebuilt per restaurant after every committed
+ * {@link RestaurantChangedEvent} touching delivery zones, including those relayed from other
+ * nodes; lookups never hit the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeliveryZoneResolver {
+
+    /** Grid cell size, roughly 1.1 km */
+    private static final double CELL_DEGREES = 0.01;
+    private static final int MAX_CELLS_PER_ZONE = 10_000;
+    private static final PreparedDeliveryZone[] NO_ZONES = new PreparedDeliveryZone[0];
+    private static final Comparator<PreparedDeliveryZone> BY_FEE = Comparator.comparing(
+            PreparedDeliveryZone::getDeliveryFee, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final DeliveryZoneRepository deliveryZoneRepository;
+
+    private final Map<Long, PreparedDeliveryZone[]> zonesByRestaurant = new ConcurrentHashMap<>();
+    private final Map<Long, PreparedDeliveryZone[]> grid = new ConcurrentHashMap<>();
+    private volatile PreparedDeliveryZone[] oversizedZones = NO_ZONES;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        Map<Long, List<DeliveryZone>> byRestaurant = new HashMap<>();
+        for (DeliveryZone zone : deliveryZoneRepository.findByActiveTrueAndPolygonCoordinatesIsNotNull()) {
+            byRestaurant.computeIfAbsent(zone.getRestaurant().getId(), id -> new ArrayList<>()).add(zone);
+        }
+        byRestaurant.forEach(this::index);
+        log.info("Indexed delivery zones for {} restaurants", zonesByRestaurant.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!event.affects(RestaurantChangeScope.DELIVERY_ZONES)) {
+            return;
+        }
+        if (event.affects(RestaurantChangeScope.DELETED)) {
+            index(event.getRestaurantId(), List.of());
+            return;
+        }
+        index(event.getRestaurantId(), deliveryZoneRepository.findByRestaurantIdAndActiveTrue(event.getRestaurantId()));
+    }
+
+    /**
+     * Whether the restaurant restricts delivery to polygons. Restaurants without polygon zones
+     * deliver everywhere at their default fee.
+     */
+    public boolean hasGeofencedZones(Long restaurantId) {
+        return zonesByRestaurant.containsKey(restaurantId);
+    }
+
+    /**
+     * Zones of one restaurant covering the point, cheapest first
+     */
+    public List<PreparedDeliveryZone> resolve(Long restaurantId, double lat, double lon) {
+        PreparedDeliveryZone[] zones = zonesByRestaurant.getOrDefault(restaurantId, NO_ZONES);
+        List<PreparedDeliveryZone> result = new ArrayList<>(2);
+        for (PreparedDeliveryZone zone : zones) {
+            if (zone.contains(lat, lon)) {
+                result.add(zone);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cheapest zone of the restaurant covering the point, or null if the point is not covered
+     */
+    public PreparedDeliveryZone findCheapestZone(Long restaurantId, double lat, double lon) {
+        // Zones are stored sorted by fee, so the first hit is the cheapest
+        for (PreparedDeliveryZone zone : zonesByRestaurant.getOrDefault(restaurantId, NO_ZONES)) {
+            if (zone.contains(lat, lon)) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zones of all restaurants covering the point, cheapest first
+     */
+    public List<PreparedDeliveryZone> resolveAll(double lat, double lon) {
+        List<PreparedDeliveryZone> result = new ArrayList<>();
+        for (PreparedDeliveryZone zone : grid.getOrDefault(cellOf(lat, lon), NO_ZONES)) {
+            if (zone.contains(lat, lon)) {
+                result.add(zone);
+            }
+        }
+        for (PreparedDeliveryZone zone : oversizedZones) {
+            if (zone.contains(lat, lon)) {
+                result.add(zone);
+            }
+        }
+        result.sort(BY_FEE);
+        return result;
+    }
+
+    /**
+     * Replace the indexed zones of one restaurant. Writers are serialized; readers see either
+     * the old or the new zone set of each cell.
+     */
+    private synchronized void index(Long restaurantId, List<DeliveryZone> zones) {
+        List<PreparedDeliveryZone> prepared = new ArrayList<>(zones.size());
+        for (DeliveryZone zone : zones) {
+            if (!Boolean.TRUE.equals(zone.getActive())) {
+                continue;
+            }
+            try {
+                PreparedDeliveryZone preparedZone = PreparedDeliveryZone.of(zone, restaurantId);
+                if (preparedZone != null) {
+                    prepared.add(preparedZone);
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping delivery zone {} of restaurant {}: {}", zone.getId(), restaurantId, e.getMessage());
+            }
+        }
+        prepared.sort(BY_FEE);
+
+        PreparedDeliveryZone[] previous = prepared.isEmpty()
+                ? zonesByRestaurant.remove(restaurantId)
+                : zonesByRestaurant.put(restaurantId, prepared.toArray(NO_ZONES));
+
+        if (previous != null) {
+            for (PreparedDeliveryZone zone : previous) {
+                unregister(zone);
+            }
+        }
+        for (PreparedDeliveryZone zone : prepared) {
+            register(zone);
+        }
+        log.debug("Indexed {} delivery zones for restaurant {}", prepared.size(), restaurantId);
+    }
+
+    private void register(PreparedDeliveryZone zone) {
+        if (isOversized(zone)) {
+            oversizedZones = append(oversizedZones, zone);
+            return;
+        }
+        forEachCell(zone, cell -> grid.compute(cell, (key, current) -> append(current, zone)));
+    }
+
+    private void unregister(PreparedDeliveryZone zone) {
+        if (isOversized(zone)) {
+            oversizedZones = without(oversizedZones, zone);
+            return;
+        }
+        forEachCell(zone, cell -> grid.computeIfPresent(cell, (key, current) -> {
+            PreparedDeliveryZone[] remaining = without(current, zone);
+            return remaining.length == 0 ? null : remaining;
+        }));
+    }
+
+    private boolean isOversized(PreparedDeliveryZone zone) {
+        long latCells = cellIndex(zone.getMaxLat()) - cellIndex(zone.getMinLat()) + 1;
+        long lonCells = cellIndex(zone.getMaxLon()) - cellIndex(zone.getMinLon()) + 1;
+        return latCells * lonCells > MAX_CELLS_PER_ZONE;
+    }
+
+    private void forEachCell(PreparedDeliveryZone zone, LongConsumer action) {
+        long minLat = cellIndex(zone.getMinLat()), maxLat = cellIndex(zone.getMaxLat());
+        long minLon = cellIndex(zone.getMinLon()), maxLon = cellIndex(zone.getMaxLon());
+        for (long latIndex = minLat; latIndex <= maxLat; latIndex++) {
+            for (long lonIndex = minLon; lonIndex <= maxLon; lonIndex++) {
+                action.accept(cellKey(latIndex, lonIndex));
+            }
+        }
+    }
+
+    private static PreparedDeliveryZone[] append(PreparedDeliveryZone[] zones, PreparedDeliveryZone zone) {
+        if (zones == null) {
+            return new PreparedDeliveryZone[]{zone};
+        }
+        PreparedDeliveryZone[] copy = Arrays.copyOf(zones, zones.length + 1);
+        copy[zones.length] = zone;
+        return copy;
+    }
+
+    private static PreparedDeliveryZone[] without(PreparedDeliveryZone[] zones, PreparedDeliveryZone zone) {
+        return Arrays.stream(zones).filter(existing -> existing != zone).toArray(PreparedDeliveryZone[]::new);
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellOf(double lat, double lon) {
+        return cellKey(cellIndex(lat), cellIndex(lon));
+    }
+
+    private static long cellKey(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
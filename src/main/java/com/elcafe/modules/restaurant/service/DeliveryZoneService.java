@@ -1,16 +1,23 @@
 package com.elcafe.modules.restaurant.service;
 
+import com.elcafe.exception.BadRequestException;
 import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.restaurant.dto.CreateDeliveryZoneRequest;
+import com.elcafe.modules.restaurant.dto.DeliveryZoneCoverageResponse;
 import com.elcafe.modules.restaurant.dto.DeliveryZoneResponse;
 import com.elcafe.modules.restaurant.dto.UpdateDeliveryZoneRequest;
 import com.elcafe.modules.restaurant.entity.DeliveryZone;
 import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
 import com.elcafe.modules.restaurant.mapper.DeliveryZoneMapper;
 import com.elcafe.modules.restaurant.repository.DeliveryZoneRepository;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.elcafe.modules.restaurant.zone.PreparedDeliveryZone;
+import com.elcafe.modules.restaurant.zone.ZonePolygonParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +32,8 @@ public class DeliveryZoneService {
     private final DeliveryZoneRepository deliveryZoneRepository;
     private final RestaurantRepository restaurantRepository;
     private final DeliveryZoneMapper deliveryZoneMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeliveryZoneResolver deliveryZoneResolver;
 
     @Transactional(readOnly = true)
     public List<DeliveryZoneResponse> getAllByRestaurantId(Long restaurantId) {
@@ -52,6 +61,32 @@ public class DeliveryZoneService {
         return deliveryZoneMapper.toResponse(deliveryZone);
     }
 
+    /**
+     * Check whether a restaurant delivers to the given point. Served from the in-memory zone index.
+     */
+    public DeliveryZoneCoverageResponse checkCoverage(Long restaurantId, double latitude, double longitude) {
+        if (!deliveryZoneResolver.hasGeofencedZones(restaurantId)) {
+            return DeliveryZoneCoverageResponse.builder()
+                    .restaurantId(restaurantId)
+                    .covered(true)
+                    .geofenced(false)
+                    .build();
+        }
+
+        PreparedDeliveryZone zone = deliveryZoneResolver.findCheapestZone(restaurantId, latitude, longitude);
+        DeliveryZoneCoverageResponse.DeliveryZoneCoverageResponseBuilder response = DeliveryZoneCoverageResponse.builder()
+                .restaurantId(restaurantId)
+                .covered(zone != null)
+                .geofenced(true);
+        if (zone != null) {
+            response.zoneId(zone.getZoneId())
+                    .zoneName(zone.getName())
+                    .deliveryFee(zone.getDeliveryFee())
+                    .estimatedDeliveryTimeMinutes(zone.getEstimatedDeliveryTimeMinutes());
+        }
+        return response.build();
+    }
+
     @Transactional
     public DeliveryZoneResponse create(CreateDeliveryZoneRequest request) {
         log.info("Creating new delivery zone for restaurant ID: {}", request.getRestaurantId());
@@ -60,12 +95,16 @@ public class DeliveryZoneService {
         Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant", "id", request.getRestaurantId()));
 
+        validatePolygon(request.getPolygonCoordinates());
+
         DeliveryZone deliveryZone = deliveryZoneMapper.toEntity(request);
         deliveryZone.setRestaurant(restaurant);
 
         DeliveryZone savedDeliveryZone = deliveryZoneRepository.save(deliveryZone);
         log.info("Delivery zone created with ID: {}", savedDeliveryZone.getId());
 
+        publishZonesChanged(restaurant.getId());
+
         return deliveryZoneMapper.toResponse(savedDeliveryZone);
     }
 
@@ -75,6 +114,9 @@ public class DeliveryZoneService {
 
         DeliveryZone deliveryZone = deliveryZoneRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("DeliveryZone", "id", id));
+        Long previousRestaurantId = deliveryZone.getRestaurant().getId();
+
+        validatePolygon(request.getPolygonCoordinates());
 
         // If restaurant is being changed, verify the new restaurant exists
         if (request.getRestaurantId() != null && !request.getRestaurantId().equals(deliveryZone.getRestaurant().getId())) {
@@ -89,6 +131,11 @@ public class DeliveryZoneService {
         DeliveryZone updatedDeliveryZone = deliveryZoneRepository.save(deliveryZone);
         log.info("Delivery zone updated successfully: {}", id);
 
+        publishZonesChanged(updatedDeliveryZone.getRestaurant().getId());
+        if (!previousRestaurantId.equals(updatedDeliveryZone.getRestaurant().getId())) {
+            publishZonesChanged(previousRestaurantId);
+        }
+
         return deliveryZoneMapper.toResponse(updatedDeliveryZone);
     }
 
@@ -101,5 +148,22 @@ public class DeliveryZoneService {
 
         deliveryZoneRepository.delete(deliveryZone);
         log.info("Delivery zone deleted successfully: {}", id);
+
+        publishZonesChanged(deliveryZone.getRestaurant().getId());
+    }
+
+    /**
+     * Reject polygons the zone resolver cannot parse, instead of silently ignoring the zone later
+     */
+    private void validatePolygon(String polygonCoordinates) {
+        try {
+            ZonePolygonParser.parse(polygonCoordinates);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid polygon coordinates: " + e.getMessage());
+        }
+    }
+
+    private void publishZonesChanged(Long restaurantId) {
+        eventPublisher.publishEvent(new RestaurantChangedEvent(this, restaurantId, RestaurantChangeScope.DELIVERY_ZONES));
     }
 }
@@ -0,0 +1,154 @@
+package com.elcafe.modules.restaurant.service;
+
+import com.elcafe.modules.order.service.DeliveryEtaService;
+import com.elcafe.modules.restaurant.config.RestaurantDiscoveryProperties;
+import com.elcafe.modules.restaurant.discovery.DiscoverableRestaurant;
+import com.elcafe.modules.restaurant.dto.RestaurantDiscoveryResponse;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangeRelay;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
+import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import com.elcafe.modules.restaurant.zone.PreparedDeliveryZone;
+import com.elcafe.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consumer restaurant discovery: which restaurants deliver to a location and are open.
+ *
+ * Answered entirely from memory: restaurant snapshots (with business hours) are loaded at
+ * startup and refreshed per restaurant on {@link RestaurantChangedEvent}, whichever node made the
+ * change ({@link RestaurantChangeRelay} carries it to the others), zone coverage comes from
+ * {@link DeliveryZoneResolver} and the ETA quote from cached travel and queue estimates.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RestaurantDiscoveryService {
+
+    private final RestaurantRepository restaurantRepository;
+    private final DeliveryZoneResolver deliveryZoneResolver;
+    private final DeliveryEtaService deliveryEtaService;
+    private final RestaurantDiscoveryProperties properties;
+
+    private final Map<Long, DiscoverableRestaurant> restaurants = new ConcurrentHashMap<>();
+
+    /** Orders the refreshes of a restaurant, so a local and a relayed change never swap an older snapshot in */
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAll() {
+        restaurantRepository.findAllWithBusinessHours()
+                .forEach(restaurant -> restaurants.put(restaurant.getId(), DiscoverableRestaurant.of(restaurant)));
+        log.info("Loaded {} restaurants into the discovery index", restaurants.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!event.affects(RestaurantChangeScope.DETAILS) && !event.affects(RestaurantChangeScope.BUSINESS_HOURS)) {
+            return;
+        }
+        Long restaurantId = event.getRestaurantId();
+        ReentrantLock lock = locks.computeIfAbsent(restaurantId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (event.affects(RestaurantChangeScope.DELETED)) {
+                restaurants.remove(restaurantId);
+                return;
+            }
+            restaurantRepository.findByIdWithBusinessHours(restaurantId)
+                    .ifPresentOrElse(
+                            restaurant -> restaurants.put(restaurant.getId(), DiscoverableRestaurant.of(restaurant)),
+                            () -> restaurants.remove(restaurantId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restaurants that are open at {@code at}, accepting orders and delivering to the location,
+     * fastest delivery first
+     */
+    public List<RestaurantDiscoveryResponse> discover(double latitude, double longitude, LocalDateTime at) {
+        List<RestaurantDiscoveryResponse> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        // Zones come cheapest first, so the first zone seen per restaurant is the one it charges
+        for (PreparedDeliveryZone zone : deliveryZoneResolver.resolveAll(latitude, longitude)) {
+            DiscoverableRestaurant restaurant = restaurants.get(zone.getRestaurantId());
+            if (restaurant == null || !seen.add(restaurant.getId()) || !isAvailable(restaurant, at)) {
+                continue;
+            }
+            BigDecimal fee = zone.getDeliveryFee() != null ? zone.getDeliveryFee() : restaurant.getDeliveryFee();
+            results.add(toResponse(restaurant, zone.getZoneId(), fee, zone.getEstimatedDeliveryTimeMinutes(),
+                    latitude, longitude));
+        }
+
+        // Restaurants without zone polygons deliver within a radius around their location
+        double fallbackRadiusKm = properties.getFallbackRadiusKm();
+        for (DiscoverableRestaurant restaurant : restaurants.values()) {
+            if (seen.contains(restaurant.getId()) || !restaurant.hasLocation()
+                    || deliveryZoneResolver.hasGeofencedZones(restaurant.getId()) || !isAvailable(restaurant, at)) {
+                continue;
+            }
+            double distanceKm = GeoUtils.haversineKm(restaurant.getLatitude(), restaurant.getLongitude(), latitude, longitude);
+            if (distanceKm <= fallbackRadiusKm) {
+                results.add(toResponse(restaurant, null, restaurant.getDeliveryFee(),
+                        restaurant.getEstimatedDeliveryTimeMinutes(), latitude, longitude));
+            }
+        }
+
+        results.sort(Comparator.comparing(RestaurantDiscoveryResponse::getEstimatedDeliveryMinutes,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return results.size() > properties.getMaxResults()
+                ? new ArrayList<>(results.subList(0, properties.getMaxResults()))
+                : results;
+    }
+
+    private boolean isAvailable(DiscoverableRestaurant restaurant, LocalDateTime at) {
+        return restaurant.isTakingOrders() && restaurant.isOpenAt(at);
+    }
+
+    private RestaurantDiscoveryResponse toResponse(DiscoverableRestaurant restaurant, Long zoneId, BigDecimal fee,
+                                                   Integer configuredMinutes, double latitude, double longitude) {
+        Integer etaMinutes = configuredMinutes;
+        Double distanceKm = null;
+        if (restaurant.hasLocation()) {
+            distanceKm = GeoUtils.haversineKm(restaurant.getLatitude(), restaurant.getLongitude(), latitude, longitude);
+            etaMinutes = (int) Math.ceil(deliveryEtaService.quoteDeliveryMinutes(restaurant.getId(),
+                    restaurant.getLatitude(), restaurant.getLongitude(), latitude, longitude));
+        }
+
+        return RestaurantDiscoveryResponse.builder()
+                .restaurantId(restaurant.getId())
+                .name(restaurant.getName())
+                .description(restaurant.getDescription())
+                .logoUrl(restaurant.getLogoUrl())
+                .bannerUrl(restaurant.getBannerUrl())
+                .address(restaurant.getAddress())
+                .rating(restaurant.getRating())
+                .minimumOrderAmount(restaurant.getMinimumOrderAmount())
+                .deliveryFee(fee != null ? fee : BigDecimal.ZERO)
+                .deliveryZoneId(zoneId)
+                .estimatedDeliveryMinutes(etaMinutes)
+                .distanceKm(distanceKm)
+                .build();
+    }
+}
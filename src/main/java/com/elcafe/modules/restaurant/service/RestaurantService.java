@@ -4,11 +4,14 @@ import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.restaurant.dto.RestaurantRequest;
 import com.elcafe.modules.restaurant.dto.RestaurantResponse;
 import com.elcafe.modules.restaurant.entity.Restaurant;
+import com.elcafe.modules.restaurant.enums.RestaurantChangeScope;
+import com.elcafe.modules.restaurant.event.RestaurantChangedEvent;
 import com.elcafe.modules.restaurant.mapper.RestaurantMapper;
 import com.elcafe.modules.restaurant.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +28,7 @@ public class RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
     private final RestaurantMapper restaurantMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @CacheEvict(value = "restaurant", allEntries = true)
@@ -35,6 +39,9 @@ public class RestaurantService {
         restaurant = restaurantRepository.save(restaurant);
 
         log.info("Restaurant created with ID: {}", restaurant.getId());
+
+        eventPublisher.publishEvent(new RestaurantChangedEvent(this, restaurant.getId(),
+                RestaurantChangeScope.DETAILS, RestaurantChangeScope.DELIVERY_ZONES, RestaurantChangeScope.BUSINESS_HOURS));
         return restaurantMapper.toResponse(restaurant);
     }
 
@@ -85,11 +92,14 @@ public class RestaurantService {
         restaurant = restaurantRepository.save(restaurant);
         log.info("Restaurant updated successfully: {}", id);
 
+        eventPublisher.publishEvent(new RestaurantChangedEvent(this, id,
+                RestaurantChangeScope.DETAILS, RestaurantChangeScope.DELIVERY_ZONES, RestaurantChangeScope.BUSINESS_HOURS));
+
         return restaurantMapper.toResponse(restaurant);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "restaurant", key = "#id")
+    @Cacheable(value = "restaurant", key = "#id", sync = true)
     public RestaurantResponse getRestaurantById(Long id) {
         log.debug("Fetching restaurant with ID: {}", id);
 
@@ -137,5 +147,7 @@ public class RestaurantService {
 
         restaurantRepository.delete(restaurant);
         log.info("Restaurant deleted successfully: {}", id);
+
+        eventPublisher.publishEvent(new RestaurantChangedEvent(this, id, RestaurantChangeScope.DELETED));
     }
 }
@@ -0,0 +1,73 @@
+package com.elcafe.modules.restaurant.zone;
+
+import com.elcafe.modules.restaurant.entity.DeliveryZone;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable, pre-parsed copy of an active {@link DeliveryZone} polygon
+ */
+@Getter
+public final class PreparedDeliveryZone {
+
+    private final Long zoneId;
+    private final Long restaurantId;
+    private final String name;
+    private final BigDecimal deliveryFee;
+    private final Integer estimatedDeliveryTimeMinutes;
+    private final List<ZonePolygon> polygons;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+
+    private PreparedDeliveryZone(DeliveryZone zone, Long restaurantId, List<ZonePolygon> polygons) {
+        this.zoneId = zone.getId();
+        this.restaurantId = restaurantId;
+        this.name = zone.getName();
+        this.deliveryFee = zone.getDeliveryFee();
+        this.estimatedDeliveryTimeMinutes = zone.getEstimatedDeliveryTimeMinutes();
+        this.polygons = List.copyOf(polygons);
+
+        double minLatAcc = Double.MAX_VALUE, maxLatAcc = -Double.MAX_VALUE;
+        double minLonAcc = Double.MAX_VALUE, maxLonAcc = -Double.MAX_VALUE;
+        for (ZonePolygon polygon : polygons) {
+            minLatAcc = Math.min(minLatAcc, polygon.getMinLat());
+            maxLatAcc = Math.max(maxLatAcc, polygon.getMaxLat());
+            minLonAcc = Math.min(minLonAcc, polygon.getMinLon());
+            maxLonAcc = Math.max(maxLonAcc, polygon.getMaxLon());
+        }
+        this.minLat = minLatAcc;
+        this.maxLat = maxLatAcc;
+        this.minLon = minLonAcc;
+        this.maxLon = maxLonAcc;
+    }
+
+    /**
+     * Prepare a zone for lookups
+     *
+     * @return the prepared zone, or null if the zone has no polygon
+     * @throws IllegalArgumentException if the polygon cannot be parsed
+     */
+    public static PreparedDeliveryZone of(DeliveryZone zone, Long restaurantId) {
+        List<ZonePolygon> polygons = ZonePolygonParser.parse(zone.getPolygonCoordinates());
+        if (polygons.isEmpty()) {
+            return null;
+        }
+        return new PreparedDeliveryZone(zone, restaurantId, polygons);
+    }
+
+    public boolean contains(double lat, double lon) {
+        if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+            return false;
+        }
+        for (ZonePolygon polygon : polygons) {
+            if (polygon.contains(lat, lon)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
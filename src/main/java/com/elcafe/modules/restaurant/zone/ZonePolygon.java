@@ -0,0 +1,142 @@
+package com.elcafe.modules.restaurant.zone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepared polygon (outer ring plus optional holes) for fast point-in-polygon tests.
+ *
+ * Each ring's edges are bucketed into horizontal latitude bands, so a containment test only
+ * runs the ray-crossing check against the few edges spanning the query latitude instead of
+ * every vertex of the ring.
+ */
+public final class ZonePolygon {
+
+    private final Ring outer;
+    private final List<Ring> holes;
+
+    ZonePolygon(double[][] outerRing, List<double[][]> holeRings) {
+        this.outer = new Ring(outerRing);
+        this.holes = new ArrayList<>(holeRings.size());
+        for (double[][] hole : holeRings) {
+            holes.add(new Ring(hole));
+        }
+    }
+
+    public boolean contains(double lat, double lon) {
+        if (!outer.contains(lat, lon)) {
+            return false;
+        }
+        for (Ring hole : holes) {
+            if (hole.contains(lat, lon)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double getMinLat() {
+        return outer.minLat;
+    }
+
+    public double getMaxLat() {
+        return outer.maxLat;
+    }
+
+    public double getMinLon() {
+        return outer.minLon;
+    }
+
+    public double getMaxLon() {
+        return outer.maxLon;
+    }
+
+    /**
+     * Closed ring stored as parallel coordinate arrays with a latitude band index over its edges
+     */
+    private static final class Ring {
+
+        private static final int MAX_BANDS = 64;
+
+        private final double[] lats;
+        private final double[] lons;
+        private final double minLat;
+        private final double maxLat;
+        private final double minLon;
+        private final double maxLon;
+        private final int bandCount;
+        private final double bandHeight;
+        private final int[][] bandEdges;
+
+        private Ring(double[][] points) {
+            int n = points.length;
+            this.lats = new double[n];
+            this.lons = new double[n];
+            double minLatAcc = Double.MAX_VALUE, maxLatAcc = -Double.MAX_VALUE;
+            double minLonAcc = Double.MAX_VALUE, maxLonAcc = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                lats[i] = points[i][0];
+                lons[i] = points[i][1];
+                minLatAcc = Math.min(minLatAcc, lats[i]);
+                maxLatAcc = Math.max(maxLatAcc, lats[i]);
+                minLonAcc = Math.min(minLonAcc, lons[i]);
+                maxLonAcc = Math.max(maxLonAcc, lons[i]);
+            }
+            this.minLat = minLatAcc;
+            this.maxLat = maxLatAcc;
+            this.minLon = minLonAcc;
+            this.maxLon = maxLonAcc;
+
+            this.bandCount = Math.max(1, Math.min(MAX_BANDS, n / 4));
+            this.bandHeight = Math.max((maxLat - minLat) / bandCount, Double.MIN_VALUE);
+            this.bandEdges = buildBands();
+        }
+
+        private int[][] buildBands() {
+            int[] counts = new int[bandCount];
+            int n = lats.length;
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                for (int b = band(Math.min(lats[i], lats[j])); b <= band(Math.max(lats[i], lats[j])); b++) {
+                    counts[b]++;
+                }
+            }
+            int[][] result = new int[bandCount][];
+            for (int b = 0; b < bandCount; b++) {
+                result[b] = new int[counts[b]];
+                counts[b] = 0;
+            }
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                for (int b = band(Math.min(lats[i], lats[j])); b <= band(Math.max(lats[i], lats[j])); b++) {
+                    result[b][counts[b]++] = i;
+                }
+            }
+            return result;
+        }
+
+        private int band(double lat) {
+            int b = (int) ((lat - minLat) / bandHeight);
+            return Math.max(0, Math.min(bandCount - 1, b));
+        }
+
+        private boolean contains(double lat, double lon) {
+            if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+                return false;
+            }
+            boolean inside = false;
+            int n = lats.length;
+            for (int i : bandEdges[band(lat)]) {
+                int j = (i + 1) % n;
+                double latI = lats[i], latJ = lats[j];
+                if ((latI > lat) != (latJ > lat)) {
+                    double crossingLon = lons[i] + (lat - latI) / (latJ - latI) * (lons[j] - lons[i]);
+                    if (lon < crossingLon) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+    }
+}
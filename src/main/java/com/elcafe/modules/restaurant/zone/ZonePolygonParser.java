@@ -0,0 +1,241 @@
+package com.elcafe.modules.restaurant.zone;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses {@code DeliveryZone.polygonCoordinates} into prepared polygons.
+ *
+ * Supported formats:
+ * <ul>
+ *     <li>GeoJSON Polygon / MultiPolygon geometry or Feature ([lon, lat] positions)</li>
+ *     <li>Bare GeoJSON coordinate arrays: a ring, a polygon or a multipolygon</li>
+ *     <li>Array of {"lat": .., "lng"|"lon": ..} objects (map widget output)</li>
+ *     <li>WKT POLYGON / MULTIPOLYGON ("lon lat" pairs)</li>
+ * </ul>
+ */
+public final class ZonePolygonParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private ZonePolygonParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a supported polygon format
+     */
+    public static List<ZonePolygon> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String trimmed = text.trim();
+        List<ZonePolygon> polygons = trimmed.startsWith("{") || trimmed.startsWith("[")
+                ? parseJson(trimmed)
+                : parseWkt(trimmed);
+        if (polygons.isEmpty()) {
+            throw new IllegalArgumentException("Polygon has no coordinates");
+        }
+        return polygons;
+    }
+
+    private static List<ZonePolygon> parseJson(String text) {
+        JsonNode root;
+        try {
+            root = OBJECT_MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid polygon JSON: " + e.getOriginalMessage());
+        }
+
+        if (root.isObject()) {
+            if (root.has("geometry")) {
+                root = root.get("geometry");
+            }
+            String type = root.path("type").asText("");
+            JsonNode coordinates = root.path("coordinates");
+            return switch (type) {
+                case "Polygon" -> List.of(polygonFromPositions(coordinates));
+                case "MultiPolygon" -> multiPolygonFromPositions(coordinates);
+                default -> throw new IllegalArgumentException("Unsupported GeoJSON type: " + type);
+            };
+        }
+
+        if (!root.isArray() || root.isEmpty()) {
+            throw new IllegalArgumentException("Polygon must be a non-empty array");
+        }
+
+        JsonNode first = root.get(0);
+        if (first.isObject()) {
+            return List.of(new ZonePolygon(ringFromLatLngObjects(root), List.of()));
+        }
+        int depth = arrayDepth(root);
+        return switch (depth) {
+            case 2 -> List.of(new ZonePolygon(ringFromPositions(root), List.of()));
+            case 3 -> List.of(polygonFromPositions(root));
+            case 4 -> multiPolygonFromPositions(root);
+            default -> throw new IllegalArgumentException("Unsupported coordinate nesting depth: " + depth);
+        };
+    }
+
+    private static List<ZonePolygon> multiPolygonFromPositions(JsonNode polygons) {
+        List<ZonePolygon> result = new ArrayList<>(polygons.size());
+        for (JsonNode polygon : polygons) {
+            result.add(polygonFromPositions(polygon));
+        }
+        return result;
+    }
+
+    private static ZonePolygon polygonFromPositions(JsonNode rings) {
+        if (!rings.isArray() || rings.isEmpty()) {
+            throw new IllegalArgumentException("Polygon must contain at least one ring");
+        }
+        List<double[][]> holes = new ArrayList<>();
+        for (int i = 1; i < rings.size(); i++) {
+            holes.add(ringFromPositions(rings.get(i)));
+        }
+        return new ZonePolygon(ringFromPositions(rings.get(0)), holes);
+    }
+
+    private static double[][] ringFromPositions(JsonNode positions) {
+        List<double[]> points = new ArrayList<>(positions.size());
+        for (JsonNode position : positions) {
+            if (!position.isArray() || position.size() < 2) {
+                throw new IllegalArgumentException("Position must be [lon, lat]");
+            }
+            points.add(point(position.get(1).asDouble(), position.get(0).asDouble()));
+        }
+        return closeRing(points);
+    }
+
+    private static double[][] ringFromLatLngObjects(JsonNode positions) {
+        List<double[]> points = new ArrayList<>(positions.size());
+        for (JsonNode position : positions) {
+            JsonNode lon = position.has("lng") ? position.get("lng") : position.get("lon");
+            if (!position.has("lat") || lon == null) {
+                throw new IllegalArgumentException("Point must have lat and lng/lon");
+            }
+            points.add(point(position.get("lat").asDouble(), lon.asDouble()));
+        }
+        return closeRing(points);
+    }
+
+    private static List<ZonePolygon> parseWkt(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        String body;
+        boolean multi;
+        if (upper.startsWith("MULTIPOLYGON")) {
+            body = text.substring("MULTIPOLYGON".length());
+            multi = true;
+        } else if (upper.startsWith("POLYGON")) {
+            body = text.substring("POLYGON".length());
+            multi = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported polygon format");
+        }
+
+        body = body.trim();
+        if (multi) {
+            body = stripParentheses(body);
+        }
+
+        List<ZonePolygon> result = new ArrayList<>();
+        for (String polygonText : splitTopLevel(body)) {
+            List<double[][]> rings = new ArrayList<>();
+            for (String ringText : splitTopLevel(stripParentheses(polygonText))) {
+                rings.add(ringFromWkt(stripParentheses(ringText)));
+            }
+            if (rings.isEmpty()) {
+                throw new IllegalArgumentException("WKT polygon has no rings");
+            }
+            result.add(new ZonePolygon(rings.get(0), rings.subList(1, rings.size())));
+        }
+        return result;
+    }
+
+    private static double[][] ringFromWkt(String text) {
+        List<double[]> points = new ArrayList<>();
+        for (String pair : text.split(",")) {
+            String[] parts = pair.trim().split("\\s+");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("WKT position must be 'lon lat'");
+            }
+            try {
+                points.add(point(Double.parseDouble(parts[1]), Double.parseDouble(parts[0])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid WKT coordinate: " + pair.trim());
+            }
+        }
+        return closeRing(points);
+    }
+
+    /**
+     * Split "(a),(b),(c)" at commas that are not nested inside parentheses
+     */
+    private static List<String> splitTopLevel(String text) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(text.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        String last = text.substring(start).trim();
+        if (!last.isEmpty()) {
+            parts.add(last);
+        }
+        return parts;
+    }
+
+    private static String stripParentheses(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith("(") || !trimmed.endsWith(")")) {
+            throw new IllegalArgumentException("Malformed WKT near: " + trimmed);
+        }
+        return trimmed.substring(1, trimmed.length() - 1).trim();
+    }
+
+    private static int arrayDepth(JsonNode node) {
+        int depth = 0;
+        while (node != null && node.isArray()) {
+            depth++;
+            node = node.isEmpty() ? null : node.get(0);
+        }
+        return depth;
+    }
+
+    private static double[] point(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Coordinate out of range: " + lat + ", " + lon);
+        }
+        return new double[]{lat, lon};
+    }
+
+    /**
+     * Drop the closing duplicate point (GeoJSON/WKT rings repeat the first point) and validate size
+     */
+    private static double[][] closeRing(List<double[]> points) {
+        int size = points.size();
+        if (size > 1) {
+            double[] first = points.get(0);
+            double[] last = points.get(size - 1);
+            if (first[0] == last[0] && first[1] == last[1]) {
+                size--;
+            }
+        }
+        if (size < 3) {
+            throw new IllegalArgumentException("Polygon ring needs at least 3 distinct points");
+        }
+        return points.subList(0, size).toArray(new double[0][]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.elcafe.modules.waiter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for writing the order audit trail (order_events)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.order.audit")
+public class OrderAuditProperties {
+
+    /**
+     * How audit events reach the database
+     */
+    private Durability durability = Durability.BUFFERED;
+
+    /**
+     * Events written in one JDBC batch at most
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * Longest an event waits in memory before it is written in milliseconds
+     */
+    private Long flushIntervalMs = 200L;
+
+    /**
+     * Events held in memory at most; once full, the recording thread writes the backlog itself
+     */
+    private Integer capacity = 10000;
+
+    public enum Durability {
+        /**
+         * Written in the recording transaction, and rolled back with it
+         */
+        SYNC,
+        /**
+         * Queued once the recording transaction commits and written in batches; events still
+         * queued are lost if the process dies
+         */
+        BUFFERED
+    }
+}
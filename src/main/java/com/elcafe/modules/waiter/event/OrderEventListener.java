@@ -1,7 +1,6 @@
 package com.elcafe.modules.waiter.event;
 
-import com.elcafe.modules.waiter.entity.OrderEvent;
-import com.elcafe.modules.waiter.repository.OrderEventRepository;
+import com.elcafe.modules.waiter.service.OrderAuditWriter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +8,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Listener for all waiter-related events
@@ -21,7 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class OrderEventListener {
 
-    private final OrderEventRepository orderEventRepository;
+    private final OrderAuditWriter orderAuditWriter;
     private final ObjectMapper objectMapper;
 
     /**
@@ -30,9 +27,8 @@ public class OrderEventListener {
      * - Create audit trail
      * - Notify kitchen module (if needed)
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleOrderCreated(OrderCreatedEvent event) {
         log.info("Handling OrderCreatedEvent: {}", event.getEventDescription());
 
@@ -52,9 +48,8 @@ public class OrderEventListener {
      * - Notify kitchen module to start preparing
      * - Send notification to kitchen display system
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleOrderSubmitted(OrderSubmittedEvent event) {
         log.info("Handling OrderSubmittedEvent: {}", event.getEventDescription());
 
@@ -78,9 +73,8 @@ public class OrderEventListener {
      * - Notify waiter via WebSocket
      * - Update order status
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleOrderReady(OrderReadyEvent event) {
         log.info("Handling OrderReadyEvent: {}", event.getEventDescription());
 
@@ -104,9 +98,8 @@ public class OrderEventListener {
      * - Prepare payment information
      * - Notify payment module
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleBillRequested(BillRequestedEvent event) {
         log.info("Handling BillRequestedEvent: {}", event.getEventDescription());
 
@@ -131,9 +124,8 @@ public class OrderEventListener {
      * - Close table (if all orders paid)
      * - Update waiter performance metrics
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleOrderPaid(OrderPaidEvent event) {
         log.info("Handling OrderPaidEvent: {}", event.getEventDescription());
 
@@ -158,9 +150,8 @@ public class OrderEventListener {
      * - Log the event
      * - Create audit trail
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleItemAdded(OrderItemAddedEvent event) {
         log.info("Handling OrderItemAddedEvent: {}", event.getEventDescription());
 
@@ -177,9 +168,8 @@ public class OrderEventListener {
      * - Create audit trail
      * - Track waste/void items
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleItemRemoved(OrderItemRemovedEvent event) {
         log.info("Handling OrderItemRemovedEvent: {}", event.getEventDescription());
 
@@ -202,9 +192,8 @@ public class OrderEventListener {
      * - Broadcast to all waiters via WebSocket
      * - Update table availability
      */
-    @Async
+    @Async("auditExecutor")
     @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleTableStatusChanged(TableStatusChangedEvent event) {
         log.info("Handling TableStatusChangedEvent: {}", event.getEventDescription());
 
@@ -220,7 +209,7 @@ public class OrderEventListener {
     }
 
     /**
-     * Create audit trail entry in the database
+     * Queue an audit trail entry for the next batch written to the database
      */
     private void createAuditTrail(WaiterEvent event) {
         if (event.getOrderId() == null) {
@@ -228,35 +217,18 @@ public class OrderEventListener {
             return;
         }
 
+        String metadata;
         try {
-            String metadata = objectMapper.writeValueAsString(event.getMetadata());
-
-            OrderEvent orderEvent = OrderEvent.builder()
-                    .order(com.elcafe.modules.order.entity.Order.builder()
-                            .id(event.getOrderId())
-                            .build())
-                    .eventType(event.getEventType())
-                    .triggeredBy(event.getTriggeredBy())
-                    .metadata(metadata)
-                    .build();
-
-            orderEventRepository.save(orderEvent);
-
-            log.debug("Audit trail created for event: {} on order: {}",
-                    event.getEventType(), event.getOrderId());
+            metadata = objectMapper.writeValueAsString(event.getMetadata());
         } catch (JsonProcessingException e) {
             log.error("Error serializing event metadata: {}", e.getMessage());
             // Save without metadata if serialization fails
-            OrderEvent orderEvent = OrderEvent.builder()
-                    .order(com.elcafe.modules.order.entity.Order.builder()
-                            .id(event.getOrderId())
-                            .build())
-                    .eventType(event.getEventType())
-                    .triggeredBy(event.getTriggeredBy())
-                    .metadata("{}")
-                    .build();
-
-            orderEventRepository.save(orderEvent);
+            metadata = "{}";
         }
+
+        orderAuditWriter.record(event.getOrderId(), event.getEventType(), event.getTriggeredBy(), metadata);
+
+        log.debug("Audit trail queued for event: {} on order: {}",
+                event.getEventType(), event.getOrderId());
     }
 }
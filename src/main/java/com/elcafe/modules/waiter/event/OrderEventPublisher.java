@@ -25,7 +25,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when a new order is created
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishOrderCreated(Order order, String triggeredBy) {
         log.info("Publishing order created event for order: {}", order.getOrderNumber());
 
@@ -45,7 +45,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when an order is submitted to the kitchen
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishOrderSubmitted(Order order, String triggeredBy) {
         log.info("Publishing order submitted event for order: {}", order.getOrderNumber());
 
@@ -66,7 +66,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when an order is ready for pickup
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishOrderReady(Order order, Long kitchenOrderId, String triggeredBy) {
         log.info("Publishing order ready event for order: {}", order.getOrderNumber());
 
@@ -86,7 +86,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when bill is requested
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishBillRequested(Order order, String paymentMethod, String triggeredBy) {
         log.info("Publishing bill requested event for order: {}", order.getOrderNumber());
 
@@ -107,7 +107,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when payment is completed
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishOrderPaid(
             Order order,
             BigDecimal amount,
@@ -134,7 +134,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when an item is added to an order
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishItemAdded(
             Order order,
             String itemName,
@@ -161,7 +161,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when an item is removed from an order
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishItemRemoved(
             Order order,
             String itemName,
@@ -186,7 +186,7 @@ public class OrderEventPublisher {
     /**
      * Publish event when table status changes
      */
-    @Async
+    @Async("websocketExecutor")
     public void publishTableStatusChanged(
             Table table,
             TableStatus oldStatus,
@@ -0,0 +1,203 @@
+package com.elcafe.modules.waiter.service;
+
+import com.elcafe.modules.waiter.config.OrderAuditProperties;
+import com.elcafe.modules.waiter.enums.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the order audit trail (order_events) in JDBC batches.
+ *
+ * Events are timestamped when recorded, queued once the recording transaction commits, and
+ * written every flush interval or as soon as a batch is full, each batch in one transaction.
+ * There is a single writer at a time and the queue is first in, first out, so the events of an
+ * order are stored in the order they were recorded. When the queue is full the recording thread
+ * writes the backlog itself rather than dropping events. With durability SYNC every event is
+ * instead inserted right away in the recording transaction.
+ */
+@Slf4j
+@Service
+public class OrderAuditWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_events (order_id, event_type, triggered_by, metadata, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final OrderAuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    private final BlockingQueue<AuditRecord> queue;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    /**
+     * An audit event as stored
+     */
+    public record AuditRecord(Long orderId,
+                              OrderEventType eventType,
+                              String triggeredBy,
+                              String metadata,
+                              LocalDateTime createdAt) {
+    }
+
+    public OrderAuditWriter(OrderAuditProperties properties,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("auditExecutor") Executor executor,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushes can run from afterCommit of a recording transaction, which must not be joined
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+
+        this.written = meterRegistry.counter("order.audit.events", "outcome", "written");
+        this.failed = meterRegistry.counter("order.audit.events", "outcome", "failed");
+        this.flushTimer = Timer.builder("order.audit.flush")
+                .description("Time to write one batch of audit events")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("order.audit.batch.size")
+                .description("Audit events written per batch")
+                .register(meterRegistry);
+        Gauge.builder("order.audit.queued", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record an audit event for an order
+     */
+    public void record(Long orderId, OrderEventType eventType, String triggeredBy, String metadata) {
+        AuditRecord auditRecord = new AuditRecord(orderId, eventType, triggeredBy, metadata, LocalDateTime.now());
+
+        if (properties.getDurability() == OrderAuditProperties.Durability.SYNC) {
+            insert(auditRecord);
+            written.increment();
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(auditRecord);
+            return;
+        }
+        // Nothing is written for a transaction that rolls back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(auditRecord);
+            }
+        });
+    }
+
+    /**
+     * Write everything queued
+     */
+    @Scheduled(fixedDelayString = "${app.order.audit.flush-interval-ms:200}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            flushRequested.set(false);
+            List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+            while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(AuditRecord auditRecord) {
+        while (!queue.offer(auditRecord)) {
+            // Full: write the backlog here, behind any flush in progress, so order is kept
+            flush();
+        }
+        if (queue.size() >= properties.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // The scheduled flush picks the batch up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                    (statement, auditRecord) -> {
+                        statement.setLong(1, auditRecord.orderId());
+                        statement.setString(2, auditRecord.eventType().name());
+                        statement.setString(3, auditRecord.triggeredBy());
+                        statement.setString(4, auditRecord.metadata());
+                        statement.setTimestamp(5, Timestamp.valueOf(auditRecord.createdAt()));
+                    }));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // One bad row (e.g. an order deleted meanwhile) fails the batch; keep the others
+            log.warn("Audit batch of {} events failed, writing them one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::insertAlone);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+
+    private void insertAlone(AuditRecord auditRecord) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(auditRecord));
+            written.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Failed to write audit event {}: {}", auditRecord, e.getMessage());
+        }
+    }
+
+    private void insert(AuditRecord auditRecord) {
+        jdbcTemplate.update(INSERT_SQL,
+                auditRecord.orderId(),
+                auditRecord.eventType().name(),
+                auditRecord.triggeredBy(),
+                auditRecord.metadata(),
+                Timestamp.valueOf(auditRecord.createdAt()));
+    }
+}
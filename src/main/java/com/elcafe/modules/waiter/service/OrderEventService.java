@@ -26,13 +26,14 @@ import java.util.stream.Collectors;
 public class OrderEventService {
 
     private final OrderEventRepository orderEventRepository;
+    private final OrderAuditWriter orderAuditWriter;
     private final ObjectMapper objectMapper;
 
     /**
-     * Publish and record an order event
+     * Publish and record an order event; written with the next audit batch once the caller commits
      */
     @Transactional
-    public OrderEvent publishEvent(Order order, OrderEventType eventType, String triggeredBy, Map<String, Object> metadata) {
+    public void publishEvent(Order order, OrderEventType eventType, String triggeredBy, Map<String, Object> metadata) {
         String metadataJson = null;
         if (metadata != null && !metadata.isEmpty()) {
             try {
@@ -42,25 +43,16 @@ public class OrderEventService {
             }
         }
 
-        OrderEvent event = OrderEvent.builder()
-                .order(order)
-                .eventType(eventType)
-                .triggeredBy(triggeredBy)
-                .metadata(metadataJson)
-                .build();
-
-        OrderEvent savedEvent = orderEventRepository.save(event);
+        orderAuditWriter.record(order.getId(), eventType, triggeredBy, metadataJson);
         log.info("Order event published: {} for order {} by {}", eventType, order.getId(), triggeredBy);
-
-        return savedEvent;
     }
 
     /**
      * Record an event (simpler version without metadata)
      */
     @Transactional
-    public OrderEvent recordEvent(Order order, OrderEventType eventType, String triggeredBy) {
-        return publishEvent(order, eventType, triggeredBy, null);
+    public void recordEvent(Order order, OrderEventType eventType, String triggeredBy) {
+        publishEvent(order, eventType, triggeredBy, null);
     }
 
     /**
@@ -4,10 +4,8 @@ import com.elcafe.exception.BadRequestException;
 import com.elcafe.exception.ResourceNotFoundException;
 import com.elcafe.modules.customer.entity.Customer;
 import com.elcafe.modules.customer.repository.CustomerRepository;
-import com.elcafe.modules.menu.entity.Product;
-import com.elcafe.modules.menu.entity.ProductVariant;
-import com.elcafe.modules.menu.repository.ProductRepository;
-import com.elcafe.modules.menu.repository.ProductVariantRepository;
+import com.elcafe.modules.menu.availability.RestaurantAvailability;
+import com.elcafe.modules.menu.service.StockAvailabilityService;
 import com.elcafe.modules.order.entity.Order;
 import com.elcafe.modules.order.entity.OrderItem;
 import com.elcafe.modules.order.enums.OrderSource;
@@ -46,8 +44,7 @@ public class WaiterOrderService {
     private final TableRepository tableRepository;
     private final WaiterRepository waiterRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
-    private final ProductVariantRepository productVariantRepository;
+    private final StockAvailabilityService stockAvailabilityService;
     private final OrderEventService orderEventService;
 
     /**
@@ -116,27 +113,39 @@ public class WaiterOrderService {
             throw new BadRequestException("Cannot modify completed or cancelled order");
         }
 
+        RestaurantAvailability availability = stockAvailabilityService.getAvailability(order.getRestaurant().getId());
         for (AddOrderItemRequest itemRequest : items) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId()));
+            int product = availability.productIndex(itemRequest.getProductId());
+            if (product < 0) {
+                throw new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId());
+            }
 
-            BigDecimal unitPrice = product.getPrice();
+            BigDecimal unitPrice = availability.productPrice(product);
             String variantName = null;
+            boolean available = availability.isProductAvailable(product);
 
             // Handle variant if specified
             if (itemRequest.getVariantId() != null) {
-                ProductVariant variant = productVariantRepository.findById(itemRequest.getVariantId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Variant not found with id: " + itemRequest.getVariantId()));
-                unitPrice = variant.getPrice();
-                variantName = variant.getName();
+                int variant = availability.variantIndex(itemRequest.getVariantId());
+                if (variant < 0 || availability.variantProduct(variant) != product) {
+                    throw new ResourceNotFoundException("Variant not found with id: " + itemRequest.getVariantId());
+                }
+                unitPrice = availability.variantPrice(variant);
+                variantName = availability.variantName(variant);
+                available = availability.isVariantAvailable(variant);
+            }
+
+            if (!available) {
+                throw new BadRequestException("Product not available: " + availability.productName(product)
+                        + (variantName != null ? " (" + variantName + ")" : ""));
             }
 
             BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
 
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
-                    .productId(product.getId())
-                    .productName(product.getName())
+                    .productId(itemRequest.getProductId())
+                    .productName(availability.productName(product))
                     .variantId(itemRequest.getVariantId())
                     .variantName(variantName)
                     .quantity(itemRequest.getQuantity())
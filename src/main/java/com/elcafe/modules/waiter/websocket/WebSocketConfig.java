@@ -1,5 +1,8 @@
 package com.elcafe.modules.waiter.websocket;
 
+import com.elcafe.config.websocket.RedisBrokerRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -12,20 +15,32 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+
     /**
      * Configure message broker
      * - /topic/waiter: Broadcast waiter-related updates
      * - /topic/kitchen: Broadcast kitchen updates
      * - /topic/table: Broadcast table status updates
      * - /app: Prefix for messages routed to @MessageMapping methods
+     * The broker is the in-memory one, optionally bridged between nodes over Redis
+     * (app.websocket.broker.mode)
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to send messages to clients
         config.enableSimpleBroker("/topic", "/queue");
 
+        RedisBrokerRelay relay = redisBrokerRelay.getIfAvailable();
+        if (relay != null) {
+            // Share what is sent to this node's broker with the other nodes, in order per client
+            config.configureBrokerChannel().interceptors(relay);
+            config.setPreservePublishOrder(true);
+        }
+
         // Define prefix for messages routed to @MessageMapping methods
         config.setApplicationDestinationPrefixes("/app");
 
@@ -28,7 +28,7 @@ public class WebSocketEventHandler {
     /**
      * Handle order created events and broadcast via WebSocket
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleOrderCreatedForWebSocket(OrderCreatedEvent event) {
         log.debug("Broadcasting order created event via WebSocket: {}", event.getOrderNumber());
@@ -63,7 +63,7 @@ public class WebSocketEventHandler {
     /**
      * Handle order submitted events and broadcast to kitchen
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleOrderSubmittedForWebSocket(OrderSubmittedEvent event) {
         log.debug("Broadcasting order submitted event via WebSocket: {}", event.getOrderNumber());
@@ -101,7 +101,7 @@ public class WebSocketEventHandler {
     /**
      * Handle order ready events and notify waiter
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleOrderReadyForWebSocket(OrderReadyEvent event) {
         log.debug("Broadcasting order ready event via WebSocket: {}", event.getOrderNumber());
@@ -139,7 +139,7 @@ public class WebSocketEventHandler {
     /**
      * Handle bill requested events
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleBillRequestedForWebSocket(BillRequestedEvent event) {
         log.debug("Broadcasting bill requested event via WebSocket: {}", event.getOrderNumber());
@@ -174,7 +174,7 @@ public class WebSocketEventHandler {
     /**
      * Handle order paid events
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleOrderPaidForWebSocket(OrderPaidEvent event) {
         log.debug("Broadcasting order paid event via WebSocket: {}", event.getOrderNumber());
@@ -210,7 +210,7 @@ public class WebSocketEventHandler {
     /**
      * Handle item added events
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleItemAddedForWebSocket(OrderItemAddedEvent event) {
         log.debug("Broadcasting item added event via WebSocket: {}", event.getOrderNumber());
@@ -233,7 +233,7 @@ public class WebSocketEventHandler {
     /**
      * Handle item removed events
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleItemRemovedForWebSocket(OrderItemRemovedEvent event) {
         log.debug("Broadcasting item removed event via WebSocket: {}", event.getOrderNumber());
@@ -257,7 +257,7 @@ public class WebSocketEventHandler {
     /**
      * Handle table status changed events and broadcast to all waiters
      */
-    @Async
+    @Async("websocketExecutor")
     @EventListener
     public void handleTableStatusChangedForWebSocket(TableStatusChangedEvent event) {
         log.debug("Broadcasting table status changed event via WebSocket: Table {}",
@@ -1,7 +1,6 @@
 package com.elcafe.security;
 
-import com.elcafe.modules.customer.entity.Customer;
-import com.elcafe.modules.customer.repository.CustomerRepository;
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +10,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,8 +21,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-    private final CustomerRepository customerRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -34,62 +32,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
+        final String jwt = authHeader.substring(7);
         try {
-            String tokenType = jwtUtil.extractTokenType(jwt);
-            username = jwtUtil.extractUsername(jwt);
+            // Parsed and verified once (or served from the verified-token cache); expired tokens throw
+            JwtClaims claims = jwtUtil.verify(jwt);
+            String username = claims.subject();
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails;
+            // Revoked consumer tokens (logout, sign-out elsewhere) stay unauthenticated; the local
+            // revocation filter answers without a remote call for tokens never revoked
+            if (claims.isConsumer() && tokenRevocationService.isRevoked(claims.tokenId())) {
+                logger.debug("Revoked JWT used for " + username);
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Principals come from the principal cache; the database is only read on a miss
+                UserDetails userDetails = claims.isConsumer()
+                        ? principalCache.getCustomer(username, claims.customerId())
+                        : principalCache.getUser(username);
 
-                // Handle consumer (customer) tokens
-                if ("consumer".equals(tokenType)) {
-                    Long customerId = jwtUtil.extractCustomerId(jwt);
-
-                    // Try to load full customer details if available
-                    Customer customer = customerRepository.findByPhone(username)
-                            .orElse(null);
-
-                    if (customer != null) {
-                        userDetails = CustomerPrincipal.create(customer);
-                    } else {
-                        // Create minimal principal from token claims
-                        userDetails = CustomerPrincipal.create(username, customerId);
-                    }
-
-                    // Validate token expiration
-                    if (!jwtUtil.isTokenExpired(jwt)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
-                } else {
-                    // Handle regular user tokens
-                    userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                // Deactivated accounts stay unauthenticated
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
+        } catch (ExpiredJwtException e) {
+            logger.debug("JWT expired: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
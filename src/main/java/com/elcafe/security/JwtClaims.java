@@ -0,0 +1,30 @@
+package com.elcafe.security;
+
+import java.time.Instant;
+
+/**
+ * Verified claims of a token, read once from its payload
+ */
+public record JwtClaims(String subject,
+                        String type,
+                        Long customerId,
+                        String tokenId,
+                        String sessionId,
+                        Instant issuedAt,
+                        Instant expiresAt) {
+
+    public static final String TYPE_CONSUMER = "consumer";
+    public static final String TYPE_REFRESH = "refresh";
+
+    public boolean isConsumer() {
+        return TYPE_CONSUMER.equals(type);
+    }
+
+    public boolean isRefresh() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
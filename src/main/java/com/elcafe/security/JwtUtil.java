@@ -1,67 +1,120 @@
 package com.elcafe.security;
 
+import com.elcafe.config.cache.LocalCacheStore;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once. A token is parsed and its signature checked once
+ * into {@link JwtClaims}; verified claims are kept in a bounded cache keyed by the SHA-256 of the
+ * token (never the token itself) until the token expires or the cache entry ages out, so repeated
+ * requests with the same token skip the HMAC and JSON work.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${app.security.jwt.secret}")
-    private String secret;
-
-    @Value("${app.security.jwt.access-token-expiration}")
-    private Long accessTokenExpiration;
+    private static final String SESSION_ID = "sid";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long accessTokenExpiration;
+    private final Long refreshTokenExpiration;
+
+    private final LocalCacheStore verifiedTokens;
+    private final Timer verifyTimer;
+    private final Counter cacheHits;
+
+    public JwtUtil(@Value("${app.security.jwt.secret}") String secret,
+                   @Value("${app.security.jwt.access-token-expiration}") Long accessTokenExpiration,
+                   @Value("${app.security.jwt.refresh-token-expiration}") Long refreshTokenExpiration,
+                   @Value("${app.security.jwt.verified-cache-size:10000}") Integer verifiedCacheSize,
+                   @Value("${app.security.jwt.verified-cache-ttl-seconds:300}") Long verifiedCacheTtlSeconds,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.verifiedTokens = new LocalCacheStore(verifiedCacheSize, Duration.ofSeconds(verifiedCacheTtlSeconds));
+        this.verifyTimer = meterRegistry.timer("security.jwt.verify");
+        this.cacheHits = meterRegistry.counter("security.jwt.verified.cache.hits");
+        Gauge.builder("security.jwt.verified.cache.size", verifiedTokens, LocalCacheStore::size).register(meterRegistry);
+    }
 
-    @Value("${app.security.jwt.refresh-token-expiration}")
-    private Long refreshTokenExpiration;
+    /**
+     * Claims of a token with a valid signature that has not expired
+     *
+     * @throws JwtException if the token is malformed, wrongly signed or expired
+     */
+    public JwtClaims verify(String token) {
+        String key = hash(token);
+        Instant now = Instant.now();
+        if (verifiedTokens.get(key) instanceof JwtClaims claims) {
+            if (!claims.isExpired(now)) {
+                cacheHits.increment();
+                return claims;
+            }
+            verifiedTokens.evict(key);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiresAt());
+        }
+
+        JwtClaims claims = verifyTimer.record(() -> toClaims(parser.parseSignedClaims(token).getPayload()));
+        verifiedTokens.put(key, claims);
+        return claims;
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Drop a token from the verified cache, e.g. once it is revoked
+     */
+    public void forget(String token) {
+        verifiedTokens.evict(hash(token));
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public String extractTokenType(String token) {
-        return extractClaim(token, claims -> claims.get("type", String.class));
+        return verify(token).type();
     }
 
     public Long extractCustomerId(String token) {
-        return extractClaim(token, claims -> claims.get("customerId", Long.class));
+        return verify(token).customerId();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return Date.from(verify(token).expiresAt());
     }
 
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        try {
+            return verify(token).isExpired(Instant.now());
+        } catch (ExpiredJwtException e) {
+            return true;
+        }
     }
 
     public String generateAccessToken(UserDetails userDetails) {
@@ -71,22 +124,61 @@ public class JwtUtil {
 
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put("type", JwtClaims.TYPE_REFRESH);
         return createToken(claims, userDetails.getUsername(), refreshTokenExpiration);
     }
 
+    /**
+     * Access token of a consumer signed in by OTP, identified by its own ID and that of its session
+     */
+    public String generateConsumerAccessToken(String phoneNumber, Long customerId, String sessionId,
+                                              String tokenId, Long expiration) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("customerId", customerId);
+        claims.put("type", JwtClaims.TYPE_CONSUMER);
+        claims.put(SESSION_ID, sessionId);
+        return createToken(claims, phoneNumber, tokenId, expiration);
+    }
+
     private String createToken(Map<String, Object> claims, String subject, Long expiration) {
+        return createToken(claims, subject, null, expiration);
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, String tokenId, Long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .id(tokenId)
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        JwtClaims claims = verify(token);
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
+    }
+
+    private static JwtClaims toClaims(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("type", String.class),
+                claims.get("customerId", Long.class),
+                claims.getId(),
+                claims.get(SESSION_ID, String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
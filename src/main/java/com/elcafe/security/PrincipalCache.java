@@ -0,0 +1,110 @@
+package com.elcafe.security;
+
+import com.elcafe.config.cache.TwoLevelCacheManager;
+import com.elcafe.event.PrincipalChangedEvent;
+import com.elcafe.modules.customer.repository.CustomerRepository;
+import com.elcafe.utils.PhoneNumbers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Authenticated principals by username, so the authentication filter does not query the database
+ * per request.
+ *
+ * Backed by the two-level "principal" cache: a short-lived in-process copy in front of Redis.
+ * Entries are evicted on every node after commit of a change to the account, and carry no
+ * password hash.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    public static final String CACHE = "principal";
+
+    private static final String USER_PREFIX = "user:";
+    private static final String CUSTOMER_PREFIX = "customer:";
+
+    private final TwoLevelCacheManager cacheManager;
+    private final UserDetailsService userDetailsService;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * Principal of a staff user
+     */
+    public UserDetails getUser(String username) {
+        return get(USER_PREFIX + username, UserDetails.class, () -> {
+            UserDetails loaded = userDetailsService.loadUserByUsername(username);
+            return loaded instanceof UserPrincipal principal ? principal.withoutPassword() : loaded;
+        });
+    }
+
+    /**
+     * Principal of a customer; from the token claims alone if there is no customer with that phone
+     */
+    public CustomerPrincipal getCustomer(String phone, Long customerId) {
+        String phoneE164 = PhoneNumbers.toE164(phone);
+        if (phoneE164 == null) {
+            return CustomerPrincipal.create(phone, customerId);
+        }
+        return get(CUSTOMER_PREFIX + phoneE164, CustomerPrincipal.class, () -> customerRepository.findByPhoneE164(phoneE164)
+                .map(CustomerPrincipal::create)
+                .orElseGet(() -> CustomerPrincipal.create(phone, customerId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE);
+        String prefix = event.isCustomer() ? CUSTOMER_PREFIX : USER_PREFIX;
+        for (String username : event.getUsernames()) {
+            // Customers are cached under their normalized phone number
+            String key = event.isCustomer() ? PhoneNumbers.toE164(username) : username;
+            if (key == null) {
+                continue;
+            }
+            try {
+                cache.evict(prefix + key);
+            } catch (RuntimeException e) {
+                // The entry still expires with the cache TTL
+                log.warn("Could not evict cached principal {}: {}", username, e.getMessage());
+            }
+        }
+    }
+
+    private <T> T get(String key, Class<T> type, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(CACHE);
+        Object cached;
+        try {
+            cached = cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof UsernameNotFoundException notFound) {
+                throw notFound;
+            }
+            log.warn("Principal cache unavailable, loading {} directly: {}", key, e.getMessage());
+            return loader.get();
+        } catch (RuntimeException e) {
+            log.warn("Principal cache unavailable, loading {} directly: {}", key, e.getMessage());
+            return loader.get();
+        }
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+
+        // Not readable as a principal, e.g. an entry written without its class: replace it
+        log.warn("Cached principal {} is a {}, reloading it", key, cached != null ? cached.getClass().getName() : null);
+        try {
+            cache.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not evict cached principal {}: {}", key, e.getMessage());
+        }
+        return loader.get();
+    }
+}
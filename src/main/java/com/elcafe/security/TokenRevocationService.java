@@ -0,0 +1,191 @@
+package com.elcafe.security;
+
+import com.elcafe.config.cache.LocalCacheStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access-token IDs.
+ *
+ * Revoked IDs are kept in one Redis sorted set scored by the expiry of their token, so expired
+ * entries are trimmed by score. Each node mirrors the set in a Bloom filter: a token the filter
+ * has never seen is not revoked, which answers nearly every request without leaving the process,
+ * and only possible hits are confirmed against Redis. Revocations reach the other nodes' filters
+ * over pub/sub right away, and every filter is rebuilt from the set at a fixed interval, which
+ * also drops expired IDs and catches up on messages a node missed.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    private static final String REVOKED_KEY = "auth:revoked";
+    private static final String CHANNEL = "auth:revocations";
+    private static final char SEPARATOR = '\t';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+
+    /** Identifies this node's own revocation messages */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Possible hits confirmed by Redis, so repeated use of a revoked token stays local */
+    private final LocalCacheStore confirmed = new LocalCacheStore(10_000, Duration.ofMinutes(5));
+
+    private volatile BloomFilter filter;
+    /** Filter being rebuilt; revocations during the rebuild go into both */
+    private BloomFilter rebuilding;
+
+    /** Held while adding an ID and while swapping filters, so no ID misses the new filter */
+    private final ReentrantLock swapLock = new ReentrantLock();
+
+    private final Counter remoteChecks;
+    private final Counter revocations;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  @Value("${app.security.revocation.expected-tokens:100000}") Integer expectedTokens,
+                                  @Value("${app.security.revocation.false-positive-rate:0.01}") Double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.remoteChecks = meterRegistry.counter("security.revocation.remote.checks");
+        this.revocations = meterRegistry.counter("security.revocation.revoked");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        rebuild();
+    }
+
+    /**
+     * Revoke an access token until it expires
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        try {
+            // Stored before it is announced, so a rebuild never misses an announced ID
+            redisTemplate.opsForZSet().add(REVOKED_KEY, tokenId, expiresAt.toEpochMilli());
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + tokenId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to share revocation of token {}: {}", tokenId, e.getMessage());
+        }
+        add(tokenId);
+        confirmed.put(tokenId, Boolean.TRUE);
+        revocations.increment();
+    }
+
+    /**
+     * Whether the access token with this ID was revoked. Asks Redis only when the local filter
+     * reports a possible hit.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (confirmed.get(tokenId) != null) {
+            return true;
+        }
+        remoteChecks.increment();
+        try {
+            Double expiresAt = redisTemplate.opsForZSet().score(REVOKED_KEY, tokenId);
+            boolean revoked = expiresAt != null && expiresAt > System.currentTimeMillis();
+            if (revoked) {
+                confirmed.put(tokenId, Boolean.TRUE);
+            }
+            return revoked;
+        } catch (RuntimeException e) {
+            // The filter says it may be revoked and Redis cannot say otherwise
+            log.warn("Cannot confirm revocation of token {}, treating it as revoked: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        add(body.substring(separator + 1));
+    }
+
+    /**
+     * Trim expired IDs and rebuild the local filter from the shared set
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval-ms:30000}",
+            initialDelayString = "${app.security.revocation.sync-interval-ms:30000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedTokens, falsePositiveRate);
+        swapLock.lock();
+        try {
+            rebuilding = next;
+        } finally {
+            swapLock.unlock();
+        }
+        boolean loaded = false;
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+            Set<String> revoked = redisTemplate.opsForZSet().range(REVOKED_KEY, 0, -1);
+            if (revoked != null) {
+                revoked.forEach(next::add);
+                if (revoked.size() > expectedTokens) {
+                    log.warn("{} revoked tokens exceed the {} the revocation filter is sized for", revoked.size(), expectedTokens);
+                }
+            }
+            loaded = true;
+        } catch (RuntimeException e) {
+            // Keep the current filter, which only ever gained entries
+            log.warn("Failed to rebuild the revoked token filter: {}", e.getMessage());
+        } finally {
+            swapLock.lock();
+            try {
+                if (loaded) {
+                    filter = next;
+                }
+                rebuilding = null;
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    private void add(String tokenId) {
+        // An ID added before the swap is in both filters, one added after it in the new one
+        swapLock.lock();
+        try {
+            filter.add(tokenId);
+            if (rebuilding != null) {
+                rebuilding.add(tokenId);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+}
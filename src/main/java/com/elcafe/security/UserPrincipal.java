@@ -2,8 +2,12 @@ package com.elcafe.security;
 
 import com.elcafe.modules.auth.entity.User;
 import com.elcafe.modules.auth.enums.UserRole;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,11 +19,18 @@ import java.util.Collections;
  * Custom UserDetails implementation that wraps the User entity
  */
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+// Cached as its fields only; the UserDetails getters are derived from them
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
 public class UserPrincipal implements UserDetails {
 
     private Long id;
     private String email;
+    @JsonIgnore
     private String password;
     private UserRole role;
     private boolean active;
@@ -37,6 +48,13 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /**
+     * Copy without the password hash, for caching
+     */
+    public UserPrincipal withoutPassword() {
+        return new UserPrincipal(id, email, null, role, active);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(
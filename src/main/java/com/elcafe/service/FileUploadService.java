@@ -1,29 +1,60 @@
 package com.elcafe.service;
 
+import com.elcafe.config.FileStorageProperties;
+import com.elcafe.exception.BadRequestException;
+import com.elcafe.modules.menu.repository.CategoryRepository;
+import com.elcafe.modules.menu.repository.MenuCollectionRepository;
+import com.elcafe.modules.menu.repository.ProductRepository;
+import com.elcafe.modules.restaurant.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
 
 /**
  * Service for handling file uploads (images for products, menus, etc.)
+ *
+ * Files are stored under the SHA-256 of their content, so uploading the same image twice stores
+ * it once and returns the same URL. Resized copies of images are written next to the original
+ * as {@code <hash>-<width>.jpg} (and {@code .webp}) by {@link ImageProcessingService}, or marked
+ * with an empty {@code <hash>.novariants} file if the image is too small for any. As one file can
+ * back several products, categories or restaurants, it is deleted only once none refers to it.
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileUploadService {
 
-    @Value("${app.file.upload-dir:uploads}")
-    private String uploadDir;
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+    public static final String DERIVATIVE_EXTENSION = ".jpg";
+    public static final String WEBP_EXTENSION = ".webp";
+    public static final String NO_VARIANTS_EXTENSION = ".novariants";
 
-    @Value("${app.file.base-url:http://localhost:8080/uploads}")
-    private String baseUrl;
+    private final FileStorageProperties properties;
+    private final ImageProcessingService imageProcessingService;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final MenuCollectionRepository menuCollectionRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Upload a file and return the URL
@@ -35,25 +66,50 @@ public class FileUploadService {
 
         try {
             // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, subfolder);
+            Path uploadPath = Paths.get(properties.getUploadDir(), subfolder);
             if (!Files.exists(uploadPath)) {
                 Files.createDirectories(uploadPath);
             }
 
-            // Generate unique filename
             String originalFilename = file.getOriginalFilename();
             String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                    ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase(Locale.ROOT)
                     : "";
-            String filename = UUID.randomUUID().toString() + extension;
 
-            // Save file
+            // Hash while copying, so the content is read once
+            Path tempFile = Files.createTempFile(uploadPath, "upload-", ".tmp");
+            String hash;
+            try (InputStream input = new DigestInputStream(file.getInputStream(), sha256())) {
+                Files.copy(input, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                hash = HexFormat.of().formatHex(((DigestInputStream) input).getMessageDigest().digest());
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+
+            String filename = hash + extension;
+            if (isImage(filename) && imageProcessingService.exceedsPixelLimit(tempFile)) {
+                Files.deleteIfExists(tempFile);
+                meterRegistry.counter("file.upload.rejected").increment();
+                throw new BadRequestException("Image is larger than " + properties.getImage().getMaxPixels() + " pixels");
+            }
             Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            String fileUrl = String.format("%s/%s/%s", properties.getBaseUrl(), subfolder, filename);
 
-            // Return URL
-            String fileUrl = String.format("%s/%s/%s", baseUrl, subfolder, filename);
-            log.info("File uploaded successfully: {}", fileUrl);
+            if (!store(tempFile, filePath)) {
+                meterRegistry.counter("file.upload.deduplicated").increment();
+                log.info("File already stored: {}", fileUrl);
+                if (!isImage(filename) || findImageWidths(fileUrl) != null || Files.exists(noVariantsMarker(filePath))) {
+                    return fileUrl;
+                }
+            } else {
+                meterRegistry.counter("file.upload.stored").increment();
+                log.info("File uploaded successfully: {}", fileUrl);
+            }
+
+            if (isImage(filename) && Boolean.TRUE.equals(properties.getImage().getDerivativesEnabled())) {
+                imageProcessingService.generateVariants(filePath, fileUrl);
+            }
             return fileUrl;
 
         } catch (IOException e) {
@@ -63,22 +119,139 @@ public class FileUploadService {
     }
 
     /**
-     * Delete a file
+     * Delete a file and its resized copies, unless something still refers to it
+     *
+     * @return false if the file was kept because it is in use
      */
-    public void deleteFile(String fileUrl) {
+    public boolean deleteFile(String fileUrl) {
         try {
-            // Extract filename from URL
-            String filename = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
-            String subfolder = fileUrl.substring(baseUrl.length() + 1, fileUrl.lastIndexOf("/"));
-
-            Path filePath = Paths.get(uploadDir, subfolder, filename);
+            Path filePath = resolve(fileUrl);
+            if (filePath == null) {
+                throw new RuntimeException("Not an uploaded file: " + fileUrl);
+            }
+            if (isReferenced(fileUrl)) {
+                meterRegistry.counter("file.delete.skipped").increment();
+                log.info("File still in use, not deleted: {}", fileUrl);
+                return false;
+            }
             Files.deleteIfExists(filePath);
+            for (Integer width : properties.getImage().getWidths()) {
+                Files.deleteIfExists(derivativePath(filePath, width, DERIVATIVE_EXTENSION));
+                Files.deleteIfExists(derivativePath(filePath, width, WEBP_EXTENSION));
+            }
+            Files.deleteIfExists(noVariantsMarker(filePath));
 
             log.info("File deleted successfully: {}", fileUrl);
+            return true;
 
         } catch (IOException e) {
             log.error("Failed to delete file: {}", e.getMessage());
             throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Widths of the resized copies of an uploaded image, comma separated; null if there are none
+     */
+    public String findImageWidths(String imageUrl) {
+        Path filePath = resolve(imageUrl);
+        if (filePath == null || !isImage(filePath.getFileName().toString())) {
+            return null;
+        }
+        StringJoiner widths = new StringJoiner(",");
+        properties.getImage().getWidths().stream().sorted().forEach(width -> {
+            if (Files.exists(derivativePath(filePath, width, DERIVATIVE_EXTENSION))) {
+                widths.add(String.valueOf(width));
+            }
+        });
+        return widths.length() > 0 ? widths.toString() : null;
+    }
+
+    /**
+     * URL of the copy of an image best suited for menu lists, or the image itself if it has no copies
+     */
+    public String thumbnailUrl(String imageUrl, String imageWidths) {
+        return sizedImageUrl(imageUrl, imageWidths, properties.getImage().getThumbnailWidth());
+    }
+
+    /**
+     * URL of the smallest copy of an image at least {@code width} wide (the largest copy if all are
+     * narrower), or the image itself if it has no copies
+     */
+    public String sizedImageUrl(String imageUrl, String imageWidths, int width) {
+        if (imageUrl == null || imageWidths == null || imageWidths.isBlank() || !imageUrl.contains(".")) {
+            return imageUrl;
+        }
+        List<Integer> widths = Arrays.stream(imageWidths.split(",")).map(String::trim).map(Integer::valueOf).sorted().toList();
+        int chosen = widths.stream().filter(w -> w >= width).findFirst().orElse(widths.get(widths.size() - 1));
+        return imageUrl.substring(0, imageUrl.lastIndexOf('.')) + "-" + chosen + DERIVATIVE_EXTENSION;
+    }
+
+    /**
+     * Path of the copy of an original image at the given width
+     */
+    public static Path derivativePath(Path original, int width, String extension) {
+        String filename = original.getFileName().toString();
+        String name = filename.contains(".") ? filename.substring(0, filename.lastIndexOf('.')) : filename;
+        return original.resolveSibling(name + "-" + width + extension);
+    }
+
+    /**
+     * Path of the marker recording that an original image needs no resized copies
+     */
+    public static Path noVariantsMarker(Path original) {
+        String filename = original.getFileName().toString();
+        String name = filename.contains(".") ? filename.substring(0, filename.lastIndexOf('.')) : filename;
+        return original.resolveSibling(name + NO_VARIANTS_EXTENSION);
+    }
+
+    /**
+     * Whether any product, category, collection or restaurant uses the file; uploads are
+     * deduplicated, so the one deleting it may not be the only one
+     */
+    private boolean isReferenced(String fileUrl) {
+        return productRepository.existsByImageUrl(fileUrl)
+                || categoryRepository.existsByImageUrl(fileUrl)
+                || menuCollectionRepository.existsByImageUrl(fileUrl)
+                || restaurantRepository.existsByLogoUrlOrBannerUrl(fileUrl, fileUrl);
+    }
+
+    /**
+     * Move a freshly written file to its content-addressed path; false if that content was stored already
+     */
+    private boolean store(Path tempFile, Path filePath) throws IOException {
+        if (Files.exists(filePath)) {
+            Files.deleteIfExists(tempFile);
+            return false;
+        }
+        try {
+            Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Same content uploaded concurrently
+            Files.deleteIfExists(tempFile);
+            return false;
+        }
+    }
+
+    private Path resolve(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(properties.getBaseUrl() + "/")) {
+            return null;
+        }
+        Path root = Paths.get(properties.getUploadDir()).toAbsolutePath().normalize();
+        Path filePath = root.resolve(fileUrl.substring(properties.getBaseUrl().length() + 1)).normalize();
+        return filePath.startsWith(root) ? filePath : null;
+    }
+
+    private static boolean isImage(String filename) {
+        return filename.contains(".") && IMAGE_EXTENSIONS.contains(filename.substring(filename.lastIndexOf('.')));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package com.elcafe.service;
+
+import com.elcafe.config.FileStorageProperties;
+import com.elcafe.event.ImageVariantsReadyEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes resized copies of uploaded images at the configured widths.
+ *
+ * Runs on the bounded image executor, off the upload request. Copies are JPEG; WebP copies are
+ * written as well when an ImageIO WebP writer is available (the JDK has none). Images are scaled
+ * down in halving steps, which keeps bilinear filtering sharp without a scaling library. Images
+ * whose header declares more than {@code app.file.image.max-pixels} are never decoded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageProcessingService {
+
+    private final FileStorageProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Async("imageProcessingExecutor")
+    public void generateVariants(Path original, String imageUrl) {
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                log.warn("Cannot decode image {} or it is too large, no resized copies written", imageUrl);
+                markNoVariants(original);
+                return;
+            }
+
+            StringJoiner widths = new StringJoiner(",");
+            AtomicBoolean failed = new AtomicBoolean();
+            meterRegistry.timer("file.image.resize").record(() -> properties.getImage().getWidths().stream()
+                    .sorted()
+                    .filter(width -> width < source.getWidth())
+                    .forEach(width -> {
+                        try {
+                            writeVariants(source, original, width);
+                            widths.add(String.valueOf(width));
+                        } catch (IOException e) {
+                            failed.set(true);
+                            log.error("Failed to write {} px copy of {}: {}", width, imageUrl, e.getMessage());
+                        }
+                    }));
+
+            if (widths.length() > 0) {
+                log.info("Wrote resized copies of {} at widths {}", imageUrl, widths);
+                eventPublisher.publishEvent(new ImageVariantsReadyEvent(this, imageUrl, widths.toString()));
+            } else if (!failed.get()) {
+                // Narrower than every width: re-uploads of it need not be resized again
+                markNoVariants(original);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to resize image {}: {}", imageUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the image's header declares more pixels than allowed. Files no ImageIO reader
+     * recognizes, or whose header cannot be read, are left to fail when decoded.
+     */
+    public boolean exceedsPixelLimit(Path image) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(image.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) {
+                return false;
+            }
+            try {
+                return exceedsPixelLimit(reader);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decode the image, or null if no reader recognizes it or it has more pixels than allowed
+     */
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                return exceedsPixelLimit(reader) ? null : reader.read(0, reader.getDefaultReadParam());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private boolean exceedsPixelLimit(ImageReader reader) throws IOException {
+        return (long) reader.getWidth(0) * reader.getHeight(0) > properties.getImage().getMaxPixels();
+    }
+
+    private static ImageReader readerFor(ImageInputStream input) {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private void markNoVariants(Path original) throws IOException {
+        try {
+            Files.createFile(FileUploadService.noVariantsMarker(original));
+        } catch (FileAlreadyExistsException e) {
+            // Marked by a concurrent upload of the same image
+        }
+    }
+
+    private void writeVariants(BufferedImage source, Path original, int width) throws IOException {
+        BufferedImage resized = resize(source, width);
+        write(resized, "jpeg", FileUploadService.derivativePath(original, width, FileUploadService.DERIVATIVE_EXTENSION));
+        if (Boolean.TRUE.equals(properties.getImage().getWebpEnabled()) && ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            write(resized, "webp", FileUploadService.derivativePath(original, width, FileUploadService.WEBP_EXTENSION));
+        }
+        meterRegistry.counter("file.image.variants").increment();
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No " + format + " writer");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(properties.getImage().getJpegQuality());
+        }
+
+        // Written aside and moved, so the copy is never served half written
+        Path tempFile = Files.createTempFile(target.getParent(), "resize-", ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        boolean first = true;
+        do {
+            int nextWidth = Math.max(width, currentWidth / 2);
+            int nextHeight = Math.max(1, (int) Math.round((double) source.getHeight() * nextWidth / source.getWidth()));
+            // JPEG has no alpha: paint transparent areas white on the first step
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (first) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, nextWidth, nextHeight);
+                }
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            first = false;
+        } while (currentWidth > width);
+        return current;
+    }
+}
@@ -0,0 +1,242 @@
+package com.elcafe.service;
+
+import com.elcafe.config.FileStorageProperties;
+import com.elcafe.config.cache.LocalCacheStore;
+import com.elcafe.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded files without reading them into the heap.
+ *
+ * Bodies go through the connector's sendfile when it supports it (Tomcat NIO does), so the kernel
+ * copies the file to the socket and the request thread is released right away; otherwise the file
+ * channel is transferred to the response in the connector's own buffer sizes. Every file is
+ * immutable under its name, so responses carry a strong ETag of its content and may be cached for
+ * a year. Single byte ranges are honoured; multiple ranges are answered with the whole file.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Names given by {@link FileUploadService}: the content hash, optionally with the width of a copy */
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(-\\d+)?\\.[A-Za-z0-9]+");
+
+    /** Marks a range that starts past the end of the file */
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final FileStorageProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /** Content hashes of files stored before uploads were content addressed */
+    private final LocalCacheStore legacyHashes = new LocalCacheStore(10_000, Duration.ofDays(1));
+
+    /**
+     * Write an uploaded file, given by its path below the upload directory, to the response
+     */
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(relativePath);
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File", "path", relativePath);
+        }
+
+        // Resized copies: send the WebP copy to clients that take it
+        String filename = file.getFileName().toString();
+        if (filename.endsWith(FileUploadService.DERIVATIVE_EXTENSION)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            Path webp = file.resolveSibling(filename.substring(0, filename.length()
+                    - FileUploadService.DERIVATIVE_EXTENSION.length()) + FileUploadService.WEBP_EXTENSION);
+            String accept = request.getHeader(HttpHeaders.ACCEPT);
+            if (accept != null && accept.contains("image/webp") && Files.isRegularFile(webp)) {
+                file = webp;
+            }
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        String eTag = eTag(file, attributes);
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + properties.getCacheMaxAgeSeconds() + ", immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            meterRegistry.counter("media.not.modified").increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                length = bounds[1] - bounds[0] + 1;
+                meterRegistry.counter("media.range.requests").increment();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+            }
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (length >= properties.getSendfileMinBytes() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            meterRegistry.counter("media.bytes.served", "transfer", "sendfile").increment(length);
+            return;
+        }
+        transfer(file, start, length, response);
+    }
+
+    private void transfer(Path file, long start, long length, HttpServletResponse response) {
+        long end = start + length;
+        long position = start;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, output);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        } catch (IOException e) {
+            // Usually the client went away mid-transfer
+            log.debug("Transfer of {} stopped after {} bytes: {}", file.getFileName(), position - start, e.getMessage());
+        } finally {
+            meterRegistry.counter("media.bytes.served", "transfer", "channel").increment(position - start);
+        }
+    }
+
+    private String eTag(Path file, BasicFileAttributes attributes) throws IOException {
+        String filename = file.getFileName().toString();
+        if (CONTENT_ADDRESSED.matcher(filename).matches()) {
+            return "\"" + filename + "\"";
+        }
+
+        String key = file + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        if (legacyHashes.get(key) instanceof String hash) {
+            return hash;
+        }
+        String hash;
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), sha256())) {
+            input.transferTo(OutputStream.nullOutputStream());
+            hash = "\"" + HexFormat.of().formatHex(((DigestInputStream) input).getMessageDigest().digest()) + "\"";
+        }
+        legacyHashes.put(key, hash);
+        return hash;
+    }
+
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return null;
+        }
+        Path root = Paths.get(properties.getUploadDir()).toAbsolutePath().normalize();
+        Path file = root.resolve(relativePath).normalize();
+        return file.startsWith(root) && !file.equals(root) ? file : null;
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as If-None-Match asks for
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * First and last byte of a single-range header; null to send the whole file,
+     * {@link #UNSATISFIABLE} if the range starts past the end
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return start <= end ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
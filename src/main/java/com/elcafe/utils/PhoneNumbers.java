@@ -0,0 +1,54 @@
+package com.elcafe.utils;
+
+/**
+ * Phone number normalization shared by customer lookup, login and ordering
+ */
+public final class PhoneNumbers {
+
+    /** Country code assumed for national numbers */
+    public static final String DEFAULT_COUNTRY_CODE = "998";
+
+    private static final int NATIONAL_NUMBER_LENGTH = 9;
+    private static final int MAX_DIGITS = 15;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * E.164 form of a phone number as typed: separators dropped, a {@code 00} prefix read as
+     * {@code +}, and nine-digit national numbers given the default country code.
+     *
+     * @return null if the input holds no digits or more than E.164 allows
+     */
+    public static String toE164(String phone) {
+        if (phone == null) {
+            return null;
+        }
+
+        StringBuilder digits = new StringBuilder(MAX_DIGITS + 1).append('+');
+        boolean international = false;
+        boolean leading = true;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+                leading = false;
+            } else if (c == '+' && leading) {
+                international = true;
+            }
+        }
+
+        int count = digits.length() - 1;
+        if (count == 0) {
+            return null;
+        }
+        if (!international) {
+            if (count > 2 && digits.charAt(1) == '0' && digits.charAt(2) == '0') {
+                digits.delete(1, 3);
+            } else if (count == NATIONAL_NUMBER_LENGTH) {
+                digits.insert(1, DEFAULT_COUNTRY_CODE);
+            }
+        }
+        return digits.length() - 1 > MAX_DIGITS ? null : digits.toString();
+    }
+}
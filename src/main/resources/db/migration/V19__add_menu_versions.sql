@@ -0,0 +1,23 @@
+-- Migration V19: Menu versioning
+-- A per-restaurant menu version bumped by every menu write, plus a change log so clients
+-- holding an older version can fetch only what changed since
+
+CREATE TABLE menu_versions (
+    restaurant_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (restaurant_id) REFERENCES restaurants(id) ON DELETE CASCADE
+);
+
+CREATE TABLE menu_changes (
+    id BIGSERIAL PRIMARY KEY,
+    restaurant_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(30) NOT NULL, -- CATEGORY, PRODUCT, ADD_ON_GROUP
+    entity_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (restaurant_id) REFERENCES restaurants(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_menu_changes_restaurant_version ON menu_changes(restaurant_id, version);
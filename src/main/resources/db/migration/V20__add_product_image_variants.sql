@@ -0,0 +1,7 @@
+-- Migration V20: Resized product images
+-- Widths of the resized copies written for a product's image, so menus can link the copy
+-- that fits instead of the full-size upload
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS image_variants VARCHAR(100);
+
+CREATE INDEX IF NOT EXISTS idx_products_image_url ON products(image_url);
@@ -0,0 +1,33 @@
+-- Migration V21: Normalized customer phone numbers
+-- The E.164 form of each customer's phone, unique so concurrent orders and logins from one number
+-- resolve to one customer. Existing duplicates keep their rows; only the oldest gets the number.
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS phone_e164 VARCHAR(20);
+
+WITH digits AS (
+    SELECT id,
+           btrim(phone) LIKE '+%' AS international,
+           regexp_replace(phone, '[^0-9]', '', 'g') AS number
+    FROM customers
+), normalized AS (
+    SELECT id,
+           CASE
+               WHEN number = '' THEN NULL
+               WHEN international THEN '+' || number
+               WHEN number LIKE '00_%' THEN '+' || substr(number, 3)
+               WHEN length(number) = 9 THEN '+998' || number
+               ELSE '+' || number
+           END AS phone_e164
+    FROM digits
+), ranked AS (
+    SELECT id, phone_e164,
+           row_number() OVER (PARTITION BY phone_e164 ORDER BY id) AS position
+    FROM normalized
+    WHERE phone_e164 IS NOT NULL AND length(phone_e164) <= 16
+)
+UPDATE customers c
+SET phone_e164 = ranked.phone_e164
+FROM ranked
+WHERE c.id = ranked.id AND ranked.position = 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_phone_e164 ON customers(phone_e164);
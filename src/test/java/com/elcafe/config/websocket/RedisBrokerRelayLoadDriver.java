@@ -0,0 +1,209 @@
+package com.elcafe.config.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load driver for {@link RedisBrokerRelay} alone, without the rest of the application.
+ *
+ * Starts several relays in one JVM, each with its own Redis connections and a broker channel
+ * that records what it receives, and has producer threads on every node send messages to
+ * {@code /topic/table.<n>} at a fixed total rate. After a warm-up, reports what was published
+ * and delivered, deliveries out of order per sender and destination, and the latency from send
+ * to delivery on the other nodes. Exits with status 1 if a message measured is missing or out
+ * of order.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.elcafe.config.websocket.RedisBrokerRelayLoadDriver [redis host:port] [nodes] [messages/s] [seconds] [destinations]
+ * </pre>
+ */
+public final class RedisBrokerRelayLoadDriver {
+
+    private static final int PRODUCERS_PER_NODE = 2;
+    private static final int WARM_UP_SECONDS = 20;
+    private static final int HEADER_BYTES = 24;
+    private static final int PAYLOAD_BYTES = 264;
+
+    private RedisBrokerRelayLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] redis = (args.length > 0 ? args[0] : "localhost:6379").split(":");
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int rate = args.length > 2 ? Integer.parseInt(args[2]) : 12_000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int destinations = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+
+        long measureFrom = System.nanoTime() + (WARM_UP_SECONDS + 1) * 1_000_000_000L;
+        Node[] cluster = new Node[nodes];
+        for (int i = 0; i < nodes; i++) {
+            cluster[i] = new Node(redis[0], Integer.parseInt(redis[1]), nodes, destinations, measureFrom,
+                    (long) rate * seconds);
+        }
+        Thread.sleep(1000);
+
+        long[][] sequences = new long[nodes][destinations];
+        AtomicLong sent = new AtomicLong();
+        long end = measureFrom + seconds * 1_000_000_000L;
+        int perMillisecond = Math.max(1, rate / (nodes * PRODUCERS_PER_NODE * 1000));
+        List<Thread> producers = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            for (int p = 0; p < PRODUCERS_PER_NODE; p++) {
+                int from = node;
+                SplittableRandom random = new SplittableRandom(node * 31L + p);
+                producers.add(Thread.ofPlatform().start(() -> {
+                    long tick = System.nanoTime();
+                    while (tick < end) {
+                        for (int j = 0; j < perMillisecond; j++) {
+                            int destination = random.nextInt(destinations);
+                            // Sequence and send in one step, so each destination is sent in sequence order
+                            synchronized (sequences[from]) {
+                                cluster[from].send(from, destination, ++sequences[from][destination]);
+                            }
+                            if (System.nanoTime() >= measureFrom) {
+                                sent.incrementAndGet();
+                            }
+                        }
+                        // Hold the rate rather than catch up on ticks missed while descheduled
+                        tick = Math.max(tick + 1_000_000L, System.nanoTime() - 1_000_000L);
+                        LockSupport.parkNanos(tick - System.nanoTime());
+                    }
+                }));
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        double elapsed = (System.nanoTime() - measureFrom) / 1e9;
+        Thread.sleep(10_000);
+
+        long published = 0, received = 0, dropped = 0, batches = 0, delivered = 0, outOfOrder = 0;
+        long[] latencies = new long[0];
+        for (Node node : cluster) {
+            published += node.count("websocket.relay.messages", "published");
+            received += node.count("websocket.relay.messages", "received");
+            dropped += node.count("websocket.relay.messages", "dropped");
+            batches += (long) node.registry.get("websocket.relay.batches").counter().count();
+            outOfOrder += node.outOfOrder.get();
+            int samples = Math.min(node.measured.get(), node.latencies.length);
+            delivered += samples;
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + samples);
+            System.arraycopy(node.latencies, 0, latencies, offset, samples);
+            node.relay.shutdown();
+            node.connectionFactory.destroy();
+        }
+        Arrays.sort(latencies);
+        // A message sent while the window opened may be counted on one side only
+        long expected = sent.get() * (nodes - 1);
+
+        System.out.printf("nodes=%d destinations=%d target=%d msg/s, measured %.0f s after %d s warm-up%n",
+                nodes, destinations, rate, elapsed, WARM_UP_SECONDS);
+        System.out.printf("sent %d (%.0f msg/s), published %d in %d batches (%.1f per batch), dropped %d, received %d%n",
+                sent.get(), sent.get() / elapsed, published, batches, published / (double) Math.max(1, batches),
+                dropped, received);
+        System.out.printf("measured deliveries %d of %d, out of order %d%n", delivered, expected, outOfOrder);
+        System.out.printf("latency ms: p50 %.2f, p95 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), percentile(latencies, 1.0));
+
+        boolean ok = outOfOrder == 0 && expected - delivered <= nodes * destinations;
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1e6;
+    }
+
+    /**
+     * One relay with a broker channel that records latency and order of what it receives
+     */
+    private static final class Node {
+
+        private final LettuceConnectionFactory connectionFactory;
+        private final MeterRegistry registry = new SimpleMeterRegistry();
+        private final RedisBrokerRelay relay;
+        private final long[] latencies;
+        private final AtomicInteger measured = new AtomicInteger();
+        private final AtomicLong outOfOrder = new AtomicLong();
+        private final long[] lastSequences;
+        private final int destinations;
+        private final long measureFrom;
+
+        private Node(String host, int port, int nodes, int destinations, long measureFrom, long capacity) {
+            this.destinations = destinations;
+            this.measureFrom = measureFrom;
+            this.latencies = new long[(int) Math.min(Integer.MAX_VALUE - 8, capacity)];
+            this.lastSequences = new long[nodes * destinations];
+
+            connectionFactory = new LettuceConnectionFactory(host, port);
+            connectionFactory.afterPropertiesSet();
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            redisTemplate.afterPropertiesSet();
+            MessageChannel broker = (message, timeout) -> {
+                receive((byte[]) message.getPayload());
+                return true;
+            };
+            relay = new RedisBrokerRelay(new WebSocketBrokerProperties(), redisTemplate, connectionFactory,
+                    new ObjectMapper(), broker, registry);
+            relay.subscribe();
+        }
+
+        private void send(int from, int destination, long sequence) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination("/topic/table." + destination);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            byte[] payload = ByteBuffer.allocate(HEADER_BYTES + PAYLOAD_BYTES)
+                    .putLong(System.nanoTime()).putInt(from).putInt(destination).putLong(sequence)
+                    .array();
+            Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+            relay.preSend(message, (sentMessage, timeout) -> true);
+        }
+
+        /**
+         * Called on the subscription thread, which reads every channel of this node
+         */
+        private void receive(byte[] payload) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            long sentAt = buffer.getLong();
+            int slot = buffer.getInt() * destinations + buffer.getInt();
+            long sequence = buffer.getLong();
+            if (sequence <= lastSequences[slot]) {
+                outOfOrder.incrementAndGet();
+            }
+            lastSequences[slot] = sequence;
+            if (sentAt >= measureFrom) {
+                int index = measured.getAndIncrement();
+                if (index < latencies.length) {
+                    latencies[index] = System.nanoTime() - sentAt;
+                }
+            }
+        }
+
+        private long count(String name, String outcome) {
+            return (long) registry.get(name).tag("outcome", outcome).counter().count();
+        }
+    }
+}
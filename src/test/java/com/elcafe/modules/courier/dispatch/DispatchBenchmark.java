@@ -0,0 +1,109 @@
+package com.elcafe.modules.courier.dispatch;
+
+import com.elcafe.modules.courier.config.DispatchProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Offline benchmark of {@link DispatchMatcher} on synthetic orders and couriers spread around
+ * the city center. Runs without Spring, database or Redis. Part of the test sources, so it is not
+ * packaged with the application:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.elcafe.modules.courier.dispatch.DispatchBenchmark [orders] [couriers] [restaurants]
+ * </pre>
+ */
+public final class DispatchBenchmark {
+
+    private static final double CENTER_LAT = 41.3111;
+    private static final double CENTER_LON = 69.2797;
+    private static final double SPREAD_DEG = 0.08; // ~9 km
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private DispatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int courierCount = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int restaurantCount = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+
+        DispatchMatcher matcher = new DispatchMatcher(new DispatchProperties());
+        long now = System.currentTimeMillis();
+        Random random = new Random(42);
+
+        List<DispatchOrder> orders = syntheticOrders(random, orderCount, restaurantCount, now);
+        List<DispatchCourier> couriers = syntheticCouriers(random, courierCount);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            matcher.match(new ArrayList<>(orders), couriers, now);
+        }
+
+        List<DispatchAssignment> result = List.of();
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            result = matcher.match(new ArrayList<>(orders), couriers, now);
+        }
+        double avgMillis = (System.nanoTime() - started) / 1_000_000.0 / MEASURED_ROUNDS;
+
+        int assignedOrders = result.stream().mapToInt(a -> a.getOrderIds().size()).sum();
+        double pickupKm = result.stream().mapToDouble(DispatchAssignment::getPickupKm).sum();
+        double lateness = result.stream().mapToDouble(DispatchAssignment::getLatenessMinutes).sum();
+
+        System.out.printf("orders=%d couriers=%d restaurants=%d%n", orderCount, courierCount, restaurantCount);
+        System.out.printf("avg cycle: %.2f ms%n", avgMillis);
+        System.out.printf("batches assigned: %d, orders assigned: %d%n", result.size(), assignedOrders);
+        System.out.printf("total pickup: %.1f km, total lateness: %.1f min%n", pickupKm, lateness);
+    }
+
+    static List<DispatchOrder> syntheticOrders(Random random, int count, int restaurantCount, long now) {
+        double[][] restaurants = new double[restaurantCount][];
+        for (int r = 0; r < restaurantCount; r++) {
+            restaurants[r] = randomPoint(random);
+        }
+
+        List<DispatchOrder> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int r = random.nextInt(restaurantCount);
+            double[] drop = randomPoint(random);
+            long readyAt = now - random.nextInt(10 * 60_000);
+            orders.add(DispatchOrder.builder()
+                    .orderId((long) i + 1)
+                    .restaurantId((long) r + 1)
+                    .pickupLatitude(restaurants[r][0])
+                    .pickupLongitude(restaurants[r][1])
+                    .dropLatitude(drop[0])
+                    .dropLongitude(drop[1])
+                    .readyAtMillis(readyAt)
+                    .promisedAtMillis(readyAt + (15 + random.nextInt(30)) * 60_000L)
+                    .build());
+        }
+        return orders;
+    }
+
+    static List<DispatchCourier> syntheticCouriers(Random random, int count) {
+        List<DispatchCourier> couriers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double[] position = randomPoint(random);
+            couriers.add(DispatchCourier.builder()
+                    .courierId((long) i + 1)
+                    .latitude(position[0])
+                    .longitude(position[1])
+                    .build());
+        }
+        return couriers;
+    }
+
+    private static double[] randomPoint(Random random) {
+        return new double[]{
+                CENTER_LAT + (random.nextDouble() * 2 - 1) * SPREAD_DEG,
+                CENTER_LON + (random.nextDouble() * 2 - 1) * SPREAD_DEG
+        };
+    }
+}
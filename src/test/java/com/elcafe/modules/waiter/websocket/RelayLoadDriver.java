@@ -0,0 +1,222 @@
+package com.elcafe.modules.waiter.websocket;
+
+import com.elcafe.modules.waiter.websocket.dto.TableStatusMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Load driver for the Redis relay between the STOMP brokers of several nodes (broker mode redis).
+ *
+ * Connects clients round-robin to the given nodes and subscribes them all to /topic/table, then
+ * has some of them send table status updates to /app/table/status, which each node broadcasts to
+ * its broker. Every client should receive every update, whichever node it is connected to.
+ * Reports deliveries and latency, then checks the relay metrics of the nodes:
+ * websocket.relay.messages (published, received, dropped) and websocket.relay.pending. Exits
+ * with status 1 if a delivery is missing or the counters do not add up. Expects freshly started
+ * nodes with no other WebSocket traffic; see scripts/websocket-relay-load.sh, which starts them.
+ *
+ * <pre>
+ * LOAD_TOKEN=&lt;admin access token&gt; java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.elcafe.modules.waiter.websocket.RelayLoadDriver http://localhost:8081,http://localhost:8082 [clients] [senders] [messages]
+ * </pre>
+ */
+public final class RelayLoadDriver {
+
+    private static final String TOPIC = "/topic/table";
+    private static final String SEND_DESTINATION = "/app/table/status";
+    private static final long DELIVERY_TIMEOUT_SECONDS = 60;
+
+    private RelayLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: RelayLoadDriver <node URLs, comma separated> [clients] [senders] [messages per sender]");
+            System.exit(2);
+        }
+        List<String> nodes = Arrays.stream(args[0].split(",")).map(String::trim).toList();
+        int clientCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int senderCount = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int messagesPerSender = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        String token = System.getenv("LOAD_TOKEN");
+        if (token == null || token.isBlank()) {
+            System.err.println("LOAD_TOKEN must hold an access token");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(converter);
+        stompClient.setTaskScheduler(scheduler);
+
+        long expected = (long) senderCount * messagesPerSender * clientCount;
+        AtomicLong delivered = new AtomicLong();
+        AtomicLongArray deliveredPerNode = new AtomicLongArray(nodes.size());
+        Map<Long, Long> sentAt = new ConcurrentHashMap<>();
+        long[] latencies = new long[(int) Math.min(expected, Integer.MAX_VALUE - 8)];
+        AtomicLong latencyCount = new AtomicLong();
+
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add("Authorization", "Bearer " + token);
+        List<StompSession> sessions = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            int node = i % nodes.size();
+            String url = nodes.get(node).replaceFirst("^http", "ws") + "/ws-waiter/websocket";
+            StompSession session = stompClient.connectAsync(url, handshakeHeaders, new StompSessionHandlerAdapter() {
+            }).get(10, TimeUnit.SECONDS);
+            session.subscribe(TOPIC, new StompFrameHandler() {
+                @Override
+                @NonNull
+                public Type getPayloadType(@NonNull StompHeaders headers) {
+                    return TableStatusMessage.class;
+                }
+
+                @Override
+                public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                    TableStatusMessage message = (TableStatusMessage) payload;
+                    Long sent = message.getTableId() != null ? sentAt.get(message.getTableId()) : null;
+                    if (sent != null) {
+                        long index = latencyCount.getAndIncrement();
+                        if (index < latencies.length) {
+                            latencies[(int) index] = System.nanoTime() - sent;
+                        }
+                    }
+                    deliveredPerNode.incrementAndGet(node);
+                    delivered.incrementAndGet();
+                }
+            });
+            sessions.add(session);
+        }
+        // Let the subscriptions reach the brokers before anything is sent
+        Thread.sleep(1000);
+        System.out.printf("connected %d clients to %d nodes%n", clientCount, nodes.size());
+
+        long started = System.nanoTime();
+        List<Thread> senders = new ArrayList<>(senderCount);
+        for (int s = 0; s < senderCount; s++) {
+            // Senders are spread over the nodes as well
+            StompSession session = sessions.get(s % sessions.size());
+            int sender = s;
+            senders.add(Thread.ofPlatform().start(() -> {
+                for (int m = 0; m < messagesPerSender; m++) {
+                    long id = (long) sender * messagesPerSender + m;
+                    sentAt.put(id, System.nanoTime());
+                    session.send(SEND_DESTINATION, TableStatusMessage.builder()
+                            .tableId(id)
+                            .tableNumber(sender)
+                            .status("OCCUPIED")
+                            .build());
+                }
+            }));
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DELIVERY_TIMEOUT_SECONDS);
+        while (delivered.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+        scheduler.shutdown();
+
+        int measured = (int) Math.min(latencyCount.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, measured);
+        Arrays.sort(sorted);
+        System.out.printf("sent %d messages, delivered %d of %d in %.2f s (%.0f deliveries/s)%n",
+                senderCount * messagesPerSender, delivered.get(), expected, seconds, delivered.get() / seconds);
+        for (int node = 0; node < nodes.size(); node++) {
+            System.out.printf("  %s: %d deliveries%n", nodes.get(node), deliveredPerNode.get(node));
+        }
+        if (measured > 0) {
+            System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[measured - 1] / 1e6);
+        }
+
+        boolean ok = delivered.get() == expected;
+        ok &= checkRelayMetrics(nodes, token, objectMapper);
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Every node receives what all the others published, once nothing is pending and nothing was dropped
+     */
+    private static boolean checkRelayMetrics(List<String> nodes, String token, ObjectMapper objectMapper) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        double published = 0;
+        double received = 0;
+        boolean ok = true;
+        for (String node : nodes) {
+            double nodePublished = metric(http, objectMapper, node, token, "websocket.relay.messages", "outcome:published");
+            double nodeReceived = metric(http, objectMapper, node, token, "websocket.relay.messages", "outcome:received");
+            double nodeDropped = metric(http, objectMapper, node, token, "websocket.relay.messages", "outcome:dropped");
+            double nodePending = metric(http, objectMapper, node, token, "websocket.relay.pending", null);
+            System.out.printf("  %s relay: published %.0f, received %.0f, dropped %.0f, pending %.0f%n",
+                    node, nodePublished, nodeReceived, nodeDropped, nodePending);
+            published += nodePublished;
+            received += nodeReceived;
+            ok &= nodeDropped == 0 && nodePending == 0;
+        }
+        double expectedReceived = published * (nodes.size() - 1);
+        if (received != expectedReceived) {
+            System.out.printf("relay received %.0f messages in total, expected %.0f%n", received, expectedReceived);
+            ok = false;
+        }
+        return ok;
+    }
+
+    private static double metric(HttpClient http, ObjectMapper objectMapper, String node, String token,
+                                 String name, String tag) throws Exception {
+        String url = node + "/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : "");
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            // Counters are registered on first use
+            return 0;
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " returned " + response.statusCode());
+        }
+        JsonNode measurements = objectMapper.readTree(response.body()).path("measurements");
+        return measurements.isEmpty() ? 0 : measurements.get(0).path("value").asDouble();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
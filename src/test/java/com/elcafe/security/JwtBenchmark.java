@@ -0,0 +1,114 @@
+package com.elcafe.security;
+
+import com.elcafe.modules.auth.enums.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of token verification: {@link JwtUtil#verify} with the verified-token cache
+ * missed every time (cold) and hit every time (cached), and a whole pass of
+ * {@link JwtAuthenticationFilter} for a staff and a consumer token. Runs without Spring, database
+ * or Redis; principals are served as from the in-process principal cache, and no token is revoked.
+ * Part of the test sources, so it is not packaged with the application:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    private static final long ACCESS_TOKEN_EXPIRATION = 3_600_000L;
+    private static final long REFRESH_TOKEN_EXPIRATION = 86_400_000L;
+
+    private JwtUtil coldJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    private String staffToken;
+    private String consumerToken;
+
+    @Setup
+    public void setUp() {
+        // Entries expire as they are stored, so every call parses and checks the signature
+        coldJwtUtil = new JwtUtil(SECRET, ACCESS_TOKEN_EXPIRATION, REFRESH_TOKEN_EXPIRATION, 1, 0L, new SimpleMeterRegistry());
+        cachedJwtUtil = new JwtUtil(SECRET, ACCESS_TOKEN_EXPIRATION, REFRESH_TOKEN_EXPIRATION, 10_000, 300L, new SimpleMeterRegistry());
+
+        UserDetails staff = new UserPrincipal(1L, "admin@elcafe.uz", null, UserRole.ADMIN, true);
+        CustomerPrincipal customer = CustomerPrincipal.create("+998901234567", 2L);
+        staffToken = cachedJwtUtil.generateAccessToken(staff);
+        consumerToken = cachedJwtUtil.generateConsumerAccessToken("+998901234567", 2L,
+                UUID.randomUUID().toString(), UUID.randomUUID().toString(), ACCESS_TOKEN_EXPIRATION);
+
+        PrincipalCache principalCache = new PrincipalCache(null, null, null) {
+            @Override
+            public UserDetails getUser(String username) {
+                return staff;
+            }
+
+            @Override
+            public CustomerPrincipal getCustomer(String phone, Long customerId) {
+                return customer;
+            }
+        };
+        TokenRevocationService tokenRevocationService =
+                new TokenRevocationService(null, null, 100_000, 0.01, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(cachedJwtUtil, principalCache, tokenRevocationService);
+    }
+
+    @Benchmark
+    public JwtClaims verifyCold() {
+        return coldJwtUtil.verify(staffToken);
+    }
+
+    @Benchmark
+    public JwtClaims verifyCached() {
+        return cachedJwtUtil.verify(staffToken);
+    }
+
+    @Benchmark
+    public Authentication filterStaff() throws Exception {
+        return authenticate(staffToken);
+    }
+
+    @Benchmark
+    public Authentication filterConsumer() throws Exception {
+        return authenticate(consumerToken);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}